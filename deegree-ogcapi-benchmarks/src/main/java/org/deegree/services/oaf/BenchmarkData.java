@@ -0,0 +1,144 @@
+/*-
+ * #%L
+ * deegree-ogcapi-benchmarks - OGC API Features (OAF) implementation - JMH benchmarks of encoders and query building
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf;
+
+import static org.deegree.gml.GMLVersion.GML_32;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+
+import org.deegree.feature.Feature;
+import org.deegree.feature.FeatureCollection;
+import org.deegree.feature.GenericFeatureCollection;
+import org.deegree.feature.stream.FeatureInputStream;
+import org.deegree.feature.stream.MemoryFeatureInputStream;
+import org.deegree.feature.types.AppSchema;
+import org.deegree.gml.GMLInputFactory;
+import org.deegree.gml.GMLStreamReader;
+import org.deegree.gml.schema.GMLAppSchemaReader;
+
+/**
+ * Provides the test data of deegree-ogcapi-features
+ * (<code>strassenbaumkataster.gml</code> and <code>kita.gml</code>) as synthetic datasets
+ * of arbitrary size.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+public final class BenchmarkData {
+
+	private static final String DATA_PATH = "io/";
+
+	private static final String SCHEMA_PATH = "io/schema/";
+
+	private BenchmarkData() {
+	}
+
+	/**
+	 * Reads the features of a dataset from the test data and copies them until the
+	 * requested number of features is reached. The copies get unique ids, the properties
+	 * are shared with the original features.
+	 * @param dataset name of the dataset, one of <code>strassenbaumkataster</code> or
+	 * <code>kita</code>, never <code>null</code>
+	 * @param numberOfFeatures the number of features of the synthetic dataset
+	 * @return the features, never <code>null</code>
+	 * @throws Exception if the test data could not be read
+	 */
+	public static List<Feature> createFeatures(String dataset, int numberOfFeatures) throws Exception {
+		List<Feature> features = readFeatures(dataset);
+		List<Feature> syntheticFeatures = new ArrayList<>(numberOfFeatures);
+		for (int index = 0; index < numberOfFeatures; index++) {
+			Feature feature = features.get(index % features.size());
+			syntheticFeatures.add(feature.getType()
+				.newFeature(dataset.toUpperCase() + "_" + index, feature.getProperties(),
+						feature.getExtraProperties()));
+		}
+		return syntheticFeatures;
+	}
+
+	/**
+	 * @param features the features to stream, never <code>null</code>
+	 * @return a new {@link FeatureInputStream} of the passed features, never
+	 * <code>null</code>
+	 */
+	public static FeatureInputStream asFeatureInputStream(List<Feature> features) {
+		return new MemoryFeatureInputStream(new GenericFeatureCollection(null, features));
+	}
+
+	/**
+	 * @param features the features to retrieve the namespaces from, never
+	 * <code>null</code>
+	 * @return the namespace bindings (prefix to namespace URI) of the feature types,
+	 * never <code>null</code>
+	 */
+	public static Map<String, String> featureTypeNsPrefixes(List<Feature> features) {
+		Map<String, String> featureTypeNsPrefixes = new HashMap<>();
+		for (Feature feature : features) {
+			QName name = feature.getName();
+			featureTypeNsPrefixes.put(name.getPrefix(), name.getNamespaceURI());
+		}
+		return featureTypeNsPrefixes;
+	}
+
+	/**
+	 * @param dataset name of the dataset, one of <code>strassenbaumkataster</code> or
+	 * <code>kita</code>, never <code>null</code>
+	 * @return the URL of the GML 3.2 feature collection of the dataset, never
+	 * <code>null</code>
+	 */
+	public static URL getData(String dataset) {
+		return resource(DATA_PATH + dataset + ".gml");
+	}
+
+	/**
+	 * @param dataset name of the dataset, one of <code>strassenbaumkataster</code> or
+	 * <code>kita</code>, never <code>null</code>
+	 * @return the URL of the GML application schema of the dataset, never
+	 * <code>null</code>
+	 */
+	public static URL getSchema(String dataset) {
+		return resource(SCHEMA_PATH + dataset + ".xsd");
+	}
+
+	private static List<Feature> readFeatures(String dataset) throws Exception {
+		AppSchema appSchema = new GMLAppSchemaReader(GML_32, null, getSchema(dataset).toString()).extractAppSchema();
+		GMLStreamReader gmlReader = GMLInputFactory.createGMLStreamReader(GML_32, getData(dataset));
+		gmlReader.setApplicationSchema(appSchema);
+		FeatureCollection featureCollection = gmlReader.readFeatureCollection();
+		List<Feature> features = new ArrayList<>(featureCollection);
+		if (features.isEmpty())
+			throw new IllegalArgumentException("Dataset " + dataset + " does not contain features");
+		return features;
+	}
+
+	private static URL resource(String path) {
+		URL resource = BenchmarkData.class.getResource(path);
+		if (resource == null)
+			throw new IllegalArgumentException("Could not find test data " + path);
+		return resource;
+	}
+
+}
@@ -0,0 +1,163 @@
+/*-
+ * #%L
+ * deegree-ogcapi-benchmarks - OGC API Features (OAF) implementation - JMH benchmarks of encoders and query building
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.PathSegment;
+import jakarta.ws.rs.core.UriBuilder;
+import jakarta.ws.rs.core.UriInfo;
+
+/**
+ * Minimal {@link UriInfo} of a request with fixed path and query parameters. Allows to
+ * benchmark components requiring the {@link UriInfo} without a running JAX-RS container.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+public class BenchmarkUriInfo implements UriInfo {
+
+	private final URI baseUri;
+
+	private final String path;
+
+	private final MultivaluedMap<String, String> pathParameters = new MultivaluedHashMap<>();
+
+	private final MultivaluedMap<String, String> queryParameters = new MultivaluedHashMap<>();
+
+	/**
+	 * @param baseUri the base URI of the application, never <code>null</code>
+	 * @param path the path of the request relative to the base URI, never
+	 * <code>null</code>
+	 * @param pathParameters the path parameters, never <code>null</code>
+	 * @param queryParameters the query parameters, never <code>null</code>
+	 */
+	public BenchmarkUriInfo(String baseUri, String path, Map<String, String> pathParameters,
+			Map<String, String> queryParameters) {
+		this.baseUri = URI.create(baseUri);
+		this.path = path;
+		pathParameters.forEach(this.pathParameters::add);
+		queryParameters.forEach(this.queryParameters::add);
+	}
+
+	@Override
+	public String getPath() {
+		return path;
+	}
+
+	@Override
+	public String getPath(boolean decode) {
+		return path;
+	}
+
+	@Override
+	public List<PathSegment> getPathSegments() {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public List<PathSegment> getPathSegments(boolean decode) {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public URI getRequestUri() {
+		return getRequestUriBuilder().build();
+	}
+
+	@Override
+	public UriBuilder getRequestUriBuilder() {
+		UriBuilder requestUriBuilder = getAbsolutePathBuilder();
+		queryParameters.forEach((name, values) -> requestUriBuilder.queryParam(name, values.toArray()));
+		return requestUriBuilder;
+	}
+
+	@Override
+	public URI getAbsolutePath() {
+		return getAbsolutePathBuilder().build();
+	}
+
+	@Override
+	public UriBuilder getAbsolutePathBuilder() {
+		return getBaseUriBuilder().path(path);
+	}
+
+	@Override
+	public URI getBaseUri() {
+		return baseUri;
+	}
+
+	@Override
+	public UriBuilder getBaseUriBuilder() {
+		return UriBuilder.fromUri(baseUri);
+	}
+
+	@Override
+	public MultivaluedMap<String, String> getPathParameters() {
+		return pathParameters;
+	}
+
+	@Override
+	public MultivaluedMap<String, String> getPathParameters(boolean decode) {
+		return pathParameters;
+	}
+
+	@Override
+	public MultivaluedMap<String, String> getQueryParameters() {
+		return queryParameters;
+	}
+
+	@Override
+	public MultivaluedMap<String, String> getQueryParameters(boolean decode) {
+		return queryParameters;
+	}
+
+	@Override
+	public List<String> getMatchedURIs() {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public List<String> getMatchedURIs(boolean decode) {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public List<Object> getMatchedResources() {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public URI resolve(URI uri) {
+		return baseUri.resolve(uri);
+	}
+
+	@Override
+	public URI relativize(URI uri) {
+		return getRequestUri().relativize(uri);
+	}
+
+}
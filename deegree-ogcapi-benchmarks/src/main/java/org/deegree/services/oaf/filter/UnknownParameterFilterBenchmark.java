@@ -0,0 +1,166 @@
+/*-
+ * #%L
+ * deegree-ogcapi-benchmarks - OGC API Features (OAF) implementation - JMH benchmarks of encoders and query building
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.filter;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.namespace.QName;
+
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriBuilder;
+
+import org.deegree.cql2.FilterProperty;
+import org.deegree.cql2.FilterPropertyType;
+import org.deegree.services.oaf.BenchmarkUriInfo;
+import org.deegree.services.oaf.resource.Features;
+import org.deegree.services.oaf.workspace.DeegreeWorkspaceInitializer;
+import org.deegree.services.oaf.workspace.configuration.FeatureTypeMetadata;
+import org.deegree.services.oaf.workspace.configuration.OafDatasetConfiguration;
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link UnknownParameterFilter} for a request against the items of a
+ * collection with an increasing number of queryables. The request passes all queryables
+ * as query parameters. The query parameters are parsed by the first invocation only, as
+ * Jersey parses them once per request.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UnknownParameterFilterBenchmark {
+
+	private static final String NAMESPACE_URI = "http://www.deegree.org/app";
+
+	private static final String DATASET_ID = "benchmark";
+
+	private static final String COLLECTION_ID = "benchmark";
+
+	private static final String BASE_URI = "http://localhost/";
+
+	private static final String PATH = "datasets/" + DATASET_ID + "/collections/" + COLLECTION_ID + "/items";
+
+	@Param({ "10", "100", "1000" })
+	private int numberOfQueryables;
+
+	private final UnknownParameterFilter filter = new UnknownParameterFilter();
+
+	private ContainerRequest knownParametersRequest;
+
+	private ContainerRequest unknownParameterRequest;
+
+	@Setup
+	public void createFilter() throws Exception {
+		List<FilterProperty> filterProperties = new ArrayList<>();
+		UriBuilder requestUriBuilder = UriBuilder.fromUri(BASE_URI)
+			.path(PATH)
+			.queryParam("limit", 10)
+			.queryParam("bbox", "9,53,10,54");
+		for (int index = 0; index < numberOfQueryables; index++) {
+			String name = "property" + index;
+			filterProperties.add(new FilterProperty(new QName(NAMESPACE_URI, name), FilterPropertyType.STRING));
+			requestUriBuilder.queryParam(name, "value" + index);
+		}
+		knownParametersRequest = createRequest(requestUriBuilder.build());
+		unknownParameterRequest = createRequest(requestUriBuilder.queryParam("unknown", "value").build());
+
+		FeatureTypeMetadata featureTypeMetadata = new FeatureTypeMetadata(new QName(NAMESPACE_URI, COLLECTION_ID))
+			.filterProperties(filterProperties);
+		OafDatasetConfiguration oafConfiguration = new OafDatasetConfiguration(DATASET_ID,
+				Map.of(COLLECTION_ID, featureTypeMetadata), null, Collections.emptyList(), false, 1000);
+		DeegreeWorkspaceInitializer deegreeWorkspaceInitializer = new DeegreeWorkspaceInitializer();
+		deegreeWorkspaceInitializer.getOafDatasets().addDataset(DATASET_ID, oafConfiguration);
+
+		inject("resourceInfo", new FeaturesResourceInfo());
+		inject("uriInfo", new BenchmarkUriInfo(BASE_URI, PATH,
+				Map.of("datasetId", DATASET_ID, "collectionId", COLLECTION_ID), Collections.emptyMap()));
+		inject("deegreeWorkspaceInitializer", deegreeWorkspaceInitializer);
+		inject("request", unknownParameterRequest);
+	}
+
+	@Benchmark
+	public Response knownParameters() throws Exception {
+		filter.filter(knownParametersRequest);
+		return knownParametersRequest.getAbortResponse();
+	}
+
+	@Benchmark
+	public Response unknownParameter() throws Exception {
+		filter.filter(unknownParameterRequest);
+		return unknownParameterRequest.getAbortResponse();
+	}
+
+	private ContainerRequest createRequest(URI requestUri) {
+		return new ContainerRequest(URI.create(BASE_URI), requestUri, "GET", null, new MapPropertiesDelegate(), null);
+	}
+
+	private void inject(String fieldName, Object value) throws Exception {
+		Field field = UnknownParameterFilter.class.getDeclaredField(fieldName);
+		field.setAccessible(true);
+		field.set(filter, value);
+	}
+
+	private static final class FeaturesResourceInfo implements ResourceInfo {
+
+		private final Method resourceMethod = Arrays.stream(Features.class.getMethods())
+			.filter(method -> "featuresGeoJson".equals(method.getName()))
+			.findFirst()
+			.orElseThrow();
+
+		@Override
+		public Method getResourceMethod() {
+			return resourceMethod;
+		}
+
+		@Override
+		public Class<?> getResourceClass() {
+			return Features.class;
+		}
+
+	}
+
+}
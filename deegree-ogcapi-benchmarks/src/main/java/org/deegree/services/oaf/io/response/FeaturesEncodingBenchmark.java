@@ -0,0 +1,161 @@
+/*-
+ * #%L
+ * deegree-ogcapi-benchmarks - OGC API Features (OAF) implementation - JMH benchmarks of encoders and query building
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.io.response;
+
+import static org.deegree.services.oaf.OgcApiFeaturesConstants.DEFAULT_CRS;
+
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.deegree.feature.Feature;
+import org.deegree.services.oaf.BenchmarkData;
+import org.deegree.services.oaf.io.response.geojson.FeaturesResponseGeoJsonWriter;
+import org.deegree.services.oaf.io.response.gml.FeaturesResponseGmlWriter;
+import org.deegree.services.oaf.link.Link;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the encoding of features as GeoJSON ({@link FeaturesResponseGeoJsonWriter})
+ * and GML ({@link FeaturesResponseGmlWriter}). The encoded features per second are
+ * reported as secondary result <code>features</code>, the allocations per operation are
+ * available with the <code>gc</code> profiler (<code>-prof gc</code>).
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeaturesEncodingBenchmark {
+
+	private static final String NAMESPACE_URI = "http://www.deegree.org/app";
+
+	private static final String SCHEMA_LOCATION = "http://localhost/datasets/benchmark/collections/benchmark/appschema";
+
+	private static final List<Link> LINKS = Collections
+		.singletonList(new Link("http://localhost/datasets/benchmark", "self", "application/json", "title"));
+
+	@Param({ "strassenbaumkataster", "kita" })
+	private String dataset;
+
+	@Param({ "10", "1000", "100000" })
+	private int numberOfFeatures;
+
+	private final FeaturesResponseGeoJsonWriter geoJsonWriter = new FeaturesResponseGeoJsonWriter();
+
+	private final FeaturesResponseGmlWriter gmlWriter = new FeaturesResponseGmlWriter();
+
+	private List<Feature> features;
+
+	private Map<String, String> featureTypeNsPrefixes;
+
+	@Setup
+	public void readFeatures() throws Exception {
+		features = BenchmarkData.createFeatures(dataset, numberOfFeatures);
+		featureTypeNsPrefixes = BenchmarkData.featureTypeNsPrefixes(features);
+	}
+
+	@Benchmark
+	public void geoJson(EncodedFeatures encodedFeatures) {
+		CountingOutputStream out = new CountingOutputStream();
+		geoJsonWriter.writeTo(createFeaturesResponse(), null, null, null, null, null, out);
+		encodedFeatures.record(numberOfFeatures, out.count);
+	}
+
+	@Benchmark
+	public void gml(EncodedFeatures encodedFeatures) {
+		CountingOutputStream out = new CountingOutputStream();
+		gmlWriter.writeTo(createFeaturesResponse(), null, null, null, null, null, out);
+		encodedFeatures.record(numberOfFeatures, out.count);
+	}
+
+	private FeaturesResponse createFeaturesResponse() {
+		return new FeaturesResponseBuilder(BenchmarkData.asFeatureInputStream(features))
+			.withFeatureTypeNsPrefixes(featureTypeNsPrefixes)
+			.withNumberOfFeatures(numberOfFeatures)
+			.withNumberOfFeaturesMatched(numberOfFeatures)
+			.withStartIndex(0)
+			.withLinks(LINKS)
+			.withMaxFeaturesAndStartIndexApplicable(false)
+			.withResponseCrsName(DEFAULT_CRS)
+			.withSchemaLocation(NAMESPACE_URI, SCHEMA_LOCATION)
+			.buildFeaturesResponse();
+	}
+
+	/**
+	 * Counts the encoded features and bytes, reported by JMH as rate per second.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class EncodedFeatures {
+
+		public long features;
+
+		public long bytes;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			features = 0;
+			bytes = 0;
+		}
+
+		void record(int numberOfFeatures, long numberOfBytes) {
+			features += numberOfFeatures;
+			bytes += numberOfBytes;
+		}
+
+	}
+
+	private static final class CountingOutputStream extends OutputStream {
+
+		private long count;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+
+	}
+
+}
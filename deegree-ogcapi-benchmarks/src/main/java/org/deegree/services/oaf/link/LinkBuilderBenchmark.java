@@ -0,0 +1,103 @@
+/*-
+ * #%L
+ * deegree-ogcapi-benchmarks - OGC API Features (OAF) implementation - JMH benchmarks of encoders and query building
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.link;
+
+import static org.deegree.services.oaf.OgcApiFeaturesMediaType.APPLICATION_GEOJSON;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.deegree.services.oaf.BenchmarkUriInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the creation of the links of the collections and of the features of a dataset
+ * with an increasing number of collections.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinkBuilderBenchmark {
+
+	private static final String DATASET_ID = "benchmark";
+
+	private static final String BASE_URI = "http://localhost/";
+
+	@Param({ "1", "10", "100" })
+	private int numberOfCollections;
+
+	private final List<String> collectionIds = new ArrayList<>();
+
+	private LinkBuilder collectionsLinkBuilder;
+
+	private LinkBuilder featuresLinkBuilder;
+
+	@Setup
+	public void createLinkBuilders() {
+		for (int index = 0; index < numberOfCollections; index++) {
+			collectionIds.add("collection" + index);
+		}
+		collectionsLinkBuilder = new LinkBuilder(new BenchmarkUriInfo(BASE_URI,
+				"datasets/" + DATASET_ID + "/collections", Map.of("datasetId", DATASET_ID), Collections.emptyMap()));
+		featuresLinkBuilder = new LinkBuilder(
+				new BenchmarkUriInfo(BASE_URI, "datasets/" + DATASET_ID + "/collections/collection0/items",
+						Map.of("datasetId", DATASET_ID, "collectionId", "collection0"),
+						Map.of("limit", "10", "offset", "20", "bbox", "9,53,10,54")),
+				APPLICATION_GEOJSON);
+	}
+
+	@Benchmark
+	public void collectionLinks(Blackhole blackhole) {
+		for (String collectionId : collectionIds) {
+			blackhole.consume(
+					collectionsLinkBuilder.createCollectionLinks(DATASET_ID, collectionId, Collections.emptyList()));
+		}
+	}
+
+	@Benchmark
+	public void featuresLinks(Blackhole blackhole) {
+		NextLink nextLink = new NextLink(1000, 10, 20);
+		for (String collectionId : collectionIds) {
+			blackhole.consume(featuresLinkBuilder.createFeaturesLinks(DATASET_ID, collectionId, nextLink));
+		}
+	}
+
+}
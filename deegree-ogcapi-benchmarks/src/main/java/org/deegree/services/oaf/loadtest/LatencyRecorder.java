@@ -0,0 +1,138 @@
+/*-
+ * #%L
+ * deegree-ogcapi-benchmarks - OGC API Features (OAF) implementation - JMH benchmarks of encoders and query building
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.loadtest;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the latencies of the requests of a single client. Not thread safe, the
+ * recorders of the clients are merged with {@link #addAll(LatencyRecorder)} after a step
+ * is finished.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class LatencyRecorder {
+
+	private final Map<RequestType, Latencies> latencies = new EnumMap<>(RequestType.class);
+
+	/**
+	 * @param requestType the type of the request, never <code>null</code>
+	 * @param latencyNanos the latency in nanoseconds
+	 * @param success <code>true</code> if the request was answered with a 2xx status code
+	 */
+	void record(RequestType requestType, long latencyNanos, boolean success) {
+		Latencies latenciesOfType = latencies.computeIfAbsent(requestType, type -> new Latencies());
+		latenciesOfType.add(latencyNanos);
+		if (!success)
+			latenciesOfType.errors++;
+	}
+
+	/**
+	 * @param requestType the type of the request, never <code>null</code>
+	 */
+	void recordError(RequestType requestType) {
+		latencies.computeIfAbsent(requestType, type -> new Latencies()).errors++;
+	}
+
+	/**
+	 * @param other the recorder to add the latencies of, never <code>null</code>
+	 */
+	void addAll(LatencyRecorder other) {
+		other.latencies.forEach((requestType, otherLatencies) -> {
+			Latencies latenciesOfType = latencies.computeIfAbsent(requestType, type -> new Latencies());
+			latenciesOfType.addAll(otherLatencies);
+		});
+	}
+
+	/**
+	 * @param elapsedNanos the duration the latencies were recorded in
+	 * @return the summary of all requests, never <code>null</code>
+	 */
+	LatencySummary summarize(long elapsedNanos) {
+		Latencies all = new Latencies();
+		latencies.values().forEach(all::addAll);
+		return all.summarize(elapsedNanos);
+	}
+
+	/**
+	 * @param elapsedNanos the duration the latencies were recorded in
+	 * @return the summary of each request type sent at least once, never
+	 * <code>null</code>
+	 */
+	Map<RequestType, LatencySummary> summarizeRequestTypes(long elapsedNanos) {
+		Map<RequestType, LatencySummary> summaries = new EnumMap<>(RequestType.class);
+		latencies.forEach(
+				(requestType, latenciesOfType) -> summaries.put(requestType, latenciesOfType.summarize(elapsedNanos)));
+		return summaries;
+	}
+
+	private static final class Latencies {
+
+		private long[] values = new long[1024];
+
+		private int size;
+
+		private long errors;
+
+		private void add(long value) {
+			if (size == values.length)
+				values = Arrays.copyOf(values, size * 2);
+			values[size++] = value;
+		}
+
+		private void addAll(Latencies other) {
+			if (size + other.size > values.length)
+				values = Arrays.copyOf(values, Math.max(size + other.size, size * 2));
+			System.arraycopy(other.values, 0, values, size, other.size);
+			size += other.size;
+			errors += other.errors;
+		}
+
+		private LatencySummary summarize(long elapsedNanos) {
+			long[] sorted = Arrays.copyOf(values, size);
+			Arrays.sort(sorted);
+			double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+			double throughput = seconds > 0 ? size / seconds : 0;
+			return new LatencySummary(size, errors, throughput, percentile(sorted, 50), percentile(sorted, 99),
+					size > 0 ? toMillis(sorted[size - 1]) : 0);
+		}
+
+		/**
+		 * Nearest-rank percentile.
+		 */
+		private static double percentile(long[] sorted, int percentile) {
+			if (sorted.length == 0)
+				return 0;
+			int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+			return toMillis(sorted[Math.max(rank, 1) - 1]);
+		}
+
+		private static double toMillis(long nanos) {
+			return nanos / 1_000_000.0;
+		}
+
+	}
+
+}
@@ -0,0 +1,38 @@
+/*-
+ * #%L
+ * deegree-ogcapi-benchmarks - OGC API Features (OAF) implementation - JMH benchmarks of encoders and query building
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.loadtest;
+
+/**
+ * Latencies and throughput of a set of requests.
+ *
+ * @param requests number of answered requests
+ * @param errors number of requests answered with a status code other than 2xx or failed
+ * with an I/O error
+ * @param throughput answered requests per second
+ * @param p50 median latency in milliseconds
+ * @param p99 99th percentile of the latency in milliseconds
+ * @param max maximum latency in milliseconds
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+record LatencySummary(long requests, long errors, double throughput, double p50, double p99, double max) {
+
+}
@@ -0,0 +1,206 @@
+/*-
+ * #%L
+ * deegree-ogcapi-benchmarks - OGC API Features (OAF) implementation - JMH benchmarks of encoders and query building
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.loadtest;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+
+/**
+ * End-to-end load test of the whole stack (Jersey, filters, data access and writers).
+ * Starts {@link org.deegree.services.oaf.OgcApiFeatures} in an embedded Jetty with a
+ * generated memory feature store, sends a weighted mix of requests with an increasing
+ * number of concurrent clients and writes the latencies (p50, p99) and the throughput of
+ * each step to a JSON file. No external service is required.
+ * <p>
+ * Usage: <code>java -cp benchmarks.jar org.deegree.services.oaf.loadtest.LoadTest
+ * features=10000 concurrency=1,4,16 output=loadtest.json</code>, see
+ * {@link LoadTestOptions#USAGE} for all options.
+ * </p>
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+public class LoadTest {
+
+	private static final Logger LOG = getLogger(LoadTest.class);
+
+	private final LoadTestOptions options;
+
+	private final LoadTestWorkspace workspace;
+
+	private final URI baseUri;
+
+	private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+	private final RequestType[] weightedRequestTypes;
+
+	LoadTest(LoadTestOptions options, LoadTestWorkspace workspace, URI baseUri) {
+		this.options = options;
+		this.workspace = workspace;
+		this.baseUri = baseUri;
+		List<RequestType> requestTypes = new ArrayList<>();
+		options.mix().forEach((requestType, weight) -> {
+			for (int i = 0; i < weight; i++)
+				requestTypes.add(requestType);
+		});
+		this.weightedRequestTypes = requestTypes.toArray(new RequestType[0]);
+	}
+
+	public static void main(String[] args) throws Exception {
+		LoadTestOptions options;
+		try {
+			options = LoadTestOptions.parse(args);
+		}
+		catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println(LoadTestOptions.USAGE);
+			System.exit(1);
+			return;
+		}
+		Path root = Files.createTempDirectory("deegree-ogcapi-loadtest");
+		try {
+			LOG.info("Generating workspace with {} features in {}", options.numberOfFeatures(), root);
+			LoadTestWorkspace workspace = LoadTestWorkspace.create(root, LoadTestServer.CONTEXT_PATH,
+					options.numberOfFeatures());
+			System.setProperty("DEEGREE_WORKSPACE_ROOT", root.toString());
+			try (LoadTestServer server = LoadTestServer.start(options.port())) {
+				LoadTestReport report = new LoadTest(options, workspace, server.getBaseUri()).run();
+				report.write(options.output());
+				LOG.info("Report written to {}", options.output().toAbsolutePath());
+			}
+		}
+		finally {
+			FileUtils.deleteQuietly(root.toFile());
+		}
+		System.exit(0);
+	}
+
+	/**
+	 * Runs the warmup and all concurrency steps.
+	 * @return the report, never <code>null</code>
+	 * @throws Exception if the load test could not be executed
+	 */
+	LoadTestReport run() throws Exception {
+		String timestamp = Instant.now().toString();
+		checkAvailability();
+		int maxConcurrency = options.concurrencySteps().stream().max(Integer::compare).orElse(1);
+		if (options.warmupSeconds() > 0) {
+			LOG.info("Warmup with {} clients for {}s", maxConcurrency, options.warmupSeconds());
+			runStep(maxConcurrency, options.warmupSeconds());
+		}
+		List<LoadTestReport.Step> steps = new ArrayList<>();
+		for (int concurrency : options.concurrencySteps()) {
+			LOG.info("Running {} clients for {}s", concurrency, options.durationSeconds());
+			long start = System.nanoTime();
+			LatencyRecorder recorder = runStep(concurrency, options.durationSeconds());
+			long elapsedNanos = System.nanoTime() - start;
+			LatencySummary total = recorder.summarize(elapsedNanos);
+			LOG.info("{} clients: {} requests/s, p50 {} ms, p99 {} ms, {} errors", concurrency,
+					String.format("%.1f", total.throughput()), String.format("%.2f", total.p50()),
+					String.format("%.2f", total.p99()), total.errors());
+			Map<String, LatencySummary> requestTypes = new LinkedHashMap<>();
+			recorder.summarizeRequestTypes(elapsedNanos)
+				.forEach((requestType, summary) -> requestTypes.put(requestType.getName(), summary));
+			steps.add(new LoadTestReport.Step(concurrency, total, requestTypes));
+		}
+		Map<String, Integer> mix = new LinkedHashMap<>();
+		options.mix().forEach((requestType, weight) -> mix.put(requestType.getName(), weight));
+		return new LoadTestReport(timestamp, Runtime.version().toString(), Runtime.getRuntime().availableProcessors(),
+				options.numberOfFeatures(), options.durationSeconds(), mix, steps);
+	}
+
+	private void checkAvailability() throws IOException, InterruptedException {
+		for (RequestType requestType : options.mix().keySet()) {
+			URI uri = baseUri.resolve(requestType.createPath(workspace, new Random()));
+			HttpResponse<Void> response = send(uri);
+			if (response.statusCode() != 200)
+				throw new IllegalStateException(
+						"Request " + uri + " failed with status " + response.statusCode() + ", check the log");
+		}
+	}
+
+	private LatencyRecorder runStep(int concurrency, int durationSeconds) throws Exception {
+		long deadline = System.nanoTime() + SECONDS.toNanos(durationSeconds);
+		ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+		try {
+			List<Future<LatencyRecorder>> clients = new ArrayList<>();
+			for (int i = 0; i < concurrency; i++)
+				clients.add(executor.submit(() -> sendRequests(deadline)));
+			LatencyRecorder recorder = new LatencyRecorder();
+			for (Future<LatencyRecorder> client : clients)
+				recorder.addAll(client.get());
+			return recorder;
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private LatencyRecorder sendRequests(long deadline) {
+		LatencyRecorder recorder = new LatencyRecorder();
+		Random random = ThreadLocalRandom.current();
+		while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+			RequestType requestType = weightedRequestTypes[random.nextInt(weightedRequestTypes.length)];
+			URI uri = baseUri.resolve(requestType.createPath(workspace, random));
+			long start = System.nanoTime();
+			try {
+				HttpResponse<Void> response = send(uri);
+				int status = response.statusCode();
+				recorder.record(requestType, System.nanoTime() - start, status >= 200 && status < 300);
+			}
+			catch (IOException e) {
+				LOG.debug("Request {} failed: {}", uri, e.getMessage());
+				recorder.recordError(requestType);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return recorder;
+	}
+
+	private HttpResponse<Void> send(URI uri) throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+		return httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+	}
+
+}
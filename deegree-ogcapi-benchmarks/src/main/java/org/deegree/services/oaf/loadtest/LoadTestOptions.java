@@ -0,0 +1,121 @@
+/*-
+ * #%L
+ * deegree-ogcapi-benchmarks - OGC API Features (OAF) implementation - JMH benchmarks of encoders and query building
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.loadtest;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Options of the {@link LoadTest}, passed as arguments in the form
+ * <code>name=value</code>.
+ *
+ * @param numberOfFeatures number of features of the generated feature store
+ * @param warmupSeconds duration of the warmup (not recorded) in seconds
+ * @param durationSeconds duration of each concurrency step in seconds
+ * @param concurrencySteps the number of concurrent clients of each step, in the order of
+ * execution
+ * @param mix the weight of each {@link RequestType}
+ * @param output the JSON file to write the report to
+ * @param port the port of the embedded server, 0 selects a free port
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+record LoadTestOptions(int numberOfFeatures, int warmupSeconds, int durationSeconds, List<Integer> concurrencySteps,
+		Map<RequestType, Integer> mix, Path output, int port) {
+
+	static final String USAGE = """
+			Usage: java -cp benchmarks.jar org.deegree.services.oaf.loadtest.LoadTest [name=value]...
+			  features=10000                             number of features of the generated feature store
+			  warmup=10                                  duration of the warmup in seconds
+			  duration=30                                duration of each concurrency step in seconds
+			  concurrency=1,4,16,64                      concurrent clients of the steps
+			  mix=items=50,item=30,collections=10,api=10 weights of the requests
+			  output=loadtest.json                       file to write the report to
+			  port=0                                     port of the embedded server (0: free port)
+			""";
+
+	/**
+	 * @param args the arguments to parse, never <code>null</code>
+	 * @return the parsed options, unspecified options are set to the default values,
+	 * never <code>null</code>
+	 * @throws IllegalArgumentException if an argument is not valid
+	 */
+	static LoadTestOptions parse(String... args) {
+		Map<String, String> values = new HashMap<>();
+		for (String arg : args) {
+			int separator = arg.indexOf('=');
+			if (separator < 1)
+				throw new IllegalArgumentException("Invalid argument " + arg);
+			values.put(arg.substring(0, separator), arg.substring(separator + 1));
+		}
+		int numberOfFeatures = parsePositive(values, "features", "10000");
+		int warmupSeconds = Integer.parseInt(values.getOrDefault("warmup", "10"));
+		int durationSeconds = parsePositive(values, "duration", "30");
+		List<Integer> concurrencySteps = parseConcurrencySteps(values.getOrDefault("concurrency", "1,4,16,64"));
+		Map<RequestType, Integer> mix = parseMix(values.getOrDefault("mix", "items=50,item=30,collections=10,api=10"));
+		Path output = Path.of(values.getOrDefault("output", "loadtest.json"));
+		int port = Integer.parseInt(values.getOrDefault("port", "0"));
+		values.keySet().removeAll(List.of("features", "warmup", "duration", "concurrency", "mix", "output", "port"));
+		if (!values.isEmpty())
+			throw new IllegalArgumentException("Unknown arguments " + values.keySet());
+		return new LoadTestOptions(numberOfFeatures, warmupSeconds, durationSeconds, concurrencySteps, mix, output,
+				port);
+	}
+
+	private static int parsePositive(Map<String, String> values, String name, String defaultValue) {
+		int value = Integer.parseInt(values.getOrDefault(name, defaultValue));
+		if (value < 1)
+			throw new IllegalArgumentException(name + " must be greater than 0");
+		return value;
+	}
+
+	private static List<Integer> parseConcurrencySteps(String concurrency) {
+		List<Integer> concurrencySteps = new ArrayList<>();
+		for (String step : concurrency.split(",")) {
+			int numberOfClients = Integer.parseInt(step.trim());
+			if (numberOfClients < 1)
+				throw new IllegalArgumentException("concurrency must be greater than 0");
+			concurrencySteps.add(numberOfClients);
+		}
+		return Collections.unmodifiableList(concurrencySteps);
+	}
+
+	private static Map<RequestType, Integer> parseMix(String mix) {
+		Map<RequestType, Integer> weights = new EnumMap<>(RequestType.class);
+		for (String entry : mix.split(",")) {
+			String[] typeAndWeight = entry.split("=");
+			if (typeAndWeight.length != 2)
+				throw new IllegalArgumentException("Invalid mix entry " + entry);
+			int weight = Integer.parseInt(typeAndWeight[1].trim());
+			if (weight > 0)
+				weights.put(RequestType.fromName(typeAndWeight[0].trim()), weight);
+		}
+		if (weights.isEmpty())
+			throw new IllegalArgumentException("mix must contain at least one request type");
+		return Collections.unmodifiableMap(weights);
+	}
+
+}
@@ -0,0 +1,71 @@
+/*-
+ * #%L
+ * deegree-ogcapi-benchmarks - OGC API Features (OAF) implementation - JMH benchmarks of encoders and query building
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Result of a {@link LoadTest}, written as JSON to compare runs between commits.
+ *
+ * @param timestamp the start of the load test (ISO 8601)
+ * @param javaVersion the version of the Java runtime
+ * @param availableProcessors the number of processors available to the Java runtime
+ * @param numberOfFeatures number of features of the generated feature store
+ * @param durationSeconds duration of each concurrency step in seconds
+ * @param mix the weight of each request type
+ * @param steps the results of the concurrency steps
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+record LoadTestReport(String timestamp, String javaVersion, int availableProcessors, int numberOfFeatures,
+		int durationSeconds, Map<String, Integer> mix, List<Step> steps) {
+
+	/**
+	 * Result of a concurrency step.
+	 *
+	 * @param concurrency the number of concurrent clients
+	 * @param total summary of all requests
+	 * @param requestTypes summary of the requests by request type
+	 */
+	record Step(int concurrency, LatencySummary total, Map<String, LatencySummary> requestTypes) {
+
+	}
+
+	/**
+	 * @param output the file to write the report to, never <code>null</code>
+	 * @throws IOException if the report could not be written
+	 */
+	void write(Path output) throws IOException {
+		Path parent = output.toAbsolutePath().getParent();
+		if (parent != null)
+			Files.createDirectories(parent);
+		ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+		mapper.writeValue(output.toFile(), this);
+	}
+
+}
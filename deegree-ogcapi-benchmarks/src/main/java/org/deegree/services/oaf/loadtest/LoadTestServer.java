@@ -0,0 +1,80 @@
+/*-
+ * #%L
+ * deegree-ogcapi-benchmarks - OGC API Features (OAF) implementation - JMH benchmarks of encoders and query building
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.loadtest;
+
+import java.net.URI;
+
+import org.deegree.services.oaf.OgcApiFeatures;
+import org.eclipse.jetty.ee10.servlet.ServletContextHandler;
+import org.eclipse.jetty.ee10.servlet.ServletHolder;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.glassfish.jersey.servlet.ServletContainer;
+import org.glassfish.jersey.servlet.ServletProperties;
+
+/**
+ * Embedded Jetty serving {@link OgcApiFeatures} the same way the webapp does. The
+ * workspace is selected by the system property <code>DEEGREE_WORKSPACE_ROOT</code>, which
+ * must be set before the server is started.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class LoadTestServer implements AutoCloseable {
+
+	static final String CONTEXT_PATH = "deegree-ogcapi";
+
+	private final Server server;
+
+	private LoadTestServer(Server server) {
+		this.server = server;
+	}
+
+	/**
+	 * @param port the port to listen on, 0 selects a free port
+	 * @return the started server, never <code>null</code>
+	 * @throws Exception if the server could not be started
+	 */
+	static LoadTestServer start(int port) throws Exception {
+		Server server = new Server(port);
+		ServletContextHandler context = new ServletContextHandler("/" + CONTEXT_PATH);
+		ServletHolder servletHolder = context.addServlet(ServletContainer.class, "/*");
+		servletHolder.setInitParameter(ServletProperties.JAXRS_APPLICATION_CLASS, OgcApiFeatures.class.getName());
+		servletHolder.setInitOrder(0);
+		server.setHandler(context);
+		server.start();
+		return new LoadTestServer(server);
+	}
+
+	/**
+	 * @return the URI of the context, ending with a slash, never <code>null</code>
+	 */
+	URI getBaseUri() {
+		int port = ((ServerConnector) server.getConnectors()[0]).getLocalPort();
+		return URI.create("http://localhost:" + port + "/" + CONTEXT_PATH + "/");
+	}
+
+	@Override
+	public void close() throws Exception {
+		server.stop();
+	}
+
+}
@@ -0,0 +1,187 @@
+/*-
+ * #%L
+ * deegree-ogcapi-benchmarks - OGC API Features (OAF) implementation - JMH benchmarks of encoders and query building
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.loadtest;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.deegree.services.oaf.BenchmarkData;
+
+/**
+ * Generates a deegree ogcapi workspace with a single dataset served from a memory feature
+ * store. The features are copies of the features of <code>strassenbaumkataster.gml</code>
+ * with unique ids.
+ *
+ * <pre>
+ * root
+ * ├── webapps.properties
+ * └── loadtest
+ *     ├── data
+ *     │   ├── schema
+ *     │   │   └── strassenbaumkataster.xsd
+ *     │   └── strassenbaumkataster.gml
+ *     ├── datasources
+ *     │   └── feature
+ *     │       └── strassenbaumkataster.xml
+ *     └── ogcapi
+ *         └── loadtest.xml
+ * </pre>
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class LoadTestWorkspace {
+
+	static final String WORKSPACE_NAME = "loadtest";
+
+	private static final String DATASET = "strassenbaumkataster";
+
+	private static final Pattern FEATURE_MEMBER = Pattern.compile("<gml:featureMember>.*?</gml:featureMember>",
+			Pattern.DOTALL);
+
+	private static final Pattern GML_ID = Pattern.compile("gml:id=\"([^\"]+)\"");
+
+	private static final String FEATURE_STORE_CONFIG = """
+			<MemoryFeatureStore xmlns="http://www.deegree.org/datasource/feature/memory" configVersion="3.0.0">
+			  <StorageCRS>EPSG:4258</StorageCRS>
+			  <GMLSchema version="GML_32">../../data/schema/%1$s.xsd</GMLSchema>
+			  <GMLFeatureCollection version="GML_32">../../data/%1$s.gml</GMLFeatureCollection>
+			</MemoryFeatureStore>
+			""";
+
+	private static final String DATASET_CONFIG = """
+			<deegreeOAF xmlns="http://www.deegree.org/ogcapi/features">
+			  <FeatureStoreId>%s</FeatureStoreId>
+			  <QueryCRS>http://www.opengis.net/def/crs/OGC/1.3/CRS84</QueryCRS>
+			  <QueryCRS>EPSG:4258</QueryCRS>
+			</deegreeOAF>
+			""";
+
+	private final int numberOfFeatures;
+
+	private final List<String> featureIds;
+
+	private LoadTestWorkspace(int numberOfFeatures, List<String> featureIds) {
+		this.numberOfFeatures = numberOfFeatures;
+		this.featureIds = featureIds;
+	}
+
+	/**
+	 * Creates the workspace.
+	 * @param root the workspace root directory (<code>DEEGREE_WORKSPACE_ROOT</code>),
+	 * never <code>null</code>
+	 * @param contextPath the context path of the webapp (without leading slash), never
+	 * <code>null</code>
+	 * @param numberOfFeatures the number of features to generate
+	 * @return the created workspace, never <code>null</code>
+	 * @throws IOException if the workspace could not be written
+	 */
+	static LoadTestWorkspace create(Path root, String contextPath, int numberOfFeatures) throws IOException {
+		Path workspace = root.resolve(WORKSPACE_NAME);
+		Files.writeString(root.resolve("webapps.properties"), contextPath + "=" + WORKSPACE_NAME + "\n", UTF_8);
+
+		Path data = Files.createDirectories(workspace.resolve("data"));
+		Path schema = Files.createDirectories(data.resolve("schema"));
+		try (InputStream schemaStream = BenchmarkData.getSchema(DATASET).openStream()) {
+			Files.copy(schemaStream, schema.resolve(DATASET + ".xsd"));
+		}
+		List<String> featureIds = writeFeatures(data.resolve(DATASET + ".gml"), numberOfFeatures);
+
+		Path featureStores = Files.createDirectories(workspace.resolve("datasources").resolve("feature"));
+		Files.writeString(featureStores.resolve(DATASET + ".xml"), FEATURE_STORE_CONFIG.formatted(DATASET), UTF_8);
+		Path datasets = Files.createDirectories(workspace.resolve("ogcapi"));
+		Files.writeString(datasets.resolve(WORKSPACE_NAME + ".xml"), DATASET_CONFIG.formatted(DATASET), UTF_8);
+		return new LoadTestWorkspace(numberOfFeatures, featureIds);
+	}
+
+	String getDatasetId() {
+		return WORKSPACE_NAME;
+	}
+
+	String getCollectionId() {
+		return DATASET;
+	}
+
+	int getNumberOfFeatures() {
+		return numberOfFeatures;
+	}
+
+	/**
+	 * @param index the index of the feature, between 0 and {@link #getNumberOfFeatures()}
+	 * (exclusive)
+	 * @return the id of the feature, never <code>null</code>
+	 */
+	String getFeatureId(int index) {
+		return featureIds.get(index % featureIds.size()) + "_" + index;
+	}
+
+	/**
+	 * Copies the feature members of the test data until the number of features is
+	 * reached. All gml:ids of the copies (feature and geometry) get the index of the copy
+	 * as suffix.
+	 */
+	private static List<String> writeFeatures(Path target, int numberOfFeatures) throws IOException {
+		String gml;
+		try (InputStream dataStream = BenchmarkData.getData(DATASET).openStream()) {
+			gml = new String(dataStream.readAllBytes(), UTF_8);
+		}
+		Matcher featureMembers = FEATURE_MEMBER.matcher(gml);
+		List<String> templates = new ArrayList<>();
+		List<String> featureIds = new ArrayList<>();
+		int start = -1;
+		int end = -1;
+		while (featureMembers.find()) {
+			if (start < 0)
+				start = featureMembers.start();
+			end = featureMembers.end();
+			String template = featureMembers.group();
+			Matcher featureId = GML_ID.matcher(template);
+			if (featureId.find()) {
+				templates.add(template);
+				featureIds.add(featureId.group(1));
+			}
+		}
+		if (templates.isEmpty())
+			throw new IOException("Test data " + DATASET + " does not contain feature members");
+
+		try (Writer writer = Files.newBufferedWriter(target, UTF_8)) {
+			writer.write(gml, 0, start);
+			for (int index = 0; index < numberOfFeatures; index++) {
+				String suffix = "_" + index;
+				String template = templates.get(index % templates.size());
+				writer.write(GML_ID.matcher(template).replaceAll("gml:id=\"$1" + suffix + "\""));
+				writer.write('\n');
+			}
+			writer.write(gml, end, gml.length() - end);
+		}
+		return List.copyOf(featureIds);
+	}
+
+}
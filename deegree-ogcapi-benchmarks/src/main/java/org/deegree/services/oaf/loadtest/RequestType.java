@@ -0,0 +1,118 @@
+/*-
+ * #%L
+ * deegree-ogcapi-benchmarks - OGC API Features (OAF) implementation - JMH benchmarks of encoders and query building
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * The requests sent by the {@link LoadTest}.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+enum RequestType {
+
+	/**
+	 * A page of ten features with random offset.
+	 */
+	ITEMS("items") {
+		@Override
+		String createPath(LoadTestWorkspace workspace, Random random) {
+			int maxOffset = Math.max(workspace.getNumberOfFeatures() - PAGE_SIZE, 0);
+			return collectionPath(workspace) + "/items?f=json&limit=" + PAGE_SIZE + "&offset="
+					+ random.nextInt(maxOffset + 1);
+		}
+	},
+
+	/**
+	 * A single feature with random id.
+	 */
+	ITEM("item") {
+		@Override
+		String createPath(LoadTestWorkspace workspace, Random random) {
+			String featureId = workspace.getFeatureId(random.nextInt(workspace.getNumberOfFeatures()));
+			return collectionPath(workspace) + "/items/" + featureId + "?f=json";
+		}
+	},
+
+	/**
+	 * The collections of the dataset.
+	 */
+	COLLECTIONS("collections") {
+		@Override
+		String createPath(LoadTestWorkspace workspace, Random random) {
+			return datasetPath(workspace) + "/collections?f=json";
+		}
+	},
+
+	/**
+	 * The OpenAPI document of the dataset.
+	 */
+	API("api") {
+		@Override
+		String createPath(LoadTestWorkspace workspace, Random random) {
+			return datasetPath(workspace) + "/api?f=json";
+		}
+	};
+
+	private static final int PAGE_SIZE = 10;
+
+	private final String name;
+
+	RequestType(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @return the name used in the options and the report, never <code>null</code>
+	 */
+	String getName() {
+		return name;
+	}
+
+	/**
+	 * @param workspace the workspace requested, never <code>null</code>
+	 * @param random source of the random offsets and ids, never <code>null</code>
+	 * @return the path and query of the request relative to the context path, never
+	 * <code>null</code>
+	 */
+	abstract String createPath(LoadTestWorkspace workspace, Random random);
+
+	static RequestType fromName(String name) {
+		for (RequestType requestType : values()) {
+			if (requestType.name.equals(name))
+				return requestType;
+		}
+		String allowedValues = Arrays.stream(values()).map(RequestType::getName).collect(Collectors.joining(", "));
+		throw new IllegalArgumentException("Unknown request type " + name + ", supported values are: " + allowedValues);
+	}
+
+	private static String datasetPath(LoadTestWorkspace workspace) {
+		return "datasets/" + workspace.getDatasetId();
+	}
+
+	private static String collectionPath(LoadTestWorkspace workspace) {
+		return datasetPath(workspace) + "/collections/" + workspace.getCollectionId();
+	}
+
+}
@@ -0,0 +1,147 @@
+/*-
+ * #%L
+ * deegree-ogcapi-benchmarks - OGC API Features (OAF) implementation - JMH benchmarks of encoders and query building
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.workspace;
+
+import static org.deegree.services.oaf.domain.FilterLang.CQL2_JSON;
+import static org.deegree.services.oaf.domain.FilterLang.CQL2_TEXT;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.namespace.QName;
+
+import org.deegree.cql2.FilterProperty;
+import org.deegree.cql2.FilterPropertyType;
+import org.deegree.feature.persistence.query.Query;
+import org.deegree.services.oaf.io.request.FeaturesRequest;
+import org.deegree.services.oaf.io.request.FeaturesRequestBuilder;
+import org.deegree.services.oaf.workspace.configuration.FeatureTypeMetadata;
+import org.deegree.services.oaf.workspace.configuration.OafDatasetConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the creation of {@link Query}s by the {@link DeegreeQueryBuilder} including
+ * the parsing of CQL2 filters (cql2-text and cql2-json) and the mapping of queryables
+ * passed as query parameters. The filters combine an increasing number of predicates.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryBuildingBenchmark {
+
+	private static final String NAMESPACE_URI = "http://www.deegree.org/app";
+
+	private static final String COLLECTION_ID = "benchmark";
+
+	@Param({ "1", "10", "100" })
+	private int numberOfPredicates;
+
+	private final DeegreeQueryBuilder queryBuilder = new DeegreeQueryBuilder();
+
+	private FeatureTypeMetadata featureTypeMetadata;
+
+	private OafDatasetConfiguration oafConfiguration;
+
+	private String cql2Text;
+
+	private String cql2Json;
+
+	private Map<FilterProperty, List<String>> queryables;
+
+	@Setup
+	public void createFilters() {
+		List<FilterProperty> filterProperties = new ArrayList<>();
+		StringJoiner cql2TextPredicates = new StringJoiner(" AND ");
+		StringJoiner cql2JsonPredicates = new StringJoiner(",");
+		queryables = new LinkedHashMap<>();
+		for (int index = 0; index < numberOfPredicates; index++) {
+			String name = "property" + index;
+			boolean isString = index % 2 == 0;
+			FilterProperty filterProperty = new FilterProperty(new QName(NAMESPACE_URI, name),
+					isString ? FilterPropertyType.STRING : FilterPropertyType.INTEGER);
+			filterProperties.add(filterProperty);
+			if (isString) {
+				cql2TextPredicates.add(name + " = 'value" + index + "'");
+				cql2JsonPredicates
+					.add("{\"op\": \"=\", \"args\": [{\"property\": \"" + name + "\"}, \"value" + index + "\"]}");
+				queryables.put(filterProperty, Collections.singletonList("value" + index));
+			}
+			else {
+				cql2TextPredicates.add(name + " > " + index);
+				cql2JsonPredicates.add("{\"op\": \">\", \"args\": [{\"property\": \"" + name + "\"}, " + index + "]}");
+				queryables.put(filterProperty, Collections.singletonList(">" + index));
+			}
+		}
+		cql2Text = cql2TextPredicates.toString();
+		cql2Json = numberOfPredicates == 1 ? cql2JsonPredicates.toString()
+				: "{\"op\": \"and\", \"args\": [" + cql2JsonPredicates + "]}";
+		featureTypeMetadata = new FeatureTypeMetadata(new QName(NAMESPACE_URI, COLLECTION_ID))
+			.filterProperties(filterProperties);
+		oafConfiguration = new OafDatasetConfiguration(COLLECTION_ID, Map.of(COLLECTION_ID, featureTypeMetadata), null,
+				Collections.emptyList(), false, 1000);
+	}
+
+	@Benchmark
+	public Query cql2Text() throws Exception {
+		FeaturesRequest request = new FeaturesRequestBuilder(COLLECTION_ID, oafConfiguration)
+			.withFilter(cql2Text, CQL2_TEXT, null)
+			.build();
+		return queryBuilder.createQuery(featureTypeMetadata, request);
+	}
+
+	@Benchmark
+	public Query cql2Json() throws Exception {
+		FeaturesRequest request = new FeaturesRequestBuilder(COLLECTION_ID, oafConfiguration)
+			.withFilter(cql2Json, CQL2_JSON, null)
+			.build();
+		return queryBuilder.createQuery(featureTypeMetadata, request);
+	}
+
+	@Benchmark
+	public Query queryables() throws Exception {
+		FeaturesRequest request = new FeaturesRequestBuilder(COLLECTION_ID, oafConfiguration)
+			.withQueryableParameters(queryables)
+			.build();
+		return queryBuilder.createQuery(featureTypeMetadata, request);
+	}
+
+}
@@ -41,11 +41,13 @@ import org.deegree.feature.types.AppSchema;
 import org.deegree.feature.types.FeatureType;
 import org.deegree.feature.types.property.CustomPropertyType;
 import org.deegree.feature.types.property.SimplePropertyType;
+import org.deegree.filter.FilterEvaluationException;
 import org.deegree.geometry.Envelope;
 import org.deegree.geometry.GeometryTransformer;
 import org.deegree.gml.schema.GMLSchemaInfoSet;
 import org.deegree.services.metadata.OWSMetadataProvider;
 import org.deegree.services.metadata.provider.OWSMetadataProviderProvider;
+import org.deegree.services.oaf.cache.EncodedFeatureCache;
 import org.deegree.services.oaf.config.htmlview.HtmlViewConfigResource;
 import org.deegree.services.oaf.config.htmlview.HtmlViewConfiguration;
 import org.deegree.services.oaf.config.htmlview.OgcApiConfigProvider;
@@ -53,12 +55,19 @@ import org.deegree.services.oaf.domain.collections.Extent;
 import org.deegree.services.oaf.domain.collections.Spatial;
 import org.deegree.services.oaf.domain.collections.Temporal;
 import org.deegree.services.oaf.exceptions.InvalidConfigurationException;
+import org.deegree.services.oaf.exceptions.ServiceUnavailable;
 import org.deegree.services.oaf.workspace.configuration.DatasetMetadata;
 import org.deegree.services.oaf.workspace.configuration.FeatureTypeMetadata;
 import org.deegree.services.oaf.workspace.configuration.OafDatasetConfiguration;
+import org.deegree.services.oaf.workspace.configuration.QueryLane;
+import org.deegree.services.oaf.workspace.configuration.QueryLimits;
+import org.deegree.services.oaf.workspace.configuration.QueryScheduler;
+import org.deegree.services.oaf.workspace.memory.MemoryResidentCollection;
+import org.deegree.services.ogcapi.features.DateTimePropertyRole;
 import org.deegree.services.ogcapi.features.DateTimePropertyType;
 import org.deegree.services.ogcapi.features.DeegreeOAF;
 import org.deegree.services.ogcapi.features.DeegreeOAF.ConfigureCollection;
+import org.deegree.services.ogcapi.features.DeegreeOAF.ConfigureCollection.MemoryResident;
 import org.deegree.services.ogcapi.features.DeegreeOAF.ConfigureCollections;
 import org.deegree.services.ogcapi.features.GeometryPropertyType;
 import org.deegree.workspace.Resource;
@@ -68,6 +77,10 @@ import org.deegree.workspace.Workspace;
 import org.slf4j.Logger;
 
 import javax.xml.namespace.QName;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -80,6 +93,9 @@ import java.util.stream.Collectors;
 import static org.deegree.commons.xml.CommonNamespaces.GML3_2_NS;
 import static org.deegree.commons.xml.CommonNamespaces.GMLNS;
 import static org.deegree.services.oaf.OgcApiFeaturesConstants.DEFAULT_CRS;
+import static org.deegree.services.ogcapi.features.DateTimePropertyRole.END;
+import static org.deegree.services.ogcapi.features.DateTimePropertyRole.INSTANT;
+import static org.deegree.services.ogcapi.features.DateTimePropertyRole.START;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -102,6 +118,8 @@ public class OafResource implements Resource {
 
 	private HtmlViewConfiguration htmlViewConfiguration;
 
+	private QueryScheduler queryScheduler = QueryScheduler.NONE;
+
 	private List<ConfigureCollection> additionalCollectionList = new ArrayList<>();
 
 	private List<ConfigureCollections> additionalCollectionsList = new ArrayList<>();
@@ -129,15 +147,19 @@ public class OafResource implements Resource {
 	public void init() {
 		OWSMetadataProvider owsMetadataProvider = getMetadata(workspace);
 		try {
+			this.queryScheduler = QueryScheduler.fromConfig(config.getQueryScheduler());
 			Map<String, FeatureTypeMetadata> featureTypeMetadata = parseFeatureTypeMetadata(owsMetadataProvider);
 			DatasetMetadata datasetMetadata = new DatasetMetadata(owsMetadataProvider, config.getMetadata());
 			List<String> supportedCrs = parseQueryCrs(config);
 			String id = metadata.getIdentifier().getId();
 			boolean useExistingGMLSchema = config.isUseExistingGMLSchema() != null ? config.isUseExistingGMLSchema()
 					: true;
+			boolean rejectInMemoryFilters = config.isRejectInMemoryFilters() != null ? config.isRejectInMemoryFilters()
+					: false;
 			this.oafConfiguration = new OafDatasetConfiguration(id, featureTypeMetadata, datasetMetadata, supportedCrs,
 					useExistingGMLSchema,
-					config.getQueryMaxItems() != null ? config.getQueryMaxItems().intValue() : 1000);
+					config.getQueryMaxItems() != null ? config.getQueryMaxItems().intValue() : 1000,
+					rejectInMemoryFilters, QueryLimits.fromConfig(config.getQueryLimits()), queryScheduler);
 			this.htmlViewConfiguration = getHtmlViewConfig(workspace);
 
 			this.additionalCollectionList = config.getConfigureCollection();
@@ -260,11 +282,11 @@ public class OafResource implements Resource {
 			FeatureStore featureStore, QName name) throws InvalidConfigurationException {
 		if (!name.getNamespaceURI().equals(GMLNS) && !name.getNamespaceURI().equals(GML3_2_NS)) {
 			try {
-				QName dateTimeProperty = getDateTimeProperty(name);
+				List<DateTimePropertyType> dateTimeProperties = getDateTimeProperties(name);
 				Pair<QName, Boolean> geometryProperty = getGeometryProperty(name);
 				org.deegree.commons.ows.metadata.DatasetMetadata datasetMetadata = metadata != null
 						? metadata.getDatasetMetadata(name) : null;
-				FeatureTypeMetadata ftMetadata = createFeatureTypeMetadata(featureStore, name, dateTimeProperty,
+				FeatureTypeMetadata ftMetadata = createFeatureTypeMetadata(featureStore, name, dateTimeProperties,
 						geometryProperty != null ? geometryProperty.getFirst() : null,
 						geometryProperty != null ? geometryProperty.getSecond() : false, datasetMetadata);
 				featureTypeNames.put(name.getLocalPart(), ftMetadata);
@@ -275,12 +297,14 @@ public class OafResource implements Resource {
 		}
 	}
 
-	private FeatureTypeMetadata createFeatureTypeMetadata(FeatureStore featureStore, QName name, QName dateTimeProperty,
-			QName geometryProperty, boolean skipExportAsWkt,
+	private FeatureTypeMetadata createFeatureTypeMetadata(FeatureStore featureStore, QName name,
+			List<DateTimePropertyType> dateTimeProperties, QName geometryProperty, boolean skipExportAsWkt,
 			org.deegree.commons.ows.metadata.DatasetMetadata datasetMetadata) throws FeatureStoreException {
 		FeatureType featureType = featureStore.getSchema().getFeatureType(name);
 		List<FilterProperty> filterProperties = parseFilterProperties(featureType);
-		Extent extent = createExtent(featureStore, name, dateTimeProperty);
+		QName dateTimeProperty = findDateTimeProperty(dateTimeProperties, INSTANT, START);
+		QName dateTimeEndProperty = findDateTimeProperty(dateTimeProperties, END);
+		Extent extent = createExtent(featureStore, name, dateTimeProperty, dateTimeEndProperty);
 		String title = datasetMetadata != null ? asString(datasetMetadata.getTitle(null)) : name.getLocalPart();
 		String description = datasetMetadata != null ? asString(datasetMetadata.getAbstract(null)) : null;
 		List<MetadataUrl> metadataUrls = datasetMetadata != null && !datasetMetadata.getMetadataUrls().isEmpty()
@@ -288,16 +312,79 @@ public class OafResource implements Resource {
 		String[] storageCrsCodes = featureStore.getStorageCrs() != null
 				? featureStore.getStorageCrs().getOrignalCodeStrings() : null;
 		return new FeatureTypeMetadata(name).dateTimeProperty(dateTimeProperty)
+			.dateTimeEndProperty(dateTimeEndProperty)
+			.includeNullDateTime(dateTimeProperties.stream().allMatch(DateTimePropertyType::isIncludeNull))
+			.dateTimeRangePredicate(dateTimeProperties.stream().anyMatch(DateTimePropertyType::isRangePredicate))
 			.geometryProperty(geometryProperty)
 			.skipGeometryExportAsWkt(skipExportAsWkt)
 			.extent(extent)
+			.skipQueriesOutsideExtent(isSkipQueriesOutsideExtent(name.getLocalPart()))
+			.temporalExtentTolerance(getTemporalExtentTolerance(name.getLocalPart()))
 			.title(title)
 			.description(description)
 			.metadataUrls(metadataUrls)
 			.filterProperties(filterProperties)
 			.featureType(featureType)
 			.featureStore(featureStore)
-			.storageCrsCodes(storageCrsCodes != null ? Arrays.asList(storageCrsCodes) : null);
+			.storageCrsCodes(storageCrsCodes != null ? Arrays.asList(storageCrsCodes) : null)
+			.encodedFeatureCache(createEncodedFeatureCache(name.getLocalPart()))
+			.memoryResidentCollection(loadMemoryResidentCollection(featureStore, name, filterProperties));
+	}
+
+	private EncodedFeatureCache createEncodedFeatureCache(String collectionId) {
+		ConfigureCollection configureCollection = findConfigureCollection(collectionId);
+		if (configureCollection == null || configureCollection.getEncodedFeatureCache() == null)
+			return null;
+		long maxBytes = configureCollection.getEncodedFeatureCache().getMaxBytes().longValue();
+		LOG.info("Features of collection {} encoded as GeoJSON are cached up to {} bytes", collectionId, maxBytes);
+		return new EncodedFeatureCache(maxBytes);
+	}
+
+	private boolean isSkipQueriesOutsideExtent(String collectionId) {
+		ConfigureCollection configureCollection = findConfigureCollection(collectionId);
+		return configureCollection != null && configureCollection.getSkipQueriesOutsideExtent() != null;
+	}
+
+	private Duration getTemporalExtentTolerance(String collectionId) {
+		ConfigureCollection configureCollection = findConfigureCollection(collectionId);
+		if (configureCollection == null || configureCollection.getSkipQueriesOutsideExtent() == null
+				|| configureCollection.getSkipQueriesOutsideExtent().getTemporalTolerance() == null)
+			return FeatureTypeMetadata.DEFAULT_TEMPORAL_EXTENT_TOLERANCE;
+		javax.xml.datatype.Duration temporalTolerance = configureCollection.getSkipQueriesOutsideExtent()
+			.getTemporalTolerance();
+		return Duration.ofMillis(temporalTolerance.getTimeInMillis(new Date(0)));
+	}
+
+	private MemoryResidentCollection loadMemoryResidentCollection(FeatureStore featureStore, QName name,
+			List<FilterProperty> filterProperties) {
+		ConfigureCollection configureCollection = findConfigureCollection(name.getLocalPart());
+		if (configureCollection == null || configureCollection.getMemoryResident() == null)
+			return null;
+		MemoryResident memoryResident = configureCollection.getMemoryResident();
+		BigInteger maxFeatures = memoryResident.getMaxFeatures();
+		Path snapshotDirectory = null;
+		if (memoryResident.getOffHeapSnapshot() != null) {
+			String directory = memoryResident.getOffHeapSnapshot().getDirectory();
+			snapshotDirectory = Paths.get(directory != null ? directory : System.getProperty("java.io.tmpdir"));
+		}
+		try {
+			return MemoryResidentCollection.load(featureStore, name, filterProperties,
+					maxFeatures != null ? maxFeatures.intValue() : MemoryResidentCollection.DEFAULT_MAX_FEATURES,
+					snapshotDirectory);
+		}
+		catch (FeatureStoreException | FilterEvaluationException e) {
+			LOG.error("Features of collection {} could not be loaded into memory, features are retrieved from the "
+					+ "feature store", name.getLocalPart(), e);
+			return null;
+		}
+	}
+
+	private ConfigureCollection findConfigureCollection(String collectionId) {
+		for (ConfigureCollection configureCollection : config.getConfigureCollection()) {
+			if (collectionId.equals(configureCollection.getId()))
+				return configureCollection;
+		}
+		return null;
 	}
 
 	private List<FilterProperty> parseFilterProperties(FeatureType featureType) {
@@ -330,20 +417,31 @@ public class OafResource implements Resource {
 		return filterProperties;
 	}
 
-	private QName getDateTimeProperty(QName name) throws InvalidConfigurationException {
+	private List<DateTimePropertyType> getDateTimeProperties(QName name) throws InvalidConfigurationException {
 		DeegreeOAF.DateTimeProperties dateTimeProperties = config.getDateTimeProperties();
 		if (dateTimeProperties == null)
-			return null;
+			return Collections.emptyList();
 		List<DateTimePropertyType> configuredProperties = dateTimeProperties.getDateTimeProperty()
 			.stream()
 			.filter(dtp -> name.equals(dtp.getFeatureTypeName()))
 			.collect(Collectors.toList());
 		if (configuredProperties.isEmpty())
-			return null;
-		if (configuredProperties.size() > 1)
-			throw new InvalidConfigurationException("Multiple datetime properties for feature type " + name
-					+ " found. Currently only one datetime property per feature type is supported");
-		return configuredProperties.get(0).getPropertyName();
+			return configuredProperties;
+		Map<DateTimePropertyRole, Long> roles = configuredProperties.stream()
+			.collect(Collectors.groupingBy(DateTimePropertyType::getRole, Collectors.counting()));
+		if (!roles.equals(Map.of(INSTANT, 1L)) && !roles.equals(Map.of(START, 1L, END, 1L)))
+			throw new InvalidConfigurationException("Invalid datetime properties for feature type " + name
+					+ " found. Either one datetime property with role instant or one with role start and one with role end must be configured");
+		return configuredProperties;
+	}
+
+	private QName findDateTimeProperty(List<DateTimePropertyType> dateTimeProperties, DateTimePropertyRole... roles) {
+		List<DateTimePropertyRole> searchedRoles = Arrays.asList(roles);
+		return dateTimeProperties.stream()
+			.filter(dtp -> searchedRoles.contains(dtp.getRole()))
+			.map(DateTimePropertyType::getPropertyName)
+			.findFirst()
+			.orElse(null);
 	}
 
 	private Pair<QName, Boolean> getGeometryProperty(QName name) throws InvalidConfigurationException {
@@ -363,21 +461,35 @@ public class OafResource implements Resource {
 				configuredProperties.get(0).isSkipExportAsWkt());
 	}
 
-	private Extent createExtent(FeatureStore featureStore, QName featureTypeName, QName dateTimeProperty)
-			throws FeatureStoreException {
-		Extent extent = new Extent();
-		Spatial spatial = createSpatial(featureStore, featureTypeName);
-		extent.setSpatial(spatial);
-		Temporal temporal = createTemporal(featureStore, featureTypeName, dateTimeProperty);
-		extent.setTemporal(temporal);
-		return extent;
+	private Extent createExtent(FeatureStore featureStore, QName featureTypeName, QName dateTimeProperty,
+			QName dateTimeEndProperty) throws FeatureStoreException {
+		try (QueryScheduler.Permit permit = queryScheduler.acquire(metadata.getIdentifier().getId(),
+				featureStore.getMetadata().getIdentifier().getId(), QueryLane.METADATA)) {
+			Extent extent = new Extent();
+			Spatial spatial = createSpatial(featureStore, featureTypeName);
+			extent.setSpatial(spatial);
+			Temporal temporal = createTemporal(featureStore, featureTypeName, dateTimeProperty, dateTimeEndProperty);
+			extent.setTemporal(temporal);
+			return extent;
+		}
+		catch (ServiceUnavailable e) {
+			LOG.warn("Extent of feature type {} is not calculated: {}", featureTypeName, e.getMessage());
+			return null;
+		}
 	}
 
-	private Temporal createTemporal(FeatureStore featureStore, QName featureTypeName, QName dateTimeProperty)
-			throws FeatureStoreException {
+	private Temporal createTemporal(FeatureStore featureStore, QName featureTypeName, QName dateTimeProperty,
+			QName dateTimeEndProperty) throws FeatureStoreException {
 		if (dateTimeProperty == null)
 			return null;
 		Pair<Date, Date> temporalExtent = featureStore.getTemporalExtent(featureTypeName, dateTimeProperty);
+		if (dateTimeEndProperty != null) {
+			Pair<Date, Date> endExtent = featureStore.getTemporalExtent(featureTypeName, dateTimeEndProperty);
+			if (temporalExtent == null)
+				temporalExtent = endExtent;
+			else if (endExtent != null)
+				temporalExtent = new Pair<>(temporalExtent.first, endExtent.second);
+		}
 		List<Date> interval = intervalFromExtent(temporalExtent);
 		return new Temporal(interval, null);
 	}
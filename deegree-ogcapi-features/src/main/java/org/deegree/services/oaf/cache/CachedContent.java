@@ -0,0 +1,130 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.cache;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+
+/**
+ * Rendered content of a response with the entity tag (SHA-256 of the content) and the
+ * time of creation. Compressed variants are created once on first request and kept with
+ * the content.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+public class CachedContent {
+
+	private final byte[] content;
+
+	private final EntityTag entityTag;
+
+	private final Date lastModified;
+
+	private final String contentEncoding;
+
+	private final Map<String, CachedContent> encoded = new ConcurrentHashMap<>();
+
+	/**
+	 * @param content the rendered content, never <code>null</code>
+	 */
+	public CachedContent(byte[] content) {
+		// HTTP dates have a precision of seconds
+		this(content, new Date(System.currentTimeMillis() / 1000 * 1000), null);
+	}
+
+	private CachedContent(byte[] content, Date lastModified, String contentEncoding) {
+		this.content = content;
+		this.entityTag = createEntityTag(ByteBuffer.wrap(content));
+		this.lastModified = lastModified;
+		this.contentEncoding = contentEncoding;
+	}
+
+	/**
+	 * Selects the variant of the content to return to the client.
+	 * @param headers the headers of the request, never <code>null</code>
+	 * @param mediaType the media type of the response, never <code>null</code>
+	 * @param compressionLevels the compression levels to use, never <code>null</code>
+	 * @return the compressed variant if the client accepts a supported content coding and
+	 * compression is enabled for the media type, this content otherwise, never
+	 * <code>null</code>
+	 */
+	public CachedContent select(HttpHeaders headers, MediaType mediaType, CompressionLevels compressionLevels) {
+		String contentCoding = ContentCoding.negotiate(headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING));
+		if (contentCoding == null)
+			return this;
+		int level = compressionLevels.compressionLevel(mediaType);
+		if (level == 0)
+			return this;
+		return encoded.computeIfAbsent(contentCoding,
+				coding -> new CachedContent(ContentCoding.compress(content, coding, level), lastModified, coding));
+	}
+
+	/**
+	 * @return the rendered content, never <code>null</code>
+	 */
+	public byte[] getContent() {
+		return content;
+	}
+
+	/**
+	 * @return the entity tag of the content, never <code>null</code>
+	 */
+	public EntityTag getEntityTag() {
+		return entityTag;
+	}
+
+	/**
+	 * @return the time the content was rendered, never <code>null</code>
+	 */
+	public Date getLastModified() {
+		return lastModified;
+	}
+
+	/**
+	 * @return the content coding of the content, <code>null</code> if the content is not
+	 * compressed
+	 */
+	public String getContentEncoding() {
+		return contentEncoding;
+	}
+
+	static EntityTag createEntityTag(ByteBuffer content) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(content.duplicate());
+			return new EntityTag(HexFormat.of().formatHex(digest.digest()));
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported", e);
+		}
+	}
+
+}
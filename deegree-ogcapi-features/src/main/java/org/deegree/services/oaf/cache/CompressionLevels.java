@@ -0,0 +1,123 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.cache;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import jakarta.ws.rs.core.MediaType;
+import org.deegree.commons.utils.TunableParameter;
+import org.slf4j.Logger;
+
+/**
+ * Compression levels used to compress responses, configurable per media type. Each
+ * instance reads the configuration when it is created.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+public class CompressionLevels {
+
+	/**
+	 * Name for parameter to configure the default compression level (0-9, 0 disables
+	 * compression), compression is disabled by default.
+	 */
+	public static final String PARAMETER_LEVEL = "deegree.oaf.compression.level";
+
+	/**
+	 * Name for parameter to configure the compression level per media type, e.g.
+	 * <code>application/geo+json=1,application/gml+xml=4</code>.
+	 */
+	public static final String PARAMETER_LEVELS = "deegree.oaf.compression.levels";
+
+	/**
+	 * Compression disabled for all media types.
+	 */
+	public static final CompressionLevels DISABLED = new CompressionLevels(0, Collections.emptyMap());
+
+	private static final Logger LOG = getLogger(CompressionLevels.class);
+
+	private final int defaultLevel;
+
+	private final Map<String, Integer> levels;
+
+	/**
+	 * Creates the compression levels configured by the parameters
+	 * {@value #PARAMETER_LEVEL} (default: 0, disabled) and {@value #PARAMETER_LEVELS}.
+	 */
+	public CompressionLevels() {
+		this(TunableParameter.get(PARAMETER_LEVEL, 0), parseLevels(TunableParameter.get(PARAMETER_LEVELS, "")));
+	}
+
+	/**
+	 * @param defaultLevel the compression level of all media types without configured
+	 * level (0-9, 0 disables compression)
+	 * @param levels the compression levels per media type (type/subtype in lower case),
+	 * never <code>null</code>
+	 */
+	public CompressionLevels(int defaultLevel, Map<String, Integer> levels) {
+		this.defaultLevel = Math.max(0, Math.min(9, defaultLevel));
+		this.levels = Map.copyOf(levels);
+	}
+
+	/**
+	 * @param mediaType the media type of the response, may be <code>null</code>
+	 * @return the compression level to use for the media type, 0 if responses of this
+	 * media type should not be compressed
+	 */
+	public int compressionLevel(MediaType mediaType) {
+		if (mediaType == null || !ContentCoding.isCompressible(mediaType))
+			return 0;
+		String type = (mediaType.getType() + "/" + mediaType.getSubtype()).toLowerCase(Locale.ROOT);
+		return levels.getOrDefault(type, defaultLevel);
+	}
+
+	static Map<String, Integer> parseLevels(String levels) {
+		Map<String, Integer> parsed = new HashMap<>();
+		for (String entry : levels.split(",")) {
+			if (entry.isBlank())
+				continue;
+			int separator = entry.lastIndexOf('=');
+			try {
+				if (separator < 0)
+					throw new NumberFormatException();
+				int level = Integer.parseInt(entry.substring(separator + 1).trim());
+				if (level < 0 || level > 9)
+					throw new NumberFormatException();
+				parsed.put(entry.substring(0, separator).trim().toLowerCase(Locale.ROOT), level);
+			}
+			catch (NumberFormatException e) {
+				LOG.warn("Ignoring invalid compression level '{}' configured in {}", entry, PARAMETER_LEVELS);
+			}
+		}
+		return Collections.unmodifiableMap(parsed);
+	}
+
+	@Override
+	public String toString() {
+		return "CompressionLevels{" + "defaultLevel=" + defaultLevel + ", levels=" + levels + '}';
+	}
+
+}
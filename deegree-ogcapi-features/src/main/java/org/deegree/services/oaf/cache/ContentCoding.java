@@ -0,0 +1,196 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import jakarta.ws.rs.core.MediaType;
+
+/**
+ * Negotiation and application of the content codings (gzip, deflate) used to compress
+ * responses. The compression levels are configured with {@link CompressionLevels}.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+public final class ContentCoding {
+
+	public static final String GZIP = "gzip";
+
+	public static final String DEFLATE = "deflate";
+
+	private ContentCoding() {
+	}
+
+	/**
+	 * @param acceptEncoding the value of the Accept-Encoding header, may be
+	 * <code>null</code>
+	 * @return the content coding to use (gzip is preferred), <code>null</code> if the
+	 * client does not accept any supported content coding
+	 */
+	public static String negotiate(String acceptEncoding) {
+		if (acceptEncoding == null)
+			return null;
+		if (isAccepted(acceptEncoding, GZIP))
+			return GZIP;
+		if (isAccepted(acceptEncoding, DEFLATE))
+			return DEFLATE;
+		return null;
+	}
+
+	/**
+	 * @param outputStream the stream to wrap, never <code>null</code>
+	 * @param contentCoding the content coding, one of {@link #GZIP} or {@link #DEFLATE}
+	 * @param level the compression level (1-9)
+	 * @return a stream compressing all content written to it, must be finished (or
+	 * released with {@link #release(DeflaterOutputStream)} if the content is not written
+	 * completely) by the caller, never <code>null</code>. Finishing the stream releases
+	 * the native resources of the compressor, the stream cannot be used afterwards.
+	 * @throws IOException if the stream could not be created
+	 */
+	public static DeflaterOutputStream compress(OutputStream outputStream, String contentCoding, int level)
+			throws IOException {
+		if (GZIP.equals(contentCoding))
+			return new ReleasingGzipOutputStream(outputStream, level);
+		if (DEFLATE.equals(contentCoding))
+			return new ReleasingDeflaterOutputStream(outputStream, level);
+		throw new IllegalArgumentException("Unsupported content coding " + contentCoding);
+	}
+
+	/**
+	 * Releases the native resources of a stream created by
+	 * {@link #compress(OutputStream, String, int)} without finishing it.
+	 * @param outputStream the stream to release, never <code>null</code>
+	 */
+	public static void release(DeflaterOutputStream outputStream) {
+		if (outputStream instanceof ReleasingStream releasingStream)
+			releasingStream.release();
+	}
+
+	/**
+	 * @param content the content to compress, never <code>null</code>
+	 * @param contentCoding the content coding, one of {@link #GZIP} or {@link #DEFLATE}
+	 * @param level the compression level (1-9)
+	 * @return the compressed content, never <code>null</code>
+	 */
+	public static byte[] compress(byte[] content, String contentCoding, int level) {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, content.length / 4));
+		try (DeflaterOutputStream outputStream = compress(compressed, contentCoding, level)) {
+			outputStream.write(content);
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("Could not compress content", e);
+		}
+		return compressed.toByteArray();
+	}
+
+	private interface ReleasingStream {
+
+		void release();
+
+	}
+
+	private static final class ReleasingGzipOutputStream extends GZIPOutputStream implements ReleasingStream {
+
+		private ReleasingGzipOutputStream(OutputStream outputStream, int level) throws IOException {
+			super(outputStream);
+			def.setLevel(level);
+		}
+
+		@Override
+		public void finish() throws IOException {
+			try {
+				super.finish();
+			}
+			finally {
+				release();
+			}
+		}
+
+		@Override
+		public void release() {
+			def.end();
+		}
+
+	}
+
+	private static final class ReleasingDeflaterOutputStream extends DeflaterOutputStream implements ReleasingStream {
+
+		private ReleasingDeflaterOutputStream(OutputStream outputStream, int level) {
+			super(outputStream, new Deflater(level));
+		}
+
+		@Override
+		public void finish() throws IOException {
+			try {
+				super.finish();
+			}
+			finally {
+				release();
+			}
+		}
+
+		@Override
+		public void release() {
+			def.end();
+		}
+
+	}
+
+	static boolean isAccepted(String acceptEncoding, String contentCoding) {
+		for (String token : acceptEncoding.split(",")) {
+			String[] nameAndParams = token.trim().split(";");
+			if (contentCoding.equalsIgnoreCase(nameAndParams[0].trim()))
+				return !hasQualityZero(nameAndParams);
+		}
+		return false;
+	}
+
+	static boolean isCompressible(MediaType mediaType) {
+		if ("text".equalsIgnoreCase(mediaType.getType()))
+			return true;
+		String subtype = mediaType.getSubtype().toLowerCase(Locale.ROOT);
+		return subtype.equals("json") || subtype.equals("xml") || subtype.equals("yaml") || subtype.endsWith("+json")
+				|| subtype.endsWith("+xml") || subtype.endsWith("+yaml");
+	}
+
+	private static boolean hasQualityZero(String[] nameAndParams) {
+		for (int i = 1; i < nameAndParams.length; i++) {
+			String param = nameAndParams[i].trim();
+			if (param.startsWith("q=")) {
+				try {
+					return Double.parseDouble(param.substring(2)) == 0;
+				}
+				catch (NumberFormatException e) {
+					return false;
+				}
+			}
+		}
+		return false;
+	}
+
+}
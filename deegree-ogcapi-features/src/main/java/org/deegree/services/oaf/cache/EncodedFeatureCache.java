@@ -0,0 +1,162 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import org.deegree.commons.utils.TunableParameter;
+import org.deegree.services.oaf.metrics.OafMetrics;
+
+/**
+ * Least recently used cache of features of a collection encoded as GeoJSON, keyed by
+ * feature id and response CRS. The size of the cache is limited by the sum of the length
+ * of the encoded features. Entries expire after the time configured for the
+ * {@link FeatureCache}, as the feature store may be modified by other applications. A new
+ * instance is created when the workspace is reinitialized.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+public class EncodedFeatureCache {
+
+	private static final String CACHE_NAME = "encoded_feature";
+
+	private final Map<FragmentKey, CachedFragment> fragments = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final Lock lock = new ReentrantLock();
+
+	private final long maxBytes;
+
+	private final long timeToLive;
+
+	private final LongSupplier nanoTime;
+
+	private long bytes;
+
+	/**
+	 * Creates a cache with the time to live configured by the parameter
+	 * {@value FeatureCache#PARAMETER_FEATURE_CACHE_TTL} (default: 60 seconds).
+	 * @param maxBytes the maximum size of all cached features (counted in characters,
+	 * which equals bytes for the compact representation of latin-1 strings)
+	 */
+	public EncodedFeatureCache(long maxBytes) {
+		this(maxBytes, TimeUnit.SECONDS.toNanos(TunableParameter.get(FeatureCache.PARAMETER_FEATURE_CACHE_TTL, 60)),
+				System::nanoTime);
+	}
+
+	EncodedFeatureCache(long maxBytes, long timeToLive, LongSupplier nanoTime) {
+		this.maxBytes = maxBytes;
+		this.timeToLive = timeToLive;
+		this.nanoTime = nanoTime;
+	}
+
+	/**
+	 * @param featureId the id of the feature, never <code>null</code>
+	 * @param crs the name of the response CRS, may be <code>null</code>
+	 * @return the encoded feature, <code>null</code> if not cached or expired
+	 */
+	public String get(String featureId, String crs) {
+		FragmentKey key = new FragmentKey(featureId, crs);
+		String fragment = null;
+		lock.lock();
+		try {
+			CachedFragment cachedFragment = fragments.get(key);
+			if (cachedFragment != null) {
+				if (cachedFragment.isValid(nanoTime.getAsLong())) {
+					fragment = cachedFragment.fragment();
+				}
+				else {
+					fragments.remove(key);
+					bytes -= cachedFragment.fragment().length();
+				}
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+		OafMetrics.recordCacheLookup(CACHE_NAME, fragment != null);
+		return fragment;
+	}
+
+	/**
+	 * Adds the encoded feature, the least recently used features are removed if the
+	 * maximum size is exceeded. Features larger than the maximum size are not cached.
+	 * @param featureId the id of the feature, never <code>null</code>
+	 * @param crs the name of the response CRS, may be <code>null</code>
+	 * @param fragment the encoded feature, never <code>null</code>
+	 */
+	public void put(String featureId, String crs, String fragment) {
+		if (fragment.length() > maxBytes)
+			return;
+		CachedFragment cachedFragment = new CachedFragment(fragment, nanoTime.getAsLong() + timeToLive);
+		lock.lock();
+		try {
+			CachedFragment previous = fragments.put(new FragmentKey(featureId, crs), cachedFragment);
+			if (previous != null)
+				bytes -= previous.fragment().length();
+			bytes += fragment.length();
+			Iterator<CachedFragment> leastRecentlyUsed = fragments.values().iterator();
+			while (bytes > maxBytes && leastRecentlyUsed.hasNext()) {
+				bytes -= leastRecentlyUsed.next().fragment().length();
+				leastRecentlyUsed.remove();
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the sum of the length of all cached features
+	 */
+	public long getBytes() {
+		lock.lock();
+		try {
+			return bytes;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "EncodedFeatureCache{" + "maxBytes=" + maxBytes + '}';
+	}
+
+	private record FragmentKey(String featureId, String crs) {
+	}
+
+	private record CachedFragment(String fragment, long expiresAt) {
+
+		private boolean isValid(long now) {
+			return now - expiresAt < 0;
+		}
+
+	}
+
+}
@@ -0,0 +1,159 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import org.deegree.commons.utils.TunableParameter;
+import org.deegree.feature.Feature;
+import org.deegree.services.oaf.metrics.OafMetrics;
+import org.deegree.services.oaf.workspace.configuration.OafDatasetConfiguration;
+
+/**
+ * Least recently used cache of single features requested by id. The features are cached
+ * as retrieved from the feature store, transformation into the requested CRS happens
+ * while the response is written. Entries expire after a configurable time, as the feature
+ * store may be modified by other applications, and are discarded if the dataset
+ * configuration was reinitialized.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+public class FeatureCache {
+
+	/**
+	 * Name for parameter defining the maximum number of cached features, 0 disables the
+	 * cache.
+	 */
+	public static final String PARAMETER_FEATURE_CACHE_SIZE = "deegree.oaf.cache.feature.size";
+
+	/**
+	 * Name for parameter defining the time (in seconds) a feature is cached.
+	 */
+	public static final String PARAMETER_FEATURE_CACHE_TTL = "deegree.oaf.cache.feature.ttl";
+
+	private static final String CACHE_NAME = "feature";
+
+	private final Map<FeatureKey, CachedFeature> features;
+
+	private final Lock lock = new ReentrantLock();
+
+	private final int maxSize;
+
+	private final long timeToLive;
+
+	private final LongSupplier nanoTime;
+
+	/**
+	 * Creates a cache configured by the parameters {@value #PARAMETER_FEATURE_CACHE_SIZE}
+	 * (default: 0, disabled) and {@value #PARAMETER_FEATURE_CACHE_TTL} (default: 60
+	 * seconds).
+	 */
+	public FeatureCache() {
+		this(TunableParameter.get(PARAMETER_FEATURE_CACHE_SIZE, 0),
+				TimeUnit.SECONDS.toNanos(TunableParameter.get(PARAMETER_FEATURE_CACHE_TTL, 60)), System::nanoTime);
+	}
+
+	FeatureCache(int maxSize, long timeToLive, LongSupplier nanoTime) {
+		this.maxSize = maxSize;
+		this.timeToLive = timeToLive;
+		this.nanoTime = nanoTime;
+		this.features = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<FeatureKey, CachedFeature> eldest) {
+				return size() > FeatureCache.this.maxSize;
+			}
+		};
+	}
+
+	/**
+	 * @return <code>true</code> if features are cached, <code>false</code> otherwise
+	 */
+	public boolean isEnabled() {
+		return maxSize > 0;
+	}
+
+	/**
+	 * @param oafConfiguration the configuration of the dataset, never <code>null</code>
+	 * @param collectionId the id of the collection, never <code>null</code>
+	 * @param featureId the id of the feature, never <code>null</code>
+	 * @return the cached feature, <code>null</code> if the feature is not cached or
+	 * expired
+	 */
+	public Feature get(OafDatasetConfiguration oafConfiguration, String collectionId, String featureId) {
+		if (!isEnabled())
+			return null;
+		FeatureKey key = new FeatureKey(oafConfiguration.getId(), collectionId, featureId);
+		Feature feature = null;
+		lock.lock();
+		try {
+			CachedFeature cachedFeature = features.get(key);
+			if (cachedFeature != null) {
+				if (cachedFeature.isValid(oafConfiguration, nanoTime.getAsLong()))
+					feature = cachedFeature.feature();
+				else
+					features.remove(key);
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+		OafMetrics.recordCacheLookup(CACHE_NAME, feature != null);
+		return feature;
+	}
+
+	/**
+	 * @param oafConfiguration the configuration of the dataset, never <code>null</code>
+	 * @param collectionId the id of the collection, never <code>null</code>
+	 * @param featureId the id of the feature, never <code>null</code>
+	 * @param feature the feature to cache, never <code>null</code>
+	 */
+	public void put(OafDatasetConfiguration oafConfiguration, String collectionId, String featureId, Feature feature) {
+		if (!isEnabled())
+			return;
+		FeatureKey key = new FeatureKey(oafConfiguration.getId(), collectionId, featureId);
+		CachedFeature cachedFeature = new CachedFeature(oafConfiguration, feature, nanoTime.getAsLong() + timeToLive);
+		lock.lock();
+		try {
+			features.put(key, cachedFeature);
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private record FeatureKey(String datasetId, String collectionId, String featureId) {
+	}
+
+	private record CachedFeature(OafDatasetConfiguration oafConfiguration, Feature feature, long expiresAt) {
+
+		private boolean isValid(OafDatasetConfiguration currentConfiguration, long now) {
+			return oafConfiguration == currentConfiguration && now - expiresAt < 0;
+		}
+
+	}
+
+}
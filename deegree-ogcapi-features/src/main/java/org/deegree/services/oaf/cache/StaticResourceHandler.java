@@ -0,0 +1,353 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.cache;
+
+import static jakarta.ws.rs.core.Response.Status.NOT_FOUND;
+import static jakarta.ws.rs.core.Response.Status.PARTIAL_CONTENT;
+import static jakarta.ws.rs.core.Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Response.ResponseBuilder;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.deegree.commons.utils.TunableParameter;
+import org.deegree.services.oaf.metrics.OafMetrics;
+import org.slf4j.Logger;
+
+/**
+ * Serves static files (e.g. application schemas, CSS and JavaScript files). The files are
+ * memory mapped once and remapped if size or modification time changes. Responses contain
+ * a strong ETag (SHA-256 of the content), Last-Modified and Cache-Control. Conditional
+ * requests, single byte ranges and precompressed variants (<code>.br</code> and
+ * <code>.gz</code> next to the file) are supported. Without precompressed variant, the
+ * compressed content is created once and kept with the file.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+public final class StaticResourceHandler {
+
+	/**
+	 * Name for parameter defining the max-age (in seconds) of the Cache-Control header of
+	 * static files.
+	 */
+	public static final String PARAMETER_MAX_AGE = "deegree.oaf.static.max_age";
+
+	private static final Logger LOG = getLogger(StaticResourceHandler.class);
+
+	private static final Pattern RANGE_PATTERN = Pattern.compile("bytes=(\\d*)-(\\d*)");
+
+	private static final Map<Path, StaticFile> FILES = new ConcurrentHashMap<>();
+
+	private static final Map<String, StaticFile> CLASSPATH_RESOURCES = new ConcurrentHashMap<>();
+
+	private static final int MAX_AGE = TunableParameter.get(PARAMETER_MAX_AGE, 86400);
+
+	// larger files are compressed while streaming instead of keeping the compressed
+	// variant in memory
+	private static final long MAX_ENCODED_SIZE = 16 * 1024 * 1024;
+
+	private StaticResourceHandler() {
+	}
+
+	/**
+	 * @param baseDirectory the directory containing the file, never <code>null</code>
+	 * @param relativePath the path of the file relative to the base directory, never
+	 * <code>null</code>
+	 * @param mediaType the media type of the file, may be <code>null</code>
+	 * @param request the request, never <code>null</code>
+	 * @param headers the headers of the request, never <code>null</code>
+	 * @param compressionLevels the compression levels used if no precompressed variant
+	 * exists, never <code>null</code>
+	 * @return the response, 404 if the file does not exist or is not located in the base
+	 * directory, never <code>null</code>
+	 * @throws IOException if the file could not be read
+	 */
+	public static Response serveFile(Path baseDirectory, String relativePath, String mediaType, Request request,
+			HttpHeaders headers, CompressionLevels compressionLevels) throws IOException {
+		Path base = baseDirectory.toAbsolutePath().normalize();
+		Path file = base.resolve(relativePath).normalize();
+		if (!file.startsWith(base))
+			return Response.status(NOT_FOUND).build();
+		return serveFile(file, mediaType, request, headers, compressionLevels);
+	}
+
+	/**
+	 * @param file the file to serve, never <code>null</code>
+	 * @param mediaType the media type of the file, may be <code>null</code>
+	 * @param request the request, never <code>null</code>
+	 * @param headers the headers of the request, never <code>null</code>
+	 * @param compressionLevels the compression levels used if no precompressed variant
+	 * exists, never <code>null</code>
+	 * @return the response, 404 if the file does not exist, never <code>null</code>
+	 * @throws IOException if the file could not be read
+	 */
+	public static Response serveFile(Path file, String mediaType, Request request, HttpHeaders headers,
+			CompressionLevels compressionLevels) throws IOException {
+		if (!Files.isRegularFile(file)) {
+			LOG.warn("Could not find requested file {}", file);
+			return Response.status(NOT_FOUND).build();
+		}
+		for (ContentEncoding encoding : acceptedEncodings(headers)) {
+			Path precompressed = file.resolveSibling(file.getFileName() + encoding.extension);
+			if (Files.isRegularFile(precompressed))
+				return serve(retrieveFile(precompressed), mediaType, encoding.name, request, headers);
+		}
+		return serveEncoded(retrieveFile(file), mediaType, request, headers, compressionLevels);
+	}
+
+	/**
+	 * @param name the name of the classpath resource, never <code>null</code>
+	 * @param mediaType the media type of the resource, may be <code>null</code>
+	 * @param request the request, never <code>null</code>
+	 * @param headers the headers of the request, never <code>null</code>
+	 * @param compressionLevels the compression levels used if no precompressed variant
+	 * exists, never <code>null</code>
+	 * @return the response, 404 if the resource does not exist, never <code>null</code>
+	 * @throws IOException if the resource could not be read
+	 */
+	public static Response serveClasspathResource(String name, String mediaType, Request request, HttpHeaders headers,
+			CompressionLevels compressionLevels) throws IOException {
+		if (name.contains(".."))
+			return Response.status(NOT_FOUND).build();
+		StaticFile staticFile = CLASSPATH_RESOURCES.get(name);
+		if (staticFile == null) {
+			try (InputStream resource = StaticResourceHandler.class.getResourceAsStream(name)) {
+				if (resource == null)
+					return Response.status(NOT_FOUND).build();
+				ByteBuffer content = ByteBuffer.wrap(resource.readAllBytes());
+				staticFile = new StaticFile(content, null, content.remaining(),
+						new Date(System.currentTimeMillis() / 1000 * 1000));
+			}
+			CLASSPATH_RESOURCES.putIfAbsent(name, staticFile);
+		}
+		return serveEncoded(staticFile, mediaType, request, headers, compressionLevels);
+	}
+
+	private static Response serveEncoded(StaticFile staticFile, String mediaType, Request request, HttpHeaders headers,
+			CompressionLevels compressionLevels) {
+		String contentCoding = ContentCoding.negotiate(headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING));
+		if (contentCoding != null && staticFile.size <= MAX_ENCODED_SIZE) {
+			int level = compressionLevels.compressionLevel(mediaType != null ? MediaType.valueOf(mediaType) : null);
+			if (level > 0)
+				return serve(staticFile.encode(contentCoding, level), mediaType, contentCoding, request, headers);
+		}
+		return serve(staticFile, mediaType, null, request, headers);
+	}
+
+	private static Response serve(StaticFile staticFile, String mediaType, String contentEncoding, Request request,
+			HttpHeaders headers) {
+		ResponseBuilder notModified = request.evaluatePreconditions(staticFile.lastModified, staticFile.entityTag);
+		if (notModified != null)
+			return addCachingHeaders(notModified, staticFile, contentEncoding).build();
+
+		long size = staticFile.size;
+		String rangeHeader = headers.getHeaderString("Range");
+		if (rangeHeader != null && isIfRangeSatisfied(headers, staticFile)) {
+			ByteRange range = parseRange(rangeHeader, size);
+			if (range == ByteRange.UNSATISFIABLE) {
+				return Response.status(REQUESTED_RANGE_NOT_SATISFIABLE)
+					.header("Content-Range", "bytes */" + size)
+					.build();
+			}
+			if (range != null) {
+				ResponseBuilder partial = Response.status(PARTIAL_CONTENT)
+					.entity(createEntity(staticFile.content, range.start, range.end))
+					.type(mediaType)
+					.header("Content-Range", "bytes " + range.start + "-" + range.end + "/" + size)
+					.header(HttpHeaders.CONTENT_LENGTH, range.end - range.start + 1);
+				return addCachingHeaders(partial, staticFile, contentEncoding).build();
+			}
+		}
+		ResponseBuilder full = Response.ok(createEntity(staticFile.content, 0, size - 1), mediaType)
+			.header(HttpHeaders.CONTENT_LENGTH, size);
+		return addCachingHeaders(full, staticFile, contentEncoding).build();
+	}
+
+	private static ResponseBuilder addCachingHeaders(ResponseBuilder builder, StaticFile staticFile,
+			String contentEncoding) {
+		builder.tag(staticFile.entityTag)
+			.lastModified(staticFile.lastModified)
+			.header(HttpHeaders.CACHE_CONTROL, "public, max-age=" + MAX_AGE)
+			.header("Accept-Ranges", "bytes")
+			.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		if (contentEncoding != null)
+			builder.header(HttpHeaders.CONTENT_ENCODING, contentEncoding);
+		return builder;
+	}
+
+	private static StreamingOutput createEntity(ByteBuffer content, long start, long end) {
+		return output -> {
+			ByteBuffer slice = content.duplicate();
+			slice.position((int) start);
+			slice.limit((int) end + 1);
+			WritableByteChannel channel = Channels.newChannel(output);
+			while (slice.hasRemaining())
+				channel.write(slice);
+		};
+	}
+
+	private static boolean isIfRangeSatisfied(HttpHeaders headers, StaticFile staticFile) {
+		String ifRange = headers.getHeaderString("If-Range");
+		if (ifRange == null)
+			return true;
+		return ifRange.equals(staticFile.entityTag.toString());
+	}
+
+	static ByteRange parseRange(String rangeHeader, long size) {
+		Matcher matcher = RANGE_PATTERN.matcher(rangeHeader.trim());
+		// multiple or malformed ranges are ignored, the full content is returned
+		if (!matcher.matches())
+			return null;
+		String first = matcher.group(1);
+		String last = matcher.group(2);
+		if (first.isEmpty() && last.isEmpty())
+			return null;
+		try {
+			if (first.isEmpty()) {
+				long suffixLength = Long.parseLong(last);
+				if (suffixLength == 0 || size == 0)
+					return ByteRange.UNSATISFIABLE;
+				return new ByteRange(Math.max(0, size - suffixLength), size - 1);
+			}
+			long start = Long.parseLong(first);
+			if (start >= size)
+				return ByteRange.UNSATISFIABLE;
+			long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+			if (end < start)
+				return null;
+			return new ByteRange(start, end);
+		}
+		catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	static List<ContentEncoding> acceptedEncodings(HttpHeaders headers) {
+		List<ContentEncoding> encodings = new ArrayList<>();
+		String acceptEncoding = headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING);
+		if (acceptEncoding == null)
+			return encodings;
+		for (ContentEncoding encoding : ContentEncoding.values()) {
+			if (ContentCoding.isAccepted(acceptEncoding, encoding.name))
+				encodings.add(encoding);
+		}
+		return encodings;
+	}
+
+	private static StaticFile retrieveFile(Path file) throws IOException {
+		BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+		StaticFile cached = FILES.get(file);
+		boolean hit = cached != null && cached.isUpToDate(attributes);
+		OafMetrics.recordCacheLookup("static files", hit);
+		if (hit)
+			return cached;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer content = channel.map(FileChannel.MapMode.READ_ONLY, 0, attributes.size());
+			StaticFile staticFile = new StaticFile(content, attributes.lastModifiedTime(), attributes.size(),
+					new Date(attributes.lastModifiedTime().toMillis() / 1000 * 1000));
+			FILES.put(file, staticFile);
+			return staticFile;
+		}
+	}
+
+	enum ContentEncoding {
+
+		BROTLI("br", ".br"), GZIP("gzip", ".gz");
+
+		private final String name;
+
+		private final String extension;
+
+		ContentEncoding(String name, String extension) {
+			this.name = name;
+			this.extension = extension;
+		}
+
+	}
+
+	record ByteRange(long start, long end) {
+
+		static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+	}
+
+	private static class StaticFile {
+
+		private final ByteBuffer content;
+
+		private final FileTime modificationTime;
+
+		private final long size;
+
+		private final Date lastModified;
+
+		private final EntityTag entityTag;
+
+		private final Map<String, StaticFile> encoded = new ConcurrentHashMap<>();
+
+		private StaticFile(ByteBuffer content, FileTime modificationTime, long size, Date lastModified) {
+			this.content = content;
+			this.modificationTime = modificationTime;
+			this.size = size;
+			this.lastModified = lastModified;
+			this.entityTag = CachedContent.createEntityTag(content);
+		}
+
+		private boolean isUpToDate(BasicFileAttributes attributes) {
+			return size == attributes.size() && attributes.lastModifiedTime().equals(modificationTime);
+		}
+
+		private StaticFile encode(String contentCoding, int level) {
+			return encoded.computeIfAbsent(contentCoding, coding -> {
+				byte[] identity = new byte[(int) size];
+				content.duplicate().get(identity);
+				ByteBuffer compressed = ByteBuffer.wrap(ContentCoding.compress(identity, coding, level));
+				return new StaticFile(compressed, modificationTime, compressed.remaining(), lastModified);
+			});
+		}
+
+	}
+
+}
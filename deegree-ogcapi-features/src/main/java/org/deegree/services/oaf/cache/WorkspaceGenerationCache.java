@@ -0,0 +1,158 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.cache;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.deegree.services.oaf.metrics.OafMetrics;
+import org.deegree.services.oaf.workspace.configuration.OafDatasets;
+import org.slf4j.Logger;
+
+/**
+ * Cache of values derived from the workspace configuration. All entries belong to one
+ * workspace generation, identified by the {@link OafDatasets} instance created when the
+ * workspace is (re)initialized. If a request refers to another generation all entries are
+ * discarded. Concurrent requests for a value not cached yet wait for a single generation
+ * of the value. The number of entries is limited, if the limit is exceeded the oldest
+ * entries are discarded.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the cached values
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+public class WorkspaceGenerationCache<K, V> {
+
+	private static final Logger LOG = getLogger(WorkspaceGenerationCache.class);
+
+	private final Map<K, CompletableFuture<V>> values = new ConcurrentHashMap<>();
+
+	private final Queue<K> insertionOrder = new ConcurrentLinkedQueue<>();
+
+	private final String name;
+
+	private final int maxEntries;
+
+	private final Lock generationLock = new ReentrantLock();
+
+	private OafDatasets generation;
+
+	/**
+	 * Functional interface to generate a value.
+	 *
+	 * @param <V> type of the generated value
+	 */
+	@FunctionalInterface
+	public interface ValueGenerator<V> {
+
+		V generate() throws Exception;
+
+	}
+
+	/**
+	 * @param name the name of the cache used in log messages and metrics, never
+	 * <code>null</code>
+	 * @param maxEntries the maximum number of cached entries, must be greater than 0
+	 */
+	public WorkspaceGenerationCache(String name, int maxEntries) {
+		this.name = name;
+		this.maxEntries = maxEntries;
+	}
+
+	/**
+	 * @param generation the current workspace generation, never <code>null</code>
+	 * @param key the key of the value, never <code>null</code>
+	 * @param generator used to generate the value if not cached, never <code>null</code>
+	 * @return the cached or generated value, may be <code>null</code> if the generator
+	 * returns <code>null</code> (not cached)
+	 * @throws Exception if the generation of the value failed
+	 */
+	public V retrieve(OafDatasets generation, K key, ValueGenerator<V> generator) throws Exception {
+		switchGeneration(generation);
+		CompletableFuture<V> future = new CompletableFuture<>();
+		CompletableFuture<V> cached = values.putIfAbsent(key, future);
+		OafMetrics.recordCacheLookup(name, cached != null);
+		if (cached != null)
+			return waitFor(cached);
+		insertionOrder.add(key);
+		evictOldest();
+		try {
+			LOG.debug("Generate {} for {}", name, key);
+			V value = generator.generate();
+			future.complete(value);
+			if (value == null)
+				values.remove(key, future);
+			return value;
+		}
+		catch (Exception e) {
+			values.remove(key, future);
+			future.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	private void switchGeneration(OafDatasets generation) {
+		generationLock.lock();
+		try {
+			if (this.generation != generation) {
+				if (this.generation != null)
+					LOG.info("Workspace was reinitialized, discard cached {}", name);
+				values.clear();
+				insertionOrder.clear();
+				this.generation = generation;
+			}
+		}
+		finally {
+			generationLock.unlock();
+		}
+	}
+
+	private void evictOldest() {
+		while (values.size() > maxEntries) {
+			K oldest = insertionOrder.poll();
+			if (oldest == null)
+				return;
+			LOG.debug("Maximum number of cached {} exceeded, discard {}", name, oldest);
+			values.remove(oldest);
+		}
+	}
+
+	private V waitFor(CompletableFuture<V> cached) throws Exception {
+		try {
+			return cached.get();
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof Exception cause)
+				throw cause;
+			throw e;
+		}
+	}
+
+}
@@ -31,7 +31,7 @@ import java.util.stream.Collectors;
  */
 public enum FilterLang {
 
-	CQL2_TEXT("cql2-text");
+	CQL2_TEXT("cql2-text"), CQL2_JSON("cql2-json");
 
 	private final String type;
 
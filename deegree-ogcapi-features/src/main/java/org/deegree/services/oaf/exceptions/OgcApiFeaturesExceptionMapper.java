@@ -24,6 +24,7 @@ package org.deegree.services.oaf.exceptions;
 import org.deegree.services.oaf.domain.exceptions.OgcApiFeaturesExceptionReport;
 
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
@@ -47,7 +48,10 @@ public class OgcApiFeaturesExceptionMapper implements ExceptionMapper<OgcApiFeat
 		Response.Status statusCode = exception.getStatusCode();
 		OgcApiFeaturesExceptionReport oafExceptionReport = new OgcApiFeaturesExceptionReport(exception.getMessage(),
 				statusCode.getStatusCode());
-		return Response.status(statusCode).entity(oafExceptionReport).type(selectedType).build();
+		Response.ResponseBuilder response = Response.status(statusCode).entity(oafExceptionReport).type(selectedType);
+		if (exception instanceof ServiceUnavailable serviceUnavailable)
+			response.header(HttpHeaders.RETRY_AFTER, serviceUnavailable.getRetryAfter());
+		return response.build();
 	}
 
 }
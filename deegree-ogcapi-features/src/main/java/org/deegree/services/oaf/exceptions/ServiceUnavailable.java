@@ -0,0 +1,59 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.exceptions;
+
+import jakarta.ws.rs.core.Response;
+
+import static jakarta.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
+
+/**
+ * Thrown if a request could not be processed in time because of too many concurrent
+ * requests.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+public class ServiceUnavailable extends OgcApiFeaturesException {
+
+	private final long retryAfter;
+
+	/**
+	 * @param message the message, never <code>null</code>
+	 * @param retryAfter the number of seconds after the client should try again
+	 */
+	public ServiceUnavailable(String message, long retryAfter) {
+		super(message);
+		this.retryAfter = retryAfter;
+	}
+
+	/**
+	 * @return the number of seconds after the client should try again
+	 */
+	public long getRetryAfter() {
+		return retryAfter;
+	}
+
+	@Override
+	public Response.Status getStatusCode() {
+		return SERVICE_UNAVAILABLE;
+	}
+
+}
@@ -0,0 +1,141 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.filter;
+
+import static jakarta.ws.rs.core.Response.Status.TOO_MANY_REQUESTS;
+import static org.deegree.services.oaf.exceptions.ExceptionMediaTypeUtil.selectMediaType;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import jakarta.annotation.Priority;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+import org.deegree.commons.utils.TunableParameter;
+import org.deegree.services.oaf.domain.exceptions.OgcApiFeaturesExceptionReport;
+
+/**
+ * Admission control between Jersey and the feature stores: limits the number of requests
+ * per client (configured API key or IP address) with a token bucket, requests exceeding
+ * the limit are answered with 429 (Too Many Requests). The limit is disabled by default.
+ * The buckets of at most {@value #MAX_NUMBER_OF_BUCKETS} clients are kept, the least
+ * recently seen client is discarded first. The number of concurrent queries per feature
+ * store is limited by the
+ * {@link org.deegree.services.oaf.workspace.configuration.QueryScheduler} of the dataset.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+@Provider
+@Priority(Priorities.AUTHORIZATION)
+public class AdmissionControlFilter implements ContainerRequestFilter {
+
+	/**
+	 * Name for parameter defining the number of requests per second allowed per client, 0
+	 * disables the rate limiting.
+	 */
+	public static final String PARAMETER_RATELIMIT_REQUESTS_PER_SECOND = "deegree.oaf.ratelimit.requests_per_second";
+
+	/**
+	 * Name for parameter defining the number of requests a client can send in a burst,
+	 * defaults to the number of requests per second.
+	 */
+	public static final String PARAMETER_RATELIMIT_BURST = "deegree.oaf.ratelimit.burst";
+
+	/**
+	 * Name for parameter defining the header identifying the client, if the header is
+	 * missing or does not contain one of the configured API keys the IP address is used.
+	 */
+	public static final String PARAMETER_RATELIMIT_APIKEY_HEADER = "deegree.oaf.ratelimit.apikey_header";
+
+	/**
+	 * Name for parameter defining the comma separated list of API keys accepted to
+	 * identify a client, if empty clients are identified by the IP address only.
+	 */
+	public static final String PARAMETER_RATELIMIT_APIKEYS = "deegree.oaf.ratelimit.apikeys";
+
+	private static final int MAX_NUMBER_OF_BUCKETS = 10000;
+
+	private final int requestsPerSecond = TunableParameter.get(PARAMETER_RATELIMIT_REQUESTS_PER_SECOND, 0);
+
+	private final int burst = TunableParameter.get(PARAMETER_RATELIMIT_BURST, requestsPerSecond);
+
+	private final String apiKeyHeader = TunableParameter.get(PARAMETER_RATELIMIT_APIKEY_HEADER, "X-API-Key");
+
+	private final Set<String> apiKeys = parseApiKeys(TunableParameter.get(PARAMETER_RATELIMIT_APIKEYS, ""));
+
+	private final TokenBuckets tokenBuckets = new TokenBuckets(MAX_NUMBER_OF_BUCKETS,
+			() -> new TokenBucket(burst, requestsPerSecond));
+
+	@Context
+	private HttpServletRequest servletRequest;
+
+	@Context
+	private Request request;
+
+	@Override
+	public void filter(ContainerRequestContext requestContext) throws IOException {
+		if (requestsPerSecond <= 0)
+			return;
+		TokenBucket tokenBucket = tokenBuckets.retrieve(retrieveClientId(requestContext));
+		if (!tokenBucket.tryConsume())
+			requestContext.abortWith(createResponse(TOO_MANY_REQUESTS, "Rate limit exceeded.",
+					Math.max(1, tokenBucket.secondsUntilNextToken())));
+	}
+
+	private String retrieveClientId(ContainerRequestContext requestContext) {
+		// unknown keys are ignored, otherwise clients could bypass the limit by sending
+		// a new key with each request
+		String apiKey = requestContext.getHeaderString(apiKeyHeader);
+		if (apiKey != null && apiKeys.contains(apiKey))
+			return "key:" + apiKey;
+		return "ip:" + servletRequest.getRemoteAddr();
+	}
+
+	static Set<String> parseApiKeys(String apiKeys) {
+		return Stream.of(apiKeys.split(","))
+			.map(String::trim)
+			.filter(apiKey -> !apiKey.isEmpty())
+			.collect(Collectors.toUnmodifiableSet());
+	}
+
+	private Response createResponse(Response.Status status, String message, long retryAfter) {
+		MediaType selectedType = selectMediaType(request);
+		OgcApiFeaturesExceptionReport oafExceptionReport = new OgcApiFeaturesExceptionReport(message,
+				status.getStatusCode());
+		return Response.status(status)
+			.header(HttpHeaders.RETRY_AFTER, retryAfter)
+			.entity(oafExceptionReport)
+			.type(selectedType)
+			.build();
+	}
+
+}
@@ -0,0 +1,103 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.filter;
+
+import java.io.IOException;
+import java.util.zip.DeflaterOutputStream;
+
+import jakarta.annotation.Priority;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import org.deegree.services.oaf.cache.CompressionLevels;
+import org.deegree.services.oaf.cache.ContentCoding;
+
+/**
+ * Compresses the entities written by the message body writers (e.g. GeoJSON and GML
+ * features) while streaming if the client accepts gzip or deflate. The compression level
+ * is configured per media type (see {@link CompressionLevels}). Responses already
+ * carrying a Content-Encoding (e.g. precompressed cached documents) and partial content
+ * are not touched.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+@Provider
+@Priority(Priorities.ENTITY_CODER)
+public class CompressionInterceptor implements WriterInterceptor {
+
+	private final CompressionLevels compressionLevels;
+
+	@Context
+	private HttpHeaders httpHeaders;
+
+	/**
+	 * Creates an interceptor with the compression levels configured by system properties.
+	 */
+	public CompressionInterceptor() {
+		this(new CompressionLevels());
+	}
+
+	/**
+	 * @param compressionLevels the compression levels to use, never <code>null</code>
+	 */
+	public CompressionInterceptor(CompressionLevels compressionLevels) {
+		this.compressionLevels = compressionLevels;
+	}
+
+	@Override
+	public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+		MultivaluedMap<String, Object> headers = context.getHeaders();
+		if (headers.containsKey(HttpHeaders.CONTENT_ENCODING) || headers.containsKey("Content-Range")) {
+			context.proceed();
+			return;
+		}
+		int level = compressionLevels.compressionLevel(context.getMediaType());
+		if (level == 0) {
+			context.proceed();
+			return;
+		}
+		if (!headers.containsKey(HttpHeaders.VARY))
+			headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		String contentCoding = ContentCoding.negotiate(httpHeaders.getHeaderString(HttpHeaders.ACCEPT_ENCODING));
+		if (contentCoding == null) {
+			context.proceed();
+			return;
+		}
+		headers.putSingle(HttpHeaders.CONTENT_ENCODING, contentCoding);
+		headers.remove(HttpHeaders.CONTENT_LENGTH);
+		DeflaterOutputStream compressed = ContentCoding.compress(context.getOutputStream(), contentCoding, level);
+		context.setOutputStream(compressed);
+		try {
+			context.proceed();
+		}
+		catch (IOException | RuntimeException e) {
+			ContentCoding.release(compressed);
+			throw e;
+		}
+		compressed.finish();
+	}
+
+}
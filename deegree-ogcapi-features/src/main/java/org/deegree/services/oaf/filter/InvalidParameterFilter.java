@@ -35,7 +35,6 @@ import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.Provider;
 import java.io.IOException;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import static jakarta.ws.rs.core.Response.Status.BAD_REQUEST;
 import static org.deegree.services.oaf.exceptions.ExceptionMediaTypeUtil.selectMediaType;
@@ -73,9 +72,8 @@ public class InvalidParameterFilter implements ContainerRequestFilter {
 		List<String> queryParam = queryParameters.get(paramKey);
 		if (queryParam != null) {
 			try {
-				queryParam.forEach(s -> {
-					Integer.valueOf(s);
-				});
+				for (String value : queryParam)
+					Integer.parseInt(value);
 			}
 			catch (NumberFormatException e) {
 				Response response = createInvalidParameterResponse(paramKey, queryParam);
@@ -87,7 +85,7 @@ public class InvalidParameterFilter implements ContainerRequestFilter {
 	}
 
 	private Response createInvalidParameterResponse(String param, List<String> queryParam) {
-		String queryParamString = queryParam.stream().collect(Collectors.joining(","));
+		String queryParamString = String.join(",", queryParam);
 		MediaType selectedType = selectMediaType(request);
 		String message = EXCEPTION_MSG.formatted(param, queryParamString);
 		OgcApiFeaturesExceptionReport oafExceptionReport = new OgcApiFeaturesExceptionReport(message,
@@ -0,0 +1,148 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.filter;
+
+import static org.deegree.services.oaf.metrics.OafMetrics.recordRequest;
+
+import java.io.IOException;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import org.deegree.services.oaf.exceptions.UnknownCollectionId;
+import org.deegree.services.oaf.exceptions.UnknownDatasetId;
+import org.deegree.services.oaf.workspace.DeegreeWorkspaceInitializer;
+import org.deegree.services.oaf.workspace.configuration.OafDatasetConfiguration;
+import org.deegree.services.oaf.workspace.configuration.OafDatasets;
+
+/**
+ * Records the duration of each request per dataset, collection, endpoint (resource class)
+ * and status. Responses with entity are recorded after the entity is written completely.
+ * Ids of datasets and collections which are not configured are recorded as
+ * {@value #UNKNOWN_ID}, requests must not be able to create new time series.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+@Provider
+@Priority(Priorities.AUTHENTICATION)
+public class MetricsFilter implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor {
+
+	static final String UNKNOWN_ID = "unknown";
+
+	private static final String START_PROPERTY = MetricsFilter.class.getName() + ".start";
+
+	private static final String LABELS_PROPERTY = MetricsFilter.class.getName() + ".labels";
+
+	@Context
+	private ResourceInfo resourceInfo;
+
+	@Context
+	private UriInfo uriInfo;
+
+	@Inject
+	private DeegreeWorkspaceInitializer deegreeWorkspaceInitializer;
+
+	@Override
+	public void filter(ContainerRequestContext requestContext) {
+		requestContext.setProperty(START_PROPERTY, System.nanoTime());
+	}
+
+	@Override
+	public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+		Object start = requestContext.getProperty(START_PROPERTY);
+		if (!(start instanceof Long))
+			return;
+		String[] labels = createLabels(responseContext.getStatus());
+		if (responseContext.hasEntity()) {
+			requestContext.setProperty(LABELS_PROPERTY, labels);
+		}
+		else {
+			record(labels, (Long) start);
+		}
+	}
+
+	@Override
+	public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+		try {
+			context.proceed();
+		}
+		finally {
+			Object start = context.getProperty(START_PROPERTY);
+			Object labels = context.getProperty(LABELS_PROPERTY);
+			if (start instanceof Long && labels instanceof String[])
+				record((String[]) labels, (Long) start);
+		}
+	}
+
+	private void record(String[] labels, long start) {
+		recordRequest(labels[0], labels[1], labels[2], labels[3], System.nanoTime() - start);
+	}
+
+	private String[] createLabels(int status) {
+		Class<?> resourceClass = resourceInfo.getResourceClass();
+		String endpoint = resourceClass != null ? resourceClass.getSimpleName() : null;
+		MultivaluedMap<String, String> pathParameters = uriInfo.getPathParameters();
+		String[] ids = validateIds(deegreeWorkspaceInitializer.getOafDatasets(), pathParameters.getFirst("datasetId"),
+				pathParameters.getFirst("collectionId"));
+		return new String[] { ids[0], ids[1], endpoint, Integer.toString(status) };
+	}
+
+	/**
+	 * @param oafDatasets the configured datasets, may be <code>null</code>
+	 * @param datasetId the requested dataset id, may be <code>null</code>
+	 * @param collectionId the requested collection id, may be <code>null</code>
+	 * @return the dataset and the collection id, {@value #UNKNOWN_ID} if not configured,
+	 * <code>null</code> if not requested
+	 */
+	static String[] validateIds(OafDatasets oafDatasets, String datasetId, String collectionId) {
+		if (datasetId == null)
+			return new String[] { null, collectionId != null ? UNKNOWN_ID : null };
+		if (oafDatasets == null)
+			return new String[] { UNKNOWN_ID, collectionId != null ? UNKNOWN_ID : null };
+		try {
+			OafDatasetConfiguration dataset = oafDatasets.getDataset(datasetId);
+			if (collectionId == null)
+				return new String[] { datasetId, null };
+			if (dataset.getFeatureTypeMetadata(collectionId) == null)
+				return new String[] { datasetId, UNKNOWN_ID };
+			return new String[] { datasetId, collectionId };
+		}
+		catch (UnknownDatasetId e) {
+			return new String[] { UNKNOWN_ID, collectionId != null ? UNKNOWN_ID : null };
+		}
+		catch (UnknownCollectionId e) {
+			return new String[] { datasetId, UNKNOWN_ID };
+		}
+	}
+
+}
@@ -8,8 +8,6 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
 
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.container.ContainerRequestFilter;
@@ -53,43 +51,26 @@ public class OverrideAcceptFilter implements ContainerRequestFilter {
 
 	@Override
 	public void filter(ContainerRequestContext requestContext) throws IOException {
+		MultivaluedMap<String, String> queryParameters = requestContext.getUriInfo().getQueryParameters();
+
 		// Priority 1: Check if query parameter overrides accepted format
 		List<String> overrideTypes = new ArrayList<>();
 		for (String param : QUERY_PARAMS) {
-			List<String> values = requestContext.getUriInfo().getQueryParameters().get(param);
+			List<String> values = queryParameters.get(param);
 			if (values != null) {
-				overrideTypes.addAll(values);
+				// allow using "extensions" instead of mime types
+				for (String value : values)
+					overrideTypes.add(ACCEPT_EXTENSIONS.getOrDefault(value, value));
 			}
 		}
 
-		if (!overrideTypes.isEmpty()) {
-			// allow using "extensions" instead of mime types
-			overrideTypes = overrideTypes.stream().map(t -> {
-				String mapped = ACCEPT_EXTENSIONS.get(t);
-				if (mapped != null)
-					return mapped;
-				else
-					return t;
-			}).collect(Collectors.toList());
-		}
-
 		if (overrideTypes.isEmpty()) {
 			// Priority 2: Check if extension overrides accepted format (only specific
 			// extensions supported)
-			String path = requestContext.getUriInfo().getPath();
-
-			Optional<String> overrideType = ACCEPT_EXTENSIONS.entrySet()
-				.stream()
-				.filter(e -> path.endsWith("." + e.getKey()))
-				.findAny()
-				.map(e -> {
-					stripRequestSuffix(requestContext, "." + e.getKey());
-
-					return e.getValue();
-				});
-
-			if (overrideType.isPresent()) {
-				overrideTypes = Collections.singletonList(overrideType.get());
+			String extension = findSupportedExtension(requestContext.getUriInfo().getPath());
+			if (extension != null) {
+				stripRequestSuffix(requestContext, "." + extension);
+				overrideTypes.add(ACCEPT_EXTENSIONS.get(extension));
 			}
 		}
 
@@ -97,20 +78,30 @@ public class OverrideAcceptFilter implements ContainerRequestFilter {
 			// if accepted type should be overridden prepend it to any existing accept
 			// header
 			MultivaluedMap<String, String> headers = requestContext.getHeaders();
-			List<String> newTypes = new ArrayList<>(overrideTypes);
+			StringBuilder newTypes = new StringBuilder(String.join(", ", overrideTypes));
 			List<String> orgAccept = headers.get(HttpHeaders.ACCEPT);
 			if (orgAccept != null) {
-				newTypes.addAll(orgAccept);
+				for (String accept : orgAccept)
+					newTypes.append(", ").append(accept);
 			}
 
 			// overwrite with combined header
 			// the original header is included to gracefully handle unsupported values or
 			// cases where the query parameter has a different use
-			headers.put(HttpHeaders.ACCEPT,
-					Collections.singletonList(newTypes.stream().collect(Collectors.joining(", "))));
+			headers.put(HttpHeaders.ACCEPT, Collections.singletonList(newTypes.toString()));
 		}
 	}
 
+	private String findSupportedExtension(String path) {
+		int indexOfDot = path.lastIndexOf('.');
+		if (indexOfDot < 0)
+			return null;
+		String extension = path.substring(indexOfDot + 1);
+		if (ACCEPT_EXTENSIONS.containsKey(extension))
+			return extension;
+		return null;
+	}
+
 	/**
 	 * Strip a suffix from the request URI.
 	 * @param requestContext the request context to modify
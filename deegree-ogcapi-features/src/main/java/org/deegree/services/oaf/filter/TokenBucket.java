@@ -0,0 +1,105 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.filter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket with a fixed capacity refilled continuously with a fixed rate. Uses a
+ * {@link Lock} instead of <code>synchronized</code> to avoid pinning the carrier thread
+ * when requests are executed on virtual threads.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class TokenBucket {
+
+	private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	private final int capacity;
+
+	private final int tokensPerSecond;
+
+	private final LongSupplier nanoTime;
+
+	private final Lock lock = new ReentrantLock();
+
+	private double tokens;
+
+	private long lastRefill;
+
+	TokenBucket(int capacity, int tokensPerSecond) {
+		this(capacity, tokensPerSecond, System::nanoTime);
+	}
+
+	TokenBucket(int capacity, int tokensPerSecond, LongSupplier nanoTime) {
+		this.capacity = capacity;
+		this.tokensPerSecond = tokensPerSecond;
+		this.nanoTime = nanoTime;
+		this.tokens = capacity;
+		this.lastRefill = nanoTime.getAsLong();
+	}
+
+	/**
+	 * @return <code>true</code> if a token was available and consumed, <code>false</code>
+	 * otherwise
+	 */
+	boolean tryConsume() {
+		lock.lock();
+		try {
+			refill();
+			if (tokens < 1)
+				return false;
+			tokens--;
+			return true;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the number of seconds (rounded up) until the next token is available
+	 */
+	long secondsUntilNextToken() {
+		lock.lock();
+		try {
+			refill();
+			if (tokens >= 1)
+				return 0;
+			return (long) Math.ceil((1 - tokens) / tokensPerSecond);
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private void refill() {
+		long now = nanoTime.getAsLong();
+		double refilledTokens = (double) (now - lastRefill) * tokensPerSecond / NANOS_PER_SECOND;
+		tokens = Math.min(capacity, tokens + refilledTokens);
+		lastRefill = now;
+	}
+
+}
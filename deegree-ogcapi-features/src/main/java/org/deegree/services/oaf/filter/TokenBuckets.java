@@ -0,0 +1,88 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.filter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Token buckets per client, bounded to a maximum number of clients. If the maximum is
+ * exceeded the bucket of the least recently seen client is discarded in constant time,
+ * independent of the number of clients. Clients sending requests frequently keep their
+ * bucket, a discarded client starts with a full bucket again.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class TokenBuckets {
+
+	private final Lock lock = new ReentrantLock();
+
+	private final Map<String, TokenBucket> tokenBuckets;
+
+	private final Supplier<TokenBucket> tokenBucketFactory;
+
+	/**
+	 * @param maxNumberOfBuckets the maximum number of buckets kept
+	 * @param tokenBucketFactory creates the bucket of a client seen the first time, never
+	 * <code>null</code>
+	 */
+	TokenBuckets(int maxNumberOfBuckets, Supplier<TokenBucket> tokenBucketFactory) {
+		this.tokenBucketFactory = tokenBucketFactory;
+		this.tokenBuckets = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+				return size() > maxNumberOfBuckets;
+			}
+		};
+	}
+
+	/**
+	 * @param clientId the identifier of the client, never <code>null</code>
+	 * @return the bucket of the client, never <code>null</code>
+	 */
+	TokenBucket retrieve(String clientId) {
+		lock.lock();
+		try {
+			return tokenBuckets.computeIfAbsent(clientId, id -> tokenBucketFactory.get());
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the number of buckets currently kept
+	 */
+	int size() {
+		lock.lock();
+		try {
+			return tokenBuckets.size();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+}
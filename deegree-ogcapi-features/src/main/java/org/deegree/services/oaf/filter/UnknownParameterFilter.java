@@ -21,7 +21,6 @@
  */
 package org.deegree.services.oaf.filter;
 
-import org.deegree.cql2.FilterProperty;
 import org.deegree.services.oaf.domain.exceptions.OgcApiFeaturesExceptionReport;
 import org.deegree.services.oaf.exceptions.UnknownCollectionId;
 import org.deegree.services.oaf.exceptions.UnknownDatasetId;
@@ -31,7 +30,6 @@ import org.deegree.services.oaf.workspace.configuration.FeatureTypeMetadata;
 import org.deegree.services.oaf.workspace.configuration.OafDatasetConfiguration;
 
 import jakarta.inject.Inject;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.container.ContainerRequestFilter;
@@ -46,9 +44,11 @@ import jakarta.ws.rs.ext.Provider;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.Collections;
 import java.util.HashSet;
-import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static jakarta.ws.rs.core.Response.Status.BAD_REQUEST;
 import static org.deegree.services.oaf.exceptions.ExceptionMediaTypeUtil.selectMediaType;
@@ -56,6 +56,11 @@ import static org.deegree.services.oaf.exceptions.ExceptionMediaTypeUtil.selectM
 /**
  * Checks the passed query parameters. If an unsupported query parameter is detected the
  * requests aborts with a BAD_REQUEST.
+ * <p>
+ * The query parameters expected by a resource method are collected once per method, the
+ * names of the filter properties of a collection once per workspace initialization (see
+ * {@link FeatureTypeMetadata#getFilterPropertyNames()}).
+ * </p>
  *
  * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
  */
@@ -64,11 +69,10 @@ public class UnknownParameterFilter implements ContainerRequestFilter {
 
 	private static final String EXCEPTION_MSG = "Parameter with name '%s' is not specified.";
 
-	@Context
-	private ResourceInfo resourceInfo;
+	private static final Map<Method, Set<String>> EXPECTED_PARAMS = new ConcurrentHashMap<>();
 
 	@Context
-	private HttpServletRequest servletRequest;
+	private ResourceInfo resourceInfo;
 
 	@Context
 	private Request request;
@@ -81,18 +85,17 @@ public class UnknownParameterFilter implements ContainerRequestFilter {
 
 	@Override
 	public void filter(ContainerRequestContext requestContext) throws IOException {
-		Set<String> expectedParams = collectExpectedParamsFromAnnotations();
-		for (String param : OverrideAcceptFilter.QUERY_PARAMS) {
-			expectedParams.add(param);
-		}
-		addFilterParamsIfRequired(expectedParams);
-		Set<String> requestParams = servletRequest.getParameterMap().keySet();
-		requestParams.forEach(param -> {
-			if (!expectedParams.contains(param)) {
+		Set<String> expectedParams = EXPECTED_PARAMS.computeIfAbsent(resourceInfo.getResourceMethod(),
+				UnknownParameterFilter::collectExpectedParams);
+		Set<String> filterParams = retrieveFilterParamsIfRequired();
+		Set<String> requestParams = requestContext.getUriInfo().getQueryParameters().keySet();
+		for (String param : requestParams) {
+			if (!expectedParams.contains(param) && !filterParams.contains(param)) {
 				Response unknownParameterResponse = createUnknownParameterResponse(param);
 				requestContext.abortWith(unknownParameterResponse);
+				return;
 			}
-		});
+		}
 	}
 
 	private Response createUnknownParameterResponse(String param) {
@@ -103,9 +106,8 @@ public class UnknownParameterFilter implements ContainerRequestFilter {
 		return Response.status(BAD_REQUEST).entity(oafExceptionReport).type(selectedType).build();
 	}
 
-	private Set<String> collectExpectedParamsFromAnnotations() {
+	private static Set<String> collectExpectedParams(Method method) {
 		Set<String> expectedParams = new HashSet<>();
-		Method method = resourceInfo.getResourceMethod();
 		for (Annotation[] annotations : method.getParameterAnnotations()) {
 			for (Annotation annotation : annotations) {
 				if (annotation instanceof QueryParam param) {
@@ -113,10 +115,11 @@ public class UnknownParameterFilter implements ContainerRequestFilter {
 				}
 			}
 		}
-		return expectedParams;
+		expectedParams.addAll(OverrideAcceptFilter.QUERY_PARAMS);
+		return Set.copyOf(expectedParams);
 	}
 
-	private void addFilterParamsIfRequired(Set<String> expectedParams) {
+	private Set<String> retrieveFilterParamsIfRequired() {
 		if (resourceInfo.getResourceClass().isAssignableFrom(Features.class)) {
 			MultivaluedMap<String, String> pathParameters = uriInfo.getPathParameters();
 			String datasetId = pathParameters.get("datasetId").get(0);
@@ -126,19 +129,14 @@ public class UnknownParameterFilter implements ContainerRequestFilter {
 				OafDatasetConfiguration oafConfiguration = deegreeWorkspaceInitializer.getOafDatasets()
 					.getDataset(datasetId);
 				FeatureTypeMetadata featureTypeMetadata = oafConfiguration.getFeatureTypeMetadata(collectionId);
-				if (featureTypeMetadata != null) {
-					List<FilterProperty> filterProperties = featureTypeMetadata.getFilterProperties();
-					filterProperties.forEach(filterProperty -> {
-						String filterName = filterProperty.getName().getLocalPart();
-						expectedParams.add(filterName);
-					});
-				}
+				if (featureTypeMetadata != null)
+					return featureTypeMetadata.getFilterPropertyNames();
 			}
 			catch (UnknownDatasetId | UnknownCollectionId e) {
 				// will be handled later
 			}
-
 		}
+		return Collections.emptySet();
 	}
 
 }
@@ -21,6 +21,7 @@
  */
 package org.deegree.services.oaf.io.request;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.deegree.cql2.FilterProperty;
 
 import java.util.List;
@@ -51,11 +52,31 @@ public class FeaturesRequest {
 
 	private final String filter;
 
+	private final JsonNode jsonFilter;
+
 	private final String filterCrs;
 
+	private final List<String> ids;
+
 	public FeaturesRequest(String collectionId, int limit, int offset, boolean isBulkUpload, List<Double> bbox,
 			String bboxCrs, String datetime, String responseCrs,
 			Map<FilterProperty, List<String>> filterRequestProperties, String filter, String filterCrs) {
+		this(collectionId, limit, offset, isBulkUpload, bbox, bboxCrs, datetime, responseCrs, filterRequestProperties,
+				filter, null, filterCrs);
+	}
+
+	public FeaturesRequest(String collectionId, int limit, int offset, boolean isBulkUpload, List<Double> bbox,
+			String bboxCrs, String datetime, String responseCrs,
+			Map<FilterProperty, List<String>> filterRequestProperties, String filter, JsonNode jsonFilter,
+			String filterCrs) {
+		this(collectionId, limit, offset, isBulkUpload, bbox, bboxCrs, datetime, responseCrs, filterRequestProperties,
+				filter, jsonFilter, filterCrs, null);
+	}
+
+	public FeaturesRequest(String collectionId, int limit, int offset, boolean isBulkUpload, List<Double> bbox,
+			String bboxCrs, String datetime, String responseCrs,
+			Map<FilterProperty, List<String>> filterRequestProperties, String filter, JsonNode jsonFilter,
+			String filterCrs, List<String> ids) {
 		this.collectionId = collectionId;
 		this.limit = limit;
 		this.offset = offset;
@@ -66,7 +87,9 @@ public class FeaturesRequest {
 		this.isBulkUpload = isBulkUpload;
 		this.filterRequestProperties = filterRequestProperties;
 		this.filter = filter;
+		this.jsonFilter = jsonFilter;
 		this.filterCrs = filterCrs;
+		this.ids = ids;
 	}
 
 	public String getCollectionId() {
@@ -105,12 +128,30 @@ public class FeaturesRequest {
 		return filterRequestProperties;
 	}
 
+	/**
+	 * @return the filter encoded as cql2-text, may be <code>null</code>
+	 */
 	public String getFilter() {
 		return filter;
 	}
 
+	/**
+	 * @return the filter encoded as cql2-json, may be <code>null</code>
+	 */
+	public JsonNode getJsonFilter() {
+		return jsonFilter;
+	}
+
 	public String getFilterCrs() {
 		return filterCrs;
 	}
 
+	/**
+	 * @return the ids of the requested features, <code>null</code> if the features are
+	 * not requested by id
+	 */
+	public List<String> getIds() {
+		return ids;
+	}
+
 }
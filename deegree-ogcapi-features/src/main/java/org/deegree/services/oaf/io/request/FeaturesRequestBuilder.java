@@ -21,14 +21,20 @@
  */
 package org.deegree.services.oaf.io.request;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.deegree.cs.exceptions.UnknownCRSException;
 import org.deegree.cs.persistence.CRSManager;
+import org.deegree.services.oaf.domain.FilterLang;
 import org.deegree.services.oaf.exceptions.InvalidParameterValue;
 import org.deegree.cql2.FilterProperty;
 import org.deegree.services.oaf.workspace.configuration.OafDatasetConfiguration;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import static org.deegree.services.oaf.OgcApiFeaturesConstants.DEFAULT_CRS;
 
@@ -37,6 +43,8 @@ import static org.deegree.services.oaf.OgcApiFeaturesConstants.DEFAULT_CRS;
  */
 public class FeaturesRequestBuilder {
 
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
 	private final OafDatasetConfiguration oafConfiguration;
 
 	private String collectionId;
@@ -59,8 +67,12 @@ public class FeaturesRequestBuilder {
 
 	private String filter;
 
+	private JsonNode jsonFilter;
+
 	private String filterCrs;
 
+	private List<String> ids;
+
 	public FeaturesRequestBuilder(String collectionId, OafDatasetConfiguration oafConfiguration) {
 		this.collectionId = collectionId;
 		this.oafConfiguration = oafConfiguration;
@@ -112,15 +124,57 @@ public class FeaturesRequestBuilder {
 		return this;
 	}
 
+	public FeaturesRequestBuilder withFilter(String filter, FilterLang filterLang, String filterCrs)
+			throws InvalidParameterValue {
+		if (FilterLang.CQL2_JSON.equals(filterLang) && filter != null && !filter.isEmpty())
+			return withFilter(parseJsonFilter(filter), filterCrs);
+		return withFilter(filter, filterCrs);
+	}
+
+	public FeaturesRequestBuilder withFilter(JsonNode jsonFilter, String filterCrs) throws InvalidParameterValue {
+		this.jsonFilter = jsonFilter;
+		this.filterCrs = validateAndRetrieveCrs("filter-crs", filterCrs);
+		return this;
+	}
+
 	public FeaturesRequestBuilder withBulkUpload(boolean isBulkUpload) {
 		this.isBulkUpload = isBulkUpload;
 		return this;
 	}
 
+	/**
+	 * @param ids comma separated list of feature ids, may be <code>null</code>
+	 * @return this builder
+	 * @throws InvalidParameterValue if more ids than the configured maximum number of
+	 * items are requested
+	 */
+	public FeaturesRequestBuilder withIds(String ids) throws InvalidParameterValue {
+		if (ids == null || ids.isEmpty())
+			return withIds((List<String>) null);
+		return withIds(Arrays.asList(ids.split(",")));
+	}
+
+	/**
+	 * @param ids list of feature ids, may be <code>null</code>
+	 * @return this builder
+	 * @throws InvalidParameterValue if more ids than the configured maximum number of
+	 * items are requested
+	 */
+	public FeaturesRequestBuilder withIds(List<String> ids) throws InvalidParameterValue {
+		this.ids = validateIds(ids);
+		return this;
+	}
+
 	public FeaturesRequest build() {
+		if (this.ids != null) {
+			// all requested features are returned in one page
+			return new FeaturesRequest(this.collectionId, this.ids.size(), 0, false, this.bbox, this.bboxCrs,
+					this.datetime, this.responseCrs, this.filterRequestProperties, this.filter, this.jsonFilter,
+					this.filterCrs, this.ids);
+		}
 		return new FeaturesRequest(this.collectionId, this.limit, this.offset, this.isBulkUpload, this.bbox,
 				this.bboxCrs, this.datetime, this.responseCrs, this.filterRequestProperties, this.filter,
-				this.filterCrs);
+				this.jsonFilter, this.filterCrs);
 	}
 
 	private List<Double> validateBbox(List<Double> bbox) throws InvalidParameterValue {
@@ -131,6 +185,32 @@ public class FeaturesRequestBuilder {
 		return bbox;
 	}
 
+	private List<String> validateIds(List<String> ids) throws InvalidParameterValue {
+		if (ids == null)
+			return null;
+		List<String> distinctIds = ids.stream()
+			.filter(Objects::nonNull)
+			.map(String::trim)
+			.filter(id -> !id.isEmpty())
+			.distinct()
+			.toList();
+		if (distinctIds.isEmpty())
+			return null;
+		int maxItems = oafConfiguration.getQueryMaxItems();
+		if (distinctIds.size() > maxItems)
+			throw new InvalidParameterValue("ids", "must not contain more than " + maxItems + " ids");
+		return distinctIds;
+	}
+
+	private JsonNode parseJsonFilter(String filter) throws InvalidParameterValue {
+		try {
+			return OBJECT_MAPPER.readTree(filter);
+		}
+		catch (JsonProcessingException e) {
+			throw new InvalidParameterValue("filter", "Invalid cql2-json: " + e.getOriginalMessage());
+		}
+	}
+
 	private String validateAndRetrieveCrs(String parameterName, String crs) throws InvalidParameterValue {
 		if (crs == null || crs.isEmpty())
 			return DEFAULT_CRS;
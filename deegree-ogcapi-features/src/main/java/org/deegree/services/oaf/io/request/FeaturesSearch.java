@@ -0,0 +1,165 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.io.request;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Body of a POST request against the items of a collection. Takes the same parameters as
+ * the GET request, but allows filters exceeding the URL length limits.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+public class FeaturesSearch {
+
+	@JsonProperty("limit")
+	private int limit;
+
+	@JsonProperty("offset")
+	private int offset;
+
+	@JsonProperty("bulk")
+	private boolean bulk;
+
+	@JsonProperty("bbox")
+	private List<Double> bbox;
+
+	@JsonProperty("bbox-crs")
+	private String bboxCrs;
+
+	@JsonProperty("datetime")
+	private String datetime;
+
+	@JsonProperty("filter")
+	private JsonNode filter;
+
+	@JsonProperty("filter-lang")
+	private String filterLang;
+
+	@JsonProperty("filter-crs")
+	private String filterCrs;
+
+	@JsonProperty("crs")
+	private String crs;
+
+	@JsonProperty("ids")
+	private List<String> ids;
+
+	public int getLimit() {
+		return limit;
+	}
+
+	public void setLimit(int limit) {
+		this.limit = limit;
+	}
+
+	public int getOffset() {
+		return offset;
+	}
+
+	public void setOffset(int offset) {
+		this.offset = offset;
+	}
+
+	public boolean isBulk() {
+		return bulk;
+	}
+
+	public void setBulk(boolean bulk) {
+		this.bulk = bulk;
+	}
+
+	public List<Double> getBbox() {
+		return bbox;
+	}
+
+	public void setBbox(List<Double> bbox) {
+		this.bbox = bbox;
+	}
+
+	public String getBboxCrs() {
+		return bboxCrs;
+	}
+
+	public void setBboxCrs(String bboxCrs) {
+		this.bboxCrs = bboxCrs;
+	}
+
+	public String getDatetime() {
+		return datetime;
+	}
+
+	public void setDatetime(String datetime) {
+		this.datetime = datetime;
+	}
+
+	/**
+	 * @return the filter, either a JSON object (cql2-json) or a JSON string (cql2-text),
+	 * may be <code>null</code>
+	 */
+	public JsonNode getFilter() {
+		return filter;
+	}
+
+	public void setFilter(JsonNode filter) {
+		this.filter = filter;
+	}
+
+	public String getFilterLang() {
+		return filterLang;
+	}
+
+	public void setFilterLang(String filterLang) {
+		this.filterLang = filterLang;
+	}
+
+	public String getFilterCrs() {
+		return filterCrs;
+	}
+
+	public void setFilterCrs(String filterCrs) {
+		this.filterCrs = filterCrs;
+	}
+
+	public String getCrs() {
+		return crs;
+	}
+
+	public void setCrs(String crs) {
+		this.crs = crs;
+	}
+
+	/**
+	 * @return the ids of the features to retrieve, may be <code>null</code>
+	 */
+	public List<String> getIds() {
+		return ids;
+	}
+
+	public void setIds(List<String> ids) {
+		this.ids = ids;
+	}
+
+}
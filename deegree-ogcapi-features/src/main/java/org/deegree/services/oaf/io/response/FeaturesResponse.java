@@ -24,6 +24,7 @@ package org.deegree.services.oaf.io.response;
 import javax.xml.namespace.QName;
 
 import org.deegree.feature.stream.FeatureInputStream;
+import org.deegree.services.oaf.cache.EncodedFeatureCache;
 import org.deegree.services.oaf.io.SchemaLocation;
 import org.deegree.services.oaf.link.Link;
 
@@ -45,16 +46,26 @@ public class FeaturesResponse extends AbstractFeatureResponse {
 
 	private final boolean isMaxFeaturesAndStartIndexApplicable;
 
+	private final ServerTiming serverTiming;
+
+	private final RequestedFeatureIds requestedFeatureIds;
+
+	private final EncodedFeatureCache encodedFeatureCache;
+
 	FeaturesResponse(FeatureInputStream features, Map<String, String> featureTypeNsPrefixes, QName geometryProperty,
 			boolean skipGeometryExportAsWkt, int numberOfFeatures, int numberOfFeaturesMatched, int startIndex,
 			List<Link> links, boolean isMaxFeaturesAndStartIndexApplicable, String responseCrsName,
-			SchemaLocation schemaLocation) {
+			SchemaLocation schemaLocation, ServerTiming serverTiming, RequestedFeatureIds requestedFeatureIds,
+			EncodedFeatureCache encodedFeatureCache) {
 		super(featureTypeNsPrefixes, geometryProperty, skipGeometryExportAsWkt, responseCrsName, schemaLocation, links);
 		this.features = features;
 		this.numberOfFeatures = numberOfFeatures;
 		this.numberOfFeaturesMatched = numberOfFeaturesMatched;
 		this.startIndex = startIndex;
 		this.isMaxFeaturesAndStartIndexApplicable = isMaxFeaturesAndStartIndexApplicable;
+		this.serverTiming = serverTiming;
+		this.requestedFeatureIds = requestedFeatureIds;
+		this.encodedFeatureCache = encodedFeatureCache;
 	}
 
 	public FeatureInputStream getFeatures() {
@@ -77,4 +88,27 @@ public class FeaturesResponse extends AbstractFeatureResponse {
 		return startIndex;
 	}
 
+	/**
+	 * @return the durations of the phases of the query, may be <code>null</code>
+	 */
+	public ServerTiming getServerTiming() {
+		return serverTiming;
+	}
+
+	/**
+	 * @return the ids of the requested features, <code>null</code> if the features are
+	 * not requested by id
+	 */
+	public RequestedFeatureIds getRequestedFeatureIds() {
+		return requestedFeatureIds;
+	}
+
+	/**
+	 * @return the cache of features encoded as GeoJSON, <code>null</code> if the features
+	 * are not cached
+	 */
+	public EncodedFeatureCache getEncodedFeatureCache() {
+		return encodedFeatureCache;
+	}
+
 }
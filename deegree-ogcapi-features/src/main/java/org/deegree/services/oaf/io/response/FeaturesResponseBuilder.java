@@ -25,6 +25,7 @@ import javax.xml.namespace.QName;
 
 import org.deegree.feature.Feature;
 import org.deegree.feature.stream.FeatureInputStream;
+import org.deegree.services.oaf.cache.EncodedFeatureCache;
 import org.deegree.services.oaf.io.SchemaLocation;
 import org.deegree.services.oaf.link.Link;
 
@@ -64,6 +65,12 @@ public class FeaturesResponseBuilder {
 
 	private String featureId;
 
+	private ServerTiming serverTiming;
+
+	private RequestedFeatureIds requestedFeatureIds;
+
+	private EncodedFeatureCache encodedFeatureCache;
+
 	public FeaturesResponseBuilder(FeatureInputStream features) {
 		this.features = features;
 	}
@@ -129,10 +136,25 @@ public class FeaturesResponseBuilder {
 		return this;
 	}
 
+	public FeaturesResponseBuilder withServerTiming(ServerTiming serverTiming) {
+		this.serverTiming = serverTiming;
+		return this;
+	}
+
+	public FeaturesResponseBuilder withRequestedFeatureIds(RequestedFeatureIds requestedFeatureIds) {
+		this.requestedFeatureIds = requestedFeatureIds;
+		return this;
+	}
+
+	public FeaturesResponseBuilder withEncodedFeatureCache(EncodedFeatureCache encodedFeatureCache) {
+		this.encodedFeatureCache = encodedFeatureCache;
+		return this;
+	}
+
 	public FeaturesResponse buildFeaturesResponse() {
 		return new FeaturesResponse(features, featureTypeNsPrefixes, geometryProperty, skipGeometryExportAsWkt,
 				numberOfFeatures, numberOfFeaturesMatched, startIndex, links, isMaxFeaturesAndStartIndexApplicable,
-				responseCrsName, schemaLocation);
+				responseCrsName, schemaLocation, serverTiming, requestedFeatureIds, encodedFeatureCache);
 	}
 
 	public FeatureResponse buildFeatureResponse() {
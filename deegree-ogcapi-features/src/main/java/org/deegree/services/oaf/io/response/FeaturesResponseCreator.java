@@ -57,7 +57,7 @@ public class FeaturesResponseCreator {
 		Response.ResponseBuilder response = Response.ok(featureResponse);
 		response.header(HEADER_CONTENT_CRS, asContentCrsHeader(featureResponse))
 			.header(HttpHeaders.CONTENT_TYPE, APPLICATION_GEOJSON_TYPE.withCharset(StandardCharsets.UTF_8.name()));
-
+		addServerTiming(featureResponse, response);
 		return response.build();
 	}
 
@@ -96,6 +96,12 @@ public class FeaturesResponseCreator {
 		featureResponse.getLinks().forEach(link -> {
 			response.header(HEADER_LINK, asString(link));
 		});
+		addServerTiming(featureResponse, response);
+	}
+
+	private void addServerTiming(AbstractFeatureResponse featureResponse, Response.ResponseBuilder response) {
+		if (featureResponse instanceof FeaturesResponse featuresResponse && featuresResponse.getServerTiming() != null)
+			response.header(ServerTiming.HEADER_SERVER_TIMING, featuresResponse.getServerTiming().asHeaderValue());
 	}
 
 	private String detectMediaType(String acceptHeader) {
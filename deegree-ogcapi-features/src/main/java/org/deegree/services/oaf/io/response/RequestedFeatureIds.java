@@ -0,0 +1,71 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.io.response;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps track of the features returned for a request by feature ids, to be able to report
+ * the ids which are not available.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+public class RequestedFeatureIds {
+
+	private final Set<String> requestedIds;
+
+	private final Set<String> returnedIds = new HashSet<>();
+
+	/**
+	 * @param requestedIds the requested ids, never <code>null</code>
+	 */
+	public RequestedFeatureIds(List<String> requestedIds) {
+		this.requestedIds = new LinkedHashSet<>(requestedIds);
+	}
+
+	/**
+	 * Marks the feature with the passed id as returned.
+	 * @param featureId the id of the returned feature, may be <code>null</code>
+	 */
+	public void markAsReturned(String featureId) {
+		if (featureId != null)
+			returnedIds.add(featureId);
+	}
+
+	/**
+	 * @return the requested ids not returned yet in the order of the request, may be
+	 * empty but never <code>null</code>
+	 */
+	public List<String> getMissingIds() {
+		List<String> missingIds = new ArrayList<>();
+		for (String requestedId : requestedIds) {
+			if (!returnedIds.contains(requestedId))
+				missingIds.add(requestedId);
+		}
+		return missingIds;
+	}
+
+}
@@ -0,0 +1,96 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.io.response;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durations of the phases of a request, in the order the phases ended. Written as
+ * <code>Server-Timing</code> header, containing the phases ended before the response is
+ * written, and to the slow query log, containing all phases. Not thread safe, one
+ * instance per request.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+public class ServerTiming {
+
+	public static final String HEADER_SERVER_TIMING = "Server-Timing";
+
+	private final Map<String, Long> phases = new LinkedHashMap<>();
+
+	private final long start = System.nanoTime();
+
+	private long phaseStart = start;
+
+	/**
+	 * Ends the current phase, the next phase starts now.
+	 * @param name the name of the phase, must be a valid token, never <code>null</code>
+	 */
+	public void endPhase(String name) {
+		long now = System.nanoTime();
+		phases.put(name, now - phaseStart);
+		phaseStart = now;
+	}
+
+	/**
+	 * @return the duration in milliseconds since the creation of this instance
+	 */
+	public long getTotalMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+	}
+
+	/**
+	 * @return the value of the Server-Timing header, e.g.
+	 * <code>parse;dur=0.3, count;dur=12.1</code>, never <code>null</code>
+	 */
+	public String asHeaderValue() {
+		StringBuilder value = new StringBuilder();
+		for (Map.Entry<String, Long> phase : phases.entrySet()) {
+			if (value.length() > 0)
+				value.append(", ");
+			value.append(phase.getKey()).append(";dur=").append(asMillis(phase.getValue()));
+		}
+		return value.toString();
+	}
+
+	/**
+	 * @return the phases as key value pairs, e.g. <code>parse=0.3ms count=12.1ms</code>,
+	 * never <code>null</code>
+	 */
+	public String asLogValue() {
+		StringBuilder value = new StringBuilder();
+		for (Map.Entry<String, Long> phase : phases.entrySet()) {
+			if (value.length() > 0)
+				value.append(' ');
+			value.append(phase.getKey()).append('=').append(asMillis(phase.getValue())).append("ms");
+		}
+		return value.toString();
+	}
+
+	private String asMillis(long nanos) {
+		return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000d);
+	}
+
+}
@@ -9,11 +9,14 @@ import org.deegree.geojson.GeoJsonWriter;
 import org.deegree.services.oaf.exceptions.UnknownFeatureId;
 import org.deegree.services.oaf.io.response.AbstractFeatureResponse;
 import org.deegree.services.oaf.link.Link;
+import org.deegree.services.oaf.metrics.EncodingMetrics;
 import org.slf4j.Logger;
 
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.UriInfo;
 import jakarta.ws.rs.ext.MessageBodyWriter;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -36,6 +39,9 @@ public abstract class AbstractFeatureResponseGeoJsonWriter<T extends AbstractFea
 
 	private static final Logger LOG = getLogger(FeaturesResponseGeoJsonWriter.class);
 
+	@Context
+	private UriInfo uriInfo;
+
 	@Override
 	public long getSize(T features, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
 		// deprecated by JAX-RS 2.0 and ignored by Jersey runtime
@@ -45,21 +51,31 @@ public abstract class AbstractFeatureResponseGeoJsonWriter<T extends AbstractFea
 	@Override
 	public void writeTo(T feature, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
 			MultivaluedMap<String, Object> httpHeaders, OutputStream out) throws WebApplicationException {
-		try (Writer writer = new PrintWriter(out, false, UTF_8);
+		EncodingMetrics metrics = EncodingMetrics.start(uriInfo, "geojson");
+		try (Writer writer = new PrintWriter(metrics.countBytes(out), false, UTF_8);
 				GeoJsonWriter geoJsonStreamWriter = new GeoJsonWriter(writer, asCrs(feature),
 						feature.getGeometryProperty(), feature.isSkipGeometryExportAsWkt())) {
-			writeContent(feature, geoJsonStreamWriter);
+			writeContent(feature, geoJsonStreamWriter, metrics);
 		}
 		catch (Exception e) {
 			LOG.error("Writing response failed", e);
 			throw new WebApplicationException(e);
 		}
+		finally {
+			metrics.finish();
+		}
 	}
 
-	protected abstract void writeContent(T feature, GeoJsonWriter geoJsonStreamWriter)
+	/**
+	 * @param feature the response to write, never <code>null</code>
+	 * @param geoJsonStreamWriter the writer to write the response to, never
+	 * <code>null</code>
+	 * @param metrics to record each feature written, never <code>null</code>
+	 */
+	protected abstract void writeContent(T feature, GeoJsonWriter geoJsonStreamWriter, EncodingMetrics metrics)
 			throws IOException, TransformationException, UnknownCRSException, UnknownFeatureId;
 
-	private ICRS asCrs(T feature) {
+	protected ICRS asCrs(T feature) {
 		if (feature.getResponseCrsName() != null) {
 			CRSRef ref = CRSManager.getCRSRef(feature.getResponseCrsName());
 			ref.getReferencedObject(); // test if exists
@@ -26,6 +26,7 @@ import org.deegree.cs.exceptions.UnknownCRSException;
 import org.deegree.geojson.GeoJsonWriter;
 import org.deegree.services.oaf.exceptions.UnknownFeatureId;
 import org.deegree.services.oaf.io.response.FeatureResponse;
+import org.deegree.services.oaf.metrics.EncodingMetrics;
 
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
@@ -47,10 +48,11 @@ public class FeatureResponseGeoJsonWriter extends AbstractFeatureResponseGeoJson
 	}
 
 	@Override
-	protected void writeContent(FeatureResponse feature, GeoJsonWriter geoJsonStreamWriter)
+	protected void writeContent(FeatureResponse feature, GeoJsonWriter geoJsonStreamWriter, EncodingMetrics metrics)
 			throws IOException, TransformationException, UnknownCRSException, UnknownFeatureId {
 		geoJsonStreamWriter.startSingleFeature();
 		geoJsonStreamWriter.writeSingleFeature(feature.getFeature());
+		metrics.featureWritten();
 		writeLinks(feature.getLinks(), geoJsonStreamWriter);
 		writeCrs(feature.getResponseCrsName(), geoJsonStreamWriter);
 		geoJsonStreamWriter.endSingleFeature();
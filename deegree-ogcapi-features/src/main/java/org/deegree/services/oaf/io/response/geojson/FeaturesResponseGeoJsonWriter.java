@@ -27,13 +27,17 @@ import org.deegree.cs.exceptions.UnknownCRSException;
 import org.deegree.feature.Feature;
 import org.deegree.feature.stream.FeatureInputStream;
 import org.deegree.geojson.GeoJsonWriter;
+import org.deegree.services.oaf.cache.EncodedFeatureCache;
 import org.deegree.services.oaf.exceptions.UnknownFeatureId;
 import org.deegree.services.oaf.io.response.FeaturesResponse;
+import org.deegree.services.oaf.io.response.RequestedFeatureIds;
+import org.deegree.services.oaf.metrics.EncodingMetrics;
 
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.ext.Provider;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.util.Date;
@@ -50,13 +54,14 @@ public class FeaturesResponseGeoJsonWriter extends AbstractFeatureResponseGeoJso
 		return FeaturesResponse.class == type;
 	}
 
-	protected void writeContent(FeaturesResponse features, GeoJsonWriter geoJsonStreamWriter)
+	protected void writeContent(FeaturesResponse features, GeoJsonWriter geoJsonStreamWriter, EncodingMetrics metrics)
 			throws IOException, TransformationException, UnknownCRSException, UnknownFeatureId {
 		geoJsonStreamWriter.startFeatureCollection();
-		int numberReturned = writeFeatures(features, geoJsonStreamWriter);
+		int numberReturned = writeFeatures(features, geoJsonStreamWriter, metrics);
 		writeLinks(features.getLinks(), geoJsonStreamWriter);
 		writeNumberMatched(features.getNumberOfFeaturesMatched(), geoJsonStreamWriter);
 		writeNumberReturned(numberReturned, geoJsonStreamWriter);
+		writeMissingIds(features.getRequestedFeatureIds(), geoJsonStreamWriter);
 		writeTimeStamp(geoJsonStreamWriter);
 		writeCrs(features.getResponseCrsName(), geoJsonStreamWriter);
 		if (numberReturned == 0) {
@@ -68,23 +73,24 @@ public class FeaturesResponseGeoJsonWriter extends AbstractFeatureResponseGeoJso
 		geoJsonStreamWriter.endObject();
 	}
 
-	private int writeFeatures(FeaturesResponse features, GeoJsonWriter writer)
+	private int writeFeatures(FeaturesResponse features, GeoJsonWriter writer, EncodingMetrics metrics)
 			throws IOException, TransformationException, UnknownCRSException {
 		if (features.isMaxFeaturesAndStartIndexApplicable()) {
-			return writeAllReturnedFeatures(features, writer);
+			return writeAllReturnedFeatures(features, writer, metrics);
 		}
 		else {
-			return writeFeaturesAndApplyMaxFeaturesAndStartIndex(features, writer);
+			return writeFeaturesAndApplyMaxFeaturesAndStartIndex(features, writer, metrics);
 		}
 	}
 
-	private int writeAllReturnedFeatures(FeaturesResponse features, GeoJsonWriter writer)
+	private int writeAllReturnedFeatures(FeaturesResponse features, GeoJsonWriter writer, EncodingMetrics metrics)
 			throws IOException, TransformationException, UnknownCRSException {
 		int writtenFeatures = 0;
 		FeatureInputStream featureInputStream = features.getFeatures();
 		try {
 			for (Feature feature : featureInputStream) {
-				writer.write(feature);
+				writeFeature(features, feature, writer, writtenFeatures);
+				metrics.featureWritten();
 				writtenFeatures++;
 			}
 			if (writtenFeatures > 0)
@@ -96,8 +102,8 @@ public class FeaturesResponseGeoJsonWriter extends AbstractFeatureResponseGeoJso
 		}
 	}
 
-	private int writeFeaturesAndApplyMaxFeaturesAndStartIndex(FeaturesResponse features, GeoJsonWriter writer)
-			throws IOException, TransformationException, UnknownCRSException {
+	private int writeFeaturesAndApplyMaxFeaturesAndStartIndex(FeaturesResponse features, GeoJsonWriter writer,
+			EncodingMetrics metrics) throws IOException, TransformationException, UnknownCRSException {
 		int maxFeatures = features.getNumberOfFeatures();
 		int startIndex = features.getStartIndex();
 		int featuresAdded = 0;
@@ -113,7 +119,8 @@ public class FeaturesResponseGeoJsonWriter extends AbstractFeatureResponseGeoJso
 					featuresSkipped++;
 				}
 				else {
-					writer.write(feature);
+					writeFeature(features, feature, writer, featuresAdded);
+					metrics.featureWritten();
 					featuresAdded++;
 				}
 			}
@@ -126,6 +133,38 @@ public class FeaturesResponseGeoJsonWriter extends AbstractFeatureResponseGeoJso
 		}
 	}
 
+	private void writeFeature(FeaturesResponse features, Feature feature, GeoJsonWriter writer, int writtenFeatures)
+			throws IOException, TransformationException, UnknownCRSException {
+		EncodedFeatureCache encodedFeatureCache = features.getEncodedFeatureCache();
+		if (encodedFeatureCache == null) {
+			writer.write(feature);
+			return;
+		}
+		if (writtenFeatures == 0)
+			writer.name("features").beginArray();
+		String featureId = feature.getId();
+		String crs = features.getResponseCrsName();
+		String encodedFeature = featureId != null ? encodedFeatureCache.get(featureId, crs) : null;
+		if (encodedFeature == null) {
+			encodedFeature = encodeFeature(features, feature);
+			if (featureId != null)
+				encodedFeatureCache.put(featureId, crs, encodedFeature);
+		}
+		writer.jsonValue(encodedFeature);
+	}
+
+	private String encodeFeature(FeaturesResponse features, Feature feature)
+			throws IOException, TransformationException, UnknownCRSException {
+		StringWriter encodedFeature = new StringWriter();
+		try (GeoJsonWriter featureWriter = new GeoJsonWriter(encodedFeature, asCrs(features),
+				features.getGeometryProperty(), features.isSkipGeometryExportAsWkt())) {
+			featureWriter.startSingleFeature();
+			featureWriter.writeSingleFeature(feature);
+			featureWriter.endSingleFeature();
+		}
+		return encodedFeature.toString();
+	}
+
 	private void writeNumberMatched(int numberOfFeatures, GeoJsonWriter writer) throws IOException {
 		writer.name("numberMatched").value(numberOfFeatures);
 	}
@@ -134,6 +173,15 @@ public class FeaturesResponseGeoJsonWriter extends AbstractFeatureResponseGeoJso
 		writer.name("numberReturned").value(numberOfFeatures);
 	}
 
+	private void writeMissingIds(RequestedFeatureIds requestedFeatureIds, GeoJsonWriter writer) throws IOException {
+		if (requestedFeatureIds == null)
+			return;
+		writer.name("missingIds").beginArray();
+		for (String missingId : requestedFeatureIds.getMissingIds())
+			writer.value(missingId);
+		writer.endArray();
+	}
+
 	private void writeTimeStamp(GeoJsonWriter writer) throws IOException {
 		String now = ISO8601Converter.formatDateTime(new Date());
 		writer.name("timeStamp").value(now);
@@ -35,11 +35,14 @@ import org.deegree.gml.feature.GMLFeatureWriter;
 import org.deegree.services.oaf.io.response.AbstractFeatureResponse;
 import org.deegree.services.oaf.io.response.FeatureResponse;
 import org.deegree.services.oaf.io.response.FeaturesResponse;
+import org.deegree.services.oaf.metrics.EncodingMetrics;
 
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.UriInfo;
 import jakarta.ws.rs.ext.MessageBodyWriter;
 import jakarta.ws.rs.ext.Provider;
 import javax.xml.stream.XMLOutputFactory;
@@ -62,6 +65,9 @@ import static org.deegree.services.oaf.OgcApiFeaturesMediaType.APPLICATION_GML;
 @Produces({ APPLICATION_GML })
 public class FeaturesResponseGmlWriter implements MessageBodyWriter<AbstractFeatureResponse> {
 
+	@Context
+	private UriInfo uriInfo;
+
 	@Override
 	public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
 		return FeaturesResponse.class == type || FeatureResponse.class == type;
@@ -78,9 +84,11 @@ public class FeaturesResponseGmlWriter implements MessageBodyWriter<AbstractFeat
 	public void writeTo(AbstractFeatureResponse features, Class<?> type, Type genericType, Annotation[] annotations,
 			MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream out)
 			throws WebApplicationException {
+		EncodingMetrics metrics = EncodingMetrics.start(uriInfo, "gml");
 		GMLStreamWriter gmlStreamWriter = null;
 		try {
-			XMLStreamWriter xmlStreamWriter = XMLOutputFactory.newFactory().createXMLStreamWriter(out);
+			XMLStreamWriter xmlStreamWriter = XMLOutputFactory.newFactory()
+				.createXMLStreamWriter(metrics.countBytes(out));
 			gmlStreamWriter = GMLOutputFactory.createGMLStreamWriter(GMLVersion.GML_32, xmlStreamWriter);
 			Map<String, String> prefixToNs = new HashMap<>();
 			prefixToNs.putAll(features.getFeatureTypeNsPrefixes());
@@ -96,9 +104,10 @@ public class FeaturesResponseGmlWriter implements MessageBodyWriter<AbstractFeat
 
 			if (features instanceof FeatureResponse response1 && response1.getFeature() != null) {
 				writeFeature(response1.getFeature(), xmlStreamWriter, featureWriter);
+				metrics.featureWritten();
 			}
 			else if (features instanceof FeaturesResponse response) {
-				writeFeatures(response.getFeatures(), xmlStreamWriter, featureWriter);
+				writeFeatures(response.getFeatures(), xmlStreamWriter, featureWriter, metrics);
 			}
 
 			xmlStreamWriter.writeEndElement();
@@ -116,14 +125,17 @@ public class FeaturesResponseGmlWriter implements MessageBodyWriter<AbstractFeat
 					e.printStackTrace();
 				}
 			}
+			metrics.finish();
 		}
 	}
 
 	private void writeFeatures(FeatureInputStream featureStream, XMLStreamWriter xmlStreamWriter,
-			GMLFeatureWriter featureWriter) throws XMLStreamException, UnknownCRSException, TransformationException {
+			GMLFeatureWriter featureWriter, EncodingMetrics metrics)
+			throws XMLStreamException, UnknownCRSException, TransformationException {
 		try {
 			for (Feature feature : featureStream) {
 				writeFeature(feature, xmlStreamWriter, featureWriter);
+				metrics.featureWritten();
 			}
 		}
 		finally {
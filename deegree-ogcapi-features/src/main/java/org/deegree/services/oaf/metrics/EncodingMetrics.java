@@ -0,0 +1,124 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.metrics;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.UriInfo;
+
+/**
+ * Records the metrics of writing one feature response: time to first feature, total
+ * encoding time, number of features and bytes written and the number of active responses.
+ * Not thread safe, one instance per response.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+public class EncodingMetrics {
+
+	private final String datasetId;
+
+	private final String collectionId;
+
+	private final String format;
+
+	private final long start = System.nanoTime();
+
+	private long numberOfFeatures;
+
+	private CountingOutputStream countingOutputStream;
+
+	private EncodingMetrics(String datasetId, String collectionId, String format) {
+		this.datasetId = datasetId;
+		this.collectionId = collectionId;
+		this.format = format;
+		OafMetrics.activeStreamingResponses(format).incrementAndGet();
+	}
+
+	/**
+	 * Starts recording the metrics of a response.
+	 * @param uriInfo the uri info of the request providing the dataset and collection id,
+	 * may be <code>null</code>
+	 * @param format the format of the response, e.g. geojson or gml, never
+	 * <code>null</code>
+	 * @return the started metrics, never <code>null</code>
+	 */
+	public static EncodingMetrics start(UriInfo uriInfo, String format) {
+		if (uriInfo == null)
+			return new EncodingMetrics(null, null, format);
+		MultivaluedMap<String, String> pathParameters = uriInfo.getPathParameters();
+		return new EncodingMetrics(pathParameters.getFirst("datasetId"), pathParameters.getFirst("collectionId"),
+				format);
+	}
+
+	/**
+	 * @param outputStream the stream to count the written bytes of, never
+	 * <code>null</code>
+	 * @return the stream to write the response to, never <code>null</code>
+	 */
+	public OutputStream countBytes(OutputStream outputStream) {
+		this.countingOutputStream = new CountingOutputStream(outputStream);
+		return countingOutputStream;
+	}
+
+	/**
+	 * Must be invoked after each feature written.
+	 */
+	public void featureWritten() {
+		if (numberOfFeatures++ == 0)
+			OafMetrics.recordFirstFeature(datasetId, collectionId, format, System.nanoTime() - start);
+	}
+
+	/**
+	 * Must be invoked when the response is written completely or writing failed.
+	 */
+	public void finish() {
+		long bytes = countingOutputStream != null ? countingOutputStream.count : -1;
+		OafMetrics.recordEncoding(datasetId, collectionId, format, System.nanoTime() - start, numberOfFeatures, bytes);
+		OafMetrics.activeStreamingResponses(format).decrementAndGet();
+	}
+
+	private static class CountingOutputStream extends FilterOutputStream {
+
+		private long count;
+
+		private CountingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			count += len;
+		}
+
+	}
+
+}
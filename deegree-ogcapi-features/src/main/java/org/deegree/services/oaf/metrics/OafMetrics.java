@@ -0,0 +1,201 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.metrics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.deegree.commons.utils.TunableParameter;
+
+/**
+ * Facade of the metrics recorded by the OGC API Features implementation. The metrics are
+ * recorded with Micrometer and exposed by the resource <code>/metrics</code> in the
+ * Prometheus text exposition format. Label values which are <code>null</code> are
+ * recorded as empty string.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+public final class OafMetrics {
+
+	/**
+	 * Name for parameter that allows enabling the metrics endpoint.
+	 */
+	public static final String PARAMETER_METRICS_ENABLED = "deegree.oaf.metrics.enabled";
+
+	/**
+	 * Content type of the Prometheus text exposition format.
+	 */
+	public static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	public static final PrometheusMeterRegistry REGISTRY = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+
+	private static final Duration[] DURATION_BUCKETS = { Duration.ofMillis(5), Duration.ofMillis(10),
+			Duration.ofMillis(25), Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250),
+			Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofMillis(2500), Duration.ofSeconds(5),
+			Duration.ofSeconds(10), Duration.ofSeconds(30) };
+
+	private static final Map<String, AtomicInteger> ACTIVE_STREAMING_RESPONSES = new ConcurrentHashMap<>();
+
+	private OafMetrics() {
+	}
+
+	/**
+	 * @return <code>true</code> if the metrics endpoint is enabled, <code>false</code>
+	 * (default) otherwise, metrics are always recorded
+	 */
+	public static boolean isEnabled() {
+		return TunableParameter.get(PARAMETER_METRICS_ENABLED, false);
+	}
+
+	/**
+	 * @return the recorded metrics in the Prometheus text exposition format, never
+	 * <code>null</code>
+	 */
+	public static String scrape() {
+		return REGISTRY.scrape();
+	}
+
+	/**
+	 * Records the duration of a request until the response is written.
+	 */
+	public static void recordRequest(String datasetId, String collectionId, String endpoint, String status,
+			long nanos) {
+		timer("oaf.request.duration", "Duration of requests until the response is written", "dataset", datasetId,
+				"collection", collectionId, "endpoint", endpoint, "status", status)
+			.record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Records the duration of counting the features matching a query.
+	 */
+	public static void recordQueryHits(String datasetId, String collectionId, long nanos) {
+		timer("oaf.featurestore.query.hits.duration", "Duration of counting the features matching a query", "dataset",
+				datasetId, "collection", collectionId)
+			.record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Records the duration of opening the result of a query.
+	 */
+	public static void recordQuery(String datasetId, String collectionId, long nanos) {
+		timer("oaf.featurestore.query.duration", "Duration of opening the result of a query", "dataset", datasetId,
+				"collection", collectionId)
+			.record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Records a request answered with an empty result without querying the feature store.
+	 */
+	public static void recordQuerySkipped(String datasetId, String collectionId) {
+		counter("oaf.featurestore.queries.skipped",
+				"Number of requests answered with an empty result without querying the feature store", "dataset",
+				datasetId, "collection", collectionId)
+			.increment();
+	}
+
+	/**
+	 * Records the duration of waiting for a free slot of a query lane.
+	 */
+	public static void recordQuerySchedulerWait(String datasetId, String lane, long nanos) {
+		timer("oaf.query.scheduler.wait", "Duration of waiting for a free slot of a query lane", "dataset", datasetId,
+				"lane", lane)
+			.record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Records a query rejected as no slot of the query lane was free.
+	 */
+	public static void recordQuerySchedulerRejected(String datasetId, String lane) {
+		counter("oaf.query.scheduler.rejected", "Number of queries rejected as no slot of the query lane was free",
+				"dataset", datasetId, "lane", lane)
+			.increment();
+	}
+
+	/**
+	 * Records a lookup of a cache.
+	 * @param cache the name of the cache, never <code>null</code>
+	 * @param hit <code>true</code> if the value was cached
+	 */
+	public static void recordCacheLookup(String cache, boolean hit) {
+		counter("oaf.cache.requests", "Number of cache lookups by result (hit or miss)", "cache", cache, "result",
+				hit ? "hit" : "miss")
+			.increment();
+	}
+
+	static void recordFirstFeature(String datasetId, String collectionId, String format, long nanos) {
+		timer("oaf.response.first.feature",
+				"Duration from the start of writing a response until the first feature is written", "dataset",
+				datasetId, "collection", collectionId, "format", format)
+			.record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	static void recordEncoding(String datasetId, String collectionId, String format, long nanos, long numberOfFeatures,
+			long bytes) {
+		timer("oaf.response.encoding.duration", "Duration of encoding a feature response", "dataset", datasetId,
+				"collection", collectionId, "format", format)
+			.record(nanos, TimeUnit.NANOSECONDS);
+		counter("oaf.response.features", "Number of features written", "dataset", datasetId, "collection", collectionId,
+				"format", format)
+			.increment(numberOfFeatures);
+		if (bytes >= 0)
+			DistributionSummary.builder("oaf.response.size")
+				.description("Number of bytes written by the feature encoders (uncompressed)")
+				.baseUnit("bytes")
+				.tags(tags("dataset", datasetId, "collection", collectionId, "format", format))
+				.register(REGISTRY)
+				.record(bytes);
+	}
+
+	static AtomicInteger activeStreamingResponses(String format) {
+		return ACTIVE_STREAMING_RESPONSES.computeIfAbsent(format,
+				f -> REGISTRY.gauge("oaf.response.streaming.active", Tags.of("format", f), new AtomicInteger()));
+	}
+
+	private static Timer timer(String name, String description, String... tags) {
+		return Timer.builder(name)
+			.description(description)
+			.tags(tags(tags))
+			.serviceLevelObjectives(DURATION_BUCKETS)
+			.register(REGISTRY);
+	}
+
+	private static Counter counter(String name, String description, String... tags) {
+		return Counter.builder(name).description(description).tags(tags(tags)).register(REGISTRY);
+	}
+
+	private static Tags tags(String... keyValues) {
+		String[] tags = new String[keyValues.length];
+		for (int i = 0; i < keyValues.length; i++)
+			tags[i] = keyValues[i] != null ? keyValues[i] : "";
+		return Tags.of(tags);
+	}
+
+}
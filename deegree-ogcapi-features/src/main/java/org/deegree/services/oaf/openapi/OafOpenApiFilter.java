@@ -66,7 +66,9 @@ import jakarta.ws.rs.core.UriInfo;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -86,6 +88,11 @@ import static org.deegree.services.oaf.OgcApiFeaturesMediaType.APPLICATION_GML_S
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
+ * Adds the collections of a dataset to the OpenAPI document. The schemas of the complex
+ * XSD types are created once per type and shared between all properties and collections
+ * using the type. The path items are created sequentially in the request thread, as the
+ * Xerces schema model and the deegree feature types are not thread-safe.
+ *
  * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
  */
 public class OafOpenApiFilter extends AbstractSpecFilter {
@@ -127,6 +134,8 @@ public class OafOpenApiFilter extends AbstractSpecFilter {
 
 	private final OafDatasetConfiguration datasetConfiguration;
 
+	private final Map<XSComplexTypeDefinition, Map<String, Schema>> complexTypeProperties = new HashMap<>();
+
 	@Inject
 	private DeegreeWorkspaceInitializer deegreeWorkspaceInitializer;
 
@@ -177,24 +186,8 @@ public class OafOpenApiFilter extends AbstractSpecFilter {
 		updateLimitParamMaximum(features);
 
 		Map<String, FeatureTypeMetadata> featureTypeMetadatas = datasetConfiguration.getFeatureTypeMetadata();
-		featureTypeMetadatas.entrySet().forEach(featureTypeMetadata -> {
-			String key = featureTypeMetadata.getKey();
-			FeatureTypeMetadata metadata = featureTypeMetadata.getValue();
-			PathItem newCollectionPathItem = createNewPathItem(collection, key, metadata);
-			paths.addPathItem(replaceCollectionId(COLLECTION_PATH, key), newCollectionPathItem);
-
-			PathItem newSchemaPathItem = createNewPathItem(schema, key, metadata);
-			paths.addPathItem(replaceCollectionId(SCHEMA_PATH, key), newSchemaPathItem);
-
-			PathItem newFeaturesPathItem = createNewPathItem(features, key, metadata);
-			addSchema(newFeaturesPathItem, metadata.getFeatureType());
-			addFilterProperties(newFeaturesPathItem, metadata.getFilterProperties());
-			paths.addPathItem(replaceCollectionId(FEATURES_PATH, key), newFeaturesPathItem);
-
-			PathItem newFeaturePathItem = createNewPathItem(feature, key, metadata);
-			paths.addPathItem(replaceCollectionId(FEATURE_PATH, key), newFeaturePathItem);
-
-		});
+		featureTypeMetadatas.forEach((key, metadata) -> paths
+			.putAll(createCollectionPathItems(key, metadata, collection, schema, features, feature)));
 
 		paths.remove(COLLECTION_PATH);
 		paths.remove(SCHEMA_PATH);
@@ -214,6 +207,25 @@ public class OafOpenApiFilter extends AbstractSpecFilter {
 		paths.putAll(pathItemsWithAdaptedPath);
 	}
 
+	private Map<String, PathItem> createCollectionPathItems(String key, FeatureTypeMetadata metadata,
+			PathItem collection, PathItem schema, PathItem features, PathItem feature) {
+		Map<String, PathItem> pathItems = new LinkedHashMap<>();
+		PathItem newCollectionPathItem = createNewPathItem(collection, key, metadata);
+		pathItems.put(replaceCollectionId(COLLECTION_PATH, key), newCollectionPathItem);
+
+		PathItem newSchemaPathItem = createNewPathItem(schema, key, metadata);
+		pathItems.put(replaceCollectionId(SCHEMA_PATH, key), newSchemaPathItem);
+
+		PathItem newFeaturesPathItem = createNewPathItem(features, key, metadata);
+		addSchema(newFeaturesPathItem, metadata.getFeatureType());
+		addFilterProperties(newFeaturesPathItem, metadata.getFilterProperties());
+		pathItems.put(replaceCollectionId(FEATURES_PATH, key), newFeaturesPathItem);
+
+		PathItem newFeaturePathItem = createNewPathItem(feature, key, metadata);
+		pathItems.put(replaceCollectionId(FEATURE_PATH, key), newFeaturePathItem);
+		return pathItems;
+	}
+
 	private void updateLimitParamMaximum(PathItem features) {
 		Optional<Parameter> limitParam = features.getGet()
 			.getParameters()
@@ -323,18 +335,17 @@ public class OafOpenApiFilter extends AbstractSpecFilter {
 		}
 		if (propertyType instanceof CustomPropertyType customPropertyType && !isGmlProperty(propertyType)) {
 			XSComplexTypeDefinition xsdValueType = customPropertyType.getXSDValueType();
-			XSParticle particle = xsdValueType.getParticle();
 
 			if (isMaxOccursGreaterThanOne(propertyType)) {
 				Schema arraySchema = new ArraySchema().items(new Schema().type(mapToPropertyType(propertyType)))
 					.name(propertyType.getName().getLocalPart())
 					.type("array");
-				addParticle(arraySchema, particle);
+				addComplexTypeProperties(arraySchema, xsdValueType);
 				return arraySchema;
 			}
 			else {
 				Schema propertySchema = new Schema().name(propertyType.getName().getLocalPart());
-				addParticle(propertySchema, particle);
+				addComplexTypeProperties(propertySchema, xsdValueType);
 				return propertySchema;
 			}
 		}
@@ -358,6 +369,26 @@ public class OafOpenApiFilter extends AbstractSpecFilter {
 			.properties(properties);
 	}
 
+	private void addComplexTypeProperties(Schema schema, XSComplexTypeDefinition complexTypeDef) {
+		retrieveComplexTypeProperties(complexTypeDef).forEach(schema::addProperties);
+	}
+
+	/**
+	 * The schemas of the properties are shared between all schemas of the type and must
+	 * not be modified.
+	 */
+	private Map<String, Schema> retrieveComplexTypeProperties(XSComplexTypeDefinition complexTypeDef) {
+		Map<String, Schema> properties = complexTypeProperties.get(complexTypeDef);
+		if (properties != null)
+			return properties;
+		Schema typeSchema = new Schema();
+		addParticle(typeSchema, complexTypeDef.getParticle());
+		Map<String, Schema> typeProperties = typeSchema.getProperties() != null ? typeSchema.getProperties()
+				: Collections.emptyMap();
+		complexTypeProperties.put(complexTypeDef, typeProperties);
+		return typeProperties;
+	}
+
 	private void addParticle(Schema schema, XSParticle particle) {
 		if (particle != null) {
 			XSTerm term = particle.getTerm();
@@ -404,18 +435,17 @@ public class OafOpenApiFilter extends AbstractSpecFilter {
 			}
 			case COMPLEX_TYPE: {
 				XSComplexTypeDefinition complexTypeDef = (XSComplexTypeDefinition) typeDef;
-				XSParticle complexParticle = complexTypeDef.getParticle();
 
 				if (particle.getMaxOccursUnbounded()) {
 					Schema itemSchema = new Schema();
 					ArraySchema arraySchema = new ArraySchema().items(itemSchema);
 					schema.addProperties(elementDeclaration.getName(), arraySchema);
-					addParticle(itemSchema, complexParticle);
+					addComplexTypeProperties(itemSchema, complexTypeDef);
 				}
 				else {
 					Schema newSchema = new Schema().name(elementDeclaration.getName());
 					schema.addProperties(elementDeclaration.getName(), newSchema);
-					addParticle(newSchema, complexParticle);
+					addComplexTypeProperties(newSchema, complexTypeDef);
 				}
 				break;
 			}
@@ -467,6 +497,7 @@ public class OafOpenApiFilter extends AbstractSpecFilter {
 		List<Parameter> parameters = createNewParameters(operation);
 
 		clonedOperation.setParameters(parameters);
+		clonedOperation.setRequestBody(operation.getRequestBody());
 		clonedOperation.setSecurity(operation.getSecurity());
 		clonedOperation.setServers(operation.getServers());
 		clonedOperation.setTags(operation.getTags());
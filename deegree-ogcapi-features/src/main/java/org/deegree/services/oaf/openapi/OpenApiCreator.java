@@ -31,6 +31,7 @@ import io.swagger.v3.oas.models.info.Contact;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.info.License;
 import io.swagger.v3.oas.models.servers.Server;
+import org.deegree.services.oaf.cache.WorkspaceGenerationCache;
 import org.deegree.services.oaf.exceptions.UnknownDatasetId;
 import org.deegree.services.oaf.workspace.DeegreeWorkspaceInitializer;
 import org.deegree.services.oaf.workspace.configuration.DatasetMetadata;
@@ -41,13 +42,9 @@ import jakarta.inject.Inject;
 import jakarta.servlet.ServletConfig;
 import jakarta.ws.rs.core.Application;
 import jakarta.ws.rs.core.Context;
-import jakarta.ws.rs.core.HttpHeaders;
-import jakarta.ws.rs.core.MultivaluedMap;
 import jakarta.ws.rs.core.UriInfo;
+import java.net.URI;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -62,6 +59,15 @@ public class OpenApiCreator {
 
 	private static final String VERSION = "1.0";
 
+	/**
+	 * The base URI is derived from the Host header of the request, the number of cached
+	 * documents must be limited.
+	 */
+	private static final int MAX_NUMBER_OF_DOCUMENTS = 100;
+
+	private static final WorkspaceGenerationCache<DocumentKey, OpenApiDocument> DOCUMENT_CACHE = new WorkspaceGenerationCache<>(
+			"OpenAPI documents", MAX_NUMBER_OF_DOCUMENTS);
+
 	@Context
 	private ServletConfig servletConfig;
 
@@ -74,7 +80,36 @@ public class OpenApiCreator {
 	@Inject
 	private DeegreeWorkspaceInitializer deegreeWorkspaceInitializer;
 
-	public OpenAPI createOpenApi(HttpHeaders headers, UriInfo uriInfo, String datasetId) throws Exception {
+	/**
+	 * Retrieves the serialized OpenAPI document of the dataset. The document is generated
+	 * once per workspace generation and base URI, it does not depend on other properties
+	 * of the request.
+	 * @param uriInfo the uriInfo of the request, never <code>null</code>
+	 * @param datasetId the id of the dataset, never <code>null</code>
+	 * @return the serialized OpenAPI document, <code>null</code> if the document could
+	 * not be created
+	 * @throws Exception if the generation of the document failed
+	 */
+	public OpenApiDocument retrieveOpenApiDocument(UriInfo uriInfo, String datasetId) throws Exception {
+		DocumentKey key = new DocumentKey(datasetId, uriInfo.getBaseUri());
+		return DOCUMENT_CACHE.retrieve(deegreeWorkspaceInitializer.getOafDatasets(), key, () -> {
+			OpenAPI openApi = createOpenApi(uriInfo, datasetId);
+			if (openApi == null)
+				return null;
+			return OpenApiDocument.serialize(openApi);
+		});
+	}
+
+	/**
+	 * Creates the OpenAPI document of the dataset. Query parameters, cookies and headers
+	 * of the request are not passed to the filter, the document must only depend on the
+	 * base URI.
+	 * @param uriInfo the uriInfo of the request, never <code>null</code>
+	 * @param datasetId the id of the dataset, never <code>null</code>
+	 * @return the OpenAPI document, never <code>null</code>
+	 * @throws Exception if the generation of the document failed
+	 */
+	public OpenAPI createOpenApi(UriInfo uriInfo, String datasetId) throws Exception {
 		OpenAPI oas = createOpenApiDocument(datasetId);
 		SwaggerConfiguration oasConfig = createSwaggerConfiguration(oas);
 
@@ -96,8 +131,7 @@ public class OpenApiCreator {
 			try {
 				OafOpenApiFilter filter = new OafOpenApiFilter(uriInfo, datasetId, deegreeWorkspaceInitializer);
 				SpecFilter f = new SpecFilter();
-				oas2 = f.filter(oas2, filter, getQueryParams(this.uriInfo.getQueryParameters()), getCookies(headers),
-						getHeaders(headers));
+				oas2 = f.filter(oas2, filter, Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
 			}
 			catch (Exception e) {
 				LOG.error("failed to load filter", e);
@@ -116,36 +150,6 @@ public class OpenApiCreator {
 		return oasConfig;
 	}
 
-	private static Map<String, List<String>> getQueryParams(MultivaluedMap<String, String> params) {
-		Map<String, List<String>> output = new HashMap();
-		if (params != null) {
-			params.entrySet().stream().forEach(entry -> {
-				output.put(entry.getKey(), entry.getValue());
-			});
-		}
-		return output;
-	}
-
-	private static Map<String, String> getCookies(HttpHeaders headers) {
-		Map<String, String> output = new HashMap();
-		if (headers != null) {
-			headers.getCookies().entrySet().stream().forEach(entry -> {
-				output.put(entry.getKey(), entry.getValue().getValue());
-			});
-		}
-		return output;
-	}
-
-	private static Map<String, List<String>> getHeaders(HttpHeaders headers) {
-		Map<String, List<String>> output = new HashMap();
-		if (headers != null) {
-			headers.getRequestHeaders().entrySet().stream().forEach(entry -> {
-				output.put(entry.getKey(), entry.getValue());
-			});
-		}
-		return output;
-	}
-
 	private OpenAPI createOpenApiDocument(String datasetId) throws UnknownDatasetId {
 		OafDatasetConfiguration oafConfiguration = deegreeWorkspaceInitializer.getOafDatasets().getDataset(datasetId);
 		DatasetMetadata metadata = oafConfiguration.getServiceMetadata();
@@ -190,4 +194,7 @@ public class OpenApiCreator {
 		return null;
 	}
 
+	private record DocumentKey(String datasetId, URI baseUri) {
+	}
+
 }
@@ -0,0 +1,68 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.openapi;
+
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Yaml;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.deegree.services.oaf.cache.CachedContent;
+
+/**
+ * Serialized OpenAPI document of a dataset, encoded as JSON and YAML.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+public class OpenApiDocument {
+
+	private final CachedContent json;
+
+	private final CachedContent yaml;
+
+	private OpenApiDocument(byte[] json, byte[] yaml) {
+		this.json = new CachedContent(json);
+		this.yaml = new CachedContent(yaml);
+	}
+
+	/**
+	 * @param openApi the OpenAPI document to serialize, never <code>null</code>
+	 * @return the serialized document, never <code>null</code>
+	 * @throws JsonProcessingException if the document could not be serialized
+	 */
+	public static OpenApiDocument serialize(OpenAPI openApi) throws JsonProcessingException {
+		byte[] json = Json.mapper().writeValueAsString(openApi).getBytes(StandardCharsets.UTF_8);
+		byte[] yaml = Yaml.mapper().writeValueAsString(openApi).getBytes(StandardCharsets.UTF_8);
+		return new OpenApiDocument(json, yaml);
+	}
+
+	/**
+	 * @param asJson <code>true</code> if the JSON encoding is requested,
+	 * <code>false</code> for YAML
+	 * @return the encoded document, never <code>null</code>
+	 */
+	public CachedContent getContent(boolean asJson) {
+		return asJson ? json : yaml;
+	}
+
+}
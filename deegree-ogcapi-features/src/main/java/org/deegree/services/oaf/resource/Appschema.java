@@ -22,10 +22,14 @@
 package org.deegree.services.oaf.resource;
 
 import static jakarta.ws.rs.core.MediaType.APPLICATION_XML;
+import static jakarta.ws.rs.core.MediaType.APPLICATION_XML_TYPE;
 import static java.util.stream.Collectors.toMap;
 import static org.deegree.gml.GMLVersion.GML_32;
 
 import javax.xml.namespace.QName;
+import java.io.ByteArrayOutputStream;
+import java.lang.annotation.Annotation;
+import java.net.URI;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
@@ -42,12 +46,20 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Providers;
 import org.deegree.feature.persistence.FeatureStore;
 import org.deegree.feature.types.AppSchema;
 import org.deegree.feature.types.FeatureType;
 import org.deegree.gml.schema.GMLSchemaInfoSet;
+import org.deegree.services.oaf.cache.CachedContent;
+import org.deegree.services.oaf.cache.CompressionLevels;
+import org.deegree.services.oaf.cache.WorkspaceGenerationCache;
 import org.deegree.services.oaf.exceptions.UnknownCollectionId;
 import org.deegree.services.oaf.exceptions.UnknownDatasetId;
 import org.deegree.services.oaf.link.LinkBuilder;
@@ -60,29 +72,72 @@ import org.deegree.services.oaf.workspace.configuration.OafDatasetConfiguration;
 import org.deegree.services.oaf.workspace.configuration.OafDatasets;
 
 /**
+ * Provides the GML application schema of a collection. The schema is rendered once per
+ * workspace generation and base URI and served with ETag and Last-Modified, compressed
+ * variants are kept with the rendered schema.
+ *
  * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
  */
 @Path("/datasets/{datasetId}/collections/{collectionId}/appschema")
 public class Appschema {
 
+	/**
+	 * The base URI is derived from the Host header of the request, the number of cached
+	 * schemas must be limited.
+	 */
+	private static final int MAX_NUMBER_OF_SCHEMAS = 1000;
+
+	private static final WorkspaceGenerationCache<AppschemaKey, CachedContent> APPSCHEMA_CACHE = new WorkspaceGenerationCache<>(
+			"GML application schemas", MAX_NUMBER_OF_SCHEMAS);
+
+	private final CompressionLevels compressionLevels = new CompressionLevels();
+
 	@Inject
 	private DeegreeWorkspaceInitializer deegreeWorkspaceInitializer;
 
+	@Context
+	private Providers providers;
+
 	@GET
 	@Produces({ APPLICATION_XML })
 	@Operation(operationId = "appschema", summary = "retrieve GML application schema of collection {collectionId}",
 			description = "Retrieves the GML application schema of the collection with the id {collectionId}. The GML application schema describes the structure of the XML representation of the features.")
 	@Tag(name = "Schema")
-	public Response appschema(@Context UriInfo uriInfo, @PathParam("datasetId") String datasetId,
-			@PathParam("collectionId") String collectionId) throws UnknownDatasetId, UnknownCollectionId {
-		LinkBuilder linkBuilder = new LinkBuilder(uriInfo, APPLICATION_XML);
+	public Response appschema(@Context UriInfo uriInfo, @Context Request request, @Context HttpHeaders headers,
+			@PathParam("datasetId") String datasetId, @PathParam("collectionId") String collectionId) throws Exception {
 		OafDatasets oafDatasets = deegreeWorkspaceInitializer.getOafDatasets();
 		OafDatasetConfiguration dataset = oafDatasets.getDataset(datasetId);
 		FeatureTypeMetadata featureTypeMetadata = dataset.getFeatureTypeMetadata(collectionId);
-		FeatureStore featureStore = featureTypeMetadata.getFeatureStore();
-		SchemaResponse schemaResponse = createSchemaResponse(dataset.isUseExistingGMLSchema(), featureStore,
-				featureTypeMetadata, datasetId, linkBuilder);
-		return Response.ok(schemaResponse).build();
+		AppschemaKey key = new AppschemaKey(datasetId, collectionId, uriInfo.getBaseUri());
+		CachedContent appschema = APPSCHEMA_CACHE.retrieve(oafDatasets, key, () -> {
+			LinkBuilder linkBuilder = new LinkBuilder(uriInfo, APPLICATION_XML);
+			FeatureStore featureStore = featureTypeMetadata.getFeatureStore();
+			SchemaResponse schemaResponse = createSchemaResponse(dataset.isUseExistingGMLSchema(), featureStore,
+					featureTypeMetadata, datasetId, linkBuilder);
+			return new CachedContent(render(schemaResponse));
+		});
+		CachedContent content = appschema.select(headers, APPLICATION_XML_TYPE, compressionLevels);
+		Response.ResponseBuilder responseBuilder = request.evaluatePreconditions(content.getLastModified(),
+				content.getEntityTag());
+		if (responseBuilder == null)
+			responseBuilder = Response.ok(content.getContent(), APPLICATION_XML_TYPE);
+		return responseBuilder.tag(content.getEntityTag())
+			.lastModified(content.getLastModified())
+			.encoding(content.getContentEncoding())
+			.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+			.build();
+	}
+
+	private byte[] render(SchemaResponse schemaResponse) throws Exception {
+		Class<SchemaResponse> type = SchemaResponse.class;
+		MessageBodyWriter<SchemaResponse> writer = providers.getMessageBodyWriter(type, type, new Annotation[0],
+				APPLICATION_XML_TYPE);
+		if (writer == null)
+			throw new IllegalStateException("No writer available for " + type);
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		writer.writeTo(schemaResponse, type, type, new Annotation[0], APPLICATION_XML_TYPE, new MultivaluedHashMap<>(),
+				content);
+		return content.toByteArray();
 	}
 
 	private SchemaResponse createSchemaResponse(boolean useExistingGMLSchema, FeatureStore featureStore,
@@ -139,4 +194,7 @@ public class Appschema {
 			.findFirst();
 	}
 
+	private record AppschemaKey(String datasetId, String collectionId, URI baseUri) {
+	}
+
 }
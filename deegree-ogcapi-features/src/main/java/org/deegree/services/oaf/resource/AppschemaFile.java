@@ -23,6 +23,8 @@ package org.deegree.services.oaf.resource;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.deegree.services.oaf.cache.CompressionLevels;
+import org.deegree.services.oaf.cache.StaticResourceHandler;
 import org.deegree.services.oaf.exceptions.UnknownAppschema;
 import org.deegree.services.oaf.workspace.DeegreeWorkspaceInitializer;
 
@@ -32,10 +34,11 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
 
 import static jakarta.ws.rs.core.MediaType.APPLICATION_XML;
 
@@ -48,16 +51,18 @@ public class AppschemaFile {
 	@Inject
 	private DeegreeWorkspaceInitializer deegreeWorkspaceInitializer;
 
+	private final CompressionLevels compressionLevels = new CompressionLevels();
+
 	@GET
 	@Produces({ APPLICATION_XML })
 	@Operation(hidden = true, operationId = "appschema",
 			summary = "retrieve application schema of collection {collectionId}",
 			description = "Retrieves the application schema of the collection with the id {collectionId}")
 	@Tag(name = "Schema")
-	public InputStream appschemaFile(@Context UriInfo uriInfo, @PathParam("path") String path)
-			throws UnknownAppschema, IOException {
+	public Response appschemaFile(@Context UriInfo uriInfo, @Context Request request, @Context HttpHeaders headers,
+			@PathParam("path") String path) throws UnknownAppschema, IOException {
 		java.nio.file.Path appschemaFile = deegreeWorkspaceInitializer.getAppschemaFile(path);
-		return Files.newInputStream(appschemaFile);
+		return StaticResourceHandler.serveFile(appschemaFile, APPLICATION_XML, request, headers, compressionLevels);
 	}
 
 }
@@ -50,6 +50,7 @@ import jakarta.ws.rs.core.UriInfo;
 import org.deegree.services.oaf.RequestedMediaType;
 import org.deegree.services.oaf.exceptions.InternalQueryException;
 import org.deegree.services.oaf.exceptions.InvalidParameterValue;
+import org.deegree.services.oaf.exceptions.ServiceUnavailable;
 import org.deegree.services.oaf.exceptions.UnknownCollectionId;
 import org.deegree.services.oaf.exceptions.UnknownDatasetId;
 import org.deegree.services.oaf.exceptions.UnknownFeatureId;
@@ -86,7 +87,7 @@ public class Feature {
 			@Parameter(description = "The request output format.", style = ParameterStyle.FORM,
 					schema = @Schema(allowableValues = { "json", "html", "xml" })) @QueryParam("f") String format)
 			throws UnknownCollectionId, InternalQueryException, InvalidParameterValue, UnknownDatasetId,
-			UnknownFeatureId {
+			UnknownFeatureId, ServiceUnavailable {
 		RequestedMediaType requestedMediaType = new RequestedMediaType(format, JSON, APPLICATION_GEOJSON);
 		return feature(uriInfo, datasetId, collectionId, featureId, crs, requestedMediaType);
 	}
@@ -102,7 +103,7 @@ public class Feature {
 			@Parameter(description = "The request output format.", style = ParameterStyle.FORM,
 					schema = @Schema(allowableValues = { "json", "html", "xml" })) @QueryParam("f") String format)
 			throws UnknownCollectionId, InternalQueryException, InvalidParameterValue, UnknownDatasetId,
-			UnknownFeatureId {
+			UnknownFeatureId, ServiceUnavailable {
 		RequestedMediaType requestedMediaType = new RequestedMediaType(format, XML, acceptHeader, APPLICATION_GML);
 		return feature(uriInfo, datasetId, collectionId, featureId, crs, requestedMediaType);
 	}
@@ -117,7 +118,7 @@ public class Feature {
 			@Parameter(description = "The request output format.", style = ParameterStyle.FORM,
 					schema = @Schema(allowableValues = { "json", "html", "xml" })) @QueryParam("f") String format)
 			throws InvalidParameterValue, UnknownDatasetId, UnknownCollectionId, InternalQueryException,
-			UnknownFeatureId {
+			UnknownFeatureId, ServiceUnavailable {
 		RequestedMediaType requestedMediaType = new RequestedMediaType(format, HTML, TEXT_HTML);
 		return feature(uriInfo, datasetId, collectionId, featureId, crs, requestedMediaType);
 	}
@@ -131,14 +132,14 @@ public class Feature {
 			@Parameter(description = "The request output format.", style = ParameterStyle.FORM,
 					schema = @Schema(allowableValues = { "json", "html", "xml" })) @QueryParam("f") String format)
 			throws InvalidParameterValue, UnknownDatasetId, UnknownCollectionId, InternalQueryException,
-			UnknownFeatureId {
+			UnknownFeatureId, ServiceUnavailable {
 		RequestedMediaType requestedMediaType = new RequestedMediaType(format, HTML, TEXT_HTML);
 		return feature(uriInfo, datasetId, collectionId, featureId, crs, requestedMediaType);
 	}
 
 	private Response feature(UriInfo uriInfo, String datasetId, String collectionId, String featureId, String crs,
 			RequestedMediaType requestedMediaType) throws UnknownCollectionId, InternalQueryException,
-			InvalidParameterValue, UnknownDatasetId, UnknownFeatureId {
+			InvalidParameterValue, UnknownDatasetId, UnknownFeatureId, ServiceUnavailable {
 		OafDatasetConfiguration oafConfiguration = deegreeWorkspaceInitializer.getOafDatasets().getDataset(datasetId);
 		oafConfiguration.checkCollection(collectionId);
 		if (HTML.equals(requestedMediaType.getRequestFormat())) {
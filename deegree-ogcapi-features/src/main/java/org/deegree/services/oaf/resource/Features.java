@@ -21,6 +21,7 @@
  */
 package org.deegree.services.oaf.resource;
 
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
 import static jakarta.ws.rs.core.MediaType.TEXT_HTML;
 import static org.deegree.services.oaf.OgcApiFeaturesMediaType.APPLICATION_GEOJSON;
 import static org.deegree.services.oaf.OgcApiFeaturesMediaType.APPLICATION_GML;
@@ -35,6 +36,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.Explode;
@@ -43,8 +45,10 @@ import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
@@ -59,10 +63,12 @@ import org.deegree.services.oaf.RequestedMediaType;
 import org.deegree.services.oaf.domain.FilterLang;
 import org.deegree.services.oaf.exceptions.InternalQueryException;
 import org.deegree.services.oaf.exceptions.InvalidParameterValue;
+import org.deegree.services.oaf.exceptions.ServiceUnavailable;
 import org.deegree.services.oaf.exceptions.UnknownCollectionId;
 import org.deegree.services.oaf.exceptions.UnknownDatasetId;
 import org.deegree.services.oaf.io.request.FeaturesRequest;
 import org.deegree.services.oaf.io.request.FeaturesRequestBuilder;
+import org.deegree.services.oaf.io.request.FeaturesSearch;
 import org.deegree.services.oaf.io.response.FeaturesResponse;
 import org.deegree.services.oaf.io.response.FeaturesResponseCreator;
 import org.deegree.services.oaf.link.LinkBuilder;
@@ -70,6 +76,7 @@ import org.deegree.services.oaf.workspace.DataAccess;
 import org.deegree.services.oaf.workspace.DeegreeWorkspaceInitializer;
 import org.deegree.services.oaf.workspace.configuration.FeatureTypeMetadata;
 import org.deegree.services.oaf.workspace.configuration.OafDatasetConfiguration;
+import org.glassfish.jersey.server.CloseableService;
 
 /**
  * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
@@ -85,6 +92,9 @@ public class Features {
 	@Inject
 	private DataAccess dataAccess;
 
+	@Context
+	private CloseableService closeableService;
+
 	@GET
 	@Produces({ APPLICATION_GEOJSON })
 	@Operation(operationId = "features", summary = "retrieves features of collection {collectionId}",
@@ -121,17 +131,22 @@ public class Features {
 					description = "The CRS of the geometries used in the filter expression. Example: 'EPSG:25832'  Default: http://www.opengis.net/def/crs/OGC/1.3/CRS84",
 					style = ParameterStyle.FORM) @QueryParam("filter-crs") String filterCrs,
 			@Parameter(description = "The encoding of the filter parameter.", style = ParameterStyle.FORM,
-					schema = @Schema(allowableValues = { "cql2-text" })) @QueryParam("filter-lang") String filterLang,
+					schema = @Schema(allowableValues = { "cql2-text",
+							"cql2-json" })) @QueryParam("filter-lang") String filterLang,
 			@Parameter(
 					description = "The coordinate reference system of the response geometries. Example: 'EPSG:25832' Default: http://www.opengis.net/def/crs/OGC/1.3/CRS84",
 					style = ParameterStyle.FORM) @QueryParam("crs") String crs,
+			@Parameter(
+					description = "Comma separated list of ids of the features to retrieve. Cannot be combined with bbox, datetime, filter or queryables, limit and offset are ignored.",
+					explode = Explode.FALSE, style = ParameterStyle.FORM) @QueryParam("ids") String ids,
 			@Parameter(description = "The request output format.", style = ParameterStyle.FORM,
 					schema = @Schema(allowableValues = { "json", "html", "xml" })) @QueryParam("f") String format)
-			throws UnknownCollectionId, InternalQueryException, InvalidParameterValue, UnknownDatasetId {
+			throws UnknownCollectionId, InternalQueryException, InvalidParameterValue, UnknownDatasetId,
+			ServiceUnavailable {
 		RequestedMediaType requestedMediaType = new RequestedMediaType(format, JSON, APPLICATION_GEOJSON,
 				APPLICATION_GEOJSON);
 		return features(uriInfo, datasetId, collectionId, limit, offset, bulk, bbox, bboxCrs, datetime, filter,
-				filterLang, filterCrs, crs, requestedMediaType);
+				filterLang, filterCrs, crs, ids, requestedMediaType);
 	}
 
 	@GET
@@ -165,15 +180,20 @@ public class Features {
 					description = "The CRS of the geometries used in the filter expression. Example: 'EPSG:25832'  Default: http://www.opengis.net/def/crs/OGC/1.3/CRS84",
 					style = ParameterStyle.FORM) @QueryParam("filter-crs") String filterCrs,
 			@Parameter(description = "The encoding of the filter parameter.", style = ParameterStyle.FORM,
-					schema = @Schema(allowableValues = { "cql2-text" })) @QueryParam("filter-lang") String filterLang,
+					schema = @Schema(allowableValues = { "cql2-text",
+							"cql2-json" })) @QueryParam("filter-lang") String filterLang,
 			@Parameter(description = "The coordinate reference system of the response geometries.",
 					style = ParameterStyle.FORM) @QueryParam("crs") String crs,
+			@Parameter(
+					description = "Comma separated list of ids of the features to retrieve. Cannot be combined with bbox, datetime, filter or queryables, limit and offset are ignored.",
+					explode = Explode.FALSE, style = ParameterStyle.FORM) @QueryParam("ids") String ids,
 			@Parameter(description = "The request output format.", style = ParameterStyle.FORM,
 					schema = @Schema(allowableValues = { "json", "html", "xml" })) @QueryParam("f") String format)
-			throws UnknownCollectionId, InternalQueryException, InvalidParameterValue, UnknownDatasetId {
+			throws UnknownCollectionId, InternalQueryException, InvalidParameterValue, UnknownDatasetId,
+			ServiceUnavailable {
 		RequestedMediaType requestedMediaType = new RequestedMediaType(format, XML, acceptHeader, APPLICATION_GML);
 		return features(uriInfo, datasetId, collectionId, limit, offset, bulk, bbox, bboxCrs, datetime, filter,
-				filterLang, filterCrs, crs, requestedMediaType);
+				filterLang, filterCrs, crs, ids, requestedMediaType);
 	}
 
 	@GET
@@ -207,15 +227,20 @@ public class Features {
 					description = "The CRS of the geometries used in the filter expression. Example: 'EPSG:25832'  Default: http://www.opengis.net/def/crs/OGC/1.3/CRS84",
 					style = ParameterStyle.FORM) @QueryParam("filter-crs") String filterCrs,
 			@Parameter(description = "The encoding of the filter parameter.", style = ParameterStyle.FORM,
-					schema = @Schema(allowableValues = { "cql2-text" })) @QueryParam("filter-lang") String filterLang,
+					schema = @Schema(allowableValues = { "cql2-text",
+							"cql2-json" })) @QueryParam("filter-lang") String filterLang,
 			@Parameter(description = "The coordinate reference system of the response geometries.",
 					style = ParameterStyle.FORM) @QueryParam("crs") String crs,
+			@Parameter(
+					description = "Comma separated list of ids of the features to retrieve. Cannot be combined with bbox, datetime, filter or queryables, limit and offset are ignored.",
+					explode = Explode.FALSE, style = ParameterStyle.FORM) @QueryParam("ids") String ids,
 			@Parameter(description = "The request output format.", style = ParameterStyle.FORM,
 					schema = @Schema(allowableValues = { "json", "html", "xml" })) @QueryParam("f") String format)
-			throws InvalidParameterValue, UnknownDatasetId, UnknownCollectionId, InternalQueryException {
+			throws InvalidParameterValue, UnknownDatasetId, UnknownCollectionId, InternalQueryException,
+			ServiceUnavailable {
 		RequestedMediaType requestedMediaType = new RequestedMediaType(format, HTML, TEXT_HTML, TEXT_HTML);
 		return features(uriInfo, datasetId, collectionId, limit, offset, bulk, bbox, bboxCrs, datetime, filter,
-				filterLang, filterCrs, crs, requestedMediaType);
+				filterLang, filterCrs, crs, ids, requestedMediaType);
 	}
 
 	@GET
@@ -248,22 +273,53 @@ public class Features {
 					description = "The CRS of the geometries used in the filter expression. Example: 'EPSG:25832'  Default: http://www.opengis.net/def/crs/OGC/1.3/CRS84",
 					style = ParameterStyle.FORM) @QueryParam("filter-crs") String filterCrs,
 			@Parameter(description = "The encoding of the filter parameter.", style = ParameterStyle.FORM,
-					schema = @Schema(allowableValues = { "cql2-text" })) @QueryParam("filter-lang") String filterLang,
+					schema = @Schema(allowableValues = { "cql2-text",
+							"cql2-json" })) @QueryParam("filter-lang") String filterLang,
 			@Parameter(description = "The coordinate reference system of the response geometries.",
 					style = ParameterStyle.FORM) @QueryParam("crs") String crs,
+			@Parameter(
+					description = "Comma separated list of ids of the features to retrieve. Cannot be combined with bbox, datetime, filter or queryables, limit and offset are ignored.",
+					explode = Explode.FALSE, style = ParameterStyle.FORM) @QueryParam("ids") String ids,
 			@Parameter(description = "The request output format.", style = ParameterStyle.FORM,
 					schema = @Schema(allowableValues = { "json", "html", "xml" })) @QueryParam("f") String format)
-			throws InvalidParameterValue, UnknownDatasetId, UnknownCollectionId, InternalQueryException {
+			throws InvalidParameterValue, UnknownDatasetId, UnknownCollectionId, InternalQueryException,
+			ServiceUnavailable {
 		RequestedMediaType requestedMediaType = new RequestedMediaType(format, HTML, TEXT_HTML, TEXT_HTML);
 		return features(uriInfo, datasetId, collectionId, limit, offset, bulk, bbox, bboxCrs, datetime, filter,
-				filterLang, filterCrs, crs, requestedMediaType);
+				filterLang, filterCrs, crs, ids, requestedMediaType);
+	}
+
+	@POST
+	@Consumes({ APPLICATION_JSON })
+	@Produces({ APPLICATION_GEOJSON })
+	@Operation(operationId = "searchFeatures", summary = "searches features of collection {collectionId}",
+			description = "Retrieves the features of the collection with the id {collectionId} matching the filter, bbox, datetime and paging passed in the request body. Intended for filter expressions exceeding the URL length limits.")
+	@Tag(name = "Data")
+	public Response searchFeaturesGeoJson(@Context UriInfo uriInfo, @PathParam("datasetId") String datasetId,
+			@PathParam("collectionId") String collectionId, FeaturesSearch featuresSearch) throws UnknownCollectionId,
+			InternalQueryException, InvalidParameterValue, UnknownDatasetId, ServiceUnavailable {
+		RequestedMediaType requestedMediaType = new RequestedMediaType(null, JSON, APPLICATION_GEOJSON,
+				APPLICATION_GEOJSON);
+		return searchFeatures(uriInfo, datasetId, collectionId, featuresSearch, requestedMediaType);
+	}
+
+	@POST
+	@Consumes({ APPLICATION_JSON })
+	@Produces({ APPLICATION_GML, APPLICATION_GML_32, APPLICATION_GML_SF0, APPLICATION_GML_SF2 })
+	@Operation(hidden = true)
+	public Response searchFeaturesGml(@Context UriInfo uriInfo, @HeaderParam("Accept") String acceptHeader,
+			@PathParam("datasetId") String datasetId, @PathParam("collectionId") String collectionId,
+			FeaturesSearch featuresSearch) throws UnknownCollectionId, InternalQueryException, InvalidParameterValue,
+			UnknownDatasetId, ServiceUnavailable {
+		RequestedMediaType requestedMediaType = new RequestedMediaType(null, XML, acceptHeader, APPLICATION_GML);
+		return searchFeatures(uriInfo, datasetId, collectionId, featuresSearch, requestedMediaType);
 	}
 
 	private Response features(UriInfo uriInfo, String datasetId, String collectionId, int limit, int offset,
 			boolean isBulkUpload, List<Double> bbox, String bboxCrs, String datetime, String filter, String filterLang,
-			String filterCrs, String crs, RequestedMediaType requestedMediaType)
-			throws UnknownDatasetId, InvalidParameterValue, UnknownCollectionId, InternalQueryException {
-		FilterLang.fromType(filterLang);
+			String filterCrs, String crs, String ids, RequestedMediaType requestedMediaType) throws UnknownDatasetId,
+			InvalidParameterValue, UnknownCollectionId, InternalQueryException, ServiceUnavailable {
+		FilterLang requestedFilterLang = FilterLang.fromType(filterLang);
 		RequestFormat requestFormat = requestedMediaType.getRequestFormat();
 		OafDatasetConfiguration oafConfiguration = deegreeWorkspaceInitializer.getOafDatasets().getDataset(datasetId);
 		oafConfiguration.checkCollection(collectionId);
@@ -281,12 +337,58 @@ public class Features {
 			.withDatetime(datetime)
 			.withResponseCrs(crs)
 			.withQueryableParameters(filterParameters)
-			.withFilter(filter, filterCrs)
+			.withFilter(filter, requestedFilterLang, filterCrs)
+			.withIds(ids)
 			.build();
+		return retrieveFeatures(uriInfo, oafConfiguration, collectionId, featuresRequest, requestedMediaType);
+	}
+
+	private Response searchFeatures(UriInfo uriInfo, String datasetId, String collectionId,
+			FeaturesSearch featuresSearch, RequestedMediaType requestedMediaType) throws UnknownDatasetId,
+			InvalidParameterValue, UnknownCollectionId, InternalQueryException, ServiceUnavailable {
+		if (featuresSearch == null)
+			throw new InvalidParameterValue("body", "Request body is missing");
+		FilterLang filterLang = FilterLang.fromType(featuresSearch.getFilterLang());
+		OafDatasetConfiguration oafConfiguration = deegreeWorkspaceInitializer.getOafDatasets().getDataset(datasetId);
+		oafConfiguration.checkCollection(collectionId);
+
+		Map<FilterProperty, List<String>> filterParameters = findQueryableParameters(datasetId, collectionId,
+				uriInfo.getQueryParameters());
+
+		FeaturesRequestBuilder featuresRequestBuilder = new FeaturesRequestBuilder(collectionId, oafConfiguration)
+			.withLimit(featuresSearch.getLimit())
+			.withOffset(featuresSearch.getOffset())
+			.withBulkUpload(featuresSearch.isBulk())
+			.withBbox(featuresSearch.getBbox(), featuresSearch.getBboxCrs())
+			.withDatetime(featuresSearch.getDatetime())
+			.withResponseCrs(featuresSearch.getCrs())
+			.withQueryableParameters(filterParameters)
+			.withIds(featuresSearch.getIds());
+		JsonNode filter = featuresSearch.getFilter();
+		if (filter != null && filter.isObject()) {
+			if (FilterLang.CQL2_TEXT.equals(filterLang))
+				throw new InvalidParameterValue("filter", "A cql2-text filter must be passed as JSON string");
+			featuresRequestBuilder.withFilter(filter, featuresSearch.getFilterCrs());
+		}
+		else {
+			String textFilter = filter != null && filter.isTextual() ? filter.asText() : null;
+			featuresRequestBuilder.withFilter(textFilter, filterLang, featuresSearch.getFilterCrs());
+		}
+		return retrieveFeatures(uriInfo, oafConfiguration, collectionId, featuresRequestBuilder.build(),
+				requestedMediaType);
+	}
+
+	private Response retrieveFeatures(UriInfo uriInfo, OafDatasetConfiguration oafConfiguration, String collectionId,
+			FeaturesRequest featuresRequest, RequestedMediaType requestedMediaType)
+			throws InvalidParameterValue, UnknownCollectionId, InternalQueryException, ServiceUnavailable {
 		LinkBuilder linkBuilder = new LinkBuilder(uriInfo, requestedMediaType.getSelfMediaType());
 		FeaturesResponse featureResponse = dataAccess.retrieveFeatures(oafConfiguration, collectionId, featuresRequest,
 				linkBuilder);
-		if (XML.equals(requestFormat)) {
+		// the features are usually closed by the writer, but not if the entity is never
+		// written (HEAD requests, aborted requests, entities replaced by exception
+		// mappers)
+		closeableService.add(() -> featureResponse.getFeatures().close());
+		if (XML.equals(requestedMediaType.getRequestFormat())) {
 			return featureResponseCreator.createGmlResponseWithHeaders(featureResponse,
 					requestedMediaType.requestedMediaType());
 		}
@@ -0,0 +1,51 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.resource;
+
+import static jakarta.ws.rs.core.MediaType.TEXT_PLAIN;
+import static org.deegree.services.oaf.metrics.OafMetrics.PROMETHEUS_CONTENT_TYPE;
+
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Response;
+import org.deegree.services.oaf.metrics.OafMetrics;
+
+/**
+ * Provides the metrics in the Prometheus text exposition format.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+@Path("/metrics")
+public class Metrics {
+
+	@GET
+	@Produces({ TEXT_PLAIN })
+	@Operation(hidden = true)
+	public Response metrics() {
+		if (!OafMetrics.isEnabled())
+			return Response.status(Response.Status.NOT_FOUND).build();
+		return Response.ok(OafMetrics.scrape(), PROMETHEUS_CONTENT_TYPE).header("Cache-Control", "no-store").build();
+	}
+
+}
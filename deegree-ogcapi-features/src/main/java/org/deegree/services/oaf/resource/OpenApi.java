@@ -21,15 +21,14 @@
  */
 package org.deegree.services.oaf.resource;
 
-import io.swagger.v3.core.util.Json;
-import io.swagger.v3.core.util.Yaml;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import io.swagger.v3.oas.models.OpenAPI;
-import org.apache.http.HttpStatus;
 import org.deegree.commons.utils.TunableParameter;
+import org.deegree.services.oaf.cache.CachedContent;
+import org.deegree.services.oaf.cache.CompressionLevels;
+import org.deegree.services.oaf.cache.StaticResourceHandler;
 import org.deegree.services.oaf.openapi.OpenApiCreator;
-import org.slf4j.Logger;
+import org.deegree.services.oaf.openapi.OpenApiDocument;
 
 import jakarta.inject.Inject;
 import jakarta.servlet.ServletContext;
@@ -39,19 +38,18 @@ import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.Response.ResponseBuilder;
 import jakarta.ws.rs.core.UriInfo;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.IOException;
 
 import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
 import static jakarta.ws.rs.core.MediaType.TEXT_HTML;
 import static org.deegree.services.oaf.OgcApiFeaturesMediaType.APPLICATION_OPENAPI;
 import static org.deegree.services.oaf.OgcApiFeaturesMediaType.APPLICATION_OPENAPI_YAML;
 import static org.deegree.services.oaf.OgcApiFeaturesMediaType.APPLICATION_YAML;
-import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
@@ -66,7 +64,7 @@ public class OpenApi {
 
 	private final boolean corsAllowAll = TunableParameter.get(PARAMETER_CORS_ALLOWALL, false);
 
-	private static final Logger LOG = getLogger(OpenApi.class);
+	private final CompressionLevels compressionLevels = new CompressionLevels();
 
 	@Context
 	private ServletContext servletContext;
@@ -79,8 +77,8 @@ public class OpenApi {
 	@Operation(operationId = "openApi", summary = "api documentation", description = "api documentation")
 	@Tag(name = "Capabilities")
 	public Response getOpenApiOpenApiJson(@Context HttpHeaders headers, @Context UriInfo uriInfo,
-			@PathParam("datasetId") String datasetId) throws Exception {
-		return respondWithOpenApi(headers, uriInfo, datasetId, true);
+			@Context Request request, @PathParam("datasetId") String datasetId) throws Exception {
+		return respondWithOpenApi(headers, uriInfo, request, datasetId, true);
 	}
 
 	@GET
@@ -88,26 +86,25 @@ public class OpenApi {
 	@Operation(operationId = "openApi", summary = "api documentation", description = "api documentation")
 	@Tag(name = "Capabilities")
 	public Response getOpenApiOpenApiYaml(@Context HttpHeaders headers, @Context UriInfo uriInfo,
-			@PathParam("datasetId") String datasetId) throws Exception {
-		return respondWithOpenApi(headers, uriInfo, datasetId, false);
+			@Context Request request, @PathParam("datasetId") String datasetId) throws Exception {
+		return respondWithOpenApi(headers, uriInfo, request, datasetId, false);
 	}
 
-	private Response respondWithOpenApi(HttpHeaders headers, UriInfo uriInfo, String datasetId, boolean json)
-			throws Exception {
-		OpenAPI openApi = this.openApiCreator.createOpenApi(headers, uriInfo, datasetId);
+	private Response respondWithOpenApi(HttpHeaders headers, UriInfo uriInfo, Request request, String datasetId,
+			boolean json) throws Exception {
+		OpenApiDocument openApiDocument = this.openApiCreator.retrieveOpenApiDocument(uriInfo, datasetId);
 
-		if (openApi == null)
+		if (openApiDocument == null)
 			return Response.status(404).build();
 
-		String rendered;
-		if (json) {
-			rendered = Json.mapper().writeValueAsString(openApi);
-		}
-		else {
-			rendered = Yaml.mapper().writeValueAsString(openApi);
-		}
-
-		ResponseBuilder resp = Response.status(Response.Status.OK).entity(rendered);
+		MediaType mediaType = MediaType.valueOf(json ? APPLICATION_OPENAPI : APPLICATION_OPENAPI_YAML);
+		CachedContent content = openApiDocument.getContent(json).select(headers, mediaType, compressionLevels);
+		ResponseBuilder resp = request.evaluatePreconditions(content.getEntityTag());
+		if (resp == null)
+			resp = Response.status(Response.Status.OK).entity(content.getContent());
+		resp.tag(content.getEntityTag())
+			.encoding(content.getContentEncoding())
+			.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
 		if (corsAllowAll) {
 			resp.header("Access-Control-Allow-Origin", "*");
 		}
@@ -117,43 +114,40 @@ public class OpenApi {
 	@GET
 	@Produces({ TEXT_HTML })
 	@Operation(hidden = true)
-	public Response getOpenApiHtml() {
-		return getFile("index.html");
+	public Response getOpenApiHtml(@Context Request request, @Context HttpHeaders headers) throws IOException {
+		return getFile("index.html", TEXT_HTML, request, headers);
 	}
 
 	@Operation(hidden = true)
 	@Path("/{path: .+\\.css$}")
 	@GET
-	public Response getCssFile(@PathParam("path") String path) {
-		return getFile(path, "text/css");
+	public Response getCssFile(@PathParam("path") String path, @Context Request request, @Context HttpHeaders headers)
+			throws IOException {
+		return getFile(path, "text/css", request, headers);
 	}
 
 	@Operation(hidden = true)
 	@Path("/{path: .+\\.js$}")
 	@GET
-	public Response getJsFile(@PathParam("path") String path) {
-		return getFile(path, "text/javascript");
+	public Response getJsFile(@PathParam("path") String path, @Context Request request, @Context HttpHeaders headers)
+			throws IOException {
+		return getFile(path, "text/javascript", request, headers);
 	}
 
 	@Operation(hidden = true)
 	@Path("/{path: .+}")
 	@GET
-	public Response getFile(@PathParam("path") String path) {
-		return getFile(path, null);
+	public Response getFile(@PathParam("path") String path, @Context Request request, @Context HttpHeaders headers)
+			throws IOException {
+		return getFile(path, null, request, headers);
 	}
 
-	private Response getFile(String path, String mimeType) {
-		try {
-			if (path.startsWith("api/"))
-				path = path.substring(4);
-			String base = servletContext.getRealPath("/swagger-ui/");
-			File f = new File("%s/%s".formatted(base, path));
-			return Response.ok(new FileInputStream(f), mimeType).build();
-		}
-		catch (FileNotFoundException e) {
-			LOG.warn("Could not find requested file ", e);
-			return Response.status(HttpStatus.SC_NOT_FOUND).build();
-		}
+	private Response getFile(String path, String mimeType, Request request, HttpHeaders headers) throws IOException {
+		if (path.startsWith("api/"))
+			path = path.substring(4);
+		String base = servletContext.getRealPath("/swagger-ui/");
+		return StaticResourceHandler.serveFile(java.nio.file.Path.of(base), path, mimeType, request, headers,
+				compressionLevels);
 	}
 
 }
@@ -22,6 +22,8 @@
 package org.deegree.services.oaf.resource.html;
 
 import io.swagger.v3.oas.annotations.Operation;
+import org.deegree.services.oaf.cache.CompressionLevels;
+import org.deegree.services.oaf.cache.StaticResourceHandler;
 import org.deegree.services.oaf.config.htmlview.HtmlViewConfiguration;
 import org.deegree.services.oaf.domain.html.HtmlPageConfiguration;
 import org.deegree.services.oaf.domain.html.MapConfiguration;
@@ -34,10 +36,10 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.InputStream;
+import java.io.IOException;
 
 import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
 
@@ -53,14 +55,19 @@ public class Dataset {
 	@Inject
 	private DeegreeWorkspaceInitializer deegreeWorkspaceInitializer;
 
+	private final CompressionLevels compressionLevels = new CompressionLevels();
+
 	@Operation(hidden = true)
 	@Path("/css/main.css")
 	@GET
-	public InputStream getCssFile(@PathParam("datasetId") String datasetId) throws FileNotFoundException {
+	public Response getCssFile(@PathParam("datasetId") String datasetId, @Context Request request,
+			@Context HttpHeaders headers) throws IOException {
 		HtmlViewConfiguration htmlViewConfiguration = deegreeWorkspaceInitializer.getHtmlViewConfiguration(datasetId);
 		if (htmlViewConfiguration != null && htmlViewConfiguration.getCssFile() != null)
-			return new FileInputStream(htmlViewConfiguration.getCssFile());
-		return getClass().getResourceAsStream("/css/main.css");
+			return StaticResourceHandler.serveFile(htmlViewConfiguration.getCssFile().toPath(), "text/css", request,
+					headers, compressionLevels);
+		return StaticResourceHandler.serveClasspathResource("/css/main.css", "text/css", request, headers,
+				compressionLevels);
 	}
 
 	@Operation(hidden = true)
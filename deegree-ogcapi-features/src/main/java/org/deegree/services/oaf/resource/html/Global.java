@@ -22,6 +22,8 @@
 package org.deegree.services.oaf.resource.html;
 
 import io.swagger.v3.oas.annotations.Operation;
+import org.deegree.services.oaf.cache.CompressionLevels;
+import org.deegree.services.oaf.cache.StaticResourceHandler;
 import org.deegree.services.oaf.config.htmlview.HtmlViewConfiguration;
 import org.deegree.services.oaf.domain.html.HtmlPageConfiguration;
 import org.deegree.services.oaf.workspace.DeegreeWorkspaceInitializer;
@@ -33,10 +35,10 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.InputStream;
+import java.io.IOException;
 
 import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
 
@@ -52,22 +54,28 @@ public class Global {
 	@Inject
 	private DeegreeWorkspaceInitializer deegreeWorkspaceInitializer;
 
+	private final CompressionLevels compressionLevels = new CompressionLevels();
+
 	@Operation(hidden = true)
 	@Path("css/main.css")
 	@GET
-	public InputStream getDefaultCssFile() throws FileNotFoundException {
+	public Response getDefaultCssFile(@Context Request request, @Context HttpHeaders headers) throws IOException {
 		HtmlViewConfiguration globalHtmlViewConfiguration = deegreeWorkspaceInitializer
 			.getGlobalHtmlViewConfiguration();
 		if (globalHtmlViewConfiguration != null && globalHtmlViewConfiguration.getCssFile() != null)
-			return new FileInputStream(globalHtmlViewConfiguration.getCssFile());
-		return getClass().getResourceAsStream("/css/main.css");
+			return StaticResourceHandler.serveFile(globalHtmlViewConfiguration.getCssFile().toPath(), "text/css",
+					request, headers, compressionLevels);
+		return StaticResourceHandler.serveClasspathResource("/css/main.css", "text/css", request, headers,
+				compressionLevels);
 	}
 
 	@Operation(hidden = true)
 	@Path("/js/{path: .+\\.js$}")
 	@GET
-	public Response getVueFile(@PathParam("path") String path) {
-		return Response.ok(getClass().getResourceAsStream("/js/%s".formatted(path)), "text/javascript").build();
+	public Response getVueFile(@PathParam("path") String path, @Context Request request, @Context HttpHeaders headers)
+			throws IOException {
+		return StaticResourceHandler.serveClasspathResource("/js/%s".formatted(path), "text/javascript", request,
+				headers, compressionLevels);
 	}
 
 	@Operation(hidden = true)
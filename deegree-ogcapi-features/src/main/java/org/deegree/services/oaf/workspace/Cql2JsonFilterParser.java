@@ -0,0 +1,323 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.workspace;
+
+import static org.deegree.filter.MatchAction.ANY;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.deegree.cql2.FilterProperty;
+import org.deegree.cs.coordinatesystems.ICRS;
+import org.deegree.filter.Expression;
+import org.deegree.filter.Operator;
+import org.deegree.filter.comparison.PropertyIsBetween;
+import org.deegree.filter.comparison.PropertyIsEqualTo;
+import org.deegree.filter.comparison.PropertyIsGreaterThan;
+import org.deegree.filter.comparison.PropertyIsGreaterThanOrEqualTo;
+import org.deegree.filter.comparison.PropertyIsLessThan;
+import org.deegree.filter.comparison.PropertyIsLessThanOrEqualTo;
+import org.deegree.filter.comparison.PropertyIsLike;
+import org.deegree.filter.comparison.PropertyIsNotEqualTo;
+import org.deegree.filter.comparison.PropertyIsNull;
+import org.deegree.filter.expression.Literal;
+import org.deegree.filter.expression.ValueReference;
+import org.deegree.filter.logical.And;
+import org.deegree.filter.logical.Not;
+import org.deegree.filter.logical.Or;
+import org.deegree.filter.spatial.Contains;
+import org.deegree.filter.spatial.Crosses;
+import org.deegree.filter.spatial.Disjoint;
+import org.deegree.filter.spatial.Equals;
+import org.deegree.filter.spatial.Intersects;
+import org.deegree.filter.spatial.Overlaps;
+import org.deegree.filter.spatial.Touches;
+import org.deegree.filter.spatial.Within;
+import org.deegree.filter.temporal.After;
+import org.deegree.filter.temporal.Before;
+import org.deegree.filter.temporal.TEquals;
+import org.deegree.geometry.Geometry;
+import org.deegree.geometry.GeometryFactory;
+import org.deegree.geometry.points.Points;
+import org.deegree.geometry.primitive.LineString;
+import org.deegree.geometry.primitive.Point;
+import org.deegree.geometry.primitive.Polygon;
+import org.deegree.geometry.primitive.Ring;
+import org.deegree.geometry.standard.points.PointsList;
+import org.deegree.services.oaf.exceptions.InvalidParameterValue;
+
+/**
+ * Maps the JSON encoding of CQL2 (cql2-json) directly to the deegree {@link Operator}
+ * model.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+public class Cql2JsonFilterParser {
+
+	private static final String PARAMETER_NAME = "filter";
+
+	private static final String WILD_CARD = "%";
+
+	private static final String SINGLE_CHAR = "_";
+
+	private static final String ESCAPE_CHAR = "\\";
+
+	private static final GeometryFactory geometryFactory = new GeometryFactory();
+
+	private final ICRS filterCrs;
+
+	private final List<FilterProperty> filterProperties;
+
+	/**
+	 * @param filterCrs the CRS of the geometries used in the filter, never
+	 * <code>null</code>
+	 * @param filterProperties the queryable properties of the feature type, never
+	 * <code>null</code>
+	 */
+	public Cql2JsonFilterParser(ICRS filterCrs, List<FilterProperty> filterProperties) {
+		this.filterCrs = filterCrs;
+		this.filterProperties = filterProperties;
+	}
+
+	/**
+	 * Parses the passed cql2-json expression.
+	 * @param filter the cql2-json expression, never <code>null</code>
+	 * @return the parsed {@link Operator}, never <code>null</code>
+	 * @throws InvalidParameterValue if the expression is not a valid or supported
+	 * cql2-json expression
+	 */
+	public Operator parse(JsonNode filter) throws InvalidParameterValue {
+		if (filter == null || !filter.isObject())
+			throw new InvalidParameterValue(PARAMETER_NAME, "cql2-json expression must be a JSON object");
+		String op = requireText(filter, "op");
+		JsonNode args = filter.get("args");
+		if (args == null || !args.isArray())
+			throw new InvalidParameterValue(PARAMETER_NAME, "Operator '" + op + "' requires an array 'args'");
+		switch (op) {
+			case "and":
+				return new And(parseOperators(args));
+			case "or":
+				return new Or(parseOperators(args));
+			case "not":
+				requireArgs(op, args, 1);
+				return new Not(parse(args.get(0)));
+			case "=":
+				requireArgs(op, args, 2);
+				return new PropertyIsEqualTo(parseExpression(args.get(0)), parseExpression(args.get(1)), true, ANY);
+			case "<>":
+				requireArgs(op, args, 2);
+				return new PropertyIsNotEqualTo(parseExpression(args.get(0)), parseExpression(args.get(1)), true, ANY);
+			case "<":
+				requireArgs(op, args, 2);
+				return new PropertyIsLessThan(parseExpression(args.get(0)), parseExpression(args.get(1)), true, ANY);
+			case "<=":
+				requireArgs(op, args, 2);
+				return new PropertyIsLessThanOrEqualTo(parseExpression(args.get(0)), parseExpression(args.get(1)), true,
+						ANY);
+			case ">":
+				requireArgs(op, args, 2);
+				return new PropertyIsGreaterThan(parseExpression(args.get(0)), parseExpression(args.get(1)), true, ANY);
+			case ">=":
+				requireArgs(op, args, 2);
+				return new PropertyIsGreaterThanOrEqualTo(parseExpression(args.get(0)), parseExpression(args.get(1)),
+						true, ANY);
+			case "like":
+				requireArgs(op, args, 2);
+				return new PropertyIsLike(parseExpression(args.get(0)), parseExpression(args.get(1)), WILD_CARD,
+						SINGLE_CHAR, ESCAPE_CHAR, true, ANY);
+			case "between":
+				requireArgs(op, args, 3);
+				return new PropertyIsBetween(parseExpression(args.get(0)), parseExpression(args.get(1)),
+						parseExpression(args.get(2)), true, ANY);
+			case "in":
+				return parseIn(args);
+			case "isNull":
+				requireArgs(op, args, 1);
+				return new PropertyIsNull(parseExpression(args.get(0)), ANY);
+			case "s_intersects":
+				requireArgs(op, args, 2);
+				return new Intersects(parseExpression(args.get(0)), parseGeometry(args.get(1)));
+			case "s_within":
+				requireArgs(op, args, 2);
+				return new Within(parseExpression(args.get(0)), parseGeometry(args.get(1)));
+			case "s_contains":
+				requireArgs(op, args, 2);
+				return new Contains(parseExpression(args.get(0)), parseGeometry(args.get(1)));
+			case "s_disjoint":
+				requireArgs(op, args, 2);
+				return new Disjoint(parseExpression(args.get(0)), parseGeometry(args.get(1)));
+			case "s_equals":
+				requireArgs(op, args, 2);
+				return new Equals(parseExpression(args.get(0)), parseGeometry(args.get(1)));
+			case "s_touches":
+				requireArgs(op, args, 2);
+				return new Touches(parseExpression(args.get(0)), parseGeometry(args.get(1)));
+			case "s_overlaps":
+				requireArgs(op, args, 2);
+				return new Overlaps(parseExpression(args.get(0)), parseGeometry(args.get(1)));
+			case "s_crosses":
+				requireArgs(op, args, 2);
+				return new Crosses(parseExpression(args.get(0)), parseGeometry(args.get(1)));
+			case "t_after":
+				requireArgs(op, args, 2);
+				return new After(parseExpression(args.get(0)), parseExpression(args.get(1)));
+			case "t_before":
+				requireArgs(op, args, 2);
+				return new Before(parseExpression(args.get(0)), parseExpression(args.get(1)));
+			case "t_equals":
+				requireArgs(op, args, 2);
+				return new TEquals(parseExpression(args.get(0)), parseExpression(args.get(1)));
+			default:
+				throw new InvalidParameterValue(PARAMETER_NAME, "Operator '" + op + "' is not supported");
+		}
+	}
+
+	private Operator[] parseOperators(JsonNode args) throws InvalidParameterValue {
+		if (args.size() < 2)
+			throw new InvalidParameterValue(PARAMETER_NAME, "Logical operators require at least two arguments");
+		Operator[] operators = new Operator[args.size()];
+		for (int i = 0; i < args.size(); i++) {
+			operators[i] = parse(args.get(i));
+		}
+		return operators;
+	}
+
+	private Operator parseIn(JsonNode args) throws InvalidParameterValue {
+		requireArgs("in", args, 2);
+		Expression expression = parseExpression(args.get(0));
+		JsonNode values = args.get(1);
+		if (!values.isArray() || values.isEmpty())
+			throw new InvalidParameterValue(PARAMETER_NAME, "Operator 'in' requires a non-empty list of values");
+		if (values.size() == 1)
+			return new PropertyIsEqualTo(expression, parseExpression(values.get(0)), true, ANY);
+		Operator[] equals = new Operator[values.size()];
+		for (int i = 0; i < values.size(); i++) {
+			equals[i] = new PropertyIsEqualTo(expression, parseExpression(values.get(i)), true, ANY);
+		}
+		return new Or(equals);
+	}
+
+	private Expression parseExpression(JsonNode node) throws InvalidParameterValue {
+		if (node.isObject()) {
+			if (node.has("property"))
+				return new ValueReference(findFilterProperty(requireText(node, "property")).getName());
+			if (node.has("timestamp"))
+				return new Literal<>(requireText(node, "timestamp"));
+			if (node.has("date"))
+				return new Literal<>(requireText(node, "date"));
+			throw new InvalidParameterValue(PARAMETER_NAME, "Unsupported expression " + node);
+		}
+		if (node.isValueNode() && !node.isNull())
+			return new Literal<>(node.asText());
+		throw new InvalidParameterValue(PARAMETER_NAME, "Unsupported expression " + node);
+	}
+
+	private FilterProperty findFilterProperty(String propertyName) throws InvalidParameterValue {
+		return filterProperties.stream()
+			.filter(filterProperty -> filterProperty.getName().getLocalPart().equals(propertyName))
+			.findFirst()
+			.orElseThrow(() -> new InvalidParameterValue(PARAMETER_NAME,
+					"Property '" + propertyName + "' is not a queryable"));
+	}
+
+	private Geometry parseGeometry(JsonNode node) throws InvalidParameterValue {
+		if (node.has("bbox")) {
+			JsonNode bbox = node.get("bbox");
+			if (!bbox.isArray() || bbox.size() != 4)
+				throw new InvalidParameterValue(PARAMETER_NAME, "bbox does not have exact 4 numbers");
+			return geometryFactory.createEnvelope(bbox.get(0).asDouble(), bbox.get(1).asDouble(),
+					bbox.get(2).asDouble(), bbox.get(3).asDouble(), filterCrs);
+		}
+		String type = requireText(node, "type");
+		JsonNode coordinates = node.get("coordinates");
+		if (coordinates == null || !coordinates.isArray())
+			throw new InvalidParameterValue(PARAMETER_NAME, "Geometry of type '" + type + "' has no coordinates");
+		switch (type) {
+			case "Point":
+				return createPoint(coordinates);
+			case "LineString":
+				return createLineString(coordinates);
+			case "Polygon":
+				return createPolygon(coordinates);
+			case "MultiPoint":
+				List<Point> points = new ArrayList<>();
+				for (JsonNode point : coordinates)
+					points.add(createPoint(point));
+				return geometryFactory.createMultiPoint(null, filterCrs, points);
+			case "MultiLineString":
+				List<LineString> lineStrings = new ArrayList<>();
+				for (JsonNode lineString : coordinates)
+					lineStrings.add(createLineString(lineString));
+				return geometryFactory.createMultiLineString(null, filterCrs, lineStrings);
+			case "MultiPolygon":
+				List<Polygon> polygons = new ArrayList<>();
+				for (JsonNode polygon : coordinates)
+					polygons.add(createPolygon(polygon));
+				return geometryFactory.createMultiPolygon(null, filterCrs, polygons);
+			default:
+				throw new InvalidParameterValue(PARAMETER_NAME, "Geometry type '" + type + "' is not supported");
+		}
+	}
+
+	private Point createPoint(JsonNode coordinates) throws InvalidParameterValue {
+		if (!coordinates.isArray() || coordinates.size() < 2)
+			throw new InvalidParameterValue(PARAMETER_NAME, "Position must have at least two numbers");
+		return geometryFactory.createPoint(null, coordinates.get(0).asDouble(), coordinates.get(1).asDouble(),
+				filterCrs);
+	}
+
+	private Points createPoints(JsonNode coordinates) throws InvalidParameterValue {
+		List<Point> points = new ArrayList<>(coordinates.size());
+		for (JsonNode position : coordinates)
+			points.add(createPoint(position));
+		return new PointsList(points);
+	}
+
+	private LineString createLineString(JsonNode coordinates) throws InvalidParameterValue {
+		return geometryFactory.createLineString(null, filterCrs, createPoints(coordinates));
+	}
+
+	private Polygon createPolygon(JsonNode coordinates) throws InvalidParameterValue {
+		if (coordinates.isEmpty())
+			throw new InvalidParameterValue(PARAMETER_NAME, "Polygon requires an exterior ring");
+		Ring exterior = geometryFactory.createLinearRing(null, filterCrs, createPoints(coordinates.get(0)));
+		List<Ring> interiors = new ArrayList<>();
+		for (int i = 1; i < coordinates.size(); i++)
+			interiors.add(geometryFactory.createLinearRing(null, filterCrs, createPoints(coordinates.get(i))));
+		return geometryFactory.createPolygon(null, filterCrs, exterior, interiors);
+	}
+
+	private void requireArgs(String op, JsonNode args, int expectedNumberOfArgs) throws InvalidParameterValue {
+		if (args.size() != expectedNumberOfArgs)
+			throw new InvalidParameterValue(PARAMETER_NAME,
+					"Operator '" + op + "' requires exact " + expectedNumberOfArgs + " arguments");
+	}
+
+	private String requireText(JsonNode node, String fieldName) throws InvalidParameterValue {
+		JsonNode field = node.get(fieldName);
+		if (field == null || !field.isTextual())
+			throw new InvalidParameterValue(PARAMETER_NAME, "Missing or invalid member '" + fieldName + "'");
+		return field.asText();
+	}
+
+}
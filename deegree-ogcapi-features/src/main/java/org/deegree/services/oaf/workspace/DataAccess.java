@@ -25,6 +25,7 @@ import org.deegree.services.oaf.domain.collections.Collection;
 import org.deegree.services.oaf.domain.collections.Collections;
 import org.deegree.services.oaf.exceptions.InternalQueryException;
 import org.deegree.services.oaf.exceptions.InvalidParameterValue;
+import org.deegree.services.oaf.exceptions.ServiceUnavailable;
 import org.deegree.services.oaf.exceptions.UnknownCollectionId;
 import org.deegree.services.oaf.exceptions.UnknownFeatureId;
 import org.deegree.services.oaf.io.response.FeatureResponse;
@@ -45,10 +46,10 @@ public interface DataAccess {
 
 	FeaturesResponse retrieveFeatures(OafDatasetConfiguration oafConfiguration, String collectionId,
 			FeaturesRequest featuresRequest, LinkBuilder linkBuilder)
-			throws InternalQueryException, InvalidParameterValue, UnknownCollectionId;
+			throws InternalQueryException, InvalidParameterValue, UnknownCollectionId, ServiceUnavailable;
 
 	FeatureResponse retrieveFeature(OafDatasetConfiguration oafConfiguration, String collectionId, String featureId,
-			String crs, LinkBuilder linkBuilder)
-			throws InternalQueryException, InvalidParameterValue, UnknownCollectionId, UnknownFeatureId;
+			String crs, LinkBuilder linkBuilder) throws InternalQueryException, InvalidParameterValue,
+			UnknownCollectionId, UnknownFeatureId, ServiceUnavailable;
 
 }
@@ -21,49 +21,79 @@
  */
 package org.deegree.services.oaf.workspace;
 
+import org.deegree.commons.utils.TunableParameter;
 import org.deegree.cs.exceptions.UnknownCRSException;
 import org.deegree.cs.persistence.CRSManager;
 import org.deegree.feature.Feature;
-import org.deegree.feature.FeatureCollection;
 import org.deegree.feature.persistence.FeatureStore;
 import org.deegree.feature.persistence.FeatureStoreException;
 import org.deegree.feature.persistence.query.Query;
 import org.deegree.feature.stream.FeatureInputStream;
+import org.deegree.feature.stream.IteratorFeatureInputStream;
 import org.deegree.feature.types.FeatureType;
 import org.deegree.filter.FilterEvaluationException;
+import org.deegree.services.oaf.cache.FeatureCache;
 import org.deegree.services.oaf.domain.collections.Collection;
 import org.deegree.services.oaf.domain.collections.Collections;
 import org.deegree.services.oaf.exceptions.InternalQueryException;
 import org.deegree.services.oaf.exceptions.InvalidConfigurationException;
 import org.deegree.services.oaf.exceptions.InvalidParameterValue;
+import org.deegree.services.oaf.exceptions.ServiceUnavailable;
 import org.deegree.services.oaf.exceptions.UnknownCollectionId;
 import org.deegree.services.oaf.exceptions.UnknownFeatureId;
 import org.deegree.services.oaf.io.request.FeaturesRequest;
 import org.deegree.services.oaf.io.response.FeatureResponse;
 import org.deegree.services.oaf.io.response.FeaturesResponse;
 import org.deegree.services.oaf.io.response.FeaturesResponseBuilder;
+import org.deegree.services.oaf.io.response.RequestedFeatureIds;
+import org.deegree.services.oaf.io.response.ServerTiming;
 import org.deegree.services.oaf.link.Link;
 import org.deegree.services.oaf.link.LinkBuilder;
 import org.deegree.services.oaf.link.NextLink;
 import org.deegree.services.oaf.workspace.configuration.FeatureTypeMetadata;
 import org.deegree.services.oaf.workspace.configuration.OafDatasetConfiguration;
+import org.deegree.services.oaf.workspace.configuration.QueryLane;
+import org.deegree.services.oaf.workspace.configuration.QueryScheduler;
+import org.deegree.services.oaf.workspace.memory.MemoryResidentCollection;
+import org.slf4j.Logger;
 
 import javax.xml.namespace.QName;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 import static org.deegree.services.oaf.OgcApiFeaturesConstants.DEFAULT_CRS;
+import static org.deegree.services.oaf.metrics.OafMetrics.recordQuery;
+import static org.deegree.services.oaf.metrics.OafMetrics.recordQueryHits;
+import static org.deegree.services.oaf.metrics.OafMetrics.recordQuerySkipped;
 import static org.deegree.services.oaf.workspace.DeegreeQueryBuilder.FIRST;
 import static org.deegree.services.oaf.workspace.DeegreeQueryBuilder.UNLIMITED;
+import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
  */
 public class DeegreeDataAccess implements DataAccess {
 
+	/**
+	 * Name for parameter defining the duration (in milliseconds) of a request to the
+	 * features, including writing the features, from which on the query is logged as slow
+	 * query, 0 disables the slow query log.
+	 */
+	public static final String PARAMETER_SLOW_QUERY_THRESHOLD = "deegree.oaf.query.slow_threshold";
+
+	private static final Logger LOG = getLogger(DeegreeDataAccess.class);
+
+	private static final Logger SLOW_QUERY_LOG = getLogger("org.deegree.services.oaf.slowquery");
+
+	private static final FeatureCache FEATURE_CACHE = new FeatureCache();
+
+	private final int slowQueryThreshold = TunableParameter.get(PARAMETER_SLOW_QUERY_THRESHOLD, 0);
+
+	private final FilterPushdownAnalyzer filterPushdownAnalyzer = new FilterPushdownAnalyzer();
+
 	@Override
 	public Collections createCollections(OafDatasetConfiguration oafConfiguration, LinkBuilder linkBuilder) {
 		String datasetId = oafConfiguration.getId();
@@ -83,15 +113,31 @@ public class DeegreeDataAccess implements DataAccess {
 	@Override
 	public FeaturesResponse retrieveFeatures(OafDatasetConfiguration oafConfiguration, String collectionId,
 			FeaturesRequest featuresRequest, LinkBuilder linkBuilder)
-			throws UnknownCollectionId, InternalQueryException, InvalidParameterValue {
+			throws UnknownCollectionId, InternalQueryException, InvalidParameterValue, ServiceUnavailable {
+		ServerTiming serverTiming = new ServerTiming();
 		FeatureTypeMetadata featureTypeMetadata = oafConfiguration.getFeatureTypeMetadata(collectionId);
 		String crs = validateAndRetrieveCrs(featuresRequest.getResponseCrs());
 		FeatureStore featureStore = featureTypeMetadata.getFeatureStore();
 		try {
 			DeegreeQueryBuilder queryBuilder = new DeegreeQueryBuilder();
 			Query query = queryBuilder.createQuery(featureTypeMetadata, featuresRequest);
+			QueryGuard queryGuard = new QueryGuard(oafConfiguration.getQueryLimits());
+			queryGuard.checkFilter(query);
+			if (DeegreeQueryBuilder.isEmptyResult(query)) {
+				serverTiming.endPhase("parse");
+				return retrieveEmptyResult(oafConfiguration, featureTypeMetadata, collectionId, featuresRequest,
+						linkBuilder, crs, featureStore, serverTiming);
+			}
+			MemoryResidentCollection memoryResidentCollection = featureTypeMetadata.getMemoryResidentCollection();
+			if (memoryResidentCollection != null) {
+				serverTiming.endPhase("parse");
+				return retrieveFeaturesFromMemory(oafConfiguration, featureTypeMetadata, collectionId, featuresRequest,
+						linkBuilder, crs, featureStore, memoryResidentCollection, query, queryGuard, serverTiming);
+			}
+			checkFilterPushdown(oafConfiguration, featureTypeMetadata, collectionId, query);
+			serverTiming.endPhase("parse");
 			return retrieveFeatures(oafConfiguration, featureTypeMetadata, collectionId, featuresRequest, linkBuilder,
-					crs, featureStore, query);
+					crs, featureStore, query, queryGuard, serverTiming);
 		}
 		catch (FeatureStoreException | FilterEvaluationException | InvalidConfigurationException e) {
 			throw new InternalQueryException(e);
@@ -100,15 +146,32 @@ public class DeegreeDataAccess implements DataAccess {
 
 	@Override
 	public FeatureResponse retrieveFeature(OafDatasetConfiguration oafConfiguration, String collectionId,
-			String featureId, String responseCrs, LinkBuilder linkBuilder)
-			throws InternalQueryException, InvalidParameterValue, UnknownCollectionId, UnknownFeatureId {
+			String featureId, String responseCrs, LinkBuilder linkBuilder) throws InternalQueryException,
+			InvalidParameterValue, UnknownCollectionId, UnknownFeatureId, ServiceUnavailable {
 		FeatureTypeMetadata featureTypeMetadata = oafConfiguration.getFeatureTypeMetadata(collectionId);
 		String crs = validateAndRetrieveCrs(responseCrs);
 		FeatureStore featureStore = featureTypeMetadata.getFeatureStore();
 		try {
-			DeegreeQueryBuilder queryBuilder = new DeegreeQueryBuilder();
-			Query queryById = queryBuilder.createQueryById(featureTypeMetadata.getName(), featureId);
-			Feature firstFeature = retrieveRequestedFeature(featureId, featureStore, queryById);
+			MemoryResidentCollection memoryResidentCollection = featureTypeMetadata.getMemoryResidentCollection();
+			Feature firstFeature;
+			if (memoryResidentCollection != null) {
+				firstFeature = memoryResidentCollection.getFeature(featureId);
+				if (firstFeature == null)
+					throw new UnknownFeatureId(featureId);
+			}
+			else {
+				firstFeature = FEATURE_CACHE.get(oafConfiguration, collectionId, featureId);
+				if (firstFeature == null) {
+					DeegreeQueryBuilder queryBuilder = new DeegreeQueryBuilder();
+					Query queryById = queryBuilder.createQueryById(featureTypeMetadata.getName(), featureId);
+					try (QueryScheduler.Permit permit = oafConfiguration.getQueryScheduler()
+						.acquire(oafConfiguration.getId(), featureStoreId(featureStore), QueryLane.INTERACTIVE)) {
+						firstFeature = retrieveRequestedFeature(oafConfiguration.getId(), collectionId, featureId,
+								featureStore, queryById);
+					}
+					FEATURE_CACHE.put(oafConfiguration, collectionId, featureId, firstFeature);
+				}
+			}
 
 			String datasetId = oafConfiguration.getId();
 			List<Link> links = linkBuilder.createFeatureLinks(datasetId, collectionId);
@@ -129,15 +192,48 @@ public class DeegreeDataAccess implements DataAccess {
 		}
 	}
 
-	private Feature retrieveRequestedFeature(String featureId, FeatureStore featureStore, Query queryById)
-			throws FeatureStoreException, FilterEvaluationException, UnknownFeatureId {
-		FeatureInputStream feature = featureStore.query(queryById);
+	private void checkFilterPushdown(OafDatasetConfiguration oafConfiguration, FeatureTypeMetadata featureTypeMetadata,
+			String collectionId, Query query) throws InvalidParameterValue {
+		FilterPushdownReport report = filterPushdownAnalyzer.analyze(featureTypeMetadata, query);
+		if (!report.hasInMemoryOperators())
+			return;
+		String inMemoryOperators = report.describeInMemoryOperators();
+		if (oafConfiguration.isRejectInMemoryFilters()) {
+			LOG.info("Rejected filter on collection {} of dataset {} evaluated in memory: {}", collectionId,
+					oafConfiguration.getId(), inMemoryOperators);
+			throw new InvalidParameterValue("filter",
+					"Filter cannot be evaluated by the backend and in-memory evaluation is disabled: "
+							+ inMemoryOperators);
+		}
+		if (oafConfiguration.markInMemoryFilter(collectionId))
+			LOG.warn(
+					"Filter on collection {} of dataset {} is evaluated in memory: {} (further filters of "
+							+ "this collection evaluated in memory are logged with level DEBUG)",
+					collectionId, oafConfiguration.getId(), inMemoryOperators);
+		else
+			LOG.debug("Filter on collection {} of dataset {} is evaluated in memory: {}", collectionId,
+					oafConfiguration.getId(), inMemoryOperators);
+	}
 
-		FeatureCollection features = feature.toCollection();
-		Optional<Feature> firstFeature = features.stream().findFirst();
-		if (firstFeature.isEmpty())
-			throw new UnknownFeatureId(featureId);
-		return firstFeature.get();
+	private String featureStoreId(FeatureStore featureStore) {
+		return featureStore.getMetadata().getIdentifier().getId();
+	}
+
+	private Feature retrieveRequestedFeature(String datasetId, String collectionId, String featureId,
+			FeatureStore featureStore, Query queryById)
+			throws FeatureStoreException, FilterEvaluationException, UnknownFeatureId {
+		long start = System.nanoTime();
+		FeatureInputStream features = featureStore.query(queryById);
+		recordQuery(datasetId, collectionId, System.nanoTime() - start);
+		try {
+			Iterator<Feature> iterator = features.iterator();
+			if (!iterator.hasNext())
+				throw new UnknownFeatureId(featureId);
+			return iterator.next();
+		}
+		finally {
+			features.close();
+		}
 	}
 
 	private String validateAndRetrieveCrs(String crs) throws InvalidParameterValue {
@@ -154,25 +250,131 @@ public class DeegreeDataAccess implements DataAccess {
 
 	private FeaturesResponse retrieveFeatures(OafDatasetConfiguration oafConfiguration,
 			FeatureTypeMetadata featureTypeMetadata, String collectionId, FeaturesRequest featuresRequest,
-			LinkBuilder linkBuilder, String crs, FeatureStore featureStore, Query query)
-			throws FeatureStoreException, FilterEvaluationException {
-		int numberOfFeaturesMatched = featureStore.queryHits(query);
-		FeatureInputStream features = featureStore.query(query);
-		boolean isMaxFeaturesAndStartIndexApplicable = featureStore
-			.isMaxFeaturesAndStartIndexApplicable(new Query[] { query });
+			LinkBuilder linkBuilder, String crs, FeatureStore featureStore, Query query, QueryGuard queryGuard,
+			ServerTiming serverTiming)
+			throws FeatureStoreException, FilterEvaluationException, InvalidParameterValue, ServiceUnavailable {
+		String datasetId = oafConfiguration.getId();
+		RequestedFeatureIds requestedFeatureIds = featuresRequest.getIds() != null
+				? new RequestedFeatureIds(featuresRequest.getIds()) : null;
+		QueryLane lane = featuresRequest.isBulkUpload() ? QueryLane.BULK : QueryLane.INTERACTIVE;
+		// the permit is held until the features are written completely
+		QueryScheduler.Permit permit = oafConfiguration.getQueryScheduler()
+			.acquire(datasetId, featureStoreId(featureStore), lane);
+		serverTiming.endPhase("queue");
+		FeatureInputStream queryResult = null;
+		PrefetchingFeatureIterator featureIterator = null;
+		try {
+			long start = System.nanoTime();
+			int numberOfFeaturesMatched = featureStore.queryHits(query);
+			recordQueryHits(datasetId, collectionId, System.nanoTime() - start);
+			serverTiming.endPhase("count");
+			if (featuresRequest.isBulkUpload())
+				queryGuard.checkBulk(numberOfFeaturesMatched);
+			start = System.nanoTime();
+			queryResult = featureStore.query(query);
+			featureIterator = new PrefetchingFeatureIterator(queryResult, requestedFeatureIds, permit,
+					slowQueryLog(datasetId, collectionId, query, numberOfFeaturesMatched, serverTiming));
+			recordQuery(datasetId, collectionId, System.nanoTime() - start);
+			serverTiming.endPhase("query-open");
+			featureIterator.prefetch();
+			serverTiming.endPhase("first-row");
+			FeatureInputStream features = new IteratorFeatureInputStream(featureIterator);
+			boolean isMaxFeaturesAndStartIndexApplicable = featureStore
+				.isMaxFeaturesAndStartIndexApplicable(new Query[] { query });
+			if (featuresRequest.isBulkUpload()) {
+				return retrieveFeaturesBulk(oafConfiguration, featureTypeMetadata, collectionId, linkBuilder, crs,
+						featureStore, numberOfFeaturesMatched, features, isMaxFeaturesAndStartIndexApplicable,
+						serverTiming);
+			}
+			return retrieveFeaturesLimitedNumber(oafConfiguration, featureTypeMetadata, collectionId, featuresRequest,
+					linkBuilder, crs, featureStore, numberOfFeaturesMatched, features,
+					isMaxFeaturesAndStartIndexApplicable, serverTiming, requestedFeatureIds);
+		}
+		catch (FeatureStoreException | FilterEvaluationException | InvalidParameterValue | RuntimeException e) {
+			// until the response is returned nobody else closes the query result
+			if (featureIterator != null)
+				featureIterator.close();
+			else if (queryResult != null)
+				queryResult.close();
+			permit.close();
+			throw e;
+		}
+	}
+
+	private FeaturesResponse retrieveFeaturesFromMemory(OafDatasetConfiguration oafConfiguration,
+			FeatureTypeMetadata featureTypeMetadata, String collectionId, FeaturesRequest featuresRequest,
+			LinkBuilder linkBuilder, String crs, FeatureStore featureStore,
+			MemoryResidentCollection memoryResidentCollection, Query query, QueryGuard queryGuard,
+			ServerTiming serverTiming) throws FilterEvaluationException, InvalidParameterValue {
+		String datasetId = oafConfiguration.getId();
+		long start = System.nanoTime();
+		List<Feature> matches = memoryResidentCollection.query(query.getFilter());
+		recordQuery(datasetId, collectionId, System.nanoTime() - start);
+		serverTiming.endPhase("count");
+		int numberOfFeaturesMatched = matches.size();
+		Runnable slowQueryLog = slowQueryLog(datasetId, collectionId, query, numberOfFeaturesMatched, serverTiming);
+		RequestedFeatureIds requestedFeatureIds = featuresRequest.getIds() != null
+				? new RequestedFeatureIds(featuresRequest.getIds()) : null;
 		if (featuresRequest.isBulkUpload()) {
+			queryGuard.checkBulk(numberOfFeaturesMatched);
+			FeatureInputStream features = asFeatureInputStream(matches, requestedFeatureIds, slowQueryLog);
 			return retrieveFeaturesBulk(oafConfiguration, featureTypeMetadata, collectionId, linkBuilder, crs,
-					featureStore, numberOfFeaturesMatched, features, isMaxFeaturesAndStartIndexApplicable);
+					featureStore, numberOfFeaturesMatched, features, true, serverTiming);
 		}
+		int offset = Math.min(featuresRequest.getOffset(), numberOfFeaturesMatched);
+		int limit = Math.min(featuresRequest.getLimit(), numberOfFeaturesMatched - offset);
+		FeatureInputStream features = asFeatureInputStream(matches.subList(offset, offset + limit), requestedFeatureIds,
+				slowQueryLog);
 		return retrieveFeaturesLimitedNumber(oafConfiguration, featureTypeMetadata, collectionId, featuresRequest,
-				linkBuilder, crs, featureStore, numberOfFeaturesMatched, features,
-				isMaxFeaturesAndStartIndexApplicable);
+				linkBuilder, crs, featureStore, numberOfFeaturesMatched, features, true, serverTiming,
+				requestedFeatureIds);
+	}
+
+	private FeaturesResponse retrieveEmptyResult(OafDatasetConfiguration oafConfiguration,
+			FeatureTypeMetadata featureTypeMetadata, String collectionId, FeaturesRequest featuresRequest,
+			LinkBuilder linkBuilder, String crs, FeatureStore featureStore, ServerTiming serverTiming) {
+		LOG.debug("Request on collection {} of dataset {} provably selects no features, the feature store is not "
+				+ "queried", collectionId, oafConfiguration.getId());
+		recordQuerySkipped(oafConfiguration.getId(), collectionId);
+		FeatureInputStream features = asFeatureInputStream(List.of(), null, null);
+		if (featuresRequest.isBulkUpload())
+			return retrieveFeaturesBulk(oafConfiguration, featureTypeMetadata, collectionId, linkBuilder, crs,
+					featureStore, 0, features, true, serverTiming);
+		return retrieveFeaturesLimitedNumber(oafConfiguration, featureTypeMetadata, collectionId, featuresRequest,
+				linkBuilder, crs, featureStore, 0, features, true, serverTiming, null);
+	}
+
+	private FeatureInputStream asFeatureInputStream(List<Feature> features, RequestedFeatureIds requestedFeatureIds,
+			Runnable closeAction) {
+		FeatureInputStream featureInputStream = new IteratorFeatureInputStream(new FeatureListIterator(features));
+		return new IteratorFeatureInputStream(
+				new PrefetchingFeatureIterator(featureInputStream, requestedFeatureIds, null, closeAction));
+	}
+
+	/**
+	 * The returned action is run when the features are written completely, the logged
+	 * duration includes the encoding of the features.
+	 * @return the action logging the query if it was slow, <code>null</code> if the slow
+	 * query log is disabled
+	 */
+	private Runnable slowQueryLog(String datasetId, String collectionId, Query query, int numberOfFeaturesMatched,
+			ServerTiming serverTiming) {
+		if (slowQueryThreshold <= 0)
+			return null;
+		return () -> {
+			serverTiming.endPhase("encode");
+			long duration = serverTiming.getTotalMillis();
+			if (duration < slowQueryThreshold)
+				return;
+			SLOW_QUERY_LOG.warn("dataset={} collection={} duration={}ms {} numberMatched={} filter={}", datasetId,
+					collectionId, duration, serverTiming.asLogValue(), numberOfFeaturesMatched, query.getFilter());
+		};
 	}
 
 	private FeaturesResponse retrieveFeaturesBulk(OafDatasetConfiguration oafConfiguration,
 			FeatureTypeMetadata featureTypeMetadata, String collectionId, LinkBuilder linkBuilder, String crs,
 			FeatureStore featureStore, int numberOfFeaturesMatched, FeatureInputStream features,
-			boolean isMaxFeaturesAndStartIndexApplicable) {
+			boolean isMaxFeaturesAndStartIndexApplicable, ServerTiming serverTiming) {
 		int limit = UNLIMITED;
 		int offset = FIRST;
 		String datasetId = oafConfiguration.getId();
@@ -190,13 +392,16 @@ public class DeegreeDataAccess implements DataAccess {
 			.withMaxFeaturesAndStartIndexApplicable(isMaxFeaturesAndStartIndexApplicable)
 			.withResponseCrsName(crs)
 			.withSchemaLocation(namespaceURI, schemaLocation)
+			.withServerTiming(serverTiming)
+			.withEncodedFeatureCache(featureTypeMetadata.getEncodedFeatureCache())
 			.buildFeaturesResponse();
 	}
 
 	private FeaturesResponse retrieveFeaturesLimitedNumber(OafDatasetConfiguration oafConfiguration,
 			FeatureTypeMetadata featureTypeMetadata, String collectionId, FeaturesRequest featuresRequest,
 			LinkBuilder linkBuilder, String crs, FeatureStore featureStore, int numberOfFeaturesMatched,
-			FeatureInputStream features, boolean isMaxFeaturesAndStartIndexApplicable) {
+			FeatureInputStream features, boolean isMaxFeaturesAndStartIndexApplicable, ServerTiming serverTiming,
+			RequestedFeatureIds requestedFeatureIds) {
 		int limit = featuresRequest.getLimit();
 		int offset = featuresRequest.getOffset();
 		NextLink nextLink = new NextLink(numberOfFeaturesMatched, limit, offset);
@@ -215,6 +420,9 @@ public class DeegreeDataAccess implements DataAccess {
 			.withMaxFeaturesAndStartIndexApplicable(isMaxFeaturesAndStartIndexApplicable)
 			.withResponseCrsName(crs)
 			.withSchemaLocation(namespaceURI, schemaLocation)
+			.withServerTiming(serverTiming)
+			.withRequestedFeatureIds(requestedFeatureIds)
+			.withEncodedFeatureCache(featureTypeMetadata.getEncodedFeatureCache())
 			.buildFeaturesResponse();
 	}
 
@@ -25,6 +25,12 @@ import static org.deegree.filter.MatchAction.ALL;
 import static org.deegree.filter.MatchAction.ANY;
 
 import javax.xml.namespace.QName;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -41,8 +47,8 @@ import org.deegree.filter.Expression;
 import org.deegree.filter.Filter;
 import org.deegree.filter.IdFilter;
 import org.deegree.filter.Operator;
-import org.deegree.filter.OperatorFilter;
 import org.deegree.filter.comparison.ComparisonOperator;
+import org.deegree.filter.comparison.PropertyIsBetween;
 import org.deegree.filter.comparison.PropertyIsEqualTo;
 import org.deegree.filter.comparison.PropertyIsGreaterThan;
 import org.deegree.filter.comparison.PropertyIsGreaterThanOrEqualTo;
@@ -62,6 +68,8 @@ import org.deegree.filter.temporal.TemporalOperator;
 import org.deegree.geometry.Envelope;
 import org.deegree.geometry.SimpleGeometryFactory;
 import org.deegree.protocol.wfs.getfeature.TypeName;
+import org.deegree.services.oaf.domain.collections.Extent;
+import org.deegree.services.oaf.domain.collections.Temporal;
 import org.deegree.services.oaf.exceptions.InternalQueryException;
 import org.deegree.services.oaf.exceptions.InvalidConfigurationException;
 import org.deegree.services.oaf.exceptions.InvalidParameterValue;
@@ -91,7 +99,10 @@ public class DeegreeQueryBuilder {
 	}
 
 	/**
-	 * Creates a {@link Query} out of a {@link FeaturesRequest}.
+	 * Creates a {@link Query} out of a {@link FeaturesRequest}. The filter is normalized,
+	 * if configured for the collection the request is compared with the spatial and
+	 * temporal extent of the collection. If the result is provably empty the filter of
+	 * the query is marked as empty (see {@link #isEmptyResult(Query)}).
 	 * @param featureTypeMetadata the feature type metadata, never <code>null</code>
 	 * @param featuresRequest the request to map, never <code>null</code>
 	 * @return the created {@link Query}, never <code>null</code>
@@ -101,12 +112,30 @@ public class DeegreeQueryBuilder {
 			throws InternalQueryException, InvalidParameterValue, InvalidConfigurationException {
 		QName name = featureTypeMetadata.getName();
 		TypeName[] typeNames = { new TypeName(name, null) };
-		Filter filter = createFilter(featureTypeMetadata, featuresRequest);
+		List<Operator> operators = createOperators(featureTypeMetadata, featuresRequest);
+		if (featuresRequest.getIds() != null) {
+			if (!operators.isEmpty())
+				throw new InvalidParameterValue("ids", "cannot be combined with bbox, datetime, filter or queryables");
+			return createQueryByIds(name, featuresRequest.getIds());
+		}
+		Extent extent = featureTypeMetadata.isSkipQueriesOutsideExtent() ? featureTypeMetadata.getExtent() : null;
+		Filter filter = new FilterNormalizer(extent).normalize(operators);
+		if (isDisjointFromTemporalExtent(featureTypeMetadata, featuresRequest.getDatetime()))
+			filter = FilterNormalizer.EMPTY_RESULT;
 		int limit = featuresRequest.isBulkUpload() ? UNLIMITED : featuresRequest.getLimit();
 		int offset = featuresRequest.isBulkUpload() ? FIRST : featuresRequest.getOffset();
 		return new Query(typeNames, filter, null, limit, offset);
 	}
 
+	/**
+	 * @param query the query to check, never <code>null</code>
+	 * @return <code>true</code> if the query provably selects no features and must not be
+	 * passed to the feature store, <code>false</code> otherwise
+	 */
+	public static boolean isEmptyResult(Query query) {
+		return query.getFilter() == FilterNormalizer.EMPTY_RESULT;
+	}
+
 	/**
 	 * Creates a {@link Query} by id.
 	 * @param featureTypeName the name of the feature type, never <code>null</code>
@@ -118,27 +147,28 @@ public class DeegreeQueryBuilder {
 		return new Query(featureTypeName, idFilter, -1, 1, -1);
 	}
 
-	private Filter createFilter(FeatureTypeMetadata featureTypeMetadata, FeaturesRequest featuresRequest)
+	/**
+	 * Creates a single {@link Query} retrieving all features with the passed ids.
+	 * @param featureTypeName the name of the feature type, never <code>null</code>
+	 * @param featureIds the ids of the features, never <code>null</code> or empty
+	 * @return the created {@link Query}, never <code>null</code>
+	 */
+	public Query createQueryByIds(QName featureTypeName, List<String> featureIds) {
+		Filter idFilter = new IdFilter(featureIds.toArray(new String[0]));
+		return new Query(featureTypeName, idFilter, -1, featureIds.size(), -1);
+	}
+
+	private List<Operator> createOperators(FeatureTypeMetadata featureTypeMetadata, FeaturesRequest featuresRequest)
 			throws InternalQueryException, InvalidParameterValue, InvalidConfigurationException {
 		List<Operator> operators = new ArrayList<>();
 		operators.add(createBboxOperator(featuresRequest));
 		operators.add(createDatetimeOperator(featureTypeMetadata, featuresRequest));
 		operators.addAll(createFilterOperator(featuresRequest, featureTypeMetadata));
-		return createFilter(operators);
-	}
-
-	private Filter createFilter(List<Operator> operators) {
-		List<Operator> allOperators = operators.stream().filter(o -> o != null).collect(Collectors.toList());
-		if (allOperators.isEmpty())
-			return null;
-		if (allOperators.size() == 1)
-			return new OperatorFilter(allOperators.get(0));
-		And and = new And(allOperators.toArray(new Operator[] {}));
-		return new OperatorFilter(and);
+		return operators.stream().filter(o -> o != null).collect(Collectors.toList());
 	}
 
 	private List<Operator> createFilterOperator(FeaturesRequest featuresRequest,
-			FeatureTypeMetadata featureTypeMetadata) throws InternalQueryException {
+			FeatureTypeMetadata featureTypeMetadata) throws InternalQueryException, InvalidParameterValue {
 		List<Operator> filterOperators = new ArrayList<>();
 		Map<FilterProperty, List<String>> filterRequestProperties = featuresRequest.getFilterRequestProperties();
 		if (filterRequestProperties != null) {
@@ -149,13 +179,23 @@ public class DeegreeQueryBuilder {
 				});
 			});
 		}
-		if (featuresRequest.getFilter() != null) {
-
+		if (featuresRequest.getJsonFilter() != null) {
+			filterOperators.add(parseCql2JsonFilter(featuresRequest, featureTypeMetadata));
+		}
+		else if (featuresRequest.getFilter() != null) {
 			filterOperators.add(parseCql2Filter(featuresRequest, featureTypeMetadata));
 		}
 		return filterOperators;
 	}
 
+	private Operator parseCql2JsonFilter(FeaturesRequest featuresRequest, FeatureTypeMetadata featureTypeMetadata)
+			throws InternalQueryException, InvalidParameterValue {
+		List<FilterProperty> filterProperties = featureTypeMetadata.getFilterProperties();
+		Cql2JsonFilterParser parser = new Cql2JsonFilterParser(lookupCrs(featuresRequest.getFilterCrs()),
+				filterProperties);
+		return parser.parse(featuresRequest.getJsonFilter());
+	}
+
 	private Operator parseCql2Filter(FeaturesRequest featuresRequest, FeatureTypeMetadata featureTypeMetadata)
 			throws InternalQueryException {
 		List<FilterProperty> filterProperties = featureTypeMetadata.getFilterProperties();
@@ -216,11 +256,66 @@ public class DeegreeQueryBuilder {
 		if (dateProperty == null) {
 			return null;
 		}
+		boolean includeNull = featureTypeMetadata.isIncludeNullDateTime();
+		QName dateEndProperty = featureTypeMetadata.getDateTimeEndProperty();
+		if (dateEndProperty != null) {
+			return createIntervalOverlapOperator(dateProperty, new ValueReference(dateEndProperty), datetime,
+					includeNull);
+		}
+		Operator datetimeOperator = featureTypeMetadata.isDateTimeRangePredicate()
+				? createRangeOperator(dateProperty, datetime) : createDatetimeOperator(dateProperty, datetime);
+		if (datetimeOperator == null || !includeNull)
+			return datetimeOperator;
 		Operator emptyDatetime = new PropertyIsNull(dateProperty, ALL);
-		Operator datetimeOperator = createDatetimeOperator(dateProperty, datetime);
 		return new Or(datetimeOperator, emptyDatetime);
 	}
 
+	/**
+	 * Maps the datetime parameter to a single comparison operator which can be mapped to
+	 * an indexed range condition by the feature store.
+	 */
+	private Operator createRangeOperator(Expression dateProperty, String datetime) throws InvalidParameterValue {
+		DatetimeInterval datetimeInterval = new DatetimeInterval(datetime);
+		if (datetimeInterval.isDatetime())
+			return new PropertyIsEqualTo(dateProperty, asLiteral(datetimeInterval.datetime), true, ANY);
+		if (datetimeInterval.isFromOpen() && datetimeInterval.isToOpen())
+			return null;
+		if (datetimeInterval.isFromOpen())
+			return new PropertyIsLessThanOrEqualTo(dateProperty, asLiteral(datetimeInterval.to), true, ANY);
+		if (datetimeInterval.isToOpen())
+			return new PropertyIsGreaterThanOrEqualTo(dateProperty, asLiteral(datetimeInterval.from), true, ANY);
+		return new PropertyIsBetween(dateProperty, asLiteral(datetimeInterval.from), asLiteral(datetimeInterval.to),
+				true, ANY);
+	}
+
+	/**
+	 * Selects the features with an interval (start/end) overlapping the requested
+	 * datetime or interval: start &lt;= requested end and end &gt;= requested start. A
+	 * missing start or end of the feature is interpreted as unbounded if null values are
+	 * included.
+	 */
+	private Operator createIntervalOverlapOperator(Expression startProperty, Expression endProperty, String datetime,
+			boolean includeNull) throws InvalidParameterValue {
+		DatetimeInterval datetimeInterval = new DatetimeInterval(datetime);
+		String from = datetimeInterval.isDatetime() ? datetimeInterval.datetime : datetimeInterval.from;
+		String to = datetimeInterval.isDatetime() ? datetimeInterval.datetime : datetimeInterval.to;
+		List<Operator> operators = new ArrayList<>();
+		if (!datetimeInterval.isOpen(to)) {
+			Operator startsBeforeEnd = new PropertyIsLessThanOrEqualTo(startProperty, asLiteral(to), true, ANY);
+			operators
+				.add(includeNull ? new Or(startsBeforeEnd, new PropertyIsNull(startProperty, ALL)) : startsBeforeEnd);
+		}
+		if (!datetimeInterval.isOpen(from)) {
+			Operator endsAfterStart = new PropertyIsGreaterThanOrEqualTo(endProperty, asLiteral(from), true, ANY);
+			operators.add(includeNull ? new Or(endsAfterStart, new PropertyIsNull(endProperty, ALL)) : endsAfterStart);
+		}
+		if (operators.isEmpty())
+			return null;
+		if (operators.size() == 1)
+			return operators.get(0);
+		return new And(operators.toArray(new Operator[0]));
+	}
+
 	private Operator createDatetimeOperator(Expression dateProperty, String datetime) throws InvalidParameterValue {
 		DatetimeInterval datetimeInterval = new DatetimeInterval(datetime);
 		if (datetimeInterval.isDatetime()) {
@@ -264,6 +359,47 @@ public class DeegreeQueryBuilder {
 		throw new InvalidConfigurationException("No datetime property available for collection " + collectionId);
 	}
 
+	/**
+	 * Features without datetime match every datetime parameter if null values are
+	 * included, the result can only be proven empty if they are excluded. The datetime of
+	 * the temporal extent may be shifted by the time zone of the feature store, the
+	 * configured tolerance of the collection is applied.
+	 */
+	private boolean isDisjointFromTemporalExtent(FeatureTypeMetadata featureTypeMetadata, String datetime)
+			throws InvalidParameterValue {
+		if (datetime == null || datetime.isEmpty() || !featureTypeMetadata.isSkipQueriesOutsideExtent()
+				|| featureTypeMetadata.isIncludeNullDateTime())
+			return false;
+		Extent extent = featureTypeMetadata.getExtent();
+		Temporal temporal = extent != null ? extent.getTemporal() : null;
+		if (temporal == null || temporal.getBegin() == null || temporal.getEnd() == null)
+			return false;
+		DatetimeInterval datetimeInterval = new DatetimeInterval(datetime);
+		String from = datetimeInterval.isDatetime() ? datetimeInterval.datetime : datetimeInterval.from;
+		String to = datetimeInterval.isDatetime() ? datetimeInterval.datetime : datetimeInterval.to;
+		Duration tolerance = featureTypeMetadata.getTemporalExtentTolerance();
+		Instant requestedEnd = datetimeInterval.isOpen(to) ? null : parseInstant(to);
+		if (requestedEnd != null && requestedEnd.plus(tolerance).isBefore(temporal.getBegin().toInstant()))
+			return true;
+		Instant requestedStart = datetimeInterval.isOpen(from) ? null : parseInstant(from);
+		return requestedStart != null && requestedStart.minus(tolerance).isAfter(temporal.getEnd().toInstant());
+	}
+
+	private Instant parseInstant(String datetime) {
+		try {
+			return OffsetDateTime.parse(datetime).toInstant();
+		}
+		catch (DateTimeParseException e) {
+			// not a date-time with offset
+		}
+		try {
+			return LocalDate.parse(datetime).atStartOfDay(ZoneOffset.UTC).toInstant();
+		}
+		catch (DateTimeParseException e) {
+			return null;
+		}
+	}
+
 	private Literal<TypedObjectNode> asLiteral(String datetime) {
 		return new Literal<>(datetime);
 	}
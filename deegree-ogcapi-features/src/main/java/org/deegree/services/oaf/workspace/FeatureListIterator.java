@@ -0,0 +1,73 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.workspace;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+import org.deegree.commons.utils.CloseableIterator;
+import org.deegree.feature.Feature;
+
+/**
+ * Iterates over a list of features without copying it, the features of lists creating the
+ * features on access are created one after another.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class FeatureListIterator implements CloseableIterator<Feature> {
+
+	private final Iterator<Feature> iterator;
+
+	FeatureListIterator(List<Feature> features) {
+		this.iterator = features.iterator();
+	}
+
+	@Override
+	public boolean hasNext() {
+		return iterator.hasNext();
+	}
+
+	@Override
+	public Feature next() {
+		return iterator.next();
+	}
+
+	@Override
+	public void close() {
+		// nothing to release
+	}
+
+	@Override
+	public List<Feature> getAsListAndClose() {
+		return (List<Feature>) getAsCollectionAndClose(new ArrayList<>());
+	}
+
+	@Override
+	public Collection<Feature> getAsCollectionAndClose(Collection<Feature> collection) {
+		while (iterator.hasNext())
+			collection.add(iterator.next());
+		return collection;
+	}
+
+}
@@ -0,0 +1,272 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.workspace;
+
+import static org.deegree.services.oaf.OgcApiFeaturesConstants.DEFAULT_CRS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.deegree.cs.coordinatesystems.ICRS;
+import org.deegree.cs.exceptions.TransformationException;
+import org.deegree.cs.exceptions.UnknownCRSException;
+import org.deegree.cs.persistence.CRSManager;
+import org.deegree.filter.Expression;
+import org.deegree.filter.Filter;
+import org.deegree.filter.IdFilter;
+import org.deegree.filter.Operator;
+import org.deegree.filter.OperatorFilter;
+import org.deegree.filter.comparison.BinaryComparisonOperator;
+import org.deegree.filter.comparison.ComparisonOperator;
+import org.deegree.filter.comparison.PropertyIsBetween;
+import org.deegree.filter.comparison.PropertyIsNull;
+import org.deegree.filter.expression.Literal;
+import org.deegree.filter.expression.ValueReference;
+import org.deegree.filter.logical.And;
+import org.deegree.filter.logical.Or;
+import org.deegree.filter.spatial.BBOX;
+import org.deegree.filter.temporal.TemporalOperator;
+import org.deegree.geometry.Envelope;
+import org.deegree.geometry.GeometryTransformer;
+import org.deegree.geometry.SimpleGeometryFactory;
+import org.deegree.services.oaf.domain.collections.Extent;
+import org.deegree.services.oaf.domain.collections.Spatial;
+import org.slf4j.Logger;
+
+/**
+ * Rewrites the operators created from a request before the query is executed:
+ * <ul>
+ * <li>nested AND and OR operators are flattened,</li>
+ * <li>duplicate predicates are removed,</li>
+ * <li>a bbox disjoint from the extent of the collection proves that the result is
+ * empty.</li>
+ * </ul>
+ * Predicates are only considered as duplicates if they are structurally identical, i.e.
+ * comparison, temporal and bbox operators on property names and literals.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class FilterNormalizer {
+
+	/**
+	 * Filter returned if the result is provably empty, must not be passed to the feature
+	 * store.
+	 */
+	static final Filter EMPTY_RESULT = new IdFilter(new String[0]);
+
+	private static final Logger LOG = getLogger(FilterNormalizer.class);
+
+	/**
+	 * The extent is transformed from the corners of the envelope in the storage CRS and
+	 * may not cover all features exactly.
+	 */
+	private static final double EXTENT_MARGIN = 0.01;
+
+	private static final SimpleGeometryFactory GEOMETRY_FACTORY = new SimpleGeometryFactory();
+
+	private final Spatial spatialExtent;
+
+	/**
+	 * @param extent the extent of the collection, <code>null</code> if the bbox must not
+	 * be compared with the extent
+	 */
+	FilterNormalizer(Extent extent) {
+		this.spatialExtent = extent != null ? extent.getSpatial() : null;
+	}
+
+	/**
+	 * @param operators the operators to combine by AND, may contain <code>null</code>
+	 * @return the normalized filter, <code>null</code> if no filter is required,
+	 * {@link #EMPTY_RESULT} if the result is provably empty
+	 */
+	Filter normalize(List<Operator> operators) {
+		List<Operator> conjuncts = new ArrayList<>();
+		for (Operator operator : operators) {
+			if (operator != null)
+				addFlattened(conjuncts, normalize(operator), And.class);
+		}
+		List<Operator> normalized = new ArrayList<>();
+		for (Operator operator : deduplicate(conjuncts)) {
+			Envelope bbox = asUnboundBbox(operator);
+			if (bbox != null) {
+				if (isDisjointFromExtent(bbox)) {
+					LOG.debug("Bbox {} is disjoint from the extent, the result is empty", bbox);
+					return EMPTY_RESULT;
+				}
+			}
+			normalized.add(operator);
+		}
+		if (normalized.isEmpty())
+			return null;
+		if (normalized.size() == 1)
+			return new OperatorFilter(normalized.get(0));
+		return new OperatorFilter(new And(normalized.toArray(new Operator[0])));
+	}
+
+	private Operator normalize(Operator operator) {
+		if (operator instanceof And and)
+			return combine(flatten(and.getParams(), And.class), And.class);
+		if (operator instanceof Or or)
+			return combine(flatten(or.getParams(), Or.class), Or.class);
+		return operator;
+	}
+
+	private List<Operator> flatten(Operator[] params, Class<? extends Operator> type) {
+		List<Operator> flattened = new ArrayList<>();
+		for (Operator param : params)
+			addFlattened(flattened, normalize(param), type);
+		return deduplicate(flattened);
+	}
+
+	private void addFlattened(List<Operator> operators, Operator operator, Class<? extends Operator> type) {
+		if (type == And.class && operator instanceof And and) {
+			for (Operator param : and.getParams())
+				operators.add(param);
+		}
+		else if (type == Or.class && operator instanceof Or or) {
+			for (Operator param : or.getParams())
+				operators.add(param);
+		}
+		else {
+			operators.add(operator);
+		}
+	}
+
+	private Operator combine(List<Operator> operators, Class<? extends Operator> type) {
+		if (operators.size() == 1)
+			return operators.get(0);
+		Operator[] params = operators.toArray(new Operator[0]);
+		return type == And.class ? new And(params) : new Or(params);
+	}
+
+	private List<Operator> deduplicate(List<Operator> operators) {
+		Map<Object, Operator> unique = new LinkedHashMap<>();
+		for (Operator operator : operators) {
+			String key = key(operator);
+			unique.putIfAbsent(key != null ? key : new Object(), operator);
+		}
+		return new ArrayList<>(unique.values());
+	}
+
+	/**
+	 * @return a key identifying the structure of the operator, <code>null</code> if
+	 * duplicates of the operator cannot be detected
+	 */
+	private String key(Operator operator) {
+		if (operator instanceof And and)
+			return key("And", and.getParams());
+		if (operator instanceof Or or)
+			return key("Or", or.getParams());
+		if (operator instanceof BinaryComparisonOperator || operator instanceof PropertyIsNull
+				|| operator instanceof PropertyIsBetween) {
+			ComparisonOperator comparison = (ComparisonOperator) operator;
+			return key(operator.getClass().getSimpleName() + "," + comparison.isMatchCase() + ","
+					+ comparison.getMatchAction(), comparison.getParams());
+		}
+		if (operator instanceof TemporalOperator temporal)
+			return key(operator.getClass().getSimpleName(), temporal.getParams());
+		if (operator instanceof BBOX bbox)
+			return key("BBOX", bbox.getParams());
+		return null;
+	}
+
+	private String key(String name, Object[] params) {
+		StringBuilder key = new StringBuilder(name).append('(');
+		for (Object param : params) {
+			String paramKey = key(param);
+			if (paramKey == null)
+				return null;
+			key.append(paramKey).append(';');
+		}
+		return key.append(')').toString();
+	}
+
+	private String key(Object param) {
+		if (param == null)
+			return "null";
+		if (param instanceof Operator operator)
+			return key(operator);
+		if (param instanceof ValueReference valueReference)
+			return "ValueReference:" + valueReference.getAsText();
+		if (param instanceof Literal<?> literal)
+			return "Literal:" + literal.getValue();
+		if (param instanceof Envelope envelope)
+			return "Envelope:" + envelope.getMin().get0() + "," + envelope.getMin().get1() + ","
+					+ envelope.getMax().get0() + "," + envelope.getMax().get1() + ","
+					+ (envelope.getCoordinateSystem() != null ? envelope.getCoordinateSystem().getAlias() : null);
+		return null;
+	}
+
+	/**
+	 * @return the envelope of a bbox operator not bound to a specific property,
+	 * <code>null</code> otherwise
+	 */
+	private Envelope asUnboundBbox(Operator operator) {
+		if (!(operator instanceof BBOX bbox))
+			return null;
+		for (Object param : bbox.getParams()) {
+			if (param instanceof Expression)
+				return null;
+		}
+		return bbox.getBoundingBox();
+	}
+
+	private boolean isDisjointFromExtent(Envelope bbox) {
+		Envelope extent = asExtentInCrsOf(bbox);
+		return extent != null && isDisjoint(bbox, extent, margin(extent));
+	}
+
+	private boolean isDisjoint(Envelope envelope, Envelope other, double margin) {
+		return envelope.getMax().get0() < other.getMin().get0() - margin
+				|| envelope.getMin().get0() > other.getMax().get0() + margin
+				|| envelope.getMax().get1() < other.getMin().get1() - margin
+				|| envelope.getMin().get1() > other.getMax().get1() + margin;
+	}
+
+	private double margin(Envelope extent) {
+		return Math.max(extent.getSpan0(), extent.getSpan1()) * EXTENT_MARGIN;
+	}
+
+	private Envelope asExtentInCrsOf(Envelope bbox) {
+		ICRS bboxCrs = bbox.getCoordinateSystem();
+		if (spatialExtent == null || spatialExtent.getBbox() == null || spatialExtent.getBbox().isEmpty()
+				|| spatialExtent.getBbox().get(0).size() < 4 || bboxCrs == null)
+			return null;
+		List<Double> coordinates = spatialExtent.getBbox().get(0);
+		try {
+			ICRS extentCrs = CRSManager.lookup(DEFAULT_CRS);
+			Envelope extent = GEOMETRY_FACTORY.createEnvelope(coordinates.get(0), coordinates.get(1),
+					coordinates.get(2), coordinates.get(3), extentCrs);
+			if (bboxCrs.equals(extentCrs))
+				return extent;
+			return (Envelope) new GeometryTransformer(bboxCrs).transform(extent, false);
+		}
+		catch (UnknownCRSException | TransformationException e) {
+			LOG.debug("Could not transform extent into CRS of the bbox, the extent is not used", e);
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,175 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.workspace;
+
+import static org.deegree.services.oaf.workspace.FilterPushdownReport.Evaluation.IN_MEMORY;
+import static org.deegree.services.oaf.workspace.FilterPushdownReport.Evaluation.PUSHED_DOWN;
+
+import javax.xml.namespace.QName;
+import java.util.List;
+
+import org.deegree.cql2.FilterProperty;
+import org.deegree.feature.persistence.query.Query;
+import org.deegree.feature.types.FeatureType;
+import org.deegree.feature.types.property.GeometryPropertyType;
+import org.deegree.feature.types.property.SimplePropertyType;
+import org.deegree.feature.types.property.PropertyType;
+import org.deegree.filter.Expression;
+import org.deegree.filter.Filter;
+import org.deegree.filter.Operator;
+import org.deegree.filter.OperatorFilter;
+import org.deegree.filter.comparison.ComparisonOperator;
+import org.deegree.filter.expression.Function;
+import org.deegree.filter.expression.Literal;
+import org.deegree.filter.expression.ValueReference;
+import org.deegree.filter.logical.And;
+import org.deegree.filter.logical.LogicalOperator;
+import org.deegree.filter.spatial.SpatialOperator;
+import org.deegree.filter.temporal.TemporalOperator;
+import org.deegree.services.oaf.workspace.configuration.FeatureTypeMetadata;
+
+/**
+ * Analyses the filter of a {@link Query} and classifies each operator as pushed down to
+ * the backend or evaluated in memory.
+ * <p>
+ * deegree feature stores evaluate operators which cannot be mapped to the backend (e.g.
+ * SQL) after fetching all candidate features. Operators combined by AND are analysed
+ * individually, as the store pushes down the mappable part. An OR or NOT containing an
+ * operator which cannot be mapped is evaluated in memory as a whole.
+ * </p>
+ * <p>
+ * The analysis is a heuristic based on the feature type: operators are considered as
+ * pushed down if they reference simple or geometry properties (or configured queryables)
+ * of the feature type by name and do not use functions.
+ * </p>
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+public class FilterPushdownAnalyzer {
+
+	/**
+	 * Analyses the filter of the passed query.
+	 * @param featureTypeMetadata the metadata of the queried feature type, never
+	 * <code>null</code>
+	 * @param query the query to analyse, never <code>null</code>
+	 * @return the report, never <code>null</code>
+	 */
+	public FilterPushdownReport analyze(FeatureTypeMetadata featureTypeMetadata, Query query) {
+		FilterPushdownReport report = new FilterPushdownReport();
+		Filter filter = query.getFilter();
+		FeatureType featureType = featureTypeMetadata.getFeatureType();
+		if (featureType == null || !(filter instanceof OperatorFilter))
+			return report;
+		Operator operator = ((OperatorFilter) filter).getOperator();
+		analyze(operator, featureType, featureTypeMetadata.getFilterProperties(), report);
+		return report;
+	}
+
+	private void analyze(Operator operator, FeatureType featureType, List<FilterProperty> filterProperties,
+			FilterPushdownReport report) {
+		if (operator instanceof And and) {
+			for (int i = 0; i < and.getSize(); i++) {
+				analyze(and.getParameter(i), featureType, filterProperties, report);
+			}
+			return;
+		}
+		String reason = findInMemoryReason(operator, featureType, filterProperties);
+		report.add(operator, reason == null ? PUSHED_DOWN : IN_MEMORY, reason);
+	}
+
+	private String findInMemoryReason(Operator operator, FeatureType featureType,
+			List<FilterProperty> filterProperties) {
+		if (operator == null)
+			return null;
+		switch (operator.getType()) {
+			case LOGICAL:
+				for (Operator child : ((LogicalOperator) operator).getParams()) {
+					String reason = findInMemoryReason(child, featureType, filterProperties);
+					if (reason != null)
+						return reason;
+				}
+				return null;
+			case COMPARISON:
+				return findInMemoryReason(((ComparisonOperator) operator).getParams(), featureType, filterProperties,
+						false);
+			case SPATIAL:
+				return findInMemoryReason(((SpatialOperator) operator).getParams(), featureType, filterProperties,
+						true);
+			case TEMPORAL:
+				return findInMemoryReason(((TemporalOperator) operator).getParams(), featureType, filterProperties,
+						false);
+			default:
+				return "operator of type " + operator.getType() + " is not supported by the backend";
+		}
+	}
+
+	private String findInMemoryReason(Object[] params, FeatureType featureType, List<FilterProperty> filterProperties,
+			boolean isSpatial) {
+		if (params == null)
+			return null;
+		for (Object param : params) {
+			if (param instanceof Expression expression) {
+				String reason = findInMemoryReason(expression, featureType, filterProperties, isSpatial);
+				if (reason != null)
+					return reason;
+			}
+		}
+		return null;
+	}
+
+	private String findInMemoryReason(Expression expression, FeatureType featureType,
+			List<FilterProperty> filterProperties, boolean isSpatial) {
+		if (expression == null || expression instanceof Literal)
+			return null;
+		if (expression instanceof ValueReference valueReference)
+			return findInMemoryReason(valueReference, featureType, filterProperties, isSpatial);
+		if (expression instanceof Function function)
+			return "function '" + function.getName() + "'";
+		return findInMemoryReason(expression.getParams(), featureType, filterProperties, isSpatial);
+	}
+
+	private String findInMemoryReason(ValueReference valueReference, FeatureType featureType,
+			List<FilterProperty> filterProperties, boolean isSpatial) {
+		QName propertyName = valueReference.getAsQName();
+		if (propertyName == null)
+			return "property path '" + valueReference.getAsText() + "' is not a simple property name";
+		if (!isSpatial && isQueryable(propertyName, filterProperties))
+			return null;
+		PropertyType propertyType = featureType.getPropertyDeclaration(propertyName);
+		if (propertyType == null)
+			return "property '" + propertyName + "' is not declared";
+		if (isSpatial) {
+			if (propertyType instanceof GeometryPropertyType)
+				return null;
+			return "spatial operator on property '" + propertyName + "' which is not a geometry";
+		}
+		if (propertyType instanceof SimplePropertyType || propertyType instanceof GeometryPropertyType)
+			return null;
+		return "property '" + propertyName + "' is not a simple property";
+	}
+
+	private boolean isQueryable(QName propertyName, List<FilterProperty> filterProperties) {
+		return filterProperties != null
+				&& filterProperties.stream().anyMatch(filterProperty -> propertyName.equals(filterProperty.getName()));
+	}
+
+}
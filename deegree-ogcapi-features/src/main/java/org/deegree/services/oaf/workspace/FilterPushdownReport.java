@@ -0,0 +1,119 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.workspace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.deegree.filter.Operator;
+
+/**
+ * Result of the {@link FilterPushdownAnalyzer}: lists the operators of a query and if
+ * they are evaluated by the backend (pushed down) or in memory after fetching the
+ * features.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+public class FilterPushdownReport {
+
+	public enum Evaluation {
+
+		PUSHED_DOWN, IN_MEMORY
+
+	}
+
+	private final List<Entry> entries = new ArrayList<>();
+
+	void add(Operator operator, Evaluation evaluation, String reason) {
+		entries.add(new Entry(operator, evaluation, reason));
+	}
+
+	/**
+	 * @return all analysed operators, may be empty but never <code>null</code>
+	 */
+	public List<Entry> getEntries() {
+		return Collections.unmodifiableList(entries);
+	}
+
+	/**
+	 * @return the operators evaluated in memory, may be empty but never <code>null</code>
+	 */
+	public List<Entry> getInMemoryEntries() {
+		return entries.stream().filter(entry -> entry.getEvaluation() == Evaluation.IN_MEMORY).toList();
+	}
+
+	/**
+	 * @return <code>true</code> if at least one operator is evaluated in memory,
+	 * <code>false</code> otherwise
+	 */
+	public boolean hasInMemoryOperators() {
+		return entries.stream().anyMatch(entry -> entry.getEvaluation() == Evaluation.IN_MEMORY);
+	}
+
+	/**
+	 * @return a human readable description of the operators evaluated in memory, never
+	 * <code>null</code>
+	 */
+	public String describeInMemoryOperators() {
+		return getInMemoryEntries().stream()
+			.map(entry -> entry.getOperator().getClass().getSimpleName() + " (" + entry.getReason() + ")")
+			.collect(Collectors.joining(", "));
+	}
+
+	/**
+	 * A single analysed operator.
+	 */
+	public static class Entry {
+
+		private final Operator operator;
+
+		private final Evaluation evaluation;
+
+		private final String reason;
+
+		private Entry(Operator operator, Evaluation evaluation, String reason) {
+			this.operator = operator;
+			this.evaluation = evaluation;
+			this.reason = reason;
+		}
+
+		public Operator getOperator() {
+			return operator;
+		}
+
+		public Evaluation getEvaluation() {
+			return evaluation;
+		}
+
+		/**
+		 * @return the reason why the operator is evaluated in memory, <code>null</code>
+		 * if the operator is pushed down
+		 */
+		public String getReason() {
+			return reason;
+		}
+
+	}
+
+}
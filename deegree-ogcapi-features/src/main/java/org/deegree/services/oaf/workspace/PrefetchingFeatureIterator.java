@@ -0,0 +1,132 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.workspace;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.deegree.commons.utils.CloseableIterator;
+import org.deegree.feature.Feature;
+import org.deegree.feature.stream.FeatureInputStream;
+import org.deegree.services.oaf.io.response.RequestedFeatureIds;
+import org.deegree.services.oaf.workspace.configuration.QueryScheduler;
+
+/**
+ * Iterates over the features of a {@link FeatureInputStream}. The first feature can be
+ * fetched in advance to measure the time until the first row is available before the
+ * response is written. If features are requested by id, the ids of the iterated features
+ * are tracked. The permit of the {@link QueryScheduler} is released when the iterator is
+ * closed, afterwards the close action (e.g. logging slow queries after the features are
+ * written) is run. Closing the iterator more than once has no effect.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class PrefetchingFeatureIterator implements CloseableIterator<Feature> {
+
+	private final FeatureInputStream features;
+
+	private final Iterator<Feature> iterator;
+
+	private final RequestedFeatureIds requestedFeatureIds;
+
+	private final QueryScheduler.Permit permit;
+
+	private final Runnable closeAction;
+
+	private final AtomicBoolean closed = new AtomicBoolean(false);
+
+	PrefetchingFeatureIterator(FeatureInputStream features) {
+		this(features, null, null, null);
+	}
+
+	/**
+	 * @param features the features to iterate over, never <code>null</code>
+	 * @param requestedFeatureIds tracks the ids of the iterated features, may be
+	 * <code>null</code> if the features are not requested by id
+	 * @param permit released when the iterator is closed, may be <code>null</code>
+	 * @param closeAction run when the iterator is closed, may be <code>null</code>
+	 */
+	PrefetchingFeatureIterator(FeatureInputStream features, RequestedFeatureIds requestedFeatureIds,
+			QueryScheduler.Permit permit, Runnable closeAction) {
+		this.features = features;
+		this.iterator = features.iterator();
+		this.requestedFeatureIds = requestedFeatureIds;
+		this.permit = permit;
+		this.closeAction = closeAction;
+	}
+
+	/**
+	 * Fetches the first feature from the feature store.
+	 */
+	void prefetch() {
+		iterator.hasNext();
+	}
+
+	@Override
+	public boolean hasNext() {
+		return iterator.hasNext();
+	}
+
+	@Override
+	public Feature next() {
+		Feature feature = iterator.next();
+		if (requestedFeatureIds != null)
+			requestedFeatureIds.markAsReturned(feature.getId());
+		return feature;
+	}
+
+	@Override
+	public void close() {
+		if (!closed.compareAndSet(false, true))
+			return;
+		try {
+			features.close();
+		}
+		finally {
+			if (permit != null)
+				permit.close();
+			if (closeAction != null)
+				closeAction.run();
+		}
+	}
+
+	@Override
+	public List<Feature> getAsListAndClose() {
+		return (List<Feature>) getAsCollectionAndClose(new ArrayList<>());
+	}
+
+	@Override
+	public Collection<Feature> getAsCollectionAndClose(Collection<Feature> collection) {
+		try {
+			while (iterator.hasNext())
+				collection.add(next());
+			return collection;
+		}
+		finally {
+			close();
+		}
+	}
+
+}
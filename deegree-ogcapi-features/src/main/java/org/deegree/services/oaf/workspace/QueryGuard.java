@@ -0,0 +1,162 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.workspace;
+
+import static org.deegree.services.oaf.workspace.configuration.QueryLimits.UNLIMITED;
+
+import org.deegree.feature.persistence.query.Query;
+import org.deegree.filter.Filter;
+import org.deegree.filter.Operator;
+import org.deegree.filter.OperatorFilter;
+import org.deegree.filter.comparison.PropertyIsLike;
+import org.deegree.filter.expression.Literal;
+import org.deegree.filter.logical.LogicalOperator;
+import org.deegree.filter.spatial.SpatialOperator;
+import org.deegree.geometry.Geometry;
+import org.deegree.geometry.multi.MultiGeometry;
+import org.deegree.geometry.primitive.Point;
+import org.deegree.geometry.standard.AbstractDefaultGeometry;
+import org.deegree.services.oaf.exceptions.InvalidParameterValue;
+import org.deegree.services.oaf.workspace.configuration.QueryLimits;
+
+/**
+ * Enforces the configured {@link QueryLimits} before a query is passed to the feature
+ * store.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+public class QueryGuard {
+
+	private final QueryLimits queryLimits;
+
+	/**
+	 * @param queryLimits the limits to enforce, may be <code>null</code> (no limits)
+	 */
+	public QueryGuard(QueryLimits queryLimits) {
+		this.queryLimits = queryLimits != null ? queryLimits : QueryLimits.NONE;
+	}
+
+	/**
+	 * Checks the complexity of the filter of the passed query.
+	 * @param query the query to check, never <code>null</code>
+	 * @throws InvalidParameterValue if a limit is exceeded
+	 */
+	public void checkFilter(Query query) throws InvalidParameterValue {
+		Filter filter = query.getFilter();
+		if (!(filter instanceof OperatorFilter))
+			return;
+		FilterStatistics statistics = new FilterStatistics();
+		collect(((OperatorFilter) filter).getOperator(), statistics);
+		int maxFilterNodes = queryLimits.getMaxFilterNodes();
+		if (maxFilterNodes != UNLIMITED && statistics.numberOfNodes > maxFilterNodes)
+			throw new InvalidParameterValue("filter", "Filter consists of " + statistics.numberOfNodes
+					+ " operators, maximum allowed are " + maxFilterNodes);
+		int maxGeometryVertices = queryLimits.getMaxGeometryVertices();
+		if (maxGeometryVertices != UNLIMITED && statistics.hasUncountableGeometry)
+			throw new InvalidParameterValue("filter",
+					"Number of vertices of the geometries of the filter cannot be determined");
+		if (maxGeometryVertices != UNLIMITED && statistics.numberOfVertices > maxGeometryVertices)
+			throw new InvalidParameterValue("filter", "Geometries of the filter have " + statistics.numberOfVertices
+					+ " vertices, maximum allowed are " + maxGeometryVertices);
+		if (queryLimits.isRejectLeadingWildcards() && statistics.hasLeadingWildcard)
+			throw new InvalidParameterValue("filter", "Like patterns starting with a wildcard are not supported");
+	}
+
+	/**
+	 * Checks the number of features matched by a bulk request.
+	 * @param numberOfFeaturesMatched the number of features matched by the query
+	 * @throws InvalidParameterValue if the limit is exceeded
+	 */
+	public void checkBulk(int numberOfFeaturesMatched) throws InvalidParameterValue {
+		int maxBulkItems = queryLimits.getMaxBulkItems();
+		if (maxBulkItems != UNLIMITED && numberOfFeaturesMatched > maxBulkItems)
+			throw new InvalidParameterValue("bulk", "Request matches " + numberOfFeaturesMatched
+					+ " features, maximum allowed for bulk download are " + maxBulkItems);
+	}
+
+	private void collect(Operator operator, FilterStatistics statistics) {
+		if (operator == null)
+			return;
+		statistics.numberOfNodes++;
+		if (operator instanceof LogicalOperator logicalOperator) {
+			for (Operator child : logicalOperator.getParams())
+				collect(child, statistics);
+		}
+		else if (operator instanceof SpatialOperator spatialOperator) {
+			for (Object param : spatialOperator.getParams()) {
+				if (param instanceof Geometry geometry) {
+					int numberOfVertices = countVertices(geometry);
+					if (numberOfVertices < 0)
+						statistics.hasUncountableGeometry = true;
+					else
+						statistics.numberOfVertices += numberOfVertices;
+				}
+			}
+		}
+		else if (operator instanceof PropertyIsLike propertyIsLike) {
+			if (startsWithWildcard(propertyIsLike))
+				statistics.hasLeadingWildcard = true;
+		}
+	}
+
+	/**
+	 * @return the number of vertices of the geometry, -1 if the number cannot be
+	 * determined
+	 */
+	private int countVertices(Geometry geometry) {
+		if (geometry instanceof AbstractDefaultGeometry defaultGeometry)
+			return defaultGeometry.getJTSGeometry().getNumPoints();
+		if (geometry instanceof Point)
+			return 1;
+		if (geometry instanceof MultiGeometry<?> multiGeometry) {
+			int numberOfVertices = 0;
+			for (Geometry member : multiGeometry) {
+				int numberOfMemberVertices = countVertices(member);
+				if (numberOfMemberVertices < 0)
+					return -1;
+				numberOfVertices += numberOfMemberVertices;
+			}
+			return numberOfVertices;
+		}
+		return -1;
+	}
+
+	private boolean startsWithWildcard(PropertyIsLike propertyIsLike) {
+		if (!(propertyIsLike.getPattern() instanceof Literal<?> literal) || literal.getValue() == null)
+			return false;
+		String pattern = literal.getValue().toString();
+		return pattern.startsWith(propertyIsLike.getWildCard()) || pattern.startsWith(propertyIsLike.getSingleChar());
+	}
+
+	private static class FilterStatistics {
+
+		private int numberOfNodes;
+
+		private int numberOfVertices;
+
+		private boolean hasUncountableGeometry;
+
+		private boolean hasLeadingWildcard;
+
+	}
+
+}
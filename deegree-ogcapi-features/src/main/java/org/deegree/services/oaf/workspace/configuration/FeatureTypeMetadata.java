@@ -25,26 +25,48 @@ import org.deegree.commons.ows.metadata.MetadataUrl;
 import org.deegree.cql2.FilterProperty;
 import org.deegree.feature.persistence.FeatureStore;
 import org.deegree.feature.types.FeatureType;
+import org.deegree.services.oaf.cache.EncodedFeatureCache;
 import org.deegree.services.oaf.domain.collections.Extent;
+import org.deegree.services.oaf.workspace.memory.MemoryResidentCollection;
 
 import javax.xml.namespace.QName;
+import java.time.Duration;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
  */
 public class FeatureTypeMetadata {
 
+	/**
+	 * Default tolerance of the comparison of the datetime of a request with the temporal
+	 * extent, covers datetimes stored without time zone.
+	 */
+	public static final Duration DEFAULT_TEMPORAL_EXTENT_TOLERANCE = Duration.ofDays(1);
+
 	private QName name;
 
 	private QName dateTimeProperty;
 
+	private QName dateTimeEndProperty;
+
+	private boolean includeNullDateTime = true;
+
+	private boolean dateTimeRangePredicate;
+
 	private QName geometryProperty;
 
 	private boolean skipGeometryExportAsWkt;
 
 	private Extent extent;
 
+	private boolean skipQueriesOutsideExtent;
+
+	private Duration temporalExtentTolerance = DEFAULT_TEMPORAL_EXTENT_TOLERANCE;
+
 	private String title;
 
 	private String description;
@@ -53,12 +75,18 @@ public class FeatureTypeMetadata {
 
 	private List<FilterProperty> filterProperties;
 
+	private Set<String> filterPropertyNames = Collections.emptySet();
+
 	private FeatureType featureType;
 
 	private FeatureStore featureStore;
 
 	private List<String> storageCrsCodes;
 
+	private EncodedFeatureCache encodedFeatureCache;
+
+	private MemoryResidentCollection memoryResidentCollection;
+
 	public FeatureTypeMetadata(QName featureTypeName) {
 		this.name = featureTypeName;
 	}
@@ -68,6 +96,21 @@ public class FeatureTypeMetadata {
 		return this;
 	}
 
+	public FeatureTypeMetadata dateTimeEndProperty(QName dateTimeEndProperty) {
+		this.dateTimeEndProperty = dateTimeEndProperty;
+		return this;
+	}
+
+	public FeatureTypeMetadata includeNullDateTime(boolean includeNullDateTime) {
+		this.includeNullDateTime = includeNullDateTime;
+		return this;
+	}
+
+	public FeatureTypeMetadata dateTimeRangePredicate(boolean dateTimeRangePredicate) {
+		this.dateTimeRangePredicate = dateTimeRangePredicate;
+		return this;
+	}
+
 	public FeatureTypeMetadata geometryProperty(QName geometryProperty) {
 		this.geometryProperty = geometryProperty;
 		return this;
@@ -83,6 +126,16 @@ public class FeatureTypeMetadata {
 		return this;
 	}
 
+	public FeatureTypeMetadata skipQueriesOutsideExtent(boolean skipQueriesOutsideExtent) {
+		this.skipQueriesOutsideExtent = skipQueriesOutsideExtent;
+		return this;
+	}
+
+	public FeatureTypeMetadata temporalExtentTolerance(Duration temporalExtentTolerance) {
+		this.temporalExtentTolerance = temporalExtentTolerance;
+		return this;
+	}
+
 	public FeatureTypeMetadata title(String title) {
 		this.title = title;
 		return this;
@@ -100,6 +153,9 @@ public class FeatureTypeMetadata {
 
 	public FeatureTypeMetadata filterProperties(List<FilterProperty> filterProperties) {
 		this.filterProperties = filterProperties;
+		this.filterPropertyNames = filterProperties != null ? filterProperties.stream()
+			.map(filterProperty -> filterProperty.getName().getLocalPart())
+			.collect(Collectors.toUnmodifiableSet()) : Collections.emptySet();
 		return this;
 	}
 
@@ -118,6 +174,16 @@ public class FeatureTypeMetadata {
 		return this;
 	}
 
+	public FeatureTypeMetadata encodedFeatureCache(EncodedFeatureCache encodedFeatureCache) {
+		this.encodedFeatureCache = encodedFeatureCache;
+		return this;
+	}
+
+	public FeatureTypeMetadata memoryResidentCollection(MemoryResidentCollection memoryResidentCollection) {
+		this.memoryResidentCollection = memoryResidentCollection;
+		return this;
+	}
+
 	public QName getName() {
 		return name;
 	}
@@ -126,10 +192,56 @@ public class FeatureTypeMetadata {
 		return extent;
 	}
 
+	/**
+	 * @return <code>true</code> if requests disjoint from the {@link #getExtent()} are
+	 * answered with an empty result without querying the feature store. The extent is
+	 * calculated when the workspace is initialized, features added to the feature store
+	 * outside of this extent are not found until the workspace is initialized again.
+	 */
+	public boolean isSkipQueriesOutsideExtent() {
+		return skipQueriesOutsideExtent;
+	}
+
+	/**
+	 * @return the tolerance applied if the datetime of a request is compared with the
+	 * temporal extent, never <code>null</code>
+	 */
+	public Duration getTemporalExtentTolerance() {
+		return temporalExtentTolerance;
+	}
+
+	/**
+	 * @return the datetime property, if a {@link #getDateTimeEndProperty()} is configured
+	 * the property containing the start of the interval, may be <code>null</code>
+	 */
 	public QName getDateTimeProperty() {
 		return dateTimeProperty;
 	}
 
+	/**
+	 * @return the property containing the end of the interval, <code>null</code> if the
+	 * features have a single datetime property
+	 */
+	public QName getDateTimeEndProperty() {
+		return dateTimeEndProperty;
+	}
+
+	/**
+	 * @return <code>true</code> if features without a datetime value match every datetime
+	 * filter, <code>false</code> if they are excluded
+	 */
+	public boolean isIncludeNullDateTime() {
+		return includeNullDateTime;
+	}
+
+	/**
+	 * @return <code>true</code> if the datetime filter is mapped to comparison operators
+	 * instead of temporal operators
+	 */
+	public boolean isDateTimeRangePredicate() {
+		return dateTimeRangePredicate;
+	}
+
 	public QName getGeometryProperty() {
 		return geometryProperty;
 	}
@@ -154,6 +266,14 @@ public class FeatureTypeMetadata {
 		return filterProperties;
 	}
 
+	/**
+	 * @return the local names of the filter properties, which are accepted as query
+	 * parameters, never <code>null</code>
+	 */
+	public Set<String> getFilterPropertyNames() {
+		return filterPropertyNames;
+	}
+
 	public FeatureType getFeatureType() {
 		return featureType;
 	}
@@ -166,4 +286,20 @@ public class FeatureTypeMetadata {
 		return storageCrsCodes;
 	}
 
+	/**
+	 * @return the cache of features encoded as GeoJSON, <code>null</code> if the features
+	 * of this collection are not cached
+	 */
+	public EncodedFeatureCache getEncodedFeatureCache() {
+		return encodedFeatureCache;
+	}
+
+	/**
+	 * @return the features of this collection kept in memory, <code>null</code> if the
+	 * features are retrieved from the feature store
+	 */
+	public MemoryResidentCollection getMemoryResidentCollection() {
+		return memoryResidentCollection;
+	}
+
 }
@@ -25,6 +25,8 @@ import org.deegree.services.oaf.exceptions.UnknownCollectionId;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The configuration of a single Datataset.
@@ -45,15 +47,40 @@ public class OafDatasetConfiguration {
 
 	private final int queryMaxItems;
 
+	private final boolean rejectInMemoryFilters;
+
+	private final QueryLimits queryLimits;
+
+	private final QueryScheduler queryScheduler;
+
+	private final Set<String> collectionsWithInMemoryFilters = ConcurrentHashMap.newKeySet();
+
 	public OafDatasetConfiguration(String id, Map<String, FeatureTypeMetadata> featureTypeMetadata,
 			DatasetMetadata serviceMetadata, List<String> suppportedCrs, boolean useExistingGMLSchema,
 			int queryMaxItems) {
+		this(id, featureTypeMetadata, serviceMetadata, suppportedCrs, useExistingGMLSchema, queryMaxItems, false,
+				QueryLimits.NONE);
+	}
+
+	public OafDatasetConfiguration(String id, Map<String, FeatureTypeMetadata> featureTypeMetadata,
+			DatasetMetadata serviceMetadata, List<String> suppportedCrs, boolean useExistingGMLSchema,
+			int queryMaxItems, boolean rejectInMemoryFilters, QueryLimits queryLimits) {
+		this(id, featureTypeMetadata, serviceMetadata, suppportedCrs, useExistingGMLSchema, queryMaxItems,
+				rejectInMemoryFilters, queryLimits, QueryScheduler.NONE);
+	}
+
+	public OafDatasetConfiguration(String id, Map<String, FeatureTypeMetadata> featureTypeMetadata,
+			DatasetMetadata serviceMetadata, List<String> suppportedCrs, boolean useExistingGMLSchema,
+			int queryMaxItems, boolean rejectInMemoryFilters, QueryLimits queryLimits, QueryScheduler queryScheduler) {
 		this.id = id;
 		this.featureTypeMetadata = featureTypeMetadata;
 		this.serviceMetadata = serviceMetadata;
 		this.suppportedCrs = suppportedCrs;
 		this.useExistingGMLSchema = useExistingGMLSchema;
 		this.queryMaxItems = queryMaxItems;
+		this.rejectInMemoryFilters = rejectInMemoryFilters;
+		this.queryLimits = queryLimits;
+		this.queryScheduler = queryScheduler;
 	}
 
 	/**
@@ -120,11 +147,47 @@ public class OafDatasetConfiguration {
 		return queryMaxItems;
 	}
 
+	/**
+	 * @return <code>true</code> if requests with filters which cannot be evaluated by the
+	 * backend should be rejected, <code>false</code> if they are evaluated in memory.
+	 */
+	public boolean isRejectInMemoryFilters() {
+		return rejectInMemoryFilters;
+	}
+
+	/**
+	 * @return the limits applied to queries, never <code>null</code>
+	 */
+	public QueryLimits getQueryLimits() {
+		return queryLimits;
+	}
+
+	/**
+	 * @return the scheduler of the queries against the feature stores, never
+	 * <code>null</code>
+	 */
+	public QueryScheduler getQueryScheduler() {
+		return queryScheduler;
+	}
+
+	/**
+	 * Marks the collection as queried with a filter evaluated in memory. The marks are
+	 * kept as long as this configuration is used, a reinitialized workspace starts
+	 * without.
+	 * @param collectionId the id of the collection, never <code>null</code>
+	 * @return <code>true</code> if this is the first filter evaluated in memory on the
+	 * collection, <code>false</code> otherwise
+	 */
+	public boolean markInMemoryFilter(String collectionId) {
+		return collectionsWithInMemoryFilters.add(collectionId);
+	}
+
 	@Override
 	public String toString() {
 		return "OafDatasetConfiguration{" + "id='" + id + '\'' + ", featureTypeMetadata=" + featureTypeMetadata
 				+ ", serviceMetadata=" + serviceMetadata + ", suppportedCrs=" + suppportedCrs
-				+ ", useExistingGMLSchema=" + useExistingGMLSchema + '}';
+				+ ", useExistingGMLSchema=" + useExistingGMLSchema + ", rejectInMemoryFilters=" + rejectInMemoryFilters
+				+ ", queryLimits=" + queryLimits + ", queryScheduler=" + queryScheduler + '}';
 	}
 
 }
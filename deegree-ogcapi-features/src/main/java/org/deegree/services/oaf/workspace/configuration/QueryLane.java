@@ -0,0 +1,54 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.workspace.configuration;
+
+/**
+ * Lanes of the {@link QueryScheduler}, each lane has its own concurrency limit.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+public enum QueryLane {
+
+	/**
+	 * Paged requests of features and requests of single features.
+	 */
+	INTERACTIVE,
+
+	/**
+	 * Requests of all features of a collection (<code>bulk=true</code>).
+	 */
+	BULK,
+
+	/**
+	 * Calculation of the extent of collections.
+	 */
+	METADATA;
+
+	/**
+	 * @return the name of the lane used in log messages and metrics, never
+	 * <code>null</code>
+	 */
+	public String getLabel() {
+		return name().toLowerCase();
+	}
+
+}
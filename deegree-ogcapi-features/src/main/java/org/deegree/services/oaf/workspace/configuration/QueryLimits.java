@@ -0,0 +1,110 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.workspace.configuration;
+
+import java.math.BigInteger;
+
+import org.deegree.services.ogcapi.features.DeegreeOAF;
+
+/**
+ * Limits applied to queries before they are passed to the feature store.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+public class QueryLimits {
+
+	public static final int UNLIMITED = -1;
+
+	public static final QueryLimits NONE = new QueryLimits(UNLIMITED, UNLIMITED, false, UNLIMITED);
+
+	private final int maxFilterNodes;
+
+	private final int maxGeometryVertices;
+
+	private final boolean rejectLeadingWildcards;
+
+	private final int maxBulkItems;
+
+	public QueryLimits(int maxFilterNodes, int maxGeometryVertices, boolean rejectLeadingWildcards, int maxBulkItems) {
+		this.maxFilterNodes = maxFilterNodes;
+		this.maxGeometryVertices = maxGeometryVertices;
+		this.rejectLeadingWildcards = rejectLeadingWildcards;
+		this.maxBulkItems = maxBulkItems;
+	}
+
+	/**
+	 * @param queryLimits the configuration, may be <code>null</code>
+	 * @return the {@link QueryLimits} from the configuration or {@link #NONE} if not
+	 * configured, never <code>null</code>
+	 */
+	public static QueryLimits fromConfig(DeegreeOAF.QueryLimits queryLimits) {
+		if (queryLimits == null)
+			return NONE;
+		boolean rejectLeadingWildcards = queryLimits.isRejectLeadingWildcards() != null
+				? queryLimits.isRejectLeadingWildcards() : false;
+		return new QueryLimits(asInt(queryLimits.getMaxFilterNodes()), asInt(queryLimits.getMaxGeometryVertices()),
+				rejectLeadingWildcards, asInt(queryLimits.getMaxBulkItems()));
+	}
+
+	/**
+	 * @return the maximum number of operators in a filter, {@link #UNLIMITED} if not
+	 * limited
+	 */
+	public int getMaxFilterNodes() {
+		return maxFilterNodes;
+	}
+
+	/**
+	 * @return the maximum number of vertices of all geometries in a filter,
+	 * {@link #UNLIMITED} if not limited
+	 */
+	public int getMaxGeometryVertices() {
+		return maxGeometryVertices;
+	}
+
+	/**
+	 * @return <code>true</code> if like filters starting with a wildcard should be
+	 * rejected, <code>false</code> otherwise
+	 */
+	public boolean isRejectLeadingWildcards() {
+		return rejectLeadingWildcards;
+	}
+
+	/**
+	 * @return the maximum number of features matched by a bulk request,
+	 * {@link #UNLIMITED} if not limited
+	 */
+	public int getMaxBulkItems() {
+		return maxBulkItems;
+	}
+
+	private static int asInt(BigInteger value) {
+		return value != null ? value.intValue() : UNLIMITED;
+	}
+
+	@Override
+	public String toString() {
+		return "QueryLimits{" + "maxFilterNodes=" + maxFilterNodes + ", maxGeometryVertices=" + maxGeometryVertices
+				+ ", rejectLeadingWildcards=" + rejectLeadingWildcards + ", maxBulkItems=" + maxBulkItems + '}';
+	}
+
+}
@@ -0,0 +1,191 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.workspace.configuration;
+
+import static org.deegree.services.oaf.metrics.OafMetrics.recordQuerySchedulerRejected;
+import static org.deegree.services.oaf.metrics.OafMetrics.recordQuerySchedulerWait;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.deegree.services.oaf.exceptions.ServiceUnavailable;
+import org.deegree.services.ogcapi.features.DeegreeOAF;
+import org.deegree.services.ogcapi.features.QueryLaneType;
+import org.slf4j.Logger;
+
+/**
+ * Schedules the queries of a dataset against the feature stores in separate
+ * {@link QueryLane}s. Each feature store has its own lanes, as each feature store has its
+ * own connection pool. Each lane limits the number of concurrent queries, so that for
+ * example bulk downloads cannot occupy all connections of a feature store needed by
+ * interactive requests. Queries waiting longer than the queue timeout of the lane are
+ * rejected. Lanes not configured are not limited.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+public class QueryScheduler {
+
+	public static final QueryScheduler NONE = new QueryScheduler(Collections.emptyMap());
+
+	private static final Logger LOG = getLogger(QueryScheduler.class);
+
+	private static final long DEFAULT_QUEUE_TIMEOUT = 1000;
+
+	private static final Permit NO_PERMIT = new Permit(null);
+
+	private final Map<QueryLane, LaneLimit> laneLimits = new EnumMap<>(QueryLane.class);
+
+	private final Map<String, Map<QueryLane, Lane>> featureStoreLanes = new ConcurrentHashMap<>();
+
+	/**
+	 * @param laneLimits the limits of the lanes of each feature store, lanes without
+	 * limits are not limited, never <code>null</code>
+	 */
+	public QueryScheduler(Map<QueryLane, LaneLimit> laneLimits) {
+		this.laneLimits.putAll(laneLimits);
+	}
+
+	/**
+	 * @param queryScheduler the configuration, may be <code>null</code>
+	 * @return the {@link QueryScheduler} from the configuration or {@link #NONE} if not
+	 * configured, never <code>null</code>
+	 */
+	public static QueryScheduler fromConfig(DeegreeOAF.QueryScheduler queryScheduler) {
+		if (queryScheduler == null)
+			return NONE;
+		Map<QueryLane, LaneLimit> laneLimits = new EnumMap<>(QueryLane.class);
+		addLaneLimit(laneLimits, QueryLane.INTERACTIVE, queryScheduler.getInteractive());
+		addLaneLimit(laneLimits, QueryLane.BULK, queryScheduler.getBulk());
+		addLaneLimit(laneLimits, QueryLane.METADATA, queryScheduler.getMetadata());
+		return new QueryScheduler(laneLimits);
+	}
+
+	/**
+	 * Waits for a free slot in the passed lane of the feature store. The returned
+	 * {@link Permit} must be closed when the query is finished, including reading the
+	 * features.
+	 * @param datasetId the id of the dataset, used in log messages and metrics, never
+	 * <code>null</code>
+	 * @param featureStoreId the id of the queried feature store, never <code>null</code>
+	 * @param lane the lane of the query, never <code>null</code>
+	 * @return the permit to execute the query, never <code>null</code>
+	 * @throws ServiceUnavailable if no slot was available within the queue timeout of the
+	 * lane
+	 */
+	public Permit acquire(String datasetId, String featureStoreId, QueryLane lane) throws ServiceUnavailable {
+		if (!laneLimits.containsKey(lane))
+			return NO_PERMIT;
+		Lane queryLane = featureStoreLanes.computeIfAbsent(featureStoreId, id -> createLanes()).get(lane);
+		long start = System.nanoTime();
+		boolean acquired = queryLane.tryAcquire();
+		recordQuerySchedulerWait(datasetId, lane.getLabel(), System.nanoTime() - start);
+		if (!acquired) {
+			recordQuerySchedulerRejected(datasetId, lane.getLabel());
+			LOG.info("No free slot in lane {} of feature store {} (dataset {}) within {} ms", lane.getLabel(),
+					featureStoreId, datasetId, queryLane.laneLimit.queueTimeout());
+			throw new ServiceUnavailable("Too many concurrent requests, try again later.",
+					Math.max(1, TimeUnit.MILLISECONDS.toSeconds(queryLane.laneLimit.queueTimeout())));
+		}
+		return new Permit(queryLane.slots);
+	}
+
+	private Map<QueryLane, Lane> createLanes() {
+		Map<QueryLane, Lane> lanes = new EnumMap<>(QueryLane.class);
+		laneLimits.forEach((lane, laneLimit) -> lanes.put(lane, new Lane(laneLimit)));
+		return lanes;
+	}
+
+	private static void addLaneLimit(Map<QueryLane, LaneLimit> laneLimits, QueryLane lane, QueryLaneType config) {
+		if (config == null || config.getMaxConcurrentQueries() == null)
+			return;
+		BigInteger queueTimeout = config.getQueueTimeout();
+		laneLimits.put(lane, new LaneLimit(config.getMaxConcurrentQueries().intValue(),
+				queueTimeout != null ? queueTimeout.longValue() : DEFAULT_QUEUE_TIMEOUT));
+	}
+
+	@Override
+	public String toString() {
+		return "QueryScheduler{" + "lanes=" + laneLimits + '}';
+	}
+
+	/**
+	 * Limits of a {@link QueryLane}.
+	 *
+	 * @param maxConcurrentQueries the maximum number of concurrent queries
+	 * @param queueTimeout the time in milliseconds a query waits for a free slot
+	 */
+	public record LaneLimit(int maxConcurrentQueries, long queueTimeout) {
+	}
+
+	/**
+	 * Slot of a {@link QueryLane}, released when closed. Closing a permit more than once
+	 * has no effect.
+	 */
+	public static final class Permit implements AutoCloseable {
+
+		private final Semaphore slots;
+
+		private final AtomicBoolean released = new AtomicBoolean(false);
+
+		private Permit(Semaphore slots) {
+			this.slots = slots;
+		}
+
+		@Override
+		public void close() {
+			if (slots != null && released.compareAndSet(false, true))
+				slots.release();
+		}
+
+	}
+
+	private static class Lane {
+
+		private final LaneLimit laneLimit;
+
+		private final Semaphore slots;
+
+		private Lane(LaneLimit laneLimit) {
+			this.laneLimit = laneLimit;
+			this.slots = new Semaphore(laneLimit.maxConcurrentQueries(), true);
+		}
+
+		private boolean tryAcquire() {
+			try {
+				return slots.tryAcquire(laneLimit.queueTimeout(), TimeUnit.MILLISECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,253 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.workspace.memory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import javax.xml.namespace.QName;
+
+import org.deegree.commons.tom.TypedObjectNode;
+import org.deegree.commons.tom.primitive.PrimitiveValue;
+import org.deegree.cql2.FilterProperty;
+import org.deegree.feature.Feature;
+import org.deegree.feature.property.Property;
+import org.deegree.filter.comparison.BinaryComparisonOperator;
+import org.deegree.filter.comparison.PropertyIsEqualTo;
+import org.deegree.filter.comparison.PropertyIsGreaterThan;
+import org.deegree.filter.comparison.PropertyIsGreaterThanOrEqualTo;
+import org.deegree.filter.comparison.PropertyIsLessThan;
+import org.deegree.filter.comparison.PropertyIsLessThanOrEqualTo;
+
+/**
+ * Sorted index of the values of a queryable. The index returns candidates only, a
+ * superset of the features matching a comparison, which must be evaluated afterwards.
+ * Features with values which could not be indexed are always returned as candidates.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+abstract class AttributeIndex {
+
+	private final BitSet unindexed = new BitSet();
+
+	private final QName propertyName;
+
+	private AttributeIndex(QName propertyName) {
+		this.propertyName = propertyName;
+	}
+
+	/**
+	 * Creates an empty index, the values are added with {@link #index(int, Feature)},
+	 * {@link #finish()} must be invoked afterwards.
+	 * @param filterProperty the queryable to index, never <code>null</code>
+	 * @return the index, <code>null</code> if values of the type of the queryable cannot
+	 * be indexed
+	 */
+	static AttributeIndex create(FilterProperty filterProperty) {
+		switch (filterProperty.getType()) {
+			case STRING:
+				return new StringAttributeIndex(filterProperty.getName());
+			case INTEGER:
+			case DECIMAL:
+			case DOUBLE:
+				return new NumericAttributeIndex(filterProperty.getName());
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * @param operator the comparison, never <code>null</code>
+	 * @param literal the value to compare with, never <code>null</code>
+	 * @return the positions of the candidates, <code>null</code> if the index cannot be
+	 * used for the comparison
+	 */
+	abstract BitSet findCandidates(BinaryComparisonOperator operator, String literal);
+
+	/**
+	 * @param position the position of the feature
+	 * @param feature the feature to index, never <code>null</code>
+	 */
+	void index(int position, Feature feature) {
+		for (Property property : feature.getProperties(propertyName)) {
+			TypedObjectNode value = property.getValue();
+			if (value == null)
+				continue;
+			if (!(value instanceof PrimitiveValue primitiveValue) || !add(position, primitiveValue.getAsText()))
+				unindexed.set(position);
+		}
+	}
+
+	/**
+	 * Sorts the indexed values, must be invoked after all features are indexed.
+	 */
+	abstract void finish();
+
+	/**
+	 * @return <code>true</code> if the value was added, <code>false</code> if it cannot
+	 * be indexed
+	 */
+	abstract boolean add(int position, String value);
+
+	BitSet withUnindexed(BitSet candidates) {
+		candidates.or(unindexed);
+		return candidates;
+	}
+
+	private static class StringAttributeIndex extends AttributeIndex {
+
+		private final List<Entry<String>> entries = new ArrayList<>();
+
+		private String[] values;
+
+		private int[] positions;
+
+		private StringAttributeIndex(QName propertyName) {
+			super(propertyName);
+		}
+
+		@Override
+		void finish() {
+			entries.sort(Comparator.comparing(Entry::value));
+			values = new String[entries.size()];
+			positions = new int[entries.size()];
+			for (int i = 0; i < entries.size(); i++) {
+				values[i] = entries.get(i).value();
+				positions[i] = entries.get(i).position();
+			}
+			entries.clear();
+		}
+
+		@Override
+		boolean add(int position, String value) {
+			entries.add(new Entry<>(normalize(value), position));
+			return true;
+		}
+
+		@Override
+		BitSet findCandidates(BinaryComparisonOperator operator, String literal) {
+			if (!(operator instanceof PropertyIsEqualTo))
+				return null;
+			String value = normalize(literal);
+			BitSet candidates = new BitSet();
+			int index = Arrays.binarySearch(values, value);
+			if (index >= 0) {
+				while (index > 0 && values[index - 1].equals(value))
+					index--;
+				for (; index < values.length && values[index].equals(value); index++)
+					candidates.set(positions[index]);
+			}
+			return withUnindexed(candidates);
+		}
+
+		/**
+		 * Case insensitive, as comparisons of queryables do not match the case.
+		 */
+		private static String normalize(String value) {
+			return value.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+		}
+
+	}
+
+	private static class NumericAttributeIndex extends AttributeIndex {
+
+		private final List<Entry<Double>> entries = new ArrayList<>();
+
+		private double[] values;
+
+		private int[] positions;
+
+		private NumericAttributeIndex(QName propertyName) {
+			super(propertyName);
+		}
+
+		@Override
+		void finish() {
+			entries.sort(Comparator.comparing(Entry::value));
+			values = new double[entries.size()];
+			positions = new int[entries.size()];
+			for (int i = 0; i < entries.size(); i++) {
+				values[i] = entries.get(i).value();
+				positions[i] = entries.get(i).position();
+			}
+			entries.clear();
+		}
+
+		@Override
+		boolean add(int position, String value) {
+			Double number = parse(value);
+			if (number == null)
+				return false;
+			entries.add(new Entry<>(number, position));
+			return true;
+		}
+
+		@Override
+		BitSet findCandidates(BinaryComparisonOperator operator, String literal) {
+			Double value = parse(literal);
+			if (value == null)
+				return null;
+			if (operator instanceof PropertyIsEqualTo)
+				return findCandidates(value, value);
+			if (operator instanceof PropertyIsGreaterThan || operator instanceof PropertyIsGreaterThanOrEqualTo)
+				return findCandidates(value, Double.POSITIVE_INFINITY);
+			if (operator instanceof PropertyIsLessThan || operator instanceof PropertyIsLessThanOrEqualTo)
+				return findCandidates(Double.NEGATIVE_INFINITY, value);
+			return null;
+		}
+
+		private BitSet findCandidates(double min, double max) {
+			BitSet candidates = new BitSet();
+			int low = 0;
+			int high = values.length;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (values[middle] < min)
+					low = middle + 1;
+				else
+					high = middle;
+			}
+			for (int index = low; index < values.length && values[index] <= max; index++)
+				candidates.set(positions[index]);
+			return withUnindexed(candidates);
+		}
+
+		private static Double parse(String value) {
+			try {
+				double number = Double.parseDouble(value.trim());
+				return Double.isNaN(number) ? null : number;
+			}
+			catch (NumberFormatException e) {
+				return null;
+			}
+		}
+
+	}
+
+	private record Entry<T>(T value, int position) {
+	}
+
+}
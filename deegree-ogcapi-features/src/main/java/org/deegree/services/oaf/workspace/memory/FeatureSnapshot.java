@@ -0,0 +1,507 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.workspace.memory;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.stream.Stream;
+
+import javax.xml.namespace.QName;
+
+import org.deegree.commons.tom.TypedObjectNode;
+import org.deegree.commons.tom.primitive.PrimitiveType;
+import org.deegree.commons.tom.primitive.PrimitiveValue;
+import org.deegree.commons.tom.primitive.XMLValueMangler;
+import org.deegree.cs.coordinatesystems.ICRS;
+import org.deegree.feature.Feature;
+import org.deegree.feature.property.GenericProperty;
+import org.deegree.feature.property.Property;
+import org.deegree.feature.types.FeatureType;
+import org.deegree.feature.types.property.GeometryPropertyType;
+import org.deegree.feature.types.property.PropertyType;
+import org.deegree.feature.types.property.SimplePropertyType;
+import org.deegree.geometry.Geometry;
+import org.deegree.geometry.io.WKBReader;
+import org.deegree.geometry.io.WKBWriter;
+import org.deegree.gml.schema.GMLSchemaInfoSet;
+import org.locationtech.jts.io.ParseException;
+import org.slf4j.Logger;
+
+/**
+ * Features of a collection stored column by column in memory-mapped files outside of the
+ * heap. The ids and the values of simple properties are stored as dictionary-encoded
+ * UTF-8 strings, geometries as WKB. A {@link Feature} is created each time it is accessed
+ * and not retained, so the heap usage does not depend on the number of features. Only
+ * feature types with simple and geometry properties occurring at most once are supported,
+ * the standard GML properties must not have a value.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+final class FeatureSnapshot extends AbstractList<Feature> implements RandomAccess {
+
+	private static final Logger LOG = getLogger(FeatureSnapshot.class);
+
+	private final FeatureType featureType;
+
+	private final int size;
+
+	private final StringColumn ids;
+
+	private final List<Column> columns;
+
+	private FeatureSnapshot(FeatureType featureType, int size, StringColumn ids, List<Column> columns) {
+		this.featureType = featureType;
+		this.size = size;
+		this.ids = ids;
+		this.columns = columns;
+	}
+
+	/**
+	 * @param featureType the feature type to check, never <code>null</code>
+	 * @return <code>true</code> if the features of the feature type can be stored in a
+	 * snapshot, <code>false</code> otherwise
+	 */
+	static boolean isSupported(FeatureType featureType) {
+		for (PropertyType propertyType : featureType.getPropertyDeclarations()) {
+			if (isGmlProperty(propertyType))
+				continue;
+			if (!(propertyType instanceof SimplePropertyType) && !(propertyType instanceof GeometryPropertyType))
+				return false;
+			if (propertyType.getMaxOccurs() != 1)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Writes the features into files in a new subdirectory of the passed directory and
+	 * maps them into memory. The files are deleted after they are mapped.
+	 * @param featureType the feature type of the features, never <code>null</code>
+	 * @param features the features to store, never <code>null</code>
+	 * @param directory the directory to create the files in, never <code>null</code>
+	 * @return the snapshot, never <code>null</code>
+	 * @throws IOException if the files could not be written or a feature could not be
+	 * stored
+	 */
+	static FeatureSnapshot create(FeatureType featureType, Iterable<Feature> features, Path directory)
+			throws IOException {
+		Path snapshotDirectory = Files.createTempDirectory(directory, "oaf-snapshot-");
+		List<ColumnWriter> writers = new ArrayList<>();
+		try {
+			StringColumnWriter idWriter = new StringColumnWriter(snapshotDirectory, "id");
+			writers.add(idWriter);
+			List<PropertyWriter> propertyWriters = new ArrayList<>();
+			List<QName> gmlProperties = new ArrayList<>();
+			for (PropertyType propertyType : featureType.getPropertyDeclarations()) {
+				if (isGmlProperty(propertyType)) {
+					gmlProperties.add(propertyType.getName());
+					continue;
+				}
+				String fileName = "property-" + propertyWriters.size();
+				if (propertyType instanceof GeometryPropertyType)
+					propertyWriters.add(new GeometryColumnWriter(propertyType, snapshotDirectory, fileName));
+				else
+					propertyWriters.add(
+							new DictionaryColumnWriter((SimplePropertyType) propertyType, snapshotDirectory, fileName));
+			}
+			writers.addAll(propertyWriters);
+			int size = 0;
+			for (Feature feature : features) {
+				for (QName gmlProperty : gmlProperties) {
+					if (!feature.getProperties(gmlProperty).isEmpty())
+						throw new IOException("Values of property " + gmlProperty + " cannot be stored");
+				}
+				idWriter.add(feature.getId() != null ? feature.getId() : "");
+				for (PropertyWriter propertyWriter : propertyWriters)
+					propertyWriter.add(feature);
+				size++;
+			}
+			StringColumn ids = idWriter.finish();
+			List<Column> columns = new ArrayList<>();
+			for (PropertyWriter propertyWriter : propertyWriters)
+				columns.add(propertyWriter.finish());
+			return new FeatureSnapshot(featureType, size, ids, columns);
+		}
+		finally {
+			for (ColumnWriter writer : writers)
+				writer.close();
+			delete(snapshotDirectory);
+		}
+	}
+
+	@Override
+	public Feature get(int position) {
+		if (position < 0 || position >= size)
+			throw new IndexOutOfBoundsException("Position " + position + " of " + size + " features");
+		List<Property> properties = new ArrayList<>(columns.size());
+		for (Column column : columns)
+			column.addProperty(position, properties);
+		return featureType.newFeature(getId(position), properties, null);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param position the position of the feature
+	 * @return the id of the feature, <code>null</code> if the feature has no id
+	 */
+	String getId(int position) {
+		String id = ids.get(position);
+		return id.isEmpty() ? null : id;
+	}
+
+	private static boolean isGmlProperty(PropertyType propertyType) {
+		return GMLSchemaInfoSet.isGMLNamespace(propertyType.getName().getNamespaceURI());
+	}
+
+	private static ByteBuffer map(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE)
+				throw new IOException("File " + file + " is too large to be mapped into memory");
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
+
+	private static void delete(Path snapshotDirectory) {
+		try (Stream<Path> files = Files.list(snapshotDirectory)) {
+			for (Path file : files.toList())
+				Files.delete(file);
+			Files.delete(snapshotDirectory);
+		}
+		catch (IOException e) {
+			// mapped files cannot be deleted on some platforms
+			LOG.debug("Could not delete snapshot directory {}, deleting it on exit", snapshotDirectory, e);
+			try (Stream<Path> files = Files.list(snapshotDirectory)) {
+				snapshotDirectory.toFile().deleteOnExit();
+				files.forEach(file -> file.toFile().deleteOnExit());
+			}
+			catch (IOException ex) {
+				LOG.warn("Could not delete snapshot directory {}", snapshotDirectory);
+			}
+		}
+	}
+
+	private static DataOutputStream open(Path file) throws IOException {
+		return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+	}
+
+	private static TypedObjectNode getValue(PropertyType propertyType, Feature feature) throws IOException {
+		List<Property> properties = feature.getProperties(propertyType.getName());
+		if (properties.size() > 1)
+			throw new IOException("Property " + propertyType.getName() + " occurs more than once");
+		return properties.isEmpty() ? null : properties.get(0).getValue();
+	}
+
+	private interface Column {
+
+		void addProperty(int position, List<Property> properties);
+
+	}
+
+	private interface ColumnWriter extends Closeable {
+
+	}
+
+	private interface PropertyWriter extends ColumnWriter {
+
+		void add(Feature feature) throws IOException;
+
+		Column finish() throws IOException;
+
+	}
+
+	/**
+	 * Strings stored as end offsets (one int per string) and the concatenated UTF-8
+	 * bytes.
+	 */
+	private static final class StringColumn {
+
+		private final ByteBuffer offsets;
+
+		private final ByteBuffer bytes;
+
+		private StringColumn(ByteBuffer offsets, ByteBuffer bytes) {
+			this.offsets = offsets;
+			this.bytes = bytes;
+		}
+
+		private String get(int index) {
+			int start = index == 0 ? 0 : offsets.getInt((index - 1) * 4);
+			int end = offsets.getInt(index * 4);
+			byte[] value = new byte[end - start];
+			bytes.get(start, value);
+			return new String(value, UTF_8);
+		}
+
+	}
+
+	private static final class StringColumnWriter implements ColumnWriter {
+
+		private final Path offsetsFile;
+
+		private final Path bytesFile;
+
+		private final DataOutputStream offsets;
+
+		private final DataOutputStream bytes;
+
+		private long length;
+
+		private StringColumnWriter(Path directory, String fileName) throws IOException {
+			this.offsetsFile = directory.resolve(fileName + ".offsets");
+			this.bytesFile = directory.resolve(fileName + ".bytes");
+			this.offsets = open(offsetsFile);
+			this.bytes = open(bytesFile);
+		}
+
+		private void add(String value) throws IOException {
+			byte[] encoded = value.getBytes(UTF_8);
+			length += encoded.length;
+			if (length > Integer.MAX_VALUE)
+				throw new IOException("Strings of file " + bytesFile + " exceed the maximum size");
+			bytes.write(encoded);
+			offsets.writeInt((int) length);
+		}
+
+		private StringColumn finish() throws IOException {
+			close();
+			return new StringColumn(map(offsetsFile), map(bytesFile));
+		}
+
+		@Override
+		public void close() throws IOException {
+			offsets.close();
+			bytes.close();
+		}
+
+	}
+
+	/**
+	 * Values of a simple property stored as code (one int per feature, -1 if the feature
+	 * has no value) referencing a dictionary of the distinct values.
+	 */
+	private static final class DictionaryColumn implements Column {
+
+		private final SimplePropertyType propertyType;
+
+		private final ByteBuffer codes;
+
+		private final StringColumn dictionary;
+
+		private DictionaryColumn(SimplePropertyType propertyType, ByteBuffer codes, StringColumn dictionary) {
+			this.propertyType = propertyType;
+			this.codes = codes;
+			this.dictionary = dictionary;
+		}
+
+		@Override
+		public void addProperty(int position, List<Property> properties) {
+			int code = codes.getInt(position * 4);
+			if (code < 0)
+				return;
+			PrimitiveType primitiveType = propertyType.getPrimitiveType();
+			Object value = XMLValueMangler.xmlToInternal(dictionary.get(code), primitiveType.getBaseType());
+			properties.add(new GenericProperty(propertyType, new PrimitiveValue(value, primitiveType)));
+		}
+
+	}
+
+	private static final class DictionaryColumnWriter implements PropertyWriter {
+
+		private final SimplePropertyType propertyType;
+
+		private final Map<String, Integer> codes = new HashMap<>();
+
+		private final Path codesFile;
+
+		private final DataOutputStream codesOut;
+
+		private final StringColumnWriter dictionary;
+
+		private DictionaryColumnWriter(SimplePropertyType propertyType, Path directory, String fileName)
+				throws IOException {
+			this.propertyType = propertyType;
+			this.codesFile = directory.resolve(fileName + ".codes");
+			this.codesOut = open(codesFile);
+			this.dictionary = new StringColumnWriter(directory, fileName + ".dictionary");
+		}
+
+		@Override
+		public void add(Feature feature) throws IOException {
+			TypedObjectNode value = getValue(propertyType, feature);
+			if (value == null) {
+				codesOut.writeInt(-1);
+				return;
+			}
+			if (!(value instanceof PrimitiveValue primitiveValue))
+				throw new IOException("Value of property " + propertyType.getName() + " is not a primitive value");
+			String text = primitiveValue.getAsText();
+			Integer code = codes.get(text);
+			if (code == null) {
+				code = codes.size();
+				codes.put(text, code);
+				dictionary.add(text);
+			}
+			codesOut.writeInt(code);
+		}
+
+		@Override
+		public Column finish() throws IOException {
+			close();
+			return new DictionaryColumn(propertyType, map(codesFile), dictionary.finish());
+		}
+
+		@Override
+		public void close() throws IOException {
+			codesOut.close();
+			dictionary.close();
+		}
+
+	}
+
+	/**
+	 * Geometries stored as end offsets (one int per feature) and the concatenated WKB,
+	 * all geometries of the column share the same CRS.
+	 */
+	private static final class GeometryColumn implements Column {
+
+		private final PropertyType propertyType;
+
+		private final ICRS crs;
+
+		private final ByteBuffer offsets;
+
+		private final ByteBuffer wkb;
+
+		private GeometryColumn(PropertyType propertyType, ICRS crs, ByteBuffer offsets, ByteBuffer wkb) {
+			this.propertyType = propertyType;
+			this.crs = crs;
+			this.offsets = offsets;
+			this.wkb = wkb;
+		}
+
+		@Override
+		public void addProperty(int position, List<Property> properties) {
+			int start = position == 0 ? 0 : offsets.getInt((position - 1) * 4);
+			int end = offsets.getInt(position * 4);
+			if (start == end)
+				return;
+			byte[] value = new byte[end - start];
+			wkb.get(start, value);
+			try {
+				properties.add(new GenericProperty(propertyType, WKBReader.read(value, crs)));
+			}
+			catch (ParseException e) {
+				throw new IllegalStateException(
+						"Geometry of property " + propertyType.getName() + " could not be read from snapshot", e);
+			}
+		}
+
+	}
+
+	private static final class GeometryColumnWriter implements PropertyWriter {
+
+		private final PropertyType propertyType;
+
+		private final Path offsetsFile;
+
+		private final Path wkbFile;
+
+		private final DataOutputStream offsets;
+
+		private final DataOutputStream wkb;
+
+		private long length;
+
+		private ICRS crs;
+
+		private GeometryColumnWriter(PropertyType propertyType, Path directory, String fileName) throws IOException {
+			this.propertyType = propertyType;
+			this.offsetsFile = directory.resolve(fileName + ".offsets");
+			this.wkbFile = directory.resolve(fileName + ".wkb");
+			this.offsets = open(offsetsFile);
+			this.wkb = open(wkbFile);
+		}
+
+		@Override
+		public void add(Feature feature) throws IOException {
+			TypedObjectNode value = getValue(propertyType, feature);
+			if (value != null)
+				write(value);
+			offsets.writeInt((int) length);
+		}
+
+		private void write(TypedObjectNode value) throws IOException {
+			if (!(value instanceof Geometry geometry))
+				throw new IOException("Value of property " + propertyType.getName() + " is not a geometry");
+			if (geometry.getCoordinateDimension() > 2)
+				throw new IOException("Geometries of property " + propertyType.getName() + " are not 2D");
+			if (crs == null)
+				crs = geometry.getCoordinateSystem();
+			else if (!crs.equals(geometry.getCoordinateSystem()))
+				throw new IOException("Geometries of property " + propertyType.getName() + " use different CRS");
+			try {
+				byte[] encoded = WKBWriter.write(geometry);
+				length += encoded.length;
+				if (length > Integer.MAX_VALUE)
+					throw new IOException("Geometries of file " + wkbFile + " exceed the maximum size");
+				wkb.write(encoded);
+			}
+			catch (ParseException e) {
+				throw new IOException("Geometry of property " + propertyType.getName() + " could not be encoded", e);
+			}
+		}
+
+		@Override
+		public Column finish() throws IOException {
+			close();
+			return new GeometryColumn(propertyType, crs, map(offsetsFile), map(wkbFile));
+		}
+
+		@Override
+		public void close() throws IOException {
+			offsets.close();
+			wkb.close();
+		}
+
+	}
+
+}
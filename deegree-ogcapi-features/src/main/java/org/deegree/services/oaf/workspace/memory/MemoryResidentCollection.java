@@ -0,0 +1,414 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.workspace.memory;
+
+import static org.deegree.filter.MatchAction.ALL;
+import static org.deegree.services.oaf.workspace.DeegreeQueryBuilder.FIRST;
+import static org.deegree.services.oaf.workspace.DeegreeQueryBuilder.UNLIMITED;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+
+import javax.xml.namespace.QName;
+
+import org.deegree.cql2.FilterProperty;
+import org.deegree.cs.coordinatesystems.ICRS;
+import org.deegree.cs.exceptions.TransformationException;
+import org.deegree.cs.exceptions.UnknownCRSException;
+import org.deegree.feature.Feature;
+import org.deegree.feature.persistence.FeatureStore;
+import org.deegree.feature.persistence.FeatureStoreException;
+import org.deegree.feature.persistence.query.Query;
+import org.deegree.feature.stream.FeatureInputStream;
+import org.deegree.feature.types.FeatureType;
+import org.deegree.feature.xpath.TypedObjectNodeXPathEvaluator;
+import org.deegree.filter.Filter;
+import org.deegree.filter.FilterEvaluationException;
+import org.deegree.filter.IdFilter;
+import org.deegree.filter.Operator;
+import org.deegree.filter.OperatorFilter;
+import org.deegree.filter.comparison.BinaryComparisonOperator;
+import org.deegree.filter.expression.Literal;
+import org.deegree.filter.expression.ValueReference;
+import org.deegree.filter.logical.And;
+import org.deegree.filter.spatial.BBOX;
+import org.deegree.geometry.Envelope;
+import org.deegree.geometry.GeometryTransformer;
+import org.deegree.protocol.wfs.getfeature.TypeName;
+import org.slf4j.Logger;
+
+/**
+ * All features of a collection kept in memory to answer queries without accessing the
+ * feature store. The features are kept on the heap or, to keep the heap usage independent
+ * of the number of features, in an off-heap {@link FeatureSnapshot}. The features are
+ * indexed by id, by their envelope in a {@link StrTree} and by the values of the
+ * queryables in {@link AttributeIndex}es. The indexes are used to find candidates for
+ * bbox and comparison operators combined by AND, the filter is evaluated on the
+ * candidates afterwards. Instances are immutable and therefore thread safe.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+public class MemoryResidentCollection {
+
+	/**
+	 * Default maximum number of features of a collection kept in memory.
+	 */
+	public static final int DEFAULT_MAX_FEATURES = 1000000;
+
+	private static final Logger LOG = getLogger(MemoryResidentCollection.class);
+
+	private final List<Feature> features;
+
+	private final IntFunction<String> ids;
+
+	private final Map<QName, AttributeIndex> attributeIndexes = new HashMap<>();
+
+	private final BitSet spatiallyUnindexed = new BitSet();
+
+	private final int[] positionsById;
+
+	private StrTree spatialIndex;
+
+	private ICRS spatialIndexCrs;
+
+	/**
+	 * @param features the features of the collection, never <code>null</code>
+	 * @param filterProperties the queryables to index, never <code>null</code>
+	 */
+	MemoryResidentCollection(List<Feature> features, List<FilterProperty> filterProperties) {
+		this.features = Collections.unmodifiableList(features);
+		if (features instanceof FeatureSnapshot snapshot)
+			this.ids = snapshot::getId;
+		else
+			this.ids = position -> features.get(position).getId();
+		for (FilterProperty filterProperty : filterProperties) {
+			AttributeIndex attributeIndex = AttributeIndex.create(filterProperty);
+			if (attributeIndex != null)
+				attributeIndexes.put(filterProperty.getName(), attributeIndex);
+		}
+		createIndexes();
+		this.positionsById = sortById();
+	}
+
+	/**
+	 * Loads all features of the feature type from the feature store.
+	 * @param featureStore the feature store to load the features from, never
+	 * <code>null</code>
+	 * @param featureTypeName the name of the feature type, never <code>null</code>
+	 * @param filterProperties the queryables to index, never <code>null</code>
+	 * @param maxFeatures the maximum number of features to load
+	 * @param snapshotDirectory the directory to create the files of the off-heap snapshot
+	 * in, <code>null</code> if the features are kept on the heap
+	 * @return the loaded collection, <code>null</code> if the feature type contains more
+	 * than maxFeatures features
+	 * @throws FeatureStoreException if the features could not be retrieved
+	 * @throws FilterEvaluationException if the features could not be retrieved
+	 */
+	public static MemoryResidentCollection load(FeatureStore featureStore, QName featureTypeName,
+			List<FilterProperty> filterProperties, int maxFeatures, Path snapshotDirectory)
+			throws FeatureStoreException, FilterEvaluationException {
+		long start = System.currentTimeMillis();
+		TypeName[] typeNames = { new TypeName(featureTypeName, null) };
+		Query query = new Query(typeNames, (Filter) null, null, UNLIMITED, FIRST);
+		int numberOfFeatures = featureStore.queryHits(query);
+		if (numberOfFeatures > maxFeatures) {
+			LOG.warn("Feature type {} contains {} features, more than {} features are not kept in memory",
+					featureTypeName, numberOfFeatures, maxFeatures);
+			return null;
+		}
+		List<Feature> features = null;
+		if (snapshotDirectory != null)
+			features = createSnapshot(featureStore, featureTypeName, query, snapshotDirectory);
+		boolean offHeap = features != null;
+		if (features == null)
+			features = loadFeatures(featureStore, query, numberOfFeatures);
+		MemoryResidentCollection collection = new MemoryResidentCollection(features, filterProperties);
+		LOG.info("Loaded {} features of feature type {} into memory ({}) in {} ms, indexed queryables: {}",
+				features.size(), featureTypeName, offHeap ? "off-heap" : "heap", System.currentTimeMillis() - start,
+				collection.attributeIndexes.keySet());
+		return collection;
+	}
+
+	/**
+	 * @param filter the filter to evaluate, may be <code>null</code>
+	 * @return all features matching the filter in the order they were loaded, or in the
+	 * order of the ids if the filter is an {@link IdFilter}, never <code>null</code>. The
+	 * features of an off-heap snapshot are created each time they are accessed.
+	 * @throws FilterEvaluationException if the filter could not be evaluated
+	 */
+	public List<Feature> query(Filter filter) throws FilterEvaluationException {
+		if (filter == null)
+			return features;
+		if (filter instanceof IdFilter idFilter)
+			return queryByIds(idFilter);
+		BitSet candidates = null;
+		if (filter instanceof OperatorFilter operatorFilter)
+			candidates = findCandidates(operatorFilter.getOperator());
+		TypedObjectNodeXPathEvaluator evaluator = new TypedObjectNodeXPathEvaluator();
+		FeatureList matches = new FeatureList(features);
+		if (candidates == null) {
+			for (int position = 0; position < features.size(); position++)
+				addIfMatches(filter, evaluator, position, matches);
+		}
+		else {
+			for (int position = candidates.nextSetBit(0); position >= 0; position = candidates.nextSetBit(position + 1))
+				addIfMatches(filter, evaluator, position, matches);
+		}
+		return matches;
+	}
+
+	/**
+	 * @param featureId the id of the feature, never <code>null</code>
+	 * @return the feature with the id, <code>null</code> if no feature with the id exists
+	 */
+	public Feature getFeature(String featureId) {
+		int position = positionOf(featureId);
+		return position >= 0 ? features.get(position) : null;
+	}
+
+	/**
+	 * @return the number of features kept in memory
+	 */
+	public int size() {
+		return features.size();
+	}
+
+	private static List<Feature> createSnapshot(FeatureStore featureStore, QName featureTypeName, Query query,
+			Path snapshotDirectory) throws FeatureStoreException, FilterEvaluationException {
+		FeatureType featureType = featureStore.getSchema().getFeatureType(featureTypeName);
+		if (!FeatureSnapshot.isSupported(featureType)) {
+			LOG.warn("Feature type {} has complex or multiple properties, features are kept on the heap",
+					featureTypeName);
+			return null;
+		}
+		FeatureInputStream featureInputStream = featureStore.query(query);
+		try {
+			return FeatureSnapshot.create(featureType, featureInputStream, snapshotDirectory);
+		}
+		catch (IOException e) {
+			LOG.warn("Features of feature type {} could not be stored off-heap, features are kept on the heap: {}",
+					featureTypeName, e.getMessage());
+			return null;
+		}
+		finally {
+			featureInputStream.close();
+		}
+	}
+
+	private static List<Feature> loadFeatures(FeatureStore featureStore, Query query, int numberOfFeatures)
+			throws FeatureStoreException, FilterEvaluationException {
+		List<Feature> features = new ArrayList<>(numberOfFeatures);
+		FeatureInputStream featureInputStream = featureStore.query(query);
+		try {
+			for (Feature feature : featureInputStream)
+				features.add(feature);
+		}
+		finally {
+			featureInputStream.close();
+		}
+		return features;
+	}
+
+	private List<Feature> queryByIds(IdFilter idFilter) {
+		FeatureList matches = new FeatureList(features);
+		for (String id : idFilter.getMatchingIds()) {
+			int position = positionOf(id);
+			if (position >= 0)
+				matches.add(position);
+		}
+		return matches;
+	}
+
+	private void addIfMatches(Filter filter, TypedObjectNodeXPathEvaluator evaluator, int position, FeatureList matches)
+			throws FilterEvaluationException {
+		if (filter.evaluate(features.get(position), evaluator))
+			matches.add(position);
+	}
+
+	private BitSet findCandidates(Operator operator) {
+		if (operator instanceof And and) {
+			BitSet candidates = null;
+			for (Operator param : and.getParams()) {
+				BitSet paramCandidates = findCandidates(param);
+				if (candidates == null)
+					candidates = paramCandidates;
+				else if (paramCandidates != null)
+					candidates.and(paramCandidates);
+			}
+			return candidates;
+		}
+		if (operator instanceof BBOX bbox)
+			return findSpatialCandidates(bbox.getBoundingBox());
+		if (operator instanceof BinaryComparisonOperator comparison)
+			return findAttributeCandidates(comparison);
+		return null;
+	}
+
+	private BitSet findSpatialCandidates(Envelope bbox) {
+		if (spatialIndex == null || bbox == null)
+			return null;
+		Envelope envelope = asSpatialIndexCrs(bbox);
+		if (envelope == null)
+			return null;
+		// the transformed corners may not cover the transformed bbox completely
+		double margin = envelope != bbox ? Math.max(envelope.getSpan0(), envelope.getSpan1()) * 0.01 : 0;
+		BitSet candidates = new BitSet(features.size());
+		spatialIndex.query(envelope.getMin().get0() - margin, envelope.getMin().get1() - margin,
+				envelope.getMax().get0() + margin, envelope.getMax().get1() + margin, candidates);
+		candidates.or(spatiallyUnindexed);
+		return candidates;
+	}
+
+	private BitSet findAttributeCandidates(BinaryComparisonOperator comparison) {
+		if (comparison.getMatchAction() == ALL)
+			return null;
+		if (!(comparison.getParameter1() instanceof ValueReference valueReference)
+				|| !(comparison.getParameter2() instanceof Literal<?> literal) || literal.getValue() == null)
+			return null;
+		QName propertyName = valueReference.getAsQName();
+		AttributeIndex attributeIndex = propertyName != null ? attributeIndexes.get(propertyName) : null;
+		if (attributeIndex == null)
+			return null;
+		return attributeIndex.findCandidates(comparison, literal.getValue().toString());
+	}
+
+	private Envelope asSpatialIndexCrs(Envelope bbox) {
+		ICRS bboxCrs = bbox.getCoordinateSystem();
+		if (bboxCrs == null || spatialIndexCrs == null || bboxCrs.equals(spatialIndexCrs))
+			return bbox;
+		try {
+			return (Envelope) new GeometryTransformer(spatialIndexCrs).transform(bbox, false);
+		}
+		catch (TransformationException | UnknownCRSException e) {
+			LOG.debug("Could not transform bbox into CRS of the spatial index, the index is not used", e);
+			return null;
+		}
+	}
+
+	private void createIndexes() {
+		int[] positions = new int[features.size()];
+		double[] envelopes = new double[features.size() * 4];
+		int numberOfEnvelopes = 0;
+		for (int position = 0; position < features.size(); position++) {
+			Feature feature = features.get(position);
+			for (AttributeIndex attributeIndex : attributeIndexes.values())
+				attributeIndex.index(position, feature);
+			Envelope envelope = feature.getEnvelope();
+			if (envelope == null)
+				continue;
+			if (spatialIndexCrs == null)
+				spatialIndexCrs = envelope.getCoordinateSystem();
+			if (envelope.getCoordinateSystem() != null && !envelope.getCoordinateSystem().equals(spatialIndexCrs)) {
+				spatiallyUnindexed.set(position);
+				continue;
+			}
+			positions[numberOfEnvelopes] = position;
+			envelopes[numberOfEnvelopes * 4] = envelope.getMin().get0();
+			envelopes[numberOfEnvelopes * 4 + 1] = envelope.getMin().get1();
+			envelopes[numberOfEnvelopes * 4 + 2] = envelope.getMax().get0();
+			envelopes[numberOfEnvelopes * 4 + 3] = envelope.getMax().get1();
+			numberOfEnvelopes++;
+		}
+		for (AttributeIndex attributeIndex : attributeIndexes.values())
+			attributeIndex.finish();
+		if (numberOfEnvelopes > 0) {
+			spatialIndex = new StrTree(Arrays.copyOf(positions, numberOfEnvelopes),
+					Arrays.copyOf(envelopes, numberOfEnvelopes * 4));
+		}
+	}
+
+	private int[] sortById() {
+		String[] featureIds = new String[features.size()];
+		List<Integer> positions = new ArrayList<>(features.size());
+		for (int position = 0; position < features.size(); position++) {
+			featureIds[position] = ids.apply(position);
+			if (featureIds[position] != null)
+				positions.add(position);
+		}
+		positions.sort(Comparator.comparing(position -> featureIds[position]));
+		return positions.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	private int positionOf(String featureId) {
+		int low = 0;
+		int high = positionsById.length - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int comparison = ids.apply(positionsById[middle]).compareTo(featureId);
+			if (comparison < 0)
+				low = middle + 1;
+			else if (comparison > 0)
+				high = middle - 1;
+			else
+				return positionsById[middle];
+		}
+		return -1;
+	}
+
+	/**
+	 * Features at the collected positions, only the positions are kept.
+	 */
+	private static final class FeatureList extends AbstractList<Feature> implements RandomAccess {
+
+		private final List<Feature> features;
+
+		private int[] positions = new int[16];
+
+		private int size;
+
+		private FeatureList(List<Feature> features) {
+			this.features = features;
+		}
+
+		private void add(int position) {
+			if (size == positions.length)
+				positions = Arrays.copyOf(positions, size * 2);
+			positions[size++] = position;
+		}
+
+		@Override
+		public Feature get(int index) {
+			if (index < 0 || index >= size)
+				throw new IndexOutOfBoundsException("Index " + index + " of " + size + " features");
+			return features.get(positions[index]);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+	}
+
+}
@@ -0,0 +1,151 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.workspace.memory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Static spatial index of envelopes packed with the Sort-Tile-Recursive algorithm. The
+ * envelopes of the items and of the inner nodes are stored in primitive arrays, four
+ * values (minX, minY, maxX, maxY) per entry.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+final class StrTree {
+
+	private static final int NODE_CAPACITY = 16;
+
+	private final int[] positions;
+
+	/**
+	 * Level 0 contains the envelopes of the items, each level above the envelopes of the
+	 * nodes grouping {@link #NODE_CAPACITY} entries of the level below.
+	 */
+	private final double[][] levels;
+
+	/**
+	 * @param positions the positions of the items, never <code>null</code>
+	 * @param envelopes the envelopes of the items (minX, minY, maxX, maxY), in the same
+	 * order as the positions, never <code>null</code>
+	 */
+	StrTree(int[] positions, double[] envelopes) {
+		Integer[] order = sortTileRecursive(envelopes, positions.length);
+		this.positions = new int[positions.length];
+		double[] items = new double[envelopes.length];
+		for (int i = 0; i < order.length; i++) {
+			this.positions[i] = positions[order[i]];
+			System.arraycopy(envelopes, order[i] * 4, items, i * 4, 4);
+		}
+		List<double[]> levels = new ArrayList<>();
+		levels.add(items);
+		double[] current = items;
+		while (size(current) > NODE_CAPACITY) {
+			current = group(current);
+			levels.add(current);
+		}
+		this.levels = levels.toArray(new double[0][]);
+	}
+
+	/**
+	 * Adds the positions of all items with an envelope intersecting the passed envelope.
+	 * @param minX min x of the envelope
+	 * @param minY min y of the envelope
+	 * @param maxX max x of the envelope
+	 * @param maxY max y of the envelope
+	 * @param result to add the positions to, never <code>null</code>
+	 */
+	void query(double minX, double minY, double maxX, double maxY, BitSet result) {
+		int top = levels.length - 1;
+		for (int entry = 0; entry < size(levels[top]); entry++)
+			query(top, entry, minX, minY, maxX, maxY, result);
+	}
+
+	/**
+	 * @return the number of indexed items
+	 */
+	int size() {
+		return positions.length;
+	}
+
+	private void query(int level, int entry, double minX, double minY, double maxX, double maxY, BitSet result) {
+		double[] envelopes = levels[level];
+		int offset = entry * 4;
+		if (envelopes[offset] > maxX || envelopes[offset + 2] < minX || envelopes[offset + 1] > maxY
+				|| envelopes[offset + 3] < minY)
+			return;
+		if (level == 0) {
+			result.set(positions[entry]);
+			return;
+		}
+		int first = entry * NODE_CAPACITY;
+		int last = Math.min(first + NODE_CAPACITY, size(levels[level - 1]));
+		for (int child = first; child < last; child++)
+			query(level - 1, child, minX, minY, maxX, maxY, result);
+	}
+
+	private static Integer[] sortTileRecursive(double[] envelopes, int numberOfItems) {
+		Integer[] order = new Integer[numberOfItems];
+		for (int i = 0; i < numberOfItems; i++)
+			order[i] = i;
+		Arrays.sort(order, Comparator.comparingDouble(i -> envelopes[i * 4] + envelopes[i * 4 + 2]));
+		int numberOfLeaves = (numberOfItems + NODE_CAPACITY - 1) / NODE_CAPACITY;
+		int sliceSize = (int) Math.ceil(Math.sqrt(numberOfLeaves)) * NODE_CAPACITY;
+		for (int start = 0; start < numberOfItems; start += sliceSize) {
+			Arrays.sort(order, start, Math.min(numberOfItems, start + sliceSize),
+					Comparator.comparingDouble(i -> envelopes[i * 4 + 1] + envelopes[i * 4 + 3]));
+		}
+		return order;
+	}
+
+	private static double[] group(double[] entries) {
+		int numberOfEntries = size(entries);
+		int numberOfNodes = (numberOfEntries + NODE_CAPACITY - 1) / NODE_CAPACITY;
+		double[] nodes = new double[numberOfNodes * 4];
+		for (int node = 0; node < numberOfNodes; node++) {
+			double minX = Double.POSITIVE_INFINITY;
+			double minY = Double.POSITIVE_INFINITY;
+			double maxX = Double.NEGATIVE_INFINITY;
+			double maxY = Double.NEGATIVE_INFINITY;
+			int last = Math.min((node + 1) * NODE_CAPACITY, numberOfEntries);
+			for (int entry = node * NODE_CAPACITY; entry < last; entry++) {
+				minX = Math.min(minX, entries[entry * 4]);
+				minY = Math.min(minY, entries[entry * 4 + 1]);
+				maxX = Math.max(maxX, entries[entry * 4 + 2]);
+				maxY = Math.max(maxY, entries[entry * 4 + 3]);
+			}
+			nodes[node * 4] = minX;
+			nodes[node * 4 + 1] = minY;
+			nodes[node * 4 + 2] = maxX;
+			nodes[node * 4 + 3] = maxY;
+		}
+		return nodes;
+	}
+
+	private static int size(double[] envelopes) {
+		return envelopes.length / 4;
+	}
+
+}
@@ -0,0 +1,69 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.cache;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.hasEntry;
+
+import java.util.Map;
+
+import jakarta.ws.rs.core.MediaType;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class CompressionLevelsTest {
+
+	@Test
+	void testCompressionLevel() {
+		CompressionLevels compressionLevels = new CompressionLevels(6, Map.of("application/gml+xml", 4));
+
+		assertThat(compressionLevels.compressionLevel(MediaType.valueOf("application/geo+json")), is(6));
+		assertThat(compressionLevels.compressionLevel(MediaType.valueOf("application/gml+xml;version=3.2")), is(4));
+		assertThat(compressionLevels.compressionLevel(MediaType.valueOf("image/png")), is(0));
+		assertThat(compressionLevels.compressionLevel(null), is(0));
+	}
+
+	@Test
+	void testCompressionLevel_disabled() {
+		assertThat(CompressionLevels.DISABLED.compressionLevel(MediaType.valueOf("application/geo+json")), is(0));
+	}
+
+	@Test
+	void testCompressionLevel_clamped() {
+		assertThat(new CompressionLevels(12, Map.of()).compressionLevel(MediaType.TEXT_HTML_TYPE), is(9));
+	}
+
+	@Test
+	void testParseLevels() {
+		Map<String, Integer> levels = CompressionLevels
+			.parseLevels("application/geo+json=1, Application/GML+XML = 4,text/html=x,invalid");
+
+		assertThat(levels, aMapWithSize(2));
+		assertThat(levels, hasEntry("application/geo+json", 1));
+		assertThat(levels, hasEntry("application/gml+xml", 4));
+	}
+
+}
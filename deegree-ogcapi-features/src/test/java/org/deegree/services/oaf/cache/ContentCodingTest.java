@@ -0,0 +1,83 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.cache;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import jakarta.ws.rs.core.MediaType;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class ContentCodingTest {
+
+	@Test
+	void testNegotiate() {
+		assertThat(ContentCoding.negotiate("gzip, deflate, br"), is("gzip"));
+		assertThat(ContentCoding.negotiate("deflate"), is("deflate"));
+		assertThat(ContentCoding.negotiate("gzip;q=0, deflate;q=0.5"), is("deflate"));
+		assertThat(ContentCoding.negotiate("br"), is(nullValue()));
+		assertThat(ContentCoding.negotiate(null), is(nullValue()));
+	}
+
+	@Test
+	void testIsCompressible() {
+		assertThat(ContentCoding.isCompressible(MediaType.valueOf("application/geo+json")), is(true));
+		assertThat(ContentCoding.isCompressible(MediaType.valueOf("application/gml+xml;version=3.2")), is(true));
+		assertThat(ContentCoding.isCompressible(MediaType.valueOf("application/vnd.oai.openapi+yaml;version=3.0")),
+				is(true));
+		assertThat(ContentCoding.isCompressible(MediaType.TEXT_HTML_TYPE), is(true));
+		assertThat(ContentCoding.isCompressible(MediaType.valueOf("image/png")), is(false));
+	}
+
+	@Test
+	void testCompress_gzip() throws IOException {
+		byte[] compressed = ContentCoding.compress(content(), ContentCoding.GZIP, 9);
+
+		try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+			assertThat(inputStream.readAllBytes(), is(content()));
+		}
+	}
+
+	@Test
+	void testCompress_deflate() throws IOException {
+		byte[] compressed = ContentCoding.compress(content(), ContentCoding.DEFLATE, 1);
+
+		try (InflaterInputStream inputStream = new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+			assertThat(inputStream.readAllBytes(), is(content()));
+		}
+	}
+
+	private byte[] content() {
+		return "{\"type\":\"FeatureCollection\",\"features\":[]}".repeat(10).getBytes(StandardCharsets.UTF_8);
+	}
+
+}
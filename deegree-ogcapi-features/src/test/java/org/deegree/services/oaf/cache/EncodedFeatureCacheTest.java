@@ -0,0 +1,95 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.cache;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class EncodedFeatureCacheTest {
+
+	@Test
+	void testGet_cached() {
+		EncodedFeatureCache cache = new EncodedFeatureCache(100);
+		cache.put("id1", "EPSG:4326", "{\"id\":\"id1\"}");
+
+		assertThat(cache.get("id1", "EPSG:4326"), is("{\"id\":\"id1\"}"));
+		assertThat(cache.get("id1", "EPSG:25832"), is(nullValue()));
+		assertThat(cache.get("id2", "EPSG:4326"), is(nullValue()));
+		assertThat(cache.getBytes(), is(12L));
+	}
+
+	@Test
+	void testPut_replaced() {
+		EncodedFeatureCache cache = new EncodedFeatureCache(100);
+		cache.put("id1", null, "0123456789");
+		cache.put("id1", null, "01234");
+
+		assertThat(cache.get("id1", null), is("01234"));
+		assertThat(cache.getBytes(), is(5L));
+	}
+
+	@Test
+	void testPut_leastRecentlyUsedIsEvicted() {
+		EncodedFeatureCache cache = new EncodedFeatureCache(25);
+		cache.put("id1", null, "0123456789");
+		cache.put("id2", null, "0123456789");
+		cache.get("id1", null);
+		cache.put("id3", null, "0123456789");
+
+		assertThat(cache.get("id1", null), is("0123456789"));
+		assertThat(cache.get("id2", null), is(nullValue()));
+		assertThat(cache.get("id3", null), is("0123456789"));
+		assertThat(cache.getBytes(), is(20L));
+	}
+
+	@Test
+	void testPut_tooLarge() {
+		EncodedFeatureCache cache = new EncodedFeatureCache(5);
+		cache.put("id1", null, "0123456789");
+
+		assertThat(cache.get("id1", null), is(nullValue()));
+		assertThat(cache.getBytes(), is(0L));
+	}
+
+	@Test
+	void testGet_expired() {
+		AtomicLong now = new AtomicLong();
+		EncodedFeatureCache cache = new EncodedFeatureCache(100, 1000, now::get);
+		cache.put("id1", null, "0123456789");
+		now.set(999);
+
+		assertThat(cache.get("id1", null), is("0123456789"));
+
+		now.set(1000);
+		assertThat(cache.get("id1", null), is(nullValue()));
+		assertThat(cache.getBytes(), is(0L));
+	}
+
+}
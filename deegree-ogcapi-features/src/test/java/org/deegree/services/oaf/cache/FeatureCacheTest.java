@@ -0,0 +1,102 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.cache;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.deegree.feature.Feature;
+import org.deegree.services.oaf.workspace.configuration.OafDatasetConfiguration;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class FeatureCacheTest {
+
+	private final AtomicLong now = new AtomicLong();
+
+	private final OafDatasetConfiguration oafConfiguration = mockOafConfiguration();
+
+	@Test
+	void testGet_cached() {
+		FeatureCache cache = new FeatureCache(10, 100, now::get);
+		Feature feature = mock(Feature.class);
+		cache.put(oafConfiguration, "collection", "id1", feature);
+
+		assertThat(cache.get(oafConfiguration, "collection", "id1"), sameInstance(feature));
+		assertThat(cache.get(oafConfiguration, "collection", "id2"), is(nullValue()));
+		assertThat(cache.get(oafConfiguration, "otherCollection", "id1"), is(nullValue()));
+	}
+
+	@Test
+	void testGet_expired() {
+		FeatureCache cache = new FeatureCache(10, 100, now::get);
+		cache.put(oafConfiguration, "collection", "id1", mock(Feature.class));
+		now.set(100);
+
+		assertThat(cache.get(oafConfiguration, "collection", "id1"), is(nullValue()));
+	}
+
+	@Test
+	void testGet_reinitializedDataset() {
+		FeatureCache cache = new FeatureCache(10, 100, now::get);
+		cache.put(oafConfiguration, "collection", "id1", mock(Feature.class));
+
+		assertThat(cache.get(mockOafConfiguration(), "collection", "id1"), is(nullValue()));
+	}
+
+	@Test
+	void testPut_leastRecentlyUsedIsEvicted() {
+		FeatureCache cache = new FeatureCache(2, 100, now::get);
+		cache.put(oafConfiguration, "collection", "id1", mock(Feature.class));
+		cache.put(oafConfiguration, "collection", "id2", mock(Feature.class));
+		cache.get(oafConfiguration, "collection", "id1");
+		cache.put(oafConfiguration, "collection", "id3", mock(Feature.class));
+
+		assertThat(cache.get(oafConfiguration, "collection", "id1") != null, is(true));
+		assertThat(cache.get(oafConfiguration, "collection", "id2"), is(nullValue()));
+		assertThat(cache.get(oafConfiguration, "collection", "id3") != null, is(true));
+	}
+
+	@Test
+	void testGet_disabled() {
+		FeatureCache cache = new FeatureCache(0, 100, now::get);
+		cache.put(oafConfiguration, "collection", "id1", mock(Feature.class));
+
+		assertThat(cache.isEnabled(), is(false));
+		assertThat(cache.get(oafConfiguration, "collection", "id1"), is(nullValue()));
+	}
+
+	private OafDatasetConfiguration mockOafConfiguration() {
+		OafDatasetConfiguration oafConfiguration = mock(OafDatasetConfiguration.class);
+		when(oafConfiguration.getId()).thenReturn("dataset");
+		return oafConfiguration;
+	}
+
+}
@@ -0,0 +1,170 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.cache;
+
+import static org.deegree.services.oaf.cache.StaticResourceHandler.ContentEncoding.BROTLI;
+import static org.deegree.services.oaf.cache.StaticResourceHandler.ContentEncoding.GZIP;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.deegree.services.oaf.cache.StaticResourceHandler.ByteRange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class StaticResourceHandlerTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void testParseRange() {
+		assertThat(StaticResourceHandler.parseRange("bytes=0-9", 100), is(new ByteRange(0, 9)));
+		assertThat(StaticResourceHandler.parseRange("bytes=90-", 100), is(new ByteRange(90, 99)));
+		assertThat(StaticResourceHandler.parseRange("bytes=-10", 100), is(new ByteRange(90, 99)));
+		assertThat(StaticResourceHandler.parseRange("bytes=50-200", 100), is(new ByteRange(50, 99)));
+	}
+
+	@Test
+	void testParseRange_unsatisfiable() {
+		assertThat(StaticResourceHandler.parseRange("bytes=100-", 100), is(ByteRange.UNSATISFIABLE));
+		assertThat(StaticResourceHandler.parseRange("bytes=-0", 100), is(ByteRange.UNSATISFIABLE));
+	}
+
+	@Test
+	void testParseRange_ignored() {
+		assertThat(StaticResourceHandler.parseRange("bytes=0-9,20-29", 100), is(nullValue()));
+		assertThat(StaticResourceHandler.parseRange("items=0-9", 100), is(nullValue()));
+		assertThat(StaticResourceHandler.parseRange("bytes=9-0", 100), is(nullValue()));
+	}
+
+	@Test
+	void testAcceptedEncodings() {
+		assertThat(StaticResourceHandler.acceptedEncodings(mockHeaders("gzip, deflate, br")), contains(BROTLI, GZIP));
+		assertThat(StaticResourceHandler.acceptedEncodings(mockHeaders("gzip;q=0.5, br;q=0")), contains(GZIP));
+		assertThat(StaticResourceHandler.acceptedEncodings(mockHeaders(null)), is(empty()));
+	}
+
+	@Test
+	void testServeFile() throws Exception {
+		Path file = writeFile("main.css", "body { color: black; }");
+
+		Response response = StaticResourceHandler.serveFile(file, "text/css", mock(Request.class), mockHeaders(null),
+				CompressionLevels.DISABLED);
+
+		assertThat(response.getStatus(), is(200));
+		assertThat(response.getEntityTag(), notNullValue());
+		assertThat(response.getHeaderString(HttpHeaders.CACHE_CONTROL), is("public, max-age=86400"));
+		assertThat(content(response), is("body { color: black; }"));
+	}
+
+	@Test
+	void testServeFile_range() throws Exception {
+		Path file = writeFile("range.css", "0123456789");
+		HttpHeaders headers = mockHeaders(null);
+		when(headers.getHeaderString("Range")).thenReturn("bytes=2-4");
+
+		Response response = StaticResourceHandler.serveFile(file, "text/css", mock(Request.class), headers,
+				CompressionLevels.DISABLED);
+
+		assertThat(response.getStatus(), is(206));
+		assertThat(response.getHeaderString("Content-Range"), is("bytes 2-4/10"));
+		assertThat(content(response), is("234"));
+	}
+
+	@Test
+	void testServeFile_precompressed() throws Exception {
+		Path file = writeFile("compressed.js", "uncompressed");
+		writeFile("compressed.js.gz", "compressed");
+
+		Response response = StaticResourceHandler.serveFile(file, "text/javascript", mock(Request.class),
+				mockHeaders("gzip"), CompressionLevels.DISABLED);
+
+		assertThat(response.getHeaderString(HttpHeaders.CONTENT_ENCODING), is("gzip"));
+		assertThat(content(response), is("compressed"));
+	}
+
+	@Test
+	void testServeFile_compressed() throws Exception {
+		Path file = writeFile("uncompressed.css", "body { color: black; } body { color: black; }");
+
+		Response response = StaticResourceHandler.serveFile(file, "text/css", mock(Request.class), mockHeaders("gzip"),
+				new CompressionLevels(6, Map.of()));
+
+		assertThat(response.getHeaderString(HttpHeaders.CONTENT_ENCODING), is("gzip"));
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		((StreamingOutput) response.getEntity()).write(output);
+		try (GZIPInputStream content = new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+			assertThat(new String(content.readAllBytes(), StandardCharsets.UTF_8),
+					is("body { color: black; } body { color: black; }"));
+		}
+	}
+
+	@Test
+	void testServeFile_outsideOfBaseDirectory() throws Exception {
+		writeFile("secret.txt", "secret");
+		Path base = Files.createDirectory(directory.resolve("base"));
+
+		Response response = StaticResourceHandler.serveFile(base, "../secret.txt", null, mock(Request.class),
+				mockHeaders(null), CompressionLevels.DISABLED);
+
+		assertThat(response.getStatus(), is(404));
+	}
+
+	private Path writeFile(String name, String content) throws IOException {
+		return Files.writeString(directory.resolve(name), content, StandardCharsets.UTF_8);
+	}
+
+	private HttpHeaders mockHeaders(String acceptEncoding) {
+		HttpHeaders headers = mock(HttpHeaders.class);
+		when(headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING)).thenReturn(acceptEncoding);
+		return headers;
+	}
+
+	private String content(Response response) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		((StreamingOutput) response.getEntity()).write(output);
+		return output.toString(StandardCharsets.UTF_8);
+	}
+
+}
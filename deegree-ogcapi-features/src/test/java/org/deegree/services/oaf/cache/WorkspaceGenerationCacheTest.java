@@ -0,0 +1,115 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.cache;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.deegree.services.oaf.workspace.configuration.OafDatasets;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class WorkspaceGenerationCacheTest {
+
+	private final WorkspaceGenerationCache<String, Object> cache = new WorkspaceGenerationCache<>("test", 2);
+
+	@Test
+	void testRetrieve_sameGeneration() throws Exception {
+		OafDatasets generation = new OafDatasets();
+		AtomicInteger numberOfGenerations = new AtomicInteger();
+
+		Object first = cache.retrieve(generation, "key", () -> countAndCreate(numberOfGenerations));
+		Object second = cache.retrieve(generation, "key", () -> countAndCreate(numberOfGenerations));
+
+		assertThat(second, sameInstance(first));
+		assertThat(numberOfGenerations.get(), is(1));
+	}
+
+	@Test
+	void testRetrieve_newGeneration() throws Exception {
+		AtomicInteger numberOfGenerations = new AtomicInteger();
+
+		Object first = cache.retrieve(new OafDatasets(), "key", () -> countAndCreate(numberOfGenerations));
+		Object second = cache.retrieve(new OafDatasets(), "key", () -> countAndCreate(numberOfGenerations));
+
+		assertThat(second == first, is(false));
+		assertThat(numberOfGenerations.get(), is(2));
+	}
+
+	@Test
+	void testRetrieve_nullIsNotCached() throws Exception {
+		OafDatasets generation = new OafDatasets();
+		AtomicInteger numberOfGenerations = new AtomicInteger();
+
+		Object first = cache.retrieve(generation, "key", () -> {
+			numberOfGenerations.incrementAndGet();
+			return null;
+		});
+		cache.retrieve(generation, "key", () -> countAndCreate(numberOfGenerations));
+
+		assertThat(first, is(nullValue()));
+		assertThat(numberOfGenerations.get(), is(2));
+	}
+
+	@Test
+	void testRetrieve_exceptionIsNotCached() throws Exception {
+		OafDatasets generation = new OafDatasets();
+		AtomicInteger numberOfGenerations = new AtomicInteger();
+
+		assertThrows(IOException.class, () -> cache.retrieve(generation, "key", () -> {
+			throw new IOException("failed");
+		}));
+		cache.retrieve(generation, "key", () -> countAndCreate(numberOfGenerations));
+
+		assertThat(numberOfGenerations.get(), is(1));
+	}
+
+	@Test
+	void testRetrieve_oldestIsDiscarded() throws Exception {
+		OafDatasets generation = new OafDatasets();
+		AtomicInteger numberOfGenerations = new AtomicInteger();
+
+		cache.retrieve(generation, "key1", () -> countAndCreate(numberOfGenerations));
+		cache.retrieve(generation, "key2", () -> countAndCreate(numberOfGenerations));
+		cache.retrieve(generation, "key3", () -> countAndCreate(numberOfGenerations));
+		cache.retrieve(generation, "key3", () -> countAndCreate(numberOfGenerations));
+		cache.retrieve(generation, "key2", () -> countAndCreate(numberOfGenerations));
+		assertThat(numberOfGenerations.get(), is(3));
+
+		cache.retrieve(generation, "key1", () -> countAndCreate(numberOfGenerations));
+		assertThat(numberOfGenerations.get(), is(4));
+	}
+
+	private Object countAndCreate(AtomicInteger numberOfGenerations) {
+		numberOfGenerations.incrementAndGet();
+		return new Object();
+	}
+
+}
@@ -0,0 +1,72 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.filter;
+
+import static org.deegree.services.oaf.TestData.mockWorkspaceInitializer;
+import static org.deegree.services.oaf.filter.MetricsFilter.UNKNOWN_ID;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.deegree.services.oaf.workspace.configuration.OafDatasets;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class MetricsFilterTest {
+
+	private final OafDatasets oafDatasets = mockWorkspaceInitializer().getOafDatasets();
+
+	@Test
+	void testValidateIds() {
+		String[] ids = MetricsFilter.validateIds(oafDatasets, "oaf", "strassenbaumkataster");
+
+		assertThat(ids[0], is("oaf"));
+		assertThat(ids[1], is("strassenbaumkataster"));
+	}
+
+	@Test
+	void testValidateIds_withoutCollection() {
+		String[] ids = MetricsFilter.validateIds(oafDatasets, "oaf", null);
+
+		assertThat(ids[0], is("oaf"));
+		assertThat(ids[1], is(nullValue()));
+	}
+
+	@Test
+	void testValidateIds_unknownDataset() {
+		String[] ids = MetricsFilter.validateIds(oafDatasets, "random-1234", "random-5678");
+
+		assertThat(ids[0], is(UNKNOWN_ID));
+		assertThat(ids[1], is(UNKNOWN_ID));
+	}
+
+	@Test
+	void testValidateIds_unknownCollection() {
+		String[] ids = MetricsFilter.validateIds(oafDatasets, "oaf", "random-5678");
+
+		assertThat(ids[0], is("oaf"));
+		assertThat(ids[1], is(UNKNOWN_ID));
+	}
+
+}
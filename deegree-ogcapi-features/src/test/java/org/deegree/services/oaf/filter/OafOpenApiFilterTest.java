@@ -32,6 +32,7 @@ import static org.deegree.services.oaf.OgcApiFeaturesMediaType.APPLICATION_GML_S
 import static org.deegree.services.oaf.OgcApiFeaturesMediaType.APPLICATION_OPENAPI;
 import static org.deegree.services.oaf.TestData.mockWorkspaceInitializer;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.mock;
@@ -209,6 +210,31 @@ class OafOpenApiFilterTest {
 		assertThat(servers.get(0).getUrl(), is("http://localhost:8081/deegree-services-oaf/datasets/oaf"));
 	}
 
+	@Test
+	void filterOperationWithSharedComplexType() throws Exception {
+		OpenAPIV3Parser parser = new OpenAPIV3Parser();
+		URL resource = OafOpenApiFilterTest.class.getResource("openapi.json");
+		OpenAPI openAPI = parser.read(resource.toExternalForm());
+
+		DeegreeWorkspaceInitializer deegreeWorkspaceInitializer = mockWorkspaceInitializer(
+				new QName("http://www.deegree.org/datasource/feature/sql", "Zuwanderung"));
+
+		OafOpenApiFilter filter = new OafOpenApiFilter(uriInfo, "oaf", deegreeWorkspaceInitializer);
+		filter.filterOpenAPI(openAPI, null, null, null);
+
+		PathItem path = openAPI.getPaths().get("/collections/Zuwanderung/items");
+		Schema schema = path.getGet().getResponses().getDefault().getContent().get("application/geo+json").getSchema();
+		Schema featuresSchema = (Schema) schema.getProperties().get("features");
+		Schema propertiesSchema = (Schema) featuresSchema.getProperties().get("properties");
+
+		Schema wohnungslose = (Schema) propertiesSchema.getProperties().get("wohnungslose_jep");
+		Schema wohnberechtigte = (Schema) propertiesSchema.getProperties().get("wohnberechtigte_zuwanderer");
+		Schema zeitreiheOfWohnungslose = (Schema) wohnungslose.getProperties().get("zeitreihe");
+		Schema zeitreiheOfWohnberechtigte = (Schema) wohnberechtigte.getProperties().get("zeitreihe");
+		assertThat(zeitreiheOfWohnungslose.getProperties().get("zeitreihen-element"),
+				sameInstance(zeitreiheOfWohnberechtigte.getProperties().get("zeitreihen-element")));
+	}
+
 	private Matcher<PathItem> hasResponseMediaType(String... mediaTypes) {
 		return new BaseMatcher<PathItem>() {
 			@Override
@@ -0,0 +1,70 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.filter;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class TokenBucketTest {
+
+	private final AtomicLong now = new AtomicLong();
+
+	@Test
+	void testTryConsume_burst() {
+		TokenBucket tokenBucket = new TokenBucket(3, 1, now::get);
+
+		assertThat(tokenBucket.tryConsume(), is(true));
+		assertThat(tokenBucket.tryConsume(), is(true));
+		assertThat(tokenBucket.tryConsume(), is(true));
+		assertThat(tokenBucket.tryConsume(), is(false));
+	}
+
+	@Test
+	void testTryConsume_refill() {
+		TokenBucket tokenBucket = new TokenBucket(1, 2, now::get);
+
+		assertThat(tokenBucket.tryConsume(), is(true));
+		assertThat(tokenBucket.tryConsume(), is(false));
+
+		now.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+		assertThat(tokenBucket.tryConsume(), is(true));
+		assertThat(tokenBucket.tryConsume(), is(false));
+	}
+
+	@Test
+	void testSecondsUntilNextToken() {
+		TokenBucket tokenBucket = new TokenBucket(1, 1, now::get);
+		assertThat(tokenBucket.secondsUntilNextToken(), is(0L));
+
+		tokenBucket.tryConsume();
+		assertThat(tokenBucket.secondsUntilNextToken(), is(1L));
+	}
+
+}
@@ -0,0 +1,64 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.filter;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class TokenBucketsTest {
+
+	private static final int MAX_NUMBER_OF_BUCKETS = 10000;
+
+	@Test
+	void testRetrieve_sameClient() {
+		TokenBuckets tokenBuckets = new TokenBuckets(MAX_NUMBER_OF_BUCKETS, () -> new TokenBucket(1, 1, () -> 0));
+
+		assertThat(tokenBuckets.retrieve("ip:1"), is(sameInstance(tokenBuckets.retrieve("ip:1"))));
+	}
+
+	@Test
+	void testRetrieve_moreClientsThanMaxNumberOfBuckets() {
+		TokenBuckets tokenBuckets = new TokenBuckets(MAX_NUMBER_OF_BUCKETS, () -> new TokenBucket(1, 1, () -> 0));
+		TokenBucket activeClient = tokenBuckets.retrieve("ip:active");
+		activeClient.tryConsume();
+		TokenBucket idleClient = tokenBuckets.retrieve("ip:idle");
+
+		for (int i = 0; i < 5 * MAX_NUMBER_OF_BUCKETS; i++) {
+			tokenBuckets.retrieve("ip:" + i);
+			if (i % 1000 == 0)
+				tokenBuckets.retrieve("ip:active");
+		}
+
+		assertThat(tokenBuckets.size(), is(MAX_NUMBER_OF_BUCKETS));
+		assertThat(tokenBuckets.retrieve("ip:active"), is(sameInstance(activeClient)));
+		assertThat(tokenBuckets.retrieve("ip:active").tryConsume(), is(false));
+		assertThat(tokenBuckets.retrieve("ip:idle"), is(not(sameInstance(idleClient))));
+	}
+
+}
@@ -14,6 +14,7 @@ import java.util.Map;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.deegree.services.oaf.OgcApiFeaturesMediaType.APPLICATION_GEOJSON_TYPE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class FeaturesResponseCreatorTest {
 
@@ -27,6 +28,22 @@ class FeaturesResponseCreatorTest {
 		assertEquals(response.getMediaType(), APPLICATION_GEOJSON_TYPE.withCharset(UTF_8.name()));
 	}
 
+	@Test
+	void createJsonResponseWithHeaders_serverTiming() {
+		FeaturesResponseCreator responseCreator = new FeaturesResponseCreator();
+		ServerTiming serverTiming = new ServerTiming();
+		serverTiming.endPhase("parse");
+		serverTiming.endPhase("count");
+		FeaturesResponse featuresResponse = new FeaturesResponseBuilder(new EmptyFeatureInputStream())
+			.withLinks(Collections.emptyList())
+			.withServerTiming(serverTiming)
+			.buildFeaturesResponse();
+		Response response = responseCreator.createJsonResponseWithHeaders(featuresResponse);
+
+		String header = response.getHeaderString(ServerTiming.HEADER_SERVER_TIMING);
+		assertTrue(header.matches("parse;dur=\\d+\\.\\d, count;dur=\\d+\\.\\d"), header);
+	}
+
 	private FeatureResponse createFeatureResponse() {
 		List<Link> links = Collections.singletonList(new Link("http://self", "self", "application/json", "title"));
 		FeatureInputStream featureStream = new EmptyFeatureInputStream();
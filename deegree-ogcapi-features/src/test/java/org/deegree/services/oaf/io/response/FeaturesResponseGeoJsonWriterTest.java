@@ -28,9 +28,11 @@ import org.deegree.feature.stream.MemoryFeatureInputStream;
 import org.deegree.gml.GMLInputFactory;
 import org.deegree.gml.GMLStreamReader;
 import org.deegree.services.oaf.OgcApiFeaturesConstants;
+import org.deegree.services.oaf.cache.EncodedFeatureCache;
 import org.deegree.services.oaf.io.response.geojson.FeaturesResponseGeoJsonWriter;
 import org.deegree.services.oaf.link.Link;
 import org.hamcrest.Matchers;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayOutputStream;
@@ -45,6 +47,7 @@ import static com.jayway.jsonpath.matchers.JsonPathMatchers.isJson;
 import static org.deegree.gml.GMLVersion.GML_32;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
 
 /**
  * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
@@ -65,6 +68,7 @@ class FeaturesResponseGeoJsonWriterTest {
 		assertThat(json, hasJsonPath("$.features"));
 		assertThat(json, hasJsonPath("$.links", Matchers.hasSize(1)));
 		assertThat(json, hasJsonPath("$.crs", equalTo(OgcApiFeaturesConstants.DEFAULT_CRS)));
+		assertThat(json, hasNoJsonPath("$.missingIds"));
 	}
 
 	@Test
@@ -83,6 +87,51 @@ class FeaturesResponseGeoJsonWriterTest {
 		assertThat(json, hasNoJsonPath("$.crs"));
 	}
 
+	@Test
+	void writeToFeaturesResponseRequestedByIds() {
+		FeaturesResponseGeoJsonWriter featureResponeWriter = new FeaturesResponseGeoJsonWriter();
+		RequestedFeatureIds requestedFeatureIds = new RequestedFeatureIds(List.of("id1", "id2", "id3"));
+		requestedFeatureIds.markAsReturned("id2");
+		FeaturesResponse featureResponse = new FeaturesResponseBuilder(new EmptyFeatureInputStream())
+			.withFeatureTypeNsPrefixes(Collections.emptyMap())
+			.withNumberOfFeatures(3)
+			.withNumberOfFeaturesMatched(1)
+			.withStartIndex(0)
+			.withLinks(Collections.emptyList())
+			.withRequestedFeatureIds(requestedFeatureIds)
+			.buildFeaturesResponse();
+		OutputStream bos = new ByteArrayOutputStream();
+		featureResponeWriter.writeTo(featureResponse, null, null, null, null, null, bos);
+
+		String json = bos.toString();
+
+		assertThat(json, isJson());
+		assertThat(json, hasJsonPath("$.missingIds", Matchers.contains("id1", "id3")));
+	}
+
+	@Test
+	void writeToWithEncodedFeatureCache() throws Exception {
+		FeaturesResponseGeoJsonWriter featureResponeWriter = new FeaturesResponseGeoJsonWriter();
+		EncodedFeatureCache encodedFeatureCache = new EncodedFeatureCache(1024 * 1024);
+		OutputStream uncachedBos = new ByteArrayOutputStream();
+		featureResponeWriter.writeTo(createFeatureResponse(null), null, null, null, null, null, uncachedBos);
+		OutputStream firstBos = new ByteArrayOutputStream();
+		featureResponeWriter.writeTo(createFeatureResponse(encodedFeatureCache), null, null, null, null, null,
+				firstBos);
+		long cachedBytes = encodedFeatureCache.getBytes();
+		OutputStream secondBos = new ByteArrayOutputStream();
+		featureResponeWriter.writeTo(createFeatureResponse(encodedFeatureCache), null, null, null, null, null,
+				secondBos);
+
+		Object uncachedFeatures = JsonPath.read(uncachedBos.toString(), "$.features");
+		assertThat(firstBos.toString(), isJson());
+		assertThat(secondBos.toString(), isJson());
+		assertThat(JsonPath.read(firstBos.toString(), "$.features"), equalTo(uncachedFeatures));
+		assertThat(JsonPath.read(secondBos.toString(), "$.features"), equalTo(uncachedFeatures));
+		assertThat(cachedBytes, greaterThan(0L));
+		assertThat(encodedFeatureCache.getBytes(), equalTo(cachedBytes));
+	}
+
 	private FeaturesResponse createEmptyFeaturesResponse() {
 		List<Link> links = java.util.Collections
 			.singletonList(new Link("http://self", "self", "application/json", "title"));
@@ -98,6 +147,10 @@ class FeaturesResponseGeoJsonWriterTest {
 	}
 
 	private FeaturesResponse createFeatureResponse() throws Exception {
+		return createFeatureResponse(null);
+	}
+
+	private FeaturesResponse createFeatureResponse(EncodedFeatureCache encodedFeatureCache) throws Exception {
 		List<Link> links = java.util.Collections
 			.singletonList(new Link("http://self", "self", "application/json", "title"));
 		GMLStreamReader gmlReader = GMLInputFactory.createGMLStreamReader(GML_32,
@@ -112,6 +165,7 @@ class FeaturesResponseGeoJsonWriterTest {
 			.withLinks(links)
 			.withMaxFeaturesAndStartIndexApplicable(false)
 			.withResponseCrsName(OgcApiFeaturesConstants.DEFAULT_CRS)
+			.withEncodedFeatureCache(encodedFeatureCache)
 			.buildFeaturesResponse();
 	}
 
@@ -0,0 +1,92 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.metrics;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class OafMetricsTest {
+
+	@Test
+	void testRecordCacheLookup() {
+		OafMetrics.recordCacheLookup("test_cache", true);
+		OafMetrics.recordCacheLookup("test_cache", true);
+		OafMetrics.recordCacheLookup("test_cache", false);
+
+		String metrics = OafMetrics.scrape();
+		assertThat(metrics, containsString("# TYPE oaf_cache_requests_total counter"));
+		assertThat(value(metrics, "oaf_cache_requests_total{cache=\"test_cache\",result=\"hit\"}"), is(2.0));
+		assertThat(value(metrics, "oaf_cache_requests_total{cache=\"test_cache\",result=\"miss\"}"), is(1.0));
+	}
+
+	@Test
+	void testRecordQuery() {
+		OafMetrics.recordQuery("test_dataset", null, TimeUnit.MILLISECONDS.toNanos(20));
+
+		String metrics = OafMetrics.scrape();
+		assertThat(metrics, containsString("# TYPE oaf_featurestore_query_duration_seconds histogram"));
+		assertThat(value(metrics,
+				"oaf_featurestore_query_duration_seconds_bucket{collection=\"\",dataset=\"test_dataset\",le=\"0.025\"}"),
+				is(1.0));
+		assertThat(value(metrics,
+				"oaf_featurestore_query_duration_seconds_bucket{collection=\"\",dataset=\"test_dataset\",le=\"0.01\"}"),
+				is(0.0));
+	}
+
+	@Test
+	void testEncodingMetrics() throws Exception {
+		EncodingMetrics encodingMetrics = EncodingMetrics.start(null, "test_format");
+		try (OutputStream outputStream = encodingMetrics.countBytes(new ByteArrayOutputStream())) {
+			outputStream.write(new byte[10]);
+			encodingMetrics.featureWritten();
+			encodingMetrics.featureWritten();
+		}
+		encodingMetrics.finish();
+
+		String metrics = OafMetrics.scrape();
+		assertThat(value(metrics, "oaf_response_features_total{collection=\"\",dataset=\"\",format=\"test_format\"}"),
+				is(2.0));
+		assertThat(value(metrics, "oaf_response_size_bytes_sum{collection=\"\",dataset=\"\",format=\"test_format\"}"),
+				is(10.0));
+		assertThat(value(metrics, "oaf_response_streaming_active{format=\"test_format\"}"), is(0.0));
+	}
+
+	private double value(String metrics, String sample) {
+		for (String line : metrics.split("\n")) {
+			if (line.startsWith(sample + " "))
+				return Double.parseDouble(line.substring(sample.length() + 1).trim().split(" ")[0]);
+		}
+		return fail("Sample " + sample + " not found in " + metrics);
+	}
+
+}
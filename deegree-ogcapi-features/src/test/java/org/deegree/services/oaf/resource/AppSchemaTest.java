@@ -31,6 +31,9 @@ import org.glassfish.jersey.test.TestProperties;
 import org.junit.jupiter.api.Test;
 
 import jakarta.ws.rs.core.Application;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
 import javax.xml.namespace.QName;
 import java.util.HashMap;
 import java.util.Map;
@@ -38,6 +41,8 @@ import java.util.Map;
 import static jakarta.ws.rs.core.MediaType.APPLICATION_XML;
 import static org.deegree.services.oaf.TestData.mockDataAccess;
 import static org.deegree.services.oaf.TestData.mockWorkspaceInitializer;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.xmlunit.matchers.HasXPathMatcher.hasXPath;
 
@@ -68,6 +73,28 @@ class AppSchemaTest extends JerseyTest {
 			.withNamespaceContext(nsContext()));
 	}
 
+	@Test
+	void app_schema_should_contain_etag_and_last_modified() {
+		Response response = target("/datasets/oaf/collections/KitaEinrichtungen/appschema").request(APPLICATION_XML)
+			.get();
+
+		assertThat(response.getStatus(), is(200));
+		assertThat(response.getEntityTag(), notNullValue());
+		assertThat(response.getLastModified(), notNullValue());
+	}
+
+	@Test
+	void app_schema_should_be_not_modified_with_matching_etag() {
+		Response response = target("/datasets/oaf/collections/KitaEinrichtungen/appschema").request(APPLICATION_XML)
+			.get();
+		EntityTag entityTag = response.getEntityTag();
+
+		Response notModified = target("/datasets/oaf/collections/KitaEinrichtungen/appschema").request(APPLICATION_XML)
+			.header(HttpHeaders.IF_NONE_MATCH, entityTag.toString())
+			.get();
+		assertThat(notModified.getStatus(), is(304));
+	}
+
 	private Map<String, String> nsContext() {
 		Map<String, String> nsContext = new HashMap<>();
 		nsContext.put("xs", "http://www.w3.org/2001/XMLSchema");
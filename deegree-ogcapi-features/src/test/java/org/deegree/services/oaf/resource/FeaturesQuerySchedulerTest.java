@@ -0,0 +1,124 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.resource;
+
+import org.deegree.feature.stream.EmptyFeatureInputStream;
+import org.deegree.services.oaf.io.request.FeaturesRequest;
+import org.deegree.services.oaf.io.response.FeaturesResponse;
+import org.deegree.services.oaf.io.response.FeaturesResponseBuilder;
+import org.deegree.services.oaf.link.LinkBuilder;
+import org.deegree.services.oaf.openapi.OpenApiCreator;
+import org.deegree.services.oaf.workspace.DataAccess;
+import org.deegree.services.oaf.workspace.DeegreeWorkspaceInitializer;
+import org.deegree.services.oaf.workspace.configuration.OafDatasetConfiguration;
+import org.deegree.services.oaf.workspace.configuration.QueryLane;
+import org.deegree.services.oaf.workspace.configuration.QueryScheduler;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import jakarta.ws.rs.core.Application;
+import jakarta.ws.rs.core.Response;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.deegree.services.oaf.OgcApiFeaturesMediaType.APPLICATION_GEOJSON;
+import static org.deegree.services.oaf.TestData.mockWorkspaceInitializer;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that the permit of the {@link QueryScheduler} is released if the features are
+ * not written.
+ *
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class FeaturesQuerySchedulerTest extends JerseyTest {
+
+	private static final int NUMBER_OF_REQUESTS = 5;
+
+	private final QueryScheduler queryScheduler = new QueryScheduler(
+			Map.of(QueryLane.INTERACTIVE, new QueryScheduler.LaneLimit(1, 100)));
+
+	@Override
+	protected Application configure() {
+		ResourceConfig resourceConfig = new ResourceConfig(Features.class);
+		resourceConfig.register(new AbstractBinder() {
+			@Override
+			protected void configure() {
+				bind(mockDataAccess()).to(DataAccess.class);
+				bind(mockWorkspaceInitializer()).to(DeegreeWorkspaceInitializer.class);
+				bindAsContract(OpenApiCreator.class);
+			}
+		}).packages("org.deegree.services.oaf.exceptions");
+		return resourceConfig;
+	}
+
+	@Test
+	void head_should_release_permit() {
+		Response headResponse = target("/datasets/oaf/collections/test/items").request(APPLICATION_GEOJSON).head();
+		assertThat(headResponse.getStatus(), is(200));
+
+		for (int i = 0; i < NUMBER_OF_REQUESTS; i++) {
+			Response response = target("/datasets/oaf/collections/test/items").request(APPLICATION_GEOJSON).get();
+			assertThat(response.getStatus(), is(200));
+			response.close();
+		}
+	}
+
+	private DataAccess mockDataAccess() {
+		DataAccess dataAccess = Mockito.mock(DataAccess.class);
+		try {
+			when(dataAccess.retrieveFeatures(any(OafDatasetConfiguration.class), eq("test"), any(FeaturesRequest.class),
+					any(LinkBuilder.class)))
+				.thenAnswer(
+						invocation -> features(queryScheduler.acquire("oaf", "featureStore", QueryLane.INTERACTIVE)));
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+		}
+		return dataAccess;
+	}
+
+	private FeaturesResponse features(QueryScheduler.Permit permit) {
+		EmptyFeatureInputStream features = new EmptyFeatureInputStream() {
+			@Override
+			public void close() {
+				permit.close();
+			}
+		};
+		return new FeaturesResponseBuilder(features).withFeatureTypeNsPrefixes(Collections.emptyMap())
+			.withNumberOfFeatures(10)
+			.withNumberOfFeaturesMatched(0)
+			.withStartIndex(0)
+			.withLinks(Collections.emptyList())
+			.withMaxFeaturesAndStartIndexApplicable(false)
+			.buildFeaturesResponse();
+	}
+
+}
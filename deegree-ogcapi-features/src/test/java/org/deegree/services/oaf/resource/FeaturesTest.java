@@ -21,9 +21,11 @@
  */
 package org.deegree.services.oaf.resource;
 
+import org.deegree.services.oaf.cache.CompressionLevels;
 import org.deegree.services.oaf.domain.FilterLang;
 import org.deegree.services.oaf.domain.collections.Collection;
 import org.deegree.services.oaf.domain.collections.Collections;
+import org.deegree.services.oaf.filter.CompressionInterceptor;
 import org.deegree.services.oaf.io.response.gml.FeaturesResponseGmlWriter;
 import org.deegree.services.oaf.io.request.FeaturesRequest;
 import org.deegree.services.oaf.link.LinkBuilder;
@@ -38,10 +40,14 @@ import org.glassfish.jersey.test.TestProperties;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import jakarta.ws.rs.client.Entity;
 import jakarta.ws.rs.core.Application;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MultivaluedMap;
 import jakarta.ws.rs.core.Response;
 
+import java.util.Map;
+
 import static org.deegree.services.oaf.OgcApiFeaturesConstants.DEFAULT_CRS;
 import static org.deegree.services.oaf.OgcApiFeaturesConstants.HEADER_CONTENT_CRS;
 import static org.deegree.services.oaf.OgcApiFeaturesConstants.HEADER_LINK;
@@ -63,6 +69,7 @@ import static org.deegree.services.oaf.TestData.feature;
 import static org.deegree.services.oaf.TestData.features;
 import static org.deegree.services.oaf.TestData.mockWorkspaceInitializer;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
@@ -78,6 +85,7 @@ class FeaturesTest extends JerseyTest {
 	protected Application configure() {
 		enable(TestProperties.LOG_TRAFFIC);
 		ResourceConfig resourceConfig = new ResourceConfig(Features.class, FeaturesResponseGmlWriter.class);
+		resourceConfig.register(new CompressionInterceptor(new CompressionLevels(6, Map.of())));
 		resourceConfig.register(new AbstractBinder() {
 			@Override
 			protected void configure() {
@@ -131,6 +139,23 @@ class FeaturesTest extends JerseyTest {
 		assertThat(response.getMediaType(), is(APPLICATION_GML_SF2_TYPE));
 	}
 
+	@Test
+	void features_gml_should_be_compressed() {
+		Response response = target("/datasets/oaf/collections/test/items").request(APPLICATION_GML)
+			.header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")
+			.get();
+		assertThat(response.getStatus(), is(200));
+		assertThat(response.getHeaderString(HttpHeaders.CONTENT_ENCODING), is("gzip"));
+		assertThat(response.getHeaderString(HttpHeaders.VARY), is(HttpHeaders.ACCEPT_ENCODING));
+	}
+
+	@Test
+	void features_gml_should_not_be_compressed_without_accept_encoding() {
+		Response response = target("/datasets/oaf/collections/test/items").request(APPLICATION_GML).get();
+		assertThat(response.getStatus(), is(200));
+		assertThat(response.getHeaderString(HttpHeaders.CONTENT_ENCODING), is(nullValue()));
+	}
+
 	@Test
 	void features_filter_lang() {
 		Response response = target("/datasets/oaf/collections/test/items")
@@ -148,6 +173,22 @@ class FeaturesTest extends JerseyTest {
 		assertThat(response.getStatus(), is(400));
 	}
 
+	@Test
+	void features_post_cql2_json() {
+		String body = "{\"limit\": 5, \"filter\": {\"op\": \"=\", \"args\": [{\"property\": \"name\"}, \"test\"]}}";
+		Response response = target("/datasets/oaf/collections/test/items").request(APPLICATION_GEOJSON)
+			.post(Entity.json(body));
+		assertThat(response.getStatus(), is(200));
+	}
+
+	@Test
+	void features_post_filter_lang_invalid() {
+		String body = "{\"filter-lang\": \"unknown\", \"filter\": \"name = 'test'\"}";
+		Response response = target("/datasets/oaf/collections/test/items").request(APPLICATION_GEOJSON)
+			.post(Entity.json(body));
+		assertThat(response.getStatus(), is(400));
+	}
+
 	private DataAccess mockDataAccess() {
 		DataAccess testFactory = Mockito.mock(DataAccess.class);
 		Collection collection = createCollection();
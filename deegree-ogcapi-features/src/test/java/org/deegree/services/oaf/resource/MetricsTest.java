@@ -0,0 +1,89 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.resource;
+
+import static org.deegree.services.oaf.TestData.mockWorkspaceInitializer;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import jakarta.ws.rs.core.Application;
+import jakarta.ws.rs.core.Response;
+import org.deegree.services.oaf.filter.MetricsFilter;
+import org.deegree.services.oaf.metrics.OafMetrics;
+import org.deegree.services.oaf.workspace.DeegreeWorkspaceInitializer;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+import org.glassfish.jersey.test.TestProperties;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class MetricsTest extends JerseyTest {
+
+	@BeforeAll
+	static void setProperties() {
+		System.setProperty(OafMetrics.PARAMETER_METRICS_ENABLED, "true");
+	}
+
+	@AfterAll
+	static void resetProperties() {
+		System.clearProperty(OafMetrics.PARAMETER_METRICS_ENABLED);
+	}
+
+	@Override
+	protected Application configure() {
+		enable(TestProperties.LOG_TRAFFIC);
+		ResourceConfig resourceConfig = new ResourceConfig(Metrics.class, Conformance.class, MetricsFilter.class);
+		resourceConfig.register(new AbstractBinder() {
+			@Override
+			protected void configure() {
+				bind(mockWorkspaceInitializer()).to(DeegreeWorkspaceInitializer.class);
+			}
+		});
+		return resourceConfig;
+	}
+
+	@Test
+	void metrics_should_be_available() {
+		Response response = target("/metrics").request("text/plain").get();
+
+		assertThat(response.getStatus(), is(200));
+		assertThat(response.getMediaType().toString(), containsString("version=0.0.4"));
+	}
+
+	@Test
+	void metrics_should_contain_request_duration() {
+		target("/datasets/oaf/conformance").request("application/json").get().close();
+
+		String metrics = target("/metrics").request("text/plain").get(String.class);
+
+		assertThat(metrics, containsString("# TYPE oaf_request_duration_seconds histogram"));
+		assertThat(metrics, containsString(
+				"oaf_request_duration_seconds_bucket{collection=\"\",dataset=\"oaf\",endpoint=\"Conformance\",status=\"200\",le=\"+Inf\"}"));
+	}
+
+}
@@ -23,6 +23,7 @@ package org.deegree.services.oaf.resource;
 
 import org.deegree.commons.utils.TunableParameter;
 import org.deegree.services.oaf.OgcApiFeaturesMediaType;
+import org.deegree.services.oaf.cache.CompressionLevels;
 import org.deegree.services.oaf.filter.OpenApiAliasFilter;
 import org.deegree.services.oaf.openapi.OpenApiCreator;
 import org.deegree.services.oaf.workspace.DeegreeWorkspaceInitializer;
@@ -37,6 +38,7 @@ import org.junit.jupiter.api.io.TempDir;
 import jakarta.servlet.ServletConfig;
 import jakarta.servlet.ServletContext;
 import jakarta.ws.rs.core.Application;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
@@ -49,6 +51,8 @@ import static com.jayway.jsonpath.matchers.JsonPathMatchers.isJson;
 import static org.deegree.services.oaf.TestData.mockWorkspaceInitializer;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.mock;
@@ -121,6 +125,44 @@ public class OpenApiTest extends JerseyTest {
 		assertThat(response.getHeaderString(HttpHeaders.CONTENT_TYPE), is(OgcApiFeaturesMediaType.APPLICATION_YAML));
 	}
 
+	@Test
+	void open_api_should_contain_etag() {
+		Response response = target("/datasets/oaf/api").request(OgcApiFeaturesMediaType.APPLICATION_OPENAPI).get();
+		assertThat(response.getStatus(), is(200));
+		assertThat(response.getEntityTag(), notNullValue());
+	}
+
+	@Test
+	void open_api_should_be_not_modified_with_matching_etag() {
+		Response response = target("/datasets/oaf/api").request(OgcApiFeaturesMediaType.APPLICATION_OPENAPI).get();
+		EntityTag entityTag = response.getEntityTag();
+
+		Response notModified = target("/datasets/oaf/api").request(OgcApiFeaturesMediaType.APPLICATION_OPENAPI)
+			.header(HttpHeaders.IF_NONE_MATCH, entityTag.toString())
+			.get();
+		assertThat(notModified.getStatus(), is(304));
+		assertThat(notModified.getEntityTag(), is(entityTag));
+	}
+
+	@Test
+	void open_api_should_be_compressed() {
+		System.setProperty(CompressionLevels.PARAMETER_LEVEL, "6");
+		TunableParameter.resetCache();
+		try {
+			Response identity = target("/datasets/oaf/api").request(OgcApiFeaturesMediaType.APPLICATION_OPENAPI).get();
+			Response compressed = target("/datasets/oaf/api").request(OgcApiFeaturesMediaType.APPLICATION_OPENAPI)
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+				.get();
+			assertThat(compressed.getStatus(), is(200));
+			assertThat(compressed.getHeaderString(HttpHeaders.CONTENT_ENCODING), is("gzip"));
+			assertThat(compressed.getEntityTag(), not(identity.getEntityTag()));
+		}
+		finally {
+			System.clearProperty(CompressionLevels.PARAMETER_LEVEL);
+			TunableParameter.resetCache();
+		}
+	}
+
 	@Test
 	void open_api_css_should_return_correct_mime_type() {
 		Response response = target("/datasets/oaf/api/swagger-ui-bundle.css").request().get();
@@ -0,0 +1,105 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.workspace;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.deegree.cql2.FilterProperty;
+import org.deegree.cql2.FilterPropertyType;
+import org.deegree.cs.persistence.CRSManager;
+import org.deegree.filter.Operator;
+import org.deegree.filter.comparison.PropertyIsEqualTo;
+import org.deegree.filter.comparison.PropertyIsGreaterThanOrEqualTo;
+import org.deegree.filter.logical.And;
+import org.deegree.filter.logical.Or;
+import org.deegree.filter.spatial.Intersects;
+import org.deegree.services.oaf.exceptions.InvalidParameterValue;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.namespace.QName;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.deegree.services.oaf.OgcApiFeaturesConstants.DEFAULT_CRS;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class Cql2JsonFilterParserTest {
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private static final List<FilterProperty> FILTER_PROPERTIES = Arrays.asList(
+			new FilterProperty(new QName("http://deegree.org/oaf", "name"), FilterPropertyType.STRING),
+			new FilterProperty(new QName("http://deegree.org/oaf", "age"), FilterPropertyType.INTEGER),
+			new FilterProperty(new QName("http://deegree.org/oaf", "geometry"), FilterPropertyType.GEOMETRY));
+
+	@Test
+	void parse_comparison() throws Exception {
+		Operator operator = parse("{\"op\": \"=\", \"args\": [{\"property\": \"name\"}, \"value\"]}");
+
+		assertThat(operator, instanceOf(PropertyIsEqualTo.class));
+	}
+
+	@Test
+	void parse_and_with_spatial() throws Exception {
+		Operator operator = parse(
+				"{\"op\": \"and\", \"args\": [" + "{\"op\": \">=\", \"args\": [{\"property\": \"age\"}, 10]},"
+						+ "{\"op\": \"s_intersects\", \"args\": [{\"property\": \"geometry\"},"
+						+ "{\"type\": \"Polygon\", \"coordinates\": [[[7, 50], [8, 50], [8, 51], [7, 50]]]}]}]}");
+
+		assertThat(operator, instanceOf(And.class));
+		And and = (And) operator;
+		assertThat(and.getParameter(0), instanceOf(PropertyIsGreaterThanOrEqualTo.class));
+		assertThat(and.getParameter(1), instanceOf(Intersects.class));
+	}
+
+	@Test
+	void parse_in() throws Exception {
+		Operator operator = parse("{\"op\": \"in\", \"args\": [{\"property\": \"name\"}, [\"a\", \"b\", \"c\"]]}");
+
+		assertThat(operator, instanceOf(Or.class));
+		assertThat(((Or) operator).getSize(), is(3));
+	}
+
+	@Test
+	void parse_unknown_property() {
+		assertThrows(InvalidParameterValue.class,
+				() -> parse("{\"op\": \"=\", \"args\": [{\"property\": \"unknown\"}, \"value\"]}"));
+	}
+
+	@Test
+	void parse_unsupported_operator() {
+		assertThrows(InvalidParameterValue.class,
+				() -> parse("{\"op\": \"a_containedBy\", \"args\": [{\"property\": \"name\"}, [\"a\"]]}"));
+	}
+
+	private Operator parse(String cql2Json) throws Exception {
+		JsonNode filter = OBJECT_MAPPER.readTree(cql2Json);
+		return new Cql2JsonFilterParser(CRSManager.lookup(DEFAULT_CRS), FILTER_PROPERTIES).parse(filter);
+	}
+
+}
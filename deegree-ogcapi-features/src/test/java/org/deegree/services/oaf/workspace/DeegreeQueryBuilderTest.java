@@ -24,18 +24,25 @@ package org.deegree.services.oaf.workspace;
 import org.deegree.commons.tom.TypedObjectNode;
 import org.deegree.feature.persistence.query.Query;
 import org.deegree.filter.Filter;
+import org.deegree.filter.IdFilter;
 import org.deegree.filter.Operator;
 import org.deegree.filter.OperatorFilter;
+import org.deegree.filter.comparison.PropertyIsBetween;
 import org.deegree.filter.comparison.PropertyIsEqualTo;
 import org.deegree.filter.comparison.PropertyIsGreaterThan;
 import org.deegree.filter.comparison.PropertyIsGreaterThanOrEqualTo;
 import org.deegree.filter.comparison.PropertyIsLessThan;
 import org.deegree.filter.comparison.PropertyIsLessThanOrEqualTo;
 import org.deegree.filter.comparison.PropertyIsLike;
+import org.deegree.filter.comparison.PropertyIsNull;
 import org.deegree.filter.expression.Literal;
 import org.deegree.filter.logical.And;
 import org.deegree.filter.logical.Or;
+import org.deegree.services.oaf.domain.collections.Extent;
+import org.deegree.services.oaf.domain.collections.Spatial;
+import org.deegree.services.oaf.domain.collections.Temporal;
 import org.deegree.services.oaf.exceptions.InvalidConfigurationException;
+import org.deegree.services.oaf.exceptions.InvalidParameterValue;
 import org.deegree.services.oaf.io.request.FeaturesRequest;
 import org.deegree.services.oaf.io.request.FeaturesRequestBuilder;
 import org.deegree.services.oaf.workspace.configuration.FeatureTypeMetadata;
@@ -47,9 +54,12 @@ import org.junit.jupiter.api.Test;
 
 import jakarta.ws.rs.core.MultivaluedHashMap;
 import javax.xml.namespace.QName;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
@@ -60,6 +70,7 @@ import static org.deegree.services.oaf.OgcApiFeaturesConstants.DEFAULT_CRS;
 import static org.deegree.services.oaf.workspace.DeegreeQueryBuilder.FIRST;
 import static org.deegree.services.oaf.workspace.DeegreeQueryBuilder.UNLIMITED;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -81,6 +92,8 @@ class DeegreeQueryBuilderTest {
 
 	private static final FeatureTypeMetadata FT_METADATA_NODATETIME = new FeatureTypeMetadata(FT_NAME);
 
+	private static final QName DT_END_PROP_NAME = new QName("datetimeEnd");
+
 	private static final String COLLECTION_ID = "collectionid";
 
 	@Test
@@ -108,6 +121,41 @@ class DeegreeQueryBuilderTest {
 		assertThat(query.getStartIndex(), is(FIRST));
 	}
 
+	@Test
+	void create_query_with_ids() throws Exception {
+		DeegreeQueryBuilder deegreeQueryBuilder = new DeegreeQueryBuilder();
+		FeaturesRequest featureRequest = new FeaturesRequestBuilder(COLLECTION_ID, mockOafConfiguration(10))
+			.withLimit(1)
+			.withOffset(5)
+			.withIds("id1, id2,,id3,id1")
+			.build();
+		Query query = deegreeQueryBuilder.createQuery(FT_METADATA, featureRequest);
+		IdFilter filter = (IdFilter) query.getFilter();
+
+		assertThat(query.getTypeNames()[0].getFeatureTypeName(), is(FT_NAME));
+		assertThat(query.getMaxFeatures(), is(3));
+		assertThat(filter.getMatchingIds(), containsInAnyOrder("id1", "id2", "id3"));
+	}
+
+	@Test
+	void create_query_with_ids_and_bbox_parameter() throws Exception {
+		DeegreeQueryBuilder deegreeQueryBuilder = new DeegreeQueryBuilder();
+		FeaturesRequest featureRequest = new FeaturesRequestBuilder(COLLECTION_ID, mockOafConfiguration(10))
+			.withBbox(createBbox(), null)
+			.withIds(List.of("id1", "id2"))
+			.build();
+
+		assertThrows(InvalidParameterValue.class, () -> deegreeQueryBuilder.createQuery(FT_METADATA, featureRequest));
+	}
+
+	@Test
+	void create_query_with_more_ids_than_max_items() {
+		FeaturesRequestBuilder featuresRequestBuilder = new FeaturesRequestBuilder(COLLECTION_ID,
+				mockOafConfiguration(2));
+
+		assertThrows(InvalidParameterValue.class, () -> featuresRequestBuilder.withIds("id1,id2,id3"));
+	}
+
 	@Test
 	void create_query_with_bbox_parameter() throws Exception {
 		DeegreeQueryBuilder deegreeQueryBuilder = new DeegreeQueryBuilder();
@@ -138,6 +186,109 @@ class DeegreeQueryBuilderTest {
 		assertThat(filter.getOperator().getType(), is(LOGICAL));
 	}
 
+	@Test
+	void create_query_with_bbox_disjoint_from_extent() throws Exception {
+		DeegreeQueryBuilder deegreeQueryBuilder = new DeegreeQueryBuilder();
+		Extent extent = new Extent();
+		extent.setSpatial(new Spatial(Collections.singletonList(Arrays.asList(7d, 50d, 8d, 51d)), DEFAULT_CRS));
+		FeatureTypeMetadata featureTypeMetadata = new FeatureTypeMetadata(FT_NAME).extent(extent)
+			.skipQueriesOutsideExtent(true);
+		FeaturesRequest featureRequest = new FeaturesRequestBuilder(COLLECTION_ID, mockOafConfiguration())
+			.withBbox(createBbox(), DEFAULT_CRS)
+			.build();
+		Query query = deegreeQueryBuilder.createQuery(featureTypeMetadata, featureRequest);
+
+		assertThat(DeegreeQueryBuilder.isEmptyResult(query), is(true));
+	}
+
+	@Test
+	void create_query_with_bbox_disjoint_from_extent_not_skipped() throws Exception {
+		DeegreeQueryBuilder deegreeQueryBuilder = new DeegreeQueryBuilder();
+		Extent extent = new Extent();
+		extent.setSpatial(new Spatial(Collections.singletonList(Arrays.asList(7d, 50d, 8d, 51d)), DEFAULT_CRS));
+		FeatureTypeMetadata featureTypeMetadata = new FeatureTypeMetadata(FT_NAME).extent(extent);
+		FeaturesRequest featureRequest = new FeaturesRequestBuilder(COLLECTION_ID, mockOafConfiguration())
+			.withBbox(createBbox(), DEFAULT_CRS)
+			.build();
+		Query query = deegreeQueryBuilder.createQuery(featureTypeMetadata, featureRequest);
+
+		assertThat(DeegreeQueryBuilder.isEmptyResult(query), is(false));
+	}
+
+	@Test
+	void create_query_with_datetime_disjoint_from_temporal_extent() throws Exception {
+		DeegreeQueryBuilder deegreeQueryBuilder = new DeegreeQueryBuilder();
+		FeatureTypeMetadata featureTypeMetadata = new FeatureTypeMetadata(FT_NAME).dateTimeProperty(DT_PROP_NAME)
+			.includeNullDateTime(false)
+			.extent(createTemporalExtent())
+			.skipQueriesOutsideExtent(true);
+		FeaturesRequest featureRequest = new FeaturesRequestBuilder(COLLECTION_ID, mockOafConfiguration())
+			.withDatetime("2019-10-08T10:42:52Z/2019-10-10T10:42:52Z")
+			.build();
+		Query query = deegreeQueryBuilder.createQuery(featureTypeMetadata, featureRequest);
+
+		assertThat(DeegreeQueryBuilder.isEmptyResult(query), is(true));
+	}
+
+	@Test
+	void create_query_with_datetime_disjoint_from_temporal_extent_including_null() throws Exception {
+		DeegreeQueryBuilder deegreeQueryBuilder = new DeegreeQueryBuilder();
+		FeatureTypeMetadata featureTypeMetadata = new FeatureTypeMetadata(FT_NAME).dateTimeProperty(DT_PROP_NAME)
+			.extent(createTemporalExtent())
+			.skipQueriesOutsideExtent(true);
+		FeaturesRequest featureRequest = new FeaturesRequestBuilder(COLLECTION_ID, mockOafConfiguration())
+			.withDatetime("2019-10-08T10:42:52Z/2019-10-10T10:42:52Z")
+			.build();
+		Query query = deegreeQueryBuilder.createQuery(featureTypeMetadata, featureRequest);
+
+		assertThat(DeegreeQueryBuilder.isEmptyResult(query), is(false));
+	}
+
+	@Test
+	void create_query_with_datetime_disjoint_from_temporal_extent_not_skipped() throws Exception {
+		DeegreeQueryBuilder deegreeQueryBuilder = new DeegreeQueryBuilder();
+		FeatureTypeMetadata featureTypeMetadata = new FeatureTypeMetadata(FT_NAME).dateTimeProperty(DT_PROP_NAME)
+			.includeNullDateTime(false)
+			.extent(createTemporalExtent());
+		FeaturesRequest featureRequest = new FeaturesRequestBuilder(COLLECTION_ID, mockOafConfiguration())
+			.withDatetime("2019-10-08T10:42:52Z/2019-10-10T10:42:52Z")
+			.build();
+		Query query = deegreeQueryBuilder.createQuery(featureTypeMetadata, featureRequest);
+
+		assertThat(DeegreeQueryBuilder.isEmptyResult(query), is(false));
+	}
+
+	@Test
+	void create_query_with_datetime_within_temporal_extent_tolerance() throws Exception {
+		DeegreeQueryBuilder deegreeQueryBuilder = new DeegreeQueryBuilder();
+		FeatureTypeMetadata featureTypeMetadata = new FeatureTypeMetadata(FT_NAME).dateTimeProperty(DT_PROP_NAME)
+			.includeNullDateTime(false)
+			.extent(createTemporalExtent())
+			.skipQueriesOutsideExtent(true)
+			.temporalExtentTolerance(Duration.ofDays(100));
+		FeaturesRequest featureRequest = new FeaturesRequestBuilder(COLLECTION_ID, mockOafConfiguration())
+			.withDatetime("2019-10-08T10:42:52Z/2019-10-10T10:42:52Z")
+			.build();
+		Query query = deegreeQueryBuilder.createQuery(featureTypeMetadata, featureRequest);
+
+		assertThat(DeegreeQueryBuilder.isEmptyResult(query), is(false));
+	}
+
+	@Test
+	void create_query_with_datetime_intersecting_temporal_extent() throws Exception {
+		DeegreeQueryBuilder deegreeQueryBuilder = new DeegreeQueryBuilder();
+		FeatureTypeMetadata featureTypeMetadata = new FeatureTypeMetadata(FT_NAME).dateTimeProperty(DT_PROP_NAME)
+			.includeNullDateTime(false)
+			.extent(createTemporalExtent())
+			.skipQueriesOutsideExtent(true);
+		FeaturesRequest featureRequest = new FeaturesRequestBuilder(COLLECTION_ID, mockOafConfiguration())
+			.withDatetime("2020-06-01/..")
+			.build();
+		Query query = deegreeQueryBuilder.createQuery(featureTypeMetadata, featureRequest);
+
+		assertThat(DeegreeQueryBuilder.isEmptyResult(query), is(false));
+	}
+
 	@Test
 	void create_query_with_datetime_parameter_datetime() throws Exception {
 		DeegreeQueryBuilder deegreeQueryBuilder = new DeegreeQueryBuilder();
@@ -185,16 +336,11 @@ class DeegreeQueryBuilderTest {
 		assertThat(query.getTypeNames()[0].getFeatureTypeName(), is(FT_NAME));
 		assertThat(filter.getOperator().getType(), is(LOGICAL));
 
-		Operator firstLevelFirst = ((Or) filter.getOperator()).getParameter(0);
-		assertThat(firstLevelFirst.getType(), is(LOGICAL));
-
-		Operator secondLevelFirst = ((Or) firstLevelFirst).getParameter(0);
-		assertThat(secondLevelFirst.getType(), is(TEMPORAL));
-		Operator secondLevelSecond = ((Or) firstLevelFirst).getParameter(1);
-		assertThat(secondLevelSecond.getType(), is(TEMPORAL));
-
-		Operator firstLevelSecond = ((Or) filter.getOperator()).getParameter(1);
-		assertThat(firstLevelSecond.getType(), is(COMPARISON));
+		Or or = (Or) filter.getOperator();
+		assertThat(or.getParams().length, is(3));
+		assertThat(or.getParameter(0).getType(), is(TEMPORAL));
+		assertThat(or.getParameter(1).getType(), is(TEMPORAL));
+		assertThat(or.getParameter(2).getType(), is(COMPARISON));
 	}
 
 	@Test
@@ -210,16 +356,92 @@ class DeegreeQueryBuilderTest {
 		assertThat(query.getTypeNames()[0].getFeatureTypeName(), is(FT_NAME));
 		assertThat(filter.getOperator().getType(), is(LOGICAL));
 
-		Operator firstLevelFirst = ((Or) filter.getOperator()).getParameter(0);
-		assertThat(firstLevelFirst.getType(), is(LOGICAL));
+		Or or = (Or) filter.getOperator();
+		assertThat(or.getParams().length, is(3));
+		assertThat(or.getParameter(0).getType(), is(TEMPORAL));
+		assertThat(or.getParameter(1).getType(), is(TEMPORAL));
+		assertThat(or.getParameter(2).getType(), is(COMPARISON));
+	}
 
-		Operator secondLevelFirst = ((Or) firstLevelFirst).getParameter(0);
-		assertThat(secondLevelFirst.getType(), is(TEMPORAL));
-		Operator secondLevelSecond = ((Or) firstLevelFirst).getParameter(1);
-		assertThat(secondLevelSecond.getType(), is(TEMPORAL));
+	@Test
+	void create_query_with_datetime_parameter_without_null() throws Exception {
+		DeegreeQueryBuilder deegreeQueryBuilder = new DeegreeQueryBuilder();
+		FeatureTypeMetadata featureTypeMetadata = new FeatureTypeMetadata(FT_NAME).dateTimeProperty(DT_PROP_NAME)
+			.includeNullDateTime(false);
+		FeaturesRequest featureRequest = new FeaturesRequestBuilder(COLLECTION_ID, mockOafConfiguration())
+			.withDatetime("2019-10-08T10:42:52Z")
+			.build();
+		Query query = deegreeQueryBuilder.createQuery(featureTypeMetadata, featureRequest);
+		OperatorFilter filter = (OperatorFilter) query.getFilter();
 
-		Operator firstLevelSecond = ((Or) filter.getOperator()).getParameter(1);
-		assertThat(firstLevelSecond.getType(), is(COMPARISON));
+		assertThat(filter.getOperator().getType(), is(TEMPORAL));
+	}
+
+	@Test
+	void create_query_with_datetime_parameter_range_predicate() throws Exception {
+		DeegreeQueryBuilder deegreeQueryBuilder = new DeegreeQueryBuilder();
+		FeatureTypeMetadata featureTypeMetadata = new FeatureTypeMetadata(FT_NAME).dateTimeProperty(DT_PROP_NAME)
+			.dateTimeRangePredicate(true);
+		FeaturesRequest featureRequest = new FeaturesRequestBuilder(COLLECTION_ID, mockOafConfiguration())
+			.withDatetime("2019-10-08T10:42:52Z/2019-10-10T10:42:52Z")
+			.build();
+		Query query = deegreeQueryBuilder.createQuery(featureTypeMetadata, featureRequest);
+		OperatorFilter filter = (OperatorFilter) query.getFilter();
+
+		Or or = (Or) filter.getOperator();
+		assertThat(or.getParameter(0), CoreMatchers.instanceOf(PropertyIsBetween.class));
+		assertThat(or.getParameter(1), CoreMatchers.instanceOf(PropertyIsNull.class));
+	}
+
+	@Test
+	void create_query_with_datetime_parameter_range_predicate_without_null() throws Exception {
+		DeegreeQueryBuilder deegreeQueryBuilder = new DeegreeQueryBuilder();
+		FeatureTypeMetadata featureTypeMetadata = new FeatureTypeMetadata(FT_NAME).dateTimeProperty(DT_PROP_NAME)
+			.dateTimeRangePredicate(true)
+			.includeNullDateTime(false);
+		FeaturesRequest featureRequest = new FeaturesRequestBuilder(COLLECTION_ID, mockOafConfiguration())
+			.withDatetime("2019-10-08T10:42:52Z/..")
+			.build();
+		Query query = deegreeQueryBuilder.createQuery(featureTypeMetadata, featureRequest);
+		OperatorFilter filter = (OperatorFilter) query.getFilter();
+
+		PropertyIsGreaterThanOrEqualTo operator = (PropertyIsGreaterThanOrEqualTo) filter.getOperator();
+		assertThat(((Literal<?>) operator.getParameter2()).getValue().toString(), is("2019-10-08T10:42:52Z"));
+	}
+
+	@Test
+	void create_query_with_datetime_parameter_start_end_interval() throws Exception {
+		DeegreeQueryBuilder deegreeQueryBuilder = new DeegreeQueryBuilder();
+		FeatureTypeMetadata featureTypeMetadata = new FeatureTypeMetadata(FT_NAME).dateTimeProperty(DT_PROP_NAME)
+			.dateTimeEndProperty(DT_END_PROP_NAME);
+		FeaturesRequest featureRequest = new FeaturesRequestBuilder(COLLECTION_ID, mockOafConfiguration())
+			.withDatetime("2019-10-08T10:42:52Z/2019-10-10T10:42:52Z")
+			.build();
+		Query query = deegreeQueryBuilder.createQuery(featureTypeMetadata, featureRequest);
+		OperatorFilter filter = (OperatorFilter) query.getFilter();
+
+		And and = (And) filter.getOperator();
+		Or startsBeforeEnd = (Or) and.getParameter(0);
+		assertThat(startsBeforeEnd.getParameter(0), CoreMatchers.instanceOf(PropertyIsLessThanOrEqualTo.class));
+		assertThat(startsBeforeEnd.getParameter(1), CoreMatchers.instanceOf(PropertyIsNull.class));
+		Or endsAfterStart = (Or) and.getParameter(1);
+		assertThat(endsAfterStart.getParameter(0), CoreMatchers.instanceOf(PropertyIsGreaterThanOrEqualTo.class));
+		assertThat(endsAfterStart.getParameter(1), CoreMatchers.instanceOf(PropertyIsNull.class));
+	}
+
+	@Test
+	void create_query_with_datetime_parameter_start_end_open_start_without_null() throws Exception {
+		DeegreeQueryBuilder deegreeQueryBuilder = new DeegreeQueryBuilder();
+		FeatureTypeMetadata featureTypeMetadata = new FeatureTypeMetadata(FT_NAME).dateTimeProperty(DT_PROP_NAME)
+			.dateTimeEndProperty(DT_END_PROP_NAME)
+			.includeNullDateTime(false);
+		FeaturesRequest featureRequest = new FeaturesRequestBuilder(COLLECTION_ID, mockOafConfiguration())
+			.withDatetime("../2019-10-10T10:42:52Z")
+			.build();
+		Query query = deegreeQueryBuilder.createQuery(featureTypeMetadata, featureRequest);
+		OperatorFilter filter = (OperatorFilter) query.getFilter();
+
+		assertThat(filter.getOperator(), CoreMatchers.instanceOf(PropertyIsLessThanOrEqualTo.class));
 	}
 
 	@Test
@@ -417,6 +639,14 @@ class DeegreeQueryBuilderTest {
 		return mockOafConfiguration(-1);
 	}
 
+	private Extent createTemporalExtent() {
+		Extent extent = new Extent();
+		Date begin = Date.from(Instant.parse("2020-01-01T00:00:00Z"));
+		Date end = Date.from(Instant.parse("2020-12-31T00:00:00Z"));
+		extent.setTemporal(new Temporal(Arrays.asList(begin, end), null));
+		return extent;
+	}
+
 	private List<Double> createBbox() {
 		List<Double> bbox = new ArrayList<>();
 		bbox.add(14.0);
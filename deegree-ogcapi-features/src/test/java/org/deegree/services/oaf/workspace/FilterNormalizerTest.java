@@ -0,0 +1,154 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.workspace;
+
+import static org.deegree.filter.MatchAction.ANY;
+import static org.deegree.services.oaf.OgcApiFeaturesConstants.DEFAULT_CRS;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import javax.xml.namespace.QName;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.deegree.cs.persistence.CRSManager;
+import org.deegree.filter.Filter;
+import org.deegree.filter.Operator;
+import org.deegree.filter.OperatorFilter;
+import org.deegree.filter.comparison.PropertyIsEqualTo;
+import org.deegree.filter.expression.Literal;
+import org.deegree.filter.expression.ValueReference;
+import org.deegree.filter.logical.And;
+import org.deegree.filter.logical.Or;
+import org.deegree.filter.spatial.BBOX;
+import org.deegree.geometry.SimpleGeometryFactory;
+import org.deegree.services.oaf.domain.collections.Extent;
+import org.deegree.services.oaf.domain.collections.Spatial;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class FilterNormalizerTest {
+
+	@Test
+	void normalize_noOperators() {
+		Filter filter = new FilterNormalizer(createExtent()).normalize(Collections.emptyList());
+
+		assertThat(filter, is(nullValue()));
+	}
+
+	@Test
+	void normalize_flattensNestedAnd() {
+		Operator operator = new And(equalTo("a", "1"), new And(equalTo("b", "2"), equalTo("c", "3")));
+
+		Filter filter = new FilterNormalizer(null).normalize(Arrays.asList(operator, equalTo("d", "4")));
+
+		And and = (And) ((OperatorFilter) filter).getOperator();
+		assertThat(and.getParams().length, is(4));
+	}
+
+	@Test
+	void normalize_flattensNestedOr() {
+		Operator operator = new Or(equalTo("a", "1"), new Or(equalTo("a", "2"), equalTo("a", "3")));
+
+		Filter filter = new FilterNormalizer(null).normalize(Collections.singletonList(operator));
+
+		Or or = (Or) ((OperatorFilter) filter).getOperator();
+		assertThat(or.getParams().length, is(3));
+	}
+
+	@Test
+	void normalize_removesDuplicates() {
+		List<Operator> operators = Arrays.asList(equalTo("a", "1"), equalTo("a", "1"), equalTo("a", "2"));
+
+		Filter filter = new FilterNormalizer(null).normalize(operators);
+
+		And and = (And) ((OperatorFilter) filter).getOperator();
+		assertThat(and.getParams().length, is(2));
+	}
+
+	@Test
+	void normalize_removesDuplicateToSingleOperator() {
+		List<Operator> operators = Arrays.asList(new And(equalTo("a", "1"), equalTo("a", "1")));
+
+		Filter filter = new FilterNormalizer(null).normalize(operators);
+
+		assertThat(((OperatorFilter) filter).getOperator(), instanceOf(PropertyIsEqualTo.class));
+	}
+
+	@Test
+	void normalize_keepsBboxContainingExtent() throws Exception {
+		List<Operator> operators = Arrays.asList(bbox(0, 40, 20, 60), equalTo("a", "1"));
+
+		Filter filter = new FilterNormalizer(createExtent()).normalize(operators);
+
+		assertThat(((OperatorFilter) filter).getOperator(), instanceOf(And.class));
+	}
+
+	@Test
+	void normalize_keepsBboxIntersectingExtent() throws Exception {
+		List<Operator> operators = Collections.singletonList(bbox(7.5, 50.5, 9, 52));
+
+		Filter filter = new FilterNormalizer(createExtent()).normalize(operators);
+
+		assertThat(((OperatorFilter) filter).getOperator(), instanceOf(BBOX.class));
+	}
+
+	@Test
+	void normalize_bboxDisjointFromExtent() throws Exception {
+		List<Operator> operators = Arrays.asList(bbox(10, 40, 11, 41), equalTo("a", "1"));
+
+		Filter filter = new FilterNormalizer(createExtent()).normalize(operators);
+
+		assertThat(filter, is(sameInstance(FilterNormalizer.EMPTY_RESULT)));
+	}
+
+	@Test
+	void normalize_keepsDisjointBboxes() throws Exception {
+		Operator operator = new And(bbox(7, 50, 7.2, 50.2), bbox(7.8, 50.8, 8, 51));
+
+		Filter filter = new FilterNormalizer(null).normalize(Collections.singletonList(operator));
+
+		assertThat(((OperatorFilter) filter).getOperator(), instanceOf(And.class));
+	}
+
+	private Operator equalTo(String propertyName, String value) {
+		return new PropertyIsEqualTo(new ValueReference(new QName(propertyName)), new Literal<>(value), true, ANY);
+	}
+
+	private Operator bbox(double minX, double minY, double maxX, double maxY) throws Exception {
+		return new BBOX(
+				new SimpleGeometryFactory().createEnvelope(minX, minY, maxX, maxY, CRSManager.lookup(DEFAULT_CRS)));
+	}
+
+	private Extent createExtent() {
+		Extent extent = new Extent();
+		extent.setSpatial(new Spatial(Collections.singletonList(Arrays.asList(7d, 50d, 8d, 51d)), DEFAULT_CRS));
+		return extent;
+	}
+
+}
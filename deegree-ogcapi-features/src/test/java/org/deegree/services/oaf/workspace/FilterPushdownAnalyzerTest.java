@@ -0,0 +1,121 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.workspace;
+
+import org.deegree.cql2.FilterProperty;
+import org.deegree.cql2.FilterPropertyType;
+import org.deegree.feature.persistence.query.Query;
+import org.deegree.feature.types.FeatureType;
+import org.deegree.feature.types.property.FeaturePropertyType;
+import org.deegree.feature.types.property.SimplePropertyType;
+import org.deegree.filter.Operator;
+import org.deegree.filter.OperatorFilter;
+import org.deegree.filter.comparison.PropertyIsEqualTo;
+import org.deegree.filter.expression.Literal;
+import org.deegree.filter.expression.ValueReference;
+import org.deegree.filter.logical.And;
+import org.deegree.filter.logical.Or;
+import org.deegree.services.oaf.workspace.configuration.FeatureTypeMetadata;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.namespace.QName;
+import java.util.List;
+
+import static org.deegree.filter.MatchAction.ANY;
+import static org.deegree.services.oaf.workspace.FilterPushdownReport.Evaluation.IN_MEMORY;
+import static org.deegree.services.oaf.workspace.FilterPushdownReport.Evaluation.PUSHED_DOWN;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class FilterPushdownAnalyzerTest {
+
+	private static final QName FT_NAME = new QName("http://deegree.org/oaf", "test");
+
+	private static final QName SIMPLE_PROP = new QName("http://deegree.org/oaf", "name");
+
+	private static final QName COMPLEX_PROP = new QName("http://deegree.org/oaf", "reference");
+
+	private static final QName QUERYABLE_PROP = new QName("http://deegree.org/oaf", "code");
+
+	@Test
+	void analyze_simple_property() {
+		FilterPushdownReport report = analyze(equalTo(SIMPLE_PROP));
+
+		assertThat(report.getEntries().size(), is(1));
+		assertThat(report.getEntries().get(0).getEvaluation(), is(PUSHED_DOWN));
+		assertThat(report.hasInMemoryOperators(), is(false));
+	}
+
+	@Test
+	void analyze_and_with_complex_property() {
+		FilterPushdownReport report = analyze(new And(equalTo(SIMPLE_PROP), equalTo(COMPLEX_PROP)));
+
+		assertThat(report.getEntries().size(), is(2));
+		assertThat(report.getEntries().get(0).getEvaluation(), is(PUSHED_DOWN));
+		assertThat(report.getEntries().get(1).getEvaluation(), is(IN_MEMORY));
+	}
+
+	@Test
+	void analyze_or_with_complex_property() {
+		FilterPushdownReport report = analyze(new Or(equalTo(SIMPLE_PROP), equalTo(COMPLEX_PROP)));
+
+		assertThat(report.getEntries().size(), is(1));
+		assertThat(report.getEntries().get(0).getEvaluation(), is(IN_MEMORY));
+	}
+
+	@Test
+	void analyze_queryable() {
+		FilterPushdownReport report = analyze(equalTo(QUERYABLE_PROP));
+
+		assertThat(report.getEntries().size(), is(1));
+		assertThat(report.getEntries().get(0).getEvaluation(), is(PUSHED_DOWN));
+	}
+
+	@Test
+	void analyze_unknown_property() {
+		FilterPushdownReport report = analyze(equalTo(new QName("http://deegree.org/oaf", "unknown")));
+
+		assertThat(report.hasInMemoryOperators(), is(true));
+	}
+
+	private FilterPushdownReport analyze(Operator operator) {
+		FeatureType featureType = mock(FeatureType.class);
+		SimplePropertyType simplePropertyType = mock(SimplePropertyType.class);
+		FeaturePropertyType featurePropertyType = mock(FeaturePropertyType.class);
+		when(featureType.getPropertyDeclaration(SIMPLE_PROP)).thenReturn(simplePropertyType);
+		when(featureType.getPropertyDeclaration(COMPLEX_PROP)).thenReturn(featurePropertyType);
+		FeatureTypeMetadata featureTypeMetadata = new FeatureTypeMetadata(FT_NAME).featureType(featureType)
+			.filterProperties(List.of(new FilterProperty(QUERYABLE_PROP, FilterPropertyType.STRING)));
+		Query query = new Query(FT_NAME, new OperatorFilter(operator), -1, -1, -1);
+		return new FilterPushdownAnalyzer().analyze(featureTypeMetadata, query);
+	}
+
+	private PropertyIsEqualTo equalTo(QName propertyName) {
+		return new PropertyIsEqualTo(new ValueReference(propertyName), new Literal<>("value"), true, ANY);
+	}
+
+}
@@ -0,0 +1,61 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.workspace;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.deegree.feature.stream.FeatureInputStream;
+import org.deegree.services.oaf.workspace.configuration.QueryScheduler;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+/**
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class PrefetchingFeatureIteratorTest {
+
+	@Test
+	void testClose() {
+		FeatureInputStream features = mock(FeatureInputStream.class);
+		when(features.iterator()).thenReturn(Collections.emptyIterator());
+		QueryScheduler.Permit permit = mock(QueryScheduler.Permit.class);
+		Runnable closeAction = mock(Runnable.class);
+		PrefetchingFeatureIterator featureIterator = new PrefetchingFeatureIterator(features, null, permit,
+				closeAction);
+
+		featureIterator.close();
+		featureIterator.close();
+
+		InOrder inOrder = inOrder(features, permit, closeAction);
+		inOrder.verify(features).close();
+		inOrder.verify(permit).close();
+		inOrder.verify(closeAction).run();
+		verify(closeAction, times(1)).run();
+	}
+
+}
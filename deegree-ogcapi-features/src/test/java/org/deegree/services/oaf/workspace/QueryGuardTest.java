@@ -0,0 +1,129 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.workspace;
+
+import org.deegree.feature.persistence.query.Query;
+import org.deegree.filter.Operator;
+import org.deegree.filter.OperatorFilter;
+import org.deegree.filter.comparison.PropertyIsEqualTo;
+import org.deegree.filter.comparison.PropertyIsLike;
+import org.deegree.filter.expression.Literal;
+import org.deegree.filter.expression.ValueReference;
+import org.deegree.filter.logical.And;
+import org.deegree.filter.spatial.Intersects;
+import org.deegree.geometry.Geometry;
+import org.deegree.geometry.primitive.Point;
+import org.deegree.services.oaf.exceptions.InvalidParameterValue;
+import org.deegree.services.oaf.workspace.configuration.QueryLimits;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.namespace.QName;
+
+import static org.deegree.filter.MatchAction.ANY;
+import static org.deegree.services.oaf.workspace.configuration.QueryLimits.UNLIMITED;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class QueryGuardTest {
+
+	private static final QName FT_NAME = new QName("test");
+
+	private static final ValueReference PROPERTY = new ValueReference(new QName("name"));
+
+	@Test
+	void checkFilter_max_filter_nodes_exceeded() {
+		QueryGuard queryGuard = new QueryGuard(new QueryLimits(2, UNLIMITED, false, UNLIMITED));
+		Query query = query(new And(equalTo("a"), equalTo("b")));
+
+		assertThrows(InvalidParameterValue.class, () -> queryGuard.checkFilter(query));
+	}
+
+	@Test
+	void checkFilter_max_filter_nodes_not_exceeded() {
+		QueryGuard queryGuard = new QueryGuard(new QueryLimits(3, UNLIMITED, false, UNLIMITED));
+		Query query = query(new And(equalTo("a"), equalTo("b")));
+
+		assertDoesNotThrow(() -> queryGuard.checkFilter(query));
+	}
+
+	@Test
+	void checkFilter_leading_wildcard() {
+		QueryGuard queryGuard = new QueryGuard(new QueryLimits(UNLIMITED, UNLIMITED, true, UNLIMITED));
+
+		assertThrows(InvalidParameterValue.class, () -> queryGuard.checkFilter(query(like("*street"))));
+		assertDoesNotThrow(() -> queryGuard.checkFilter(query(like("street*"))));
+	}
+
+	@Test
+	void checkFilter_max_geometry_vertices() {
+		QueryGuard queryGuard = new QueryGuard(new QueryLimits(UNLIMITED, 1, false, UNLIMITED));
+		Query onePoint = query(new Intersects(PROPERTY, mock(Point.class)));
+		Query twoPoints = query(
+				new And(new Intersects(PROPERTY, mock(Point.class)), new Intersects(PROPERTY, mock(Point.class))));
+
+		assertDoesNotThrow(() -> queryGuard.checkFilter(onePoint));
+		assertThrows(InvalidParameterValue.class, () -> queryGuard.checkFilter(twoPoints));
+	}
+
+	@Test
+	void checkFilter_uncountable_geometry() {
+		Query query = query(new Intersects(PROPERTY, mock(Geometry.class)));
+
+		QueryGuard limited = new QueryGuard(new QueryLimits(UNLIMITED, 1000, false, UNLIMITED));
+		assertThrows(InvalidParameterValue.class, () -> limited.checkFilter(query));
+		QueryGuard unlimited = new QueryGuard(new QueryLimits(UNLIMITED, UNLIMITED, false, UNLIMITED));
+		assertDoesNotThrow(() -> unlimited.checkFilter(query));
+	}
+
+	@Test
+	void checkBulk() {
+		QueryGuard queryGuard = new QueryGuard(new QueryLimits(UNLIMITED, UNLIMITED, false, 100));
+
+		assertDoesNotThrow(() -> queryGuard.checkBulk(100));
+		assertThrows(InvalidParameterValue.class, () -> queryGuard.checkBulk(101));
+	}
+
+	@Test
+	void check_without_limits() {
+		QueryGuard queryGuard = new QueryGuard(QueryLimits.NONE);
+
+		assertDoesNotThrow(() -> queryGuard.checkFilter(query(new And(like("*a"), equalTo("b")))));
+		assertDoesNotThrow(() -> queryGuard.checkBulk(Integer.MAX_VALUE));
+	}
+
+	private Query query(Operator operator) {
+		return new Query(FT_NAME, new OperatorFilter(operator), -1, -1, -1);
+	}
+
+	private PropertyIsEqualTo equalTo(String value) {
+		return new PropertyIsEqualTo(PROPERTY, new Literal<>(value), true, ANY);
+	}
+
+	private PropertyIsLike like(String pattern) {
+		return new PropertyIsLike(PROPERTY, new Literal<>(pattern), "*", "_", "/", false, ANY);
+	}
+
+}
@@ -0,0 +1,94 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.workspace.configuration;
+
+import static org.deegree.services.oaf.workspace.configuration.QueryLane.BULK;
+import static org.deegree.services.oaf.workspace.configuration.QueryLane.INTERACTIVE;
+import static org.deegree.services.oaf.workspace.configuration.QueryLane.METADATA;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Map;
+
+import org.deegree.services.oaf.exceptions.ServiceUnavailable;
+import org.deegree.services.oaf.workspace.configuration.QueryScheduler.LaneLimit;
+import org.deegree.services.oaf.workspace.configuration.QueryScheduler.Permit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class QuerySchedulerTest {
+
+	private static final String DATASET_ID = "dataset";
+
+	private static final String FEATURE_STORE_ID = "featureStore";
+
+	@Test
+	void testAcquire_notConfigured() throws Exception {
+		for (int i = 0; i < 10; i++)
+			QueryScheduler.NONE.acquire(DATASET_ID, FEATURE_STORE_ID, BULK);
+	}
+
+	@Test
+	void testAcquire_laneExhausted() throws Exception {
+		QueryScheduler queryScheduler = new QueryScheduler(Map.of(BULK, new LaneLimit(1, 0)));
+		queryScheduler.acquire(DATASET_ID, FEATURE_STORE_ID, BULK);
+
+		ServiceUnavailable exception = assertThrows(ServiceUnavailable.class,
+				() -> queryScheduler.acquire(DATASET_ID, FEATURE_STORE_ID, BULK));
+		assertThat(exception.getRetryAfter(), is(1L));
+	}
+
+	@Test
+	void testAcquire_lanesAreIndependent() throws Exception {
+		QueryScheduler queryScheduler = new QueryScheduler(
+				Map.of(BULK, new LaneLimit(1, 0), INTERACTIVE, new LaneLimit(1, 0)));
+		queryScheduler.acquire(DATASET_ID, FEATURE_STORE_ID, BULK);
+
+		assertDoesNotThrow(() -> queryScheduler.acquire(DATASET_ID, FEATURE_STORE_ID, INTERACTIVE));
+		assertDoesNotThrow(() -> queryScheduler.acquire(DATASET_ID, FEATURE_STORE_ID, METADATA));
+	}
+
+	@Test
+	void testAcquire_featureStoresAreIndependent() throws Exception {
+		QueryScheduler queryScheduler = new QueryScheduler(Map.of(BULK, new LaneLimit(1, 0)));
+		queryScheduler.acquire(DATASET_ID, FEATURE_STORE_ID, BULK);
+
+		assertThrows(ServiceUnavailable.class, () -> queryScheduler.acquire(DATASET_ID, FEATURE_STORE_ID, BULK));
+		assertDoesNotThrow(() -> queryScheduler.acquire(DATASET_ID, "otherFeatureStore", BULK));
+	}
+
+	@Test
+	void testAcquire_afterRelease() throws Exception {
+		QueryScheduler queryScheduler = new QueryScheduler(Map.of(INTERACTIVE, new LaneLimit(1, 0)));
+		Permit permit = queryScheduler.acquire(DATASET_ID, FEATURE_STORE_ID, INTERACTIVE);
+		permit.close();
+		permit.close();
+
+		queryScheduler.acquire(DATASET_ID, FEATURE_STORE_ID, INTERACTIVE);
+		assertThrows(ServiceUnavailable.class, () -> queryScheduler.acquire(DATASET_ID, FEATURE_STORE_ID, INTERACTIVE));
+	}
+
+}
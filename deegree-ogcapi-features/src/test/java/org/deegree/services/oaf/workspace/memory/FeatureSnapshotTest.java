@@ -0,0 +1,119 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.workspace.memory;
+
+import static org.deegree.gml.GMLVersion.GML_32;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.xml.namespace.QName;
+
+import org.deegree.commons.tom.primitive.PrimitiveValue;
+import org.deegree.feature.Feature;
+import org.deegree.feature.FeatureCollection;
+import org.deegree.geometry.primitive.Point;
+import org.deegree.gml.GMLInputFactory;
+import org.deegree.gml.GMLStreamReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class FeatureSnapshotTest {
+
+	private static final String APP_NS = "http://www.deegree.org/app";
+
+	@TempDir
+	Path directory;
+
+	private List<Feature> features;
+
+	@BeforeEach
+	void readFeatures() throws Exception {
+		GMLStreamReader gmlReader = GMLInputFactory.createGMLStreamReader(GML_32,
+				getClass().getResource("/org/deegree/services/oaf/io/strassenbaumkataster.gml"));
+		FeatureCollection featureCollection = gmlReader.readFeatureCollection();
+		features = new ArrayList<>(featureCollection);
+	}
+
+	@Test
+	void testCreate() throws Exception {
+		FeatureSnapshot snapshot = FeatureSnapshot.create(features.get(0).getType(), features, directory);
+
+		assertThat(snapshot.size(), is(5));
+		for (int position = 0; position < features.size(); position++) {
+			Feature expected = features.get(position);
+			Feature feature = snapshot.get(position);
+			assertThat(feature.getId(), is(expected.getId()));
+			assertThat(snapshot.getId(position), is(expected.getId()));
+			assertThat(value(feature, "strasse"), is(value(expected, "strasse")));
+			assertThat(value(feature, "gid"), is(value(expected, "gid")));
+			assertThat(value(feature, "pflanzjahr"), is(value(expected, "pflanzjahr")));
+			Point point = (Point) feature.getProperties(new QName(APP_NS, "geom")).get(0).getValue();
+			Point expectedPoint = (Point) expected.getProperties(new QName(APP_NS, "geom")).get(0).getValue();
+			assertThat(point.get0(), is(expectedPoint.get0()));
+			assertThat(point.get1(), is(expectedPoint.get1()));
+		}
+	}
+
+	@Test
+	void testCreate_filesAreDeleted() throws Exception {
+		FeatureSnapshot.create(features.get(0).getType(), features, directory);
+
+		try (Stream<Path> files = Files.list(directory)) {
+			assertThat(files.count(), is(0L));
+		}
+	}
+
+	@Test
+	void testIsSupported() {
+		assertThat(FeatureSnapshot.isSupported(features.get(0).getType()), is(true));
+	}
+
+	@Test
+	void testMemoryResidentCollection() throws Exception {
+		FeatureSnapshot snapshot = FeatureSnapshot.create(features.get(0).getType(), features, directory);
+		MemoryResidentCollection collection = new MemoryResidentCollection(snapshot, List.of());
+
+		assertThat(collection.size(), is(5));
+		assertThat(collection.getFeature("APP_STRASSENBAUMKATASTER_100055205").getId(),
+				is("APP_STRASSENBAUMKATASTER_100055205"));
+		assertThat(collection.getFeature("unknown"), is(nullValue()));
+	}
+
+	private String value(Feature feature, String propertyName) {
+		PrimitiveValue value = (PrimitiveValue) feature.getProperties(new QName(APP_NS, propertyName))
+			.get(0)
+			.getValue();
+		return value.getAsText();
+	}
+
+}
@@ -0,0 +1,144 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.workspace.memory;
+
+import static org.deegree.filter.MatchAction.ANY;
+import static org.deegree.gml.GMLVersion.GML_32;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.namespace.QName;
+
+import org.deegree.cql2.FilterProperty;
+import org.deegree.cql2.FilterPropertyType;
+import org.deegree.cs.persistence.CRSManager;
+import org.deegree.feature.Feature;
+import org.deegree.feature.FeatureCollection;
+import org.deegree.filter.IdFilter;
+import org.deegree.filter.OperatorFilter;
+import org.deegree.filter.comparison.PropertyIsEqualTo;
+import org.deegree.filter.comparison.PropertyIsGreaterThanOrEqualTo;
+import org.deegree.filter.comparison.PropertyIsLessThan;
+import org.deegree.filter.expression.Literal;
+import org.deegree.filter.expression.ValueReference;
+import org.deegree.filter.logical.And;
+import org.deegree.filter.spatial.BBOX;
+import org.deegree.geometry.Envelope;
+import org.deegree.geometry.GeometryFactory;
+import org.deegree.gml.GMLInputFactory;
+import org.deegree.gml.GMLStreamReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class MemoryResidentCollectionTest {
+
+	private static final String APP_NS = "http://www.deegree.org/app";
+
+	private static final QName GID = new QName(APP_NS, "gid");
+
+	private static final QName STRASSE = new QName(APP_NS, "strasse");
+
+	private MemoryResidentCollection collection;
+
+	@BeforeEach
+	void loadFeatures() throws Exception {
+		GMLStreamReader gmlReader = GMLInputFactory.createGMLStreamReader(GML_32,
+				getClass().getResource("/org/deegree/services/oaf/io/strassenbaumkataster.gml"));
+		FeatureCollection featureCollection = gmlReader.readFeatureCollection();
+		List<FilterProperty> filterProperties = List.of(new FilterProperty(GID, FilterPropertyType.INTEGER),
+				new FilterProperty(STRASSE, FilterPropertyType.STRING));
+		collection = new MemoryResidentCollection(new ArrayList<>(featureCollection), filterProperties);
+	}
+
+	@Test
+	void testQuery_noFilter() throws Exception {
+		assertThat(collection.size(), is(5));
+		assertThat(collection.query(null).size(), is(5));
+	}
+
+	@Test
+	void testQuery_bbox() throws Exception {
+		List<Feature> features = collection.query(new OperatorFilter(new BBOX(createEnvelope())));
+
+		assertThat(ids(features), containsInAnyOrder("APP_STRASSENBAUMKATASTER_100055201",
+				"APP_STRASSENBAUMKATASTER_100055202", "APP_STRASSENBAUMKATASTER_100055203"));
+	}
+
+	@Test
+	void testQuery_comparison() throws Exception {
+		PropertyIsGreaterThanOrEqualTo greaterThanOrEqualTo = new PropertyIsGreaterThanOrEqualTo(
+				new ValueReference(GID), new Literal("4"), true, ANY);
+		List<Feature> features = collection.query(new OperatorFilter(greaterThanOrEqualTo));
+
+		assertThat(ids(features),
+				containsInAnyOrder("APP_STRASSENBAUMKATASTER_100055205", "APP_STRASSENBAUMKATASTER_100055206"));
+	}
+
+	@Test
+	void testQuery_equalToIgnoringCase() throws Exception {
+		PropertyIsEqualTo equalTo = new PropertyIsEqualTo(new ValueReference(STRASSE), new Literal("pulverteich"),
+				false, ANY);
+		List<Feature> features = collection.query(new OperatorFilter(equalTo));
+
+		assertThat(features.size(), is(5));
+	}
+
+	@Test
+	void testQuery_bboxAndComparison() throws Exception {
+		PropertyIsLessThan lessThan = new PropertyIsLessThan(new ValueReference(GID), new Literal("2"), true, ANY);
+		List<Feature> features = collection.query(new OperatorFilter(new And(new BBOX(createEnvelope()), lessThan)));
+
+		assertThat(ids(features), containsInAnyOrder("APP_STRASSENBAUMKATASTER_100055201"));
+	}
+
+	@Test
+	void testQuery_ids() throws Exception {
+		List<Feature> features = collection.query(new IdFilter("APP_STRASSENBAUMKATASTER_100055203", "unknown"));
+
+		assertThat(ids(features), containsInAnyOrder("APP_STRASSENBAUMKATASTER_100055203"));
+	}
+
+	@Test
+	void testGetFeature() {
+		assertThat(collection.getFeature("APP_STRASSENBAUMKATASTER_100055205").getId(),
+				is("APP_STRASSENBAUMKATASTER_100055205"));
+		assertThat(collection.getFeature("unknown"), is(nullValue()));
+	}
+
+	private Envelope createEnvelope() {
+		return new GeometryFactory().createEnvelope(53.5535, 10.0142, 53.5537, 10.0145,
+				CRSManager.getCRSRef("urn:ogc:def:crs:EPSG::4258"));
+	}
+
+	private List<String> ids(List<Feature> features) {
+		return features.stream().map(Feature::getId).toList();
+	}
+
+}
@@ -0,0 +1,118 @@
+/*-
+ * #%L
+ * deegree-ogcapi-features - OGC API Features (OAF) implementation - Querying and modifying of geospatial data objects
+ * %%
+ * Copyright (C) 2019 - 2026 lat/lon GmbH, info@lat-lon.de, www.lat-lon.de
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+package org.deegree.services.oaf.workspace.memory;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
+ */
+class StrTreeTest {
+
+	@Test
+	void testQuery() {
+		StrTree strTree = createGrid(100);
+		BitSet result = new BitSet();
+		strTree.query(10.5, 20.5, 12.5, 20.7, result);
+
+		assertThat(result.cardinality(), is(3));
+		assertThat(result.get(20 * 100 + 10), is(true));
+		assertThat(result.get(20 * 100 + 11), is(true));
+		assertThat(result.get(20 * 100 + 12), is(true));
+	}
+
+	@Test
+	void testQuery_outside() {
+		StrTree strTree = createGrid(10);
+		BitSet result = new BitSet();
+		strTree.query(-5, -5, -1, -1, result);
+
+		assertThat(result.isEmpty(), is(true));
+	}
+
+	@Test
+	void testQuery_empty() {
+		StrTree strTree = new StrTree(new int[0], new double[0]);
+		BitSet result = new BitSet();
+		strTree.query(0, 0, 1, 1, result);
+
+		assertThat(strTree.size(), is(0));
+		assertThat(result.isEmpty(), is(true));
+	}
+
+	@Test
+	void testQuery_sameAsScan() {
+		Random random = new Random(42);
+		int numberOfItems = 5000;
+		int[] positions = new int[numberOfItems];
+		double[] envelopes = new double[numberOfItems * 4];
+		for (int i = 0; i < numberOfItems; i++) {
+			positions[i] = i;
+			double x = random.nextDouble() * 1000;
+			double y = random.nextDouble() * 1000;
+			envelopes[i * 4] = x;
+			envelopes[i * 4 + 1] = y;
+			envelopes[i * 4 + 2] = x + random.nextDouble() * 10;
+			envelopes[i * 4 + 3] = y + random.nextDouble() * 10;
+		}
+		StrTree strTree = new StrTree(positions, envelopes);
+		for (int query = 0; query < 50; query++) {
+			double minX = random.nextDouble() * 1000;
+			double minY = random.nextDouble() * 1000;
+			double maxX = minX + random.nextDouble() * 100;
+			double maxY = minY + random.nextDouble() * 100;
+			BitSet result = new BitSet();
+			strTree.query(minX, minY, maxX, maxY, result);
+
+			BitSet expected = new BitSet();
+			for (int i = 0; i < numberOfItems; i++) {
+				if (envelopes[i * 4] <= maxX && envelopes[i * 4 + 2] >= minX && envelopes[i * 4 + 1] <= maxY
+						&& envelopes[i * 4 + 3] >= minY)
+					expected.set(i);
+			}
+			assertThat(result, is(expected));
+		}
+	}
+
+	private StrTree createGrid(int size) {
+		int[] positions = new int[size * size];
+		double[] envelopes = new double[size * size * 4];
+		for (int y = 0; y < size; y++) {
+			for (int x = 0; x < size; x++) {
+				int position = y * size + x;
+				positions[position] = position;
+				envelopes[position * 4] = x;
+				envelopes[position * 4 + 1] = y;
+				envelopes[position * 4 + 2] = x + 0.9;
+				envelopes[position * 4 + 3] = y + 0.9;
+			}
+		}
+		return new StrTree(positions, envelopes);
+	}
+
+}